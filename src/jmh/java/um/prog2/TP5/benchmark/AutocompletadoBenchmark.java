@@ -0,0 +1,82 @@
+package um.prog2.TP5.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import um.prog2.TP5.service.ArbolRadix;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ArbolRadix#buscar(String, int)} con la cantidad de nombres de {@code nombres}, como lo usa
+ * {@code GET /api/autocompletar} con cada tecla. Mide en modo muestreo para reportar p99 y p99.9, y con
+ * cuatro hilos leyendo a la vez porque las búsquedas comparten el lock de lectura.
+ * <p>
+ * Los nombres combinan nombres y apellidos frecuentes con acentos y ñ; los prefijos son el comienzo de
+ * 1 a 4 letras de alguna palabra, escrito sin acentos y en mayúsculas o minúsculas, que es lo que más
+ * coincidencias devuelve.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class AutocompletadoBenchmark {
+
+    private static final List<String> NOMBRES = List.of("María", "José", "Juan", "Ana", "Lucía", "Martín", "Sofía",
+            "Ramón", "Inés", "Begoña", "Iñaki", "Óscar", "Ángela", "Raúl", "Valentina", "Joaquín", "Nuria", "Héctor");
+    private static final List<String> APELLIDOS = List.of("García", "Rodríguez", "González", "Fernández", "López",
+            "Martínez", "Sánchez", "Pérez", "Gómez", "Núñez", "Muñoz", "Ibáñez", "Peña", "Zúñiga", "Álvarez", "Díaz",
+            "Romero", "Castaño", "Ortiz", "Rubio");
+    private static final int CANTIDAD_PREFIJOS = 4096;
+
+    @Param({"500000"})
+    private int nombres;
+
+    private ArbolRadix arbol;
+    private String[] prefijos;
+
+    @Setup
+    public void armarArbol() {
+        Random random = new Random(42);
+        arbol = new ArbolRadix();
+        for (long id = 1; id <= nombres; id++) {
+            // Un sufijo numérico hace únicos a los nombres para que el árbol crezca como con datos reales
+            arbol.indexar(id, elegir(random, NOMBRES) + " " + elegir(random, APELLIDOS) + " "
+                    + elegir(random, APELLIDOS) + id);
+        }
+        prefijos = new String[CANTIDAD_PREFIJOS];
+        for (int i = 0; i < CANTIDAD_PREFIJOS; i++) {
+            String palabra = elegir(random, random.nextBoolean() ? NOMBRES : APELLIDOS);
+            String prefijo = palabra.substring(0, 1 + random.nextInt(Math.min(4, palabra.length())));
+            prefijos[i] = random.nextBoolean() ? prefijo.toUpperCase() : prefijo.toLowerCase();
+        }
+    }
+
+    @Benchmark
+    public List<ArbolRadix.Coincidencia> buscar(Siguiente siguiente) {
+        return arbol.buscar(prefijos[siguiente.indice++ & (CANTIDAD_PREFIJOS - 1)], 10);
+    }
+
+    @State(Scope.Thread)
+    public static class Siguiente {
+        private int indice;
+    }
+
+    private static String elegir(Random random, List<String> opciones) {
+        return opciones.get(random.nextInt(opciones.size()));
+    }
+}
@@ -0,0 +1,73 @@
+package um.prog2.TP5.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.testutil.TestDataFactory;
+import um.prog2.TP5.validation.ValidDateRangeValidator;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de {@link Proyecto#isActivo()} y validación de {@link ValidDateRangeValidator}, que corren
+ * una vez por proyecto en cada serialización y en cada alta o modificación.
+ * <p>
+ * Recorre un arreglo de proyectos con fechas variadas (sin fechas, activos, finalizados y con rango
+ * inválido) para que el JIT no pueda plegar el resultado a una constante.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProyectoBenchmark {
+
+    // Potencia de dos para recorrer el arreglo con una máscara
+    private static final int CANTIDAD = 1024;
+
+    private final ValidDateRangeValidator validador = new ValidDateRangeValidator();
+    private Proyecto[] proyectos;
+    private int siguiente;
+
+    @Setup
+    public void generarProyectos() {
+        Random random = new Random(42);
+        LocalDate hoy = LocalDate.now();
+        proyectos = new Proyecto[CANTIDAD];
+        for (int i = 0; i < CANTIDAD; i++) {
+            LocalDate inicio = hoy.minusDays(random.nextInt(365));
+            LocalDate fin = switch (random.nextInt(4)) {
+                case 0 -> null;
+                case 1 -> hoy.plusDays(1 + random.nextInt(365));
+                case 2 -> inicio.plusDays(random.nextInt((int) (hoy.toEpochDay() - inicio.toEpochDay()) + 1));
+                default -> inicio.minusDays(1 + random.nextInt(30));
+            };
+            proyectos[i] = TestDataFactory.crearProyecto("Proyecto " + i, inicio, fin);
+        }
+    }
+
+    @Benchmark
+    public boolean isActivo() {
+        return siguiente().isActivo();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validador.isValid(siguiente(), null);
+    }
+
+    private Proyecto siguiente() {
+        return proyectos[siguiente++ & (CANTIDAD - 1)];
+    }
+}
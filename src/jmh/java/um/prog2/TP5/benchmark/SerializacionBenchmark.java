@@ -0,0 +1,96 @@
+package um.prog2.TP5.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson de listas de entidades, como las escribe Spring MVC en la respuesta.
+ * Las entidades se generan en memoria, sin base ni Hibernate: se mide solo el costo del JSON.
+ * <p>
+ * {@code tamanio} es la cantidad de empleados y de proyectos; cada proyecto lleva 5 empleados,
+ * así que su JSON incluye también los empleados y sus departamentos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    private static final int MIEMBROS_POR_PROYECTO = 5;
+
+    @Param({"100", "10000"})
+    int tamanio;
+
+    private ObjectMapper objectMapper;
+    private List<Empleado> empleados;
+    private List<Proyecto> proyectos;
+
+    @Setup
+    public void generarDatos() {
+        // Mismo constructor que usa Spring Boot para el ObjectMapper de la aplicación
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Departamento> departamentos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Departamento departamento = TestDataFactory.crearDepartamento("Departamento " + i);
+            departamento.setId((long) i + 1);
+            departamento.setVersion(0L);
+            departamentos.add(departamento);
+        }
+
+        empleados = new ArrayList<>(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            Empleado empleado = TestDataFactory.crearEmpleado("Nombre", "Apellido", "empleado" + i + "@empresa.com",
+                    new BigDecimal(30_000 + i * 10), departamentos.get(i % departamentos.size()));
+            empleado.setId((long) i + 1);
+            empleado.setVersion(0L);
+            empleados.add(empleado);
+        }
+
+        proyectos = new ArrayList<>(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            Proyecto proyecto = i % 2 == 0
+                    ? TestDataFactory.crearProyectoActivo("Proyecto " + i)
+                    : TestDataFactory.crearProyectoFinalizado("Proyecto " + i);
+            proyecto.setId((long) i + 1);
+            proyecto.setVersion(0L);
+            for (int j = 0; j < MIEMBROS_POR_PROYECTO; j++) {
+                proyecto.getEmpleados().add(empleados.get((i * MIEMBROS_POR_PROYECTO + j) % tamanio));
+            }
+            proyectos.add(proyecto);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarEmpleados() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(empleados);
+    }
+
+    @Benchmark
+    public byte[] serializarProyectos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(proyectos);
+    }
+}
@@ -0,0 +1,133 @@
+package um.prog2.TP5.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import um.prog2.TP5.Tp5Application;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.service.DepartamentoService;
+import um.prog2.TP5.service.EmpleadoService;
+import um.prog2.TP5.service.ProyectoService;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas y escrituras de los servicios contra H2 en memoria, con la aplicación completa
+ * (perfil {@code test}, sin servidor web) y sus cachés tal como están configuradas.
+ * <p>
+ * Cada combinación de parámetros corre en una JVM nueva con un conjunto de datos generado:
+ * {@code empleados} empleados repartidos en 10 departamentos, con salarios equiespaciados.
+ * Para otro tamaño: {@code -Djmh.args="ServiciosBenchmark -p empleados=50000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ServiciosBenchmark {
+
+    private static final int MIEMBROS_POR_PROYECTO = 50;
+
+    @Param({"1000", "10000"})
+    int empleados;
+
+    private ConfigurableApplicationContext contexto;
+    private EmpleadoService empleadoService;
+    private ProyectoService proyectoService;
+
+    private BigDecimal salarioMinimo;
+    private BigDecimal salarioMaximo;
+    private Long proyectoId;
+    private List<Long> miembros;
+    private List<Long> miembrosAlternativos;
+    private boolean alternar;
+
+    @Setup
+    public void cargarDatos() {
+        contexto = new SpringApplicationBuilder(Tp5Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--app.reactivo.puerto=0",
+                        "--logging.level.root=WARN");
+        DepartamentoService departamentoService = contexto.getBean(DepartamentoService.class);
+        empleadoService = contexto.getBean(EmpleadoService.class);
+        proyectoService = contexto.getBean(ProyectoService.class);
+
+        List<Departamento> departamentos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            departamentos.add(departamentoService.guardar(TestDataFactory.crearDepartamento("Departamento " + i)));
+        }
+        List<Long> ids = new ArrayList<>(empleados);
+        for (int desde = 0; desde < empleados; desde += 1000) {
+            List<Empleado> lote = new ArrayList<>();
+            for (int i = desde; i < Math.min(desde + 1000, empleados); i++) {
+                lote.add(TestDataFactory.crearEmpleado("Nombre", "Apellido", "empleado" + i + "@empresa.com",
+                        new BigDecimal(30_000 + i * 10), departamentos.get(i % departamentos.size())));
+            }
+            empleadoService.guardarLote(lote).forEach(empleado -> ids.add(empleado.getId()));
+        }
+
+        // Rango que abarca el 10% central de los salarios
+        salarioMinimo = new BigDecimal(30_000 + empleados * 10 * 45 / 100);
+        salarioMaximo = new BigDecimal(30_000 + empleados * 10 * 55 / 100);
+
+        // Dos conjuntos de miembros que comparten la mitad: cada asignación quita 25 y agrega 25
+        miembros = ids.subList(0, MIEMBROS_POR_PROYECTO);
+        miembrosAlternativos = ids.subList(MIEMBROS_POR_PROYECTO / 2, MIEMBROS_POR_PROYECTO * 3 / 2);
+        proyectoId = proyectoService.guardar(TestDataFactory.crearProyectoActivo("Proyecto")).getId();
+        asignarEmpleados();
+    }
+
+    @TearDown
+    public void cerrar() {
+        // La base en memoria sobrevive al contexto; si JMH corre sin fork, el próximo trial parte de cero
+        contexto.getBean(JdbcTemplate.class).execute("DROP ALL OBJECTS");
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Empleado> obtenerTodos() {
+        return empleadoService.obtenerTodos();
+    }
+
+    /**
+     * Referencia para {@link #obtenerTodos()}: la misma lectura como proyección DTO.
+     */
+    @Benchmark
+    public List<EmpleadoDTO> listarTodos() {
+        return empleadoService.listarTodos();
+    }
+
+    @Benchmark
+    public List<Empleado> buscarPorRangoSalario() {
+        return empleadoService.buscarPorRangoSalario(salarioMinimo, salarioMaximo);
+    }
+
+    @Benchmark
+    public Proyecto asignarEmpleados() {
+        List<Long> solicitados = alternar ? miembrosAlternativos : miembros;
+        alternar = !alternar;
+        return proyectoService.asignarEmpleados(proyectoId, solicitados);
+    }
+}
@@ -0,0 +1,134 @@
+package um.prog2.TP5.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.controller.DepartamentoReactivoHandler;
+import um.prog2.TP5.controller.EmpleadoReactivoHandler;
+import um.prog2.TP5.controller.ProyectoReactivoHandler;
+import um.prog2.TP5.exception.ManejadorErroresReactivo;
+
+/**
+ * API de solo lectura no bloqueante bajo {@code /api/reactivo}, en el puerto {@code app.reactivo.puerto}.
+ * <p>
+ * La aplicación sigue siendo servlet: con Spring MVC presente Spring Boot no levanta WebFlux, así que
+ * las rutas funcionales se adaptan a un {@link ServidorReactivo} propio. Las consultas van por R2DBC
+ * ({@code spring.r2dbc.*}, con su propio pool) y no pasan por Hibernate ni por sus cachés. Netty atiende
+ * todas las conexiones con un event loop por núcleo y ningún hilo queda bloqueado esperando a la base;
+ * los listados se escriben a medida que el cliente los consume, y la consulta pide filas al mismo ritmo.
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ApiReactivaConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    /**
+     * El pool no se publica como bean: ante un ConnectionFactory en el contexto Spring Boot dejaría
+     * de configurar el DataSource JDBC. Por eso también se excluye R2dbcAutoConfiguration.
+     */
+    @Bean
+    public DatabaseClient databaseClient(R2dbcProperties propiedades) {
+        ConnectionFactoryBuilder conexion = ConnectionFactoryBuilder.withUrl(propiedades.getUrl());
+        if (propiedades.getUsername() != null) {
+            conexion.username(propiedades.getUsername());
+        }
+        if (propiedades.getPassword() != null) {
+            conexion.password(propiedades.getPassword());
+        }
+        R2dbcProperties.Pool opciones = propiedades.getPool();
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(conexion.build())
+                .initialSize(opciones.getInitialSize())
+                .maxSize(opciones.getMaxSize())
+                .maxIdleTime(opciones.getMaxIdleTime())
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> rutasReactivas(EmpleadoReactivoHandler empleados,
+                                                         DepartamentoReactivoHandler departamentos,
+                                                         ProyectoReactivoHandler proyectos) {
+        return RouterFunctions.route()
+                .path("/api/reactivo", api -> api
+                        .GET("/empleados", empleados::obtenerTodos)
+                        .GET("/empleados/departamento/{nombre}", empleados::obtenerPorDepartamento)
+                        .GET("/empleados/email/{email}", empleados::obtenerPorEmail)
+                        .GET("/empleados/salario", empleados::obtenerPorRangoSalario)
+                        .GET("/empleados/{id}", empleados::obtenerPorId)
+                        .GET("/departamentos", departamentos::obtenerTodos)
+                        .GET("/departamentos/nombre/{nombre}", departamentos::obtenerPorNombre)
+                        .GET("/departamentos/{id}", departamentos::obtenerPorId)
+                        .GET("/proyectos", proyectos::obtenerTodos)
+                        .GET("/proyectos/activos", proyectos::obtenerProyectosActivos)
+                        .GET("/proyectos/{id}/empleados", proyectos::obtenerEmpleadosDelProyecto)
+                        .GET("/proyectos/{id}", proyectos::obtenerPorId))
+                .filter(new ManejadorErroresReactivo())
+                .filter(ApiReactivaConfig::etiquetarRuta)
+                .build();
+    }
+
+    /**
+     * Sin el DispatcherHandler de WebFlux nadie pasa a la observación el patrón de la ruta elegida y la
+     * métrica quedaría con {@code uri="UNKNOWN"}; acá se copia antes de ejecutar el handler.
+     */
+    private static Mono<ServerResponse> etiquetarRuta(ServerRequest request, HandlerFunction<ServerResponse> siguiente) {
+        ServerRequestObservationContext.findCurrent(request.exchange().getAttributes())
+                .ifPresent(contexto -> request.attribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE)
+                        .ifPresent(patron -> contexto.setPathPattern(patron.toString())));
+        return siguiente.handle(request);
+    }
+
+    /**
+     * Serializa con el ObjectMapper de la aplicación para que el JSON tenga la misma forma que en la API servlet.
+     * Arma el HttpHandler como {@link RouterFunctions#toHttpHandler} más el registro de observaciones, para
+     * que cada petición quede en {@code http.server.requests} junto con las de Tomcat.
+     */
+    @Bean
+    public ServidorReactivo servidorReactivo(RouterFunction<ServerResponse> rutasReactivas, ObjectMapper objectMapper,
+                                             ObjectProvider<ObservationRegistry> observaciones,
+                                             @Value("${app.reactivo.puerto:8081}") int puerto) {
+        HandlerStrategies estrategias = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = WebHttpHandlerBuilder.webHandler(RouterFunctions.toWebHandler(rutasReactivas, estrategias))
+                .filters(filtros -> filtros.addAll(estrategias.webFilters()))
+                .exceptionHandlers(manejadores -> manejadores.addAll(estrategias.exceptionHandlers()))
+                .localeContextResolver(estrategias.localeContextResolver())
+                .observationRegistry(observaciones.getIfAvailable(() -> ObservationRegistry.NOOP))
+                .build();
+        return new ServidorReactivo(httpHandler, puerto);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package um.prog2.TP5.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache/Caffeine.
+ * Cada región declarada en {@link CacheSegundoNivelProperties} se crea con su propio tamaño y TTL,
+ * y el {@link CacheManager} resultante se entrega a Hibernate en lugar de dejar que lo busque él.
+ */
+@Configuration
+@EnableConfigurationProperties(CacheSegundoNivelProperties.class)
+public class CacheSegundoNivelConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(CacheSegundoNivelProperties properties) {
+        // Un URI propio por contexto: el proveedor comparte managers por URI y dos SessionFactory
+        // (p. ej. distintos contextos de test) no deben ver las mismas regiones
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("tp5-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.getRegiones().forEach((nombre, region) ->
+                cacheManager.createCache(nombre, configuracion(region)));
+        // Los timestamps de actualización no pueden expirar ni desalojarse: si faltara uno,
+        // una consulta cacheada sobre esa tabla se tomaría por vigente
+        if (cacheManager.getCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME) == null) {
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                    new CaffeineConfiguration<>());
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(CacheSegundoNivelProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        if (region.getTamanioMaximo() != null) {
+            configuracion.setMaximumSize(OptionalLong.of(region.getTamanioMaximo()));
+        }
+        if (region.getTtl() != null) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        return configuracion;
+    }
+}
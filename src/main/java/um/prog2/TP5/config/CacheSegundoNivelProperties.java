@@ -0,0 +1,48 @@
+package um.prog2.TP5.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Regiones de la caché de segundo nivel de Hibernate, configuradas bajo {@code app.cache.l2}.
+ * La clave es el nombre de la región tal como aparece en {@code @Cache(region = ...)}.
+ * Un {@code tamanio-maximo} o {@code ttl} ausente deja la región sin ese límite.
+ */
+@ConfigurationProperties(prefix = "app.cache.l2")
+public class CacheSegundoNivelProperties {
+
+    private Map<String, Region> regiones = new LinkedHashMap<>();
+
+    public Map<String, Region> getRegiones() {
+        return regiones;
+    }
+
+    public void setRegiones(Map<String, Region> regiones) {
+        this.regiones = regiones;
+    }
+
+    public static class Region {
+
+        private Long tamanioMaximo;
+        private Duration ttl;
+
+        public Long getTamanioMaximo() {
+            return tamanioMaximo;
+        }
+
+        public void setTamanioMaximo(Long tamanioMaximo) {
+            this.tamanioMaximo = tamanioMaximo;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package um.prog2.TP5.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Activa el registro de consultas lentas con {@code app.sql.consultas-lentas.habilitado=true}: lo registra
+ * como listener del DataSource (ver {@link ProxyDataSourceConfig}) y lo publica en
+ * {@code /actuator/consultaslentas}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql.consultas-lentas", name = "habilitado", havingValue = "true")
+public class ConsultasLentasConfig {
+
+    @Bean
+    public RegistroConsultasLentas registroConsultasLentas(
+            @Value("${app.sql.consultas-lentas.umbral:200ms}") Duration umbral,
+            @Value("${app.sql.consultas-lentas.capacidad:100}") int capacidad,
+            @Value("${app.sql.consultas-lentas.columnas-ocultas:email,salario}") List<String> columnasOcultas) {
+        return new RegistroConsultasLentas(umbral, capacidad, columnasOcultas);
+    }
+
+    @Bean
+    public ConsultasLentasEndpoint consultasLentasEndpoint(RegistroConsultasLentas registro, DataSource dataSource) {
+        return new ConsultasLentasEndpoint(registro, dataSource);
+    }
+}
@@ -0,0 +1,112 @@
+package um.prog2.TP5.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * {@code /actuator/consultaslentas}: las sentencias que guardó {@link RegistroConsultasLentas}.
+ * <ul>
+ *   <li>{@code GET /actuator/consultaslentas} lista las consultas, de la más reciente a la más antigua.</li>
+ *   <li>{@code GET /actuator/consultaslentas/{id}} devuelve una con su plan de ejecución, que se pide a la
+ *       base en ese momento con {@code EXPLAIN} y los mismos parámetros. Solo para H2, PostgreSQL y MySQL.</li>
+ *   <li>{@code DELETE /actuator/consultaslentas} vacía el registro.</li>
+ * </ul>
+ * {@code EXPLAIN} sin {@code ANALYZE} no ejecuta la sentencia en ninguna de las tres bases, así que también
+ * se puede pedir el plan de un UPDATE o un DELETE.
+ */
+@Endpoint(id = "consultaslentas")
+public class ConsultasLentasEndpoint {
+
+    private static final Set<String> BASES_CON_EXPLAIN = Set.of("H2", "PostgreSQL", "MySQL");
+    private static final Pattern EXPLICABLE = Pattern.compile("(?i)^\\s*(select|with|insert|update|delete)\\b");
+
+    private final RegistroConsultasLentas registro;
+    private final DataSource dataSource;
+
+    public ConsultasLentasEndpoint(RegistroConsultasLentas registro, DataSource dataSource) {
+        this.registro = registro;
+        this.dataSource = dataSource;
+    }
+
+    @ReadOperation
+    public List<RegistroConsultasLentas.ConsultaLenta> consultas() {
+        return registro.consultas();
+    }
+
+    /**
+     * Null si la consulta ya salió del registro; Actuator lo responde como 404.
+     */
+    @ReadOperation
+    public ConsultaLentaConPlan consulta(@Selector long id) {
+        return registro.buscar(id)
+                .map(encontrado -> new ConsultaLentaConPlan(encontrado.consulta(), explicar(encontrado)))
+                .orElse(null);
+    }
+
+    @DeleteOperation
+    public void vaciar() {
+        registro.vaciar();
+    }
+
+    private List<String> explicar(RegistroConsultasLentas.Registro encontrado) {
+        String sql = encontrado.consulta().sql();
+        if (!EXPLICABLE.matcher(sql).find()) {
+            return List.of("Sin plan: solo se explican SELECT, INSERT, UPDATE y DELETE");
+        }
+        try (Connection conexion = dataSource.getConnection()) {
+            String base = conexion.getMetaData().getDatabaseProductName();
+            if (!BASES_CON_EXPLAIN.contains(base)) {
+                return List.of("Sin plan: EXPLAIN no está soportado para " + base);
+            }
+            try (PreparedStatement sentencia = conexion.prepareStatement("EXPLAIN " + sql)) {
+                List<Object> valores = encontrado.valores();
+                for (int i = 0; i < valores.size(); i++) {
+                    sentencia.setObject(i + 1, valores.get(i));
+                }
+                try (ResultSet resultado = sentencia.executeQuery()) {
+                    return lineas(resultado);
+                }
+            }
+        } catch (SQLException ex) {
+            return List.of("No se pudo obtener el plan: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * H2 y PostgreSQL devuelven el plan en una sola columna; MySQL, una fila por tabla con varias columnas,
+     * que quedan como {@code columna=valor}.
+     */
+    private static List<String> lineas(ResultSet resultado) throws SQLException {
+        ResultSetMetaData columnas = resultado.getMetaData();
+        List<String> lineas = new ArrayList<>();
+        while (resultado.next()) {
+            if (columnas.getColumnCount() == 1) {
+                lineas.addAll(List.of(resultado.getString(1).split("\\R")));
+                continue;
+            }
+            StringJoiner linea = new StringJoiner(" ");
+            for (int i = 1; i <= columnas.getColumnCount(); i++) {
+                linea.add(columnas.getColumnLabel(i) + "=" + resultado.getString(i));
+            }
+            lineas.add(linea.toString());
+        }
+        return lineas;
+    }
+
+    public record ConsultaLentaConPlan(RegistroConsultasLentas.ConsultaLenta consulta, List<String> plan) {
+    }
+}
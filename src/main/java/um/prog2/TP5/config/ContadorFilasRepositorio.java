@@ -0,0 +1,67 @@
+package um.prog2.TP5.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Registra en {@code repositorio.filas} cuántas filas devuelve cada método de un repositorio, con las
+ * mismas etiquetas {@code repository} y {@code method} que el timer {@code spring.data.repository.invocations}.
+ * <p>
+ * Solo cuenta resultados que son conjuntos de filas: colecciones, páginas, {@link Optional} y
+ * {@link Stream}, este último al cerrarse y con las filas que se llegaron a consumir. Escalares como
+ * los {@code count} o las entidades que devuelve {@code save} no se registran.
+ */
+class ContadorFilasRepositorio implements MethodInterceptor {
+
+    static final String METRICA = "repositorio.filas";
+
+    private final Supplier<MeterRegistry> registro;
+    private final String repositorio;
+    private final Map<Method, DistributionSummary> distribuciones = new ConcurrentHashMap<>();
+
+    ContadorFilasRepositorio(Supplier<MeterRegistry> registro, Class<?> repositorio) {
+        this.registro = registro;
+        this.repositorio = repositorio.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Object resultado = invocacion.proceed();
+        return switch (resultado) {
+            case Collection<?> filas -> registrar(invocacion, filas.size(), resultado);
+            case Slice<?> pagina -> registrar(invocacion, pagina.getNumberOfElements(), resultado);
+            case Optional<?> fila -> registrar(invocacion, fila.isPresent() ? 1 : 0, resultado);
+            case Stream<?> filas -> {
+                LongAdder leidas = new LongAdder();
+                yield filas.peek(fila -> leidas.increment())
+                        .onClose(() -> distribucion(invocacion).record(leidas.sum()));
+            }
+            case null, default -> resultado;
+        };
+    }
+
+    private Object registrar(MethodInvocation invocacion, long filas, Object resultado) {
+        distribucion(invocacion).record(filas);
+        return resultado;
+    }
+
+    private DistributionSummary distribucion(MethodInvocation invocacion) {
+        return distribuciones.computeIfAbsent(invocacion.getMethod(), metodo -> DistributionSummary.builder(METRICA)
+                .description("Filas devueltas por cada invocación de un método de repositorio")
+                .tag("repository", repositorio)
+                .tag("method", metodo.getName())
+                .register(registro.get()));
+    }
+}
@@ -0,0 +1,68 @@
+package um.prog2.TP5.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entrega conexiones de la réplica a las transacciones de solo lectura y de la primaria a todo lo demás,
+ * incluidas las lecturas que corren dentro de una transacción de escritura (así ven sus propios cambios).
+ * <p>
+ * La decisión se toma al pedir la conexión, por lo que este DataSource tiene que usarse detrás de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: el gestor de transacciones
+ * pide la conexión antes de publicar que la transacción es de solo lectura, y el proxy la posterga
+ * hasta la primera sentencia. Cada transacción usa una sola conexión, así que los contadores de
+ * {@link #conexionesServidas()} equivalen a transacciones servidas por cada pool. Los mismos contadores
+ * se publican en Micrometer como {@code datasource.enrutamiento.conexiones}, con el tag {@code destino}.
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource implements MeterBinder {
+
+    public enum Destino {
+        PRIMARIA, REPLICA
+    }
+
+    private final Map<Destino, LongAdder> conexiones = new EnumMap<>(Destino.class);
+
+    public DataSourceEnrutado(DataSource primaria, DataSource replica) {
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        for (Destino destino : Destino.values()) {
+            conexiones.put(destino, new LongAdder());
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Destino destino = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Destino.REPLICA
+                : Destino.PRIMARIA;
+        conexiones.get(destino).increment();
+        return destino;
+    }
+
+    /**
+     * Conexiones entregadas por cada pool desde el arranque.
+     */
+    public Map<Destino, Long> conexionesServidas() {
+        Map<Destino, Long> resultado = new EnumMap<>(Destino.class);
+        conexiones.forEach((destino, contador) -> resultado.put(destino, contador.sum()));
+        return resultado;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        conexiones.forEach((destino, contador) -> FunctionCounter
+                .builder("datasource.enrutamiento.conexiones", contador, LongAdder::sum)
+                .description("Conexiones entregadas por cada pool del enrutamiento entre primaria y réplica")
+                .tag("destino", destino.name().toLowerCase(Locale.ROOT))
+                .register(registro));
+    }
+}
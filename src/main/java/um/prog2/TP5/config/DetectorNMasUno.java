@@ -0,0 +1,255 @@
+package um.prog2.TP5.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Cuenta las sentencias SQL que ejecuta cada petición HTTP y cada transacción, agrupadas por forma
+ * (el SQL sin literales), y avisa cuando una misma forma se repite más de {@code umbral} veces: el
+ * síntoma de un N+1, como cargar una relación perezosa dentro de un recorrido.
+ * <p>
+ * Se engancha como listener de datasource-proxy. Cada sentencia se suma a los ámbitos abiertos en el
+ * hilo que la ejecuta: el de la petición lo abre {@link DetectorNMasUnoConfig} con un filtro, el de la
+ * transacción se abre con la primera sentencia y se cierra al terminar la transacción, y los tests
+ * pueden abrir uno propio con {@link #abrir(String)} para verificar cuántas sentencias ejecuta algo.
+ * Sin ámbitos abiertos el costo por sentencia es la lectura de un {@link ThreadLocal}.
+ * <p>
+ * Al cerrarse un ámbito de petición o de transacción se publican {@code sql.sentencias} (sentencias
+ * por ámbito) y, si hubo alguna forma por encima del umbral, {@code sql.n-mas-uno}, ambas con las
+ * etiquetas {@code ambito} y {@code origen} (patrón del endpoint o nombre del método transaccional).
+ * <p>
+ * Con {@code contarFilas} también se cuentan las filas leídas de cada {@link ResultSet}; requiere que
+ * el proxy envuelva los ResultSet y pase por cada llamada JDBC, así que solo se activa en los tests.
+ */
+public class DetectorNMasUno implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectorNMasUno.class);
+
+    private static final Pattern CADENAS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMEROS = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTAS_IN = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    public enum Tipo { PETICION, TRANSACCION, MANUAL }
+
+    private final int umbral;
+    private final boolean contarFilas;
+    private final Supplier<MeterRegistry> registro;
+    private final ThreadLocal<List<Ambito>> abiertos = new ThreadLocal<>();
+
+    public DetectorNMasUno(int umbral, boolean contarFilas, Supplier<MeterRegistry> registro) {
+        this.umbral = umbral;
+        this.contarFilas = contarFilas;
+        this.registro = registro;
+    }
+
+    public boolean isContarFilas() {
+        return contarFilas;
+    }
+
+    /**
+     * Abre un ámbito que cuenta las sentencias (y filas) que se ejecuten en este hilo hasta cerrarlo.
+     * No publica métricas; pensado para tests.
+     */
+    public Ambito abrir(String origen) {
+        return abrir(Tipo.MANUAL, origen);
+    }
+
+    Ambito abrir(Tipo tipo, String origen) {
+        Ambito ambito = new Ambito(tipo, origen);
+        List<Ambito> ambitos = abiertos.get();
+        if (ambitos == null) {
+            ambitos = new ArrayList<>(2);
+            abiertos.set(ambitos);
+        }
+        ambitos.add(ambito);
+        return ambito;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo ejecucion, List<QueryInfo> consultas) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo ejecucion, List<QueryInfo> consultas) {
+        abrirAmbitoDeTransaccion();
+        List<Ambito> ambitos = abiertos.get();
+        if (ambitos == null) {
+            return;
+        }
+        // Un batch es una sola ida y vuelta a la base, aunque lleve varias filas
+        for (QueryInfo consulta : consultas) {
+            for (Ambito ambito : ambitos) {
+                ambito.registrar(consulta.getQuery());
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext contexto) {
+    }
+
+    /**
+     * Cada {@code next()} que devuelve {@code true} es una fila leída.
+     */
+    @Override
+    public void afterMethod(MethodExecutionContext contexto) {
+        if (!(contexto.getTarget() instanceof ResultSet)
+                || !Boolean.TRUE.equals(contexto.getResult())
+                || !"next".equals(contexto.getMethod().getName())) {
+            return;
+        }
+        List<Ambito> ambitos = abiertos.get();
+        if (ambitos != null) {
+            for (Ambito ambito : ambitos) {
+                ambito.filas++;
+            }
+        }
+    }
+
+    private void abrirAmbitoDeTransaccion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        String nombre = TransactionSynchronizationManager.getCurrentTransactionName();
+        Ambito ambito = abrir(Tipo.TRANSACCION, nombre != null ? nombre : "desconocido");
+        TransactionSynchronizationManager.bindResource(this, ambito);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int estado) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DetectorNMasUno.this);
+                ambito.close();
+            }
+        });
+    }
+
+    /**
+     * El SQL sin literales ni espacios repetidos; las listas {@code IN (?, ?, ...)} de cualquier largo
+     * quedan como una sola.
+     */
+    static String forma(String sql) {
+        String forma = CADENAS.matcher(sql).replaceAll("?");
+        forma = NUMEROS.matcher(forma).replaceAll("?");
+        forma = LISTAS_IN.matcher(forma).replaceAll("in (?)");
+        return ESPACIOS.matcher(forma).replaceAll(" ").trim();
+    }
+
+    /**
+     * Sentencias ejecutadas mientras estuvo abierto. Se cierra en el mismo hilo en que se abrió.
+     */
+    public final class Ambito implements AutoCloseable {
+
+        private final Tipo tipo;
+        private String origen;
+        private final Map<String, Integer> porSentencia = new HashMap<>();
+        private int sentencias;
+        private int filas;
+        private boolean cerrado;
+
+        private Ambito(Tipo tipo, String origen) {
+            this.tipo = tipo;
+            this.origen = origen;
+        }
+
+        private void registrar(String sql) {
+            sentencias++;
+            porSentencia.merge(sql, 1, Integer::sum);
+        }
+
+        public int getSentencias() {
+            return sentencias;
+        }
+
+        /**
+         * Filas leídas de los ResultSet; siempre cero si el detector no cuenta filas.
+         */
+        public int getFilas() {
+            return filas;
+        }
+
+        /**
+         * Ejecuciones de cada forma de sentencia, de la más repetida a la menos. La agrupación por
+         * forma se hace acá y no al registrar, una vez por cada SQL distinto.
+         */
+        public Map<String, Integer> getRepeticionesPorForma() {
+            Map<String, Integer> porForma = new HashMap<>();
+            porSentencia.forEach((sql, veces) -> porForma.merge(forma(sql), veces, Integer::sum));
+            Map<String, Integer> ordenadas = new LinkedHashMap<>();
+            porForma.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                    .forEach(entrada -> ordenadas.put(entrada.getKey(), entrada.getValue()));
+            return ordenadas;
+        }
+
+        public int getMaximoRepeticiones() {
+            return getRepeticionesPorForma().values().stream().findFirst().orElse(0);
+        }
+
+        void setOrigen(String origen) {
+            this.origen = origen;
+        }
+
+        @Override
+        public void close() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            List<Ambito> ambitos = abiertos.get();
+            ambitos.remove(this);
+            if (ambitos.isEmpty()) {
+                abiertos.remove();
+            }
+            if (sentencias > 0) {
+                evaluar();
+            }
+        }
+
+        private void evaluar() {
+            String ambito = tipo.name().toLowerCase();
+            List<Map.Entry<String, Integer>> repetidas = getRepeticionesPorForma().entrySet().stream()
+                    .filter(entrada -> entrada.getValue() > umbral)
+                    .toList();
+            repetidas.forEach(entrada -> log.warn("Posible N+1 en {} {}: {} ejecuciones de [{}] ({} sentencias en total)",
+                    ambito, origen, entrada.getValue(), entrada.getKey(), sentencias));
+            if (tipo == Tipo.MANUAL) {
+                return;
+            }
+            if (!repetidas.isEmpty()) {
+                Counter.builder("sql.n-mas-uno")
+                        .description("Peticiones o transacciones con una forma de sentencia repetida más veces que el umbral")
+                        .tag("ambito", ambito)
+                        .tag("origen", origen)
+                        .register(registro.get())
+                        .increment();
+            }
+            DistributionSummary.builder("sql.sentencias")
+                    .description("Sentencias SQL ejecutadas por petición o por transacción")
+                    .tag("ambito", ambito)
+                    .tag("origen", origen)
+                    .register(registro.get())
+                    .record(sentencias);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package um.prog2.TP5.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Activa {@link DetectorNMasUno} con {@code app.sql.n-mas-uno.habilitado=true}: lo registra como listener
+ * del DataSource (ver {@link ProxyDataSourceConfig}) y abre un ámbito por cada petición HTTP.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql.n-mas-uno", name = "habilitado", havingValue = "true")
+public class DetectorNMasUnoConfig {
+
+    @Bean
+    public DetectorNMasUno detectorNMasUno(@Value("${app.sql.n-mas-uno.umbral:10}") int umbral,
+                                           @Value("${app.sql.n-mas-uno.contar-filas:false}") boolean contarFilas,
+                                           ObjectProvider<MeterRegistry> registro) {
+        return new DetectorNMasUno(umbral, contarFilas, SingletonSupplier.of(registro::getObject));
+    }
+
+    @Bean
+    public OncePerRequestFilter filtroSentenciasPorPeticion(DetectorNMasUno detector) {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain cadena)
+                    throws ServletException, IOException {
+                DetectorNMasUno.Ambito ambito = detector.abrir(DetectorNMasUno.Tipo.PETICION, request.getMethod());
+                try {
+                    cadena.doFilter(request, response);
+                } finally {
+                    // El patrón del endpoint se conoce recién después de que el DispatcherServlet eligió el handler
+                    Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    ambito.setOrigen(request.getMethod() + " " + (patron != null ? patron : "desconocido"));
+                    ambito.close();
+                }
+            }
+        };
+    }
+}
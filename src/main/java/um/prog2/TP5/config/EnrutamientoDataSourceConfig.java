@@ -0,0 +1,54 @@
+package um.prog2.TP5.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Separa lecturas y escrituras entre la base primaria y una réplica cuando se configura
+ * {@code app.datasource.replica.jdbc-url}. Sin esa propiedad se usa el DataSource único de Spring Boot.
+ * <p>
+ * La primaria sale de {@code spring.datasource.*} como siempre; la réplica acepta las mismas
+ * propiedades de Hikari bajo {@code app.datasource.replica.*}. Flyway y todo acceso fuera de una
+ * transacción de solo lectura van a la primaria.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+public class EnrutamientoDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource dataSourceReplica() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public DataSourceEnrutado dataSourceEnrutado(@Qualifier("dataSourcePrimaria") DataSource primaria,
+                                                 @Qualifier("dataSourceReplica") DataSource replica) {
+        return new DataSourceEnrutado(primaria, replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceEnrutado dataSourceEnrutado) {
+        return new LazyConnectionDataSourceProxy(dataSourceEnrutado);
+    }
+}
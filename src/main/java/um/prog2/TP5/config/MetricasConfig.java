@@ -0,0 +1,42 @@
+package um.prog2.TP5.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Métricas propias que se suman a las de Spring Boot Actuator.
+ * <p>
+ * Actuator ya publica {@code http.server.requests} por endpoint, {@code spring.data.repository.invocations}
+ * por método de repositorio, {@code hibernate.*} a partir de las estadísticas de Hibernate y
+ * {@code hikaricp.*} por cada pool; {@code application.yml} les activa los histogramas. Acá se agrega
+ * la distribución de filas devueltas por cada método de repositorio.
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Agrega {@link ContadorFilasRepositorio} al proxy de cada repositorio de Spring Data, igual que hace
+     * Actuator con su listener de tiempos. Es estático porque los repositorios se crean antes que el
+     * resto de la configuración, y el registro se resuelve recién en la primera invocación.
+     */
+    @Bean
+    public static BeanPostProcessor contadorFilasRepositorioPostProcessor(ObjectProvider<MeterRegistry> registro) {
+        SingletonSupplier<MeterRegistry> registroDiferido = SingletonSupplier.of(registro::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nombre) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(repositorios -> repositorios.addRepositoryProxyPostProcessor(
+                            (proxy, informacion) -> proxy.addAdvice(
+                                    new ContadorFilasRepositorio(registroDiferido, informacion.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package um.prog2.TP5.config;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Envuelve el DataSource principal con datasource-proxy cuando hay algún {@link QueryExecutionListener}
+ * registrado ({@link DetectorNMasUno}, {@link RegistroConsultasLentas}); sin ninguno queda el DataSource
+ * de siempre, sin proxy.
+ * <p>
+ * Solo se envuelve el bean {@code dataSource}, que es el que usan JPA, Flyway y JdbcTemplate; con réplica
+ * de lectura es el proxy que enruta, así que cada sentencia se ve una vez sin importar a qué base fue.
+ */
+@Configuration
+public class ProxyDataSourceConfig {
+
+    /**
+     * Estático para no adelantar la creación de esta configuración; los listeners se piden recién
+     * cuando se crea el DataSource.
+     */
+    @Bean
+    public static BeanPostProcessor proxySentenciasPostProcessor(ObjectProvider<QueryExecutionListener> listeners,
+                                                                 ObjectProvider<DetectorNMasUno> detector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(nombre)) {
+                    return bean;
+                }
+                List<QueryExecutionListener> registrados = listeners.orderedStream().toList();
+                if (registrados.isEmpty()) {
+                    return bean;
+                }
+                ProxyDataSourceBuilder proxy = ProxyDataSourceBuilder.create(dataSource).name(nombre);
+                registrados.forEach(proxy::listener);
+                DetectorNMasUno detectorNMasUno = detector.getIfAvailable();
+                if (detectorNMasUno != null && detectorNMasUno.isContarFilas()) {
+                    proxy.proxyResultSet().methodListener(detectorNMasUno);
+                }
+                return proxy.build();
+            }
+        };
+    }
+}
@@ -0,0 +1,244 @@
+package um.prog2.TP5.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Guarda las sentencias SQL que tardan {@code umbral} o más en un buffer circular de {@code capacidad}
+ * entradas, con sus parámetros, el método de repositorio que las originó y el tiempo que tardaron.
+ * Las consulta {@link ConsultasLentasEndpoint} en {@code /actuator/consultaslentas}.
+ * <p>
+ * Los parámetros que se enlazan a columnas cuyo nombre contiene alguna de {@code columnasOcultas}
+ * (por defecto email y salario) se publican como {@value #OCULTO}. Los valores reales quedan solo en
+ * memoria para poder pedir el plan de ejecución con los mismos parámetros.
+ * <p>
+ * Las sentencias por debajo del umbral cuestan una comparación; el origen se busca recorriendo la pila
+ * solo para las lentas.
+ */
+public class RegistroConsultasLentas implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroConsultasLentas.class);
+
+    static final String OCULTO = "****";
+
+    /**
+     * Lotes más largos se guardan con los parámetros de sus primeras filas.
+     */
+    private static final int MAXIMO_FILAS_DE_LOTE = 10;
+
+    private static final String PAQUETE_APLICACION = "um.prog2.TP5.";
+    private static final String PAQUETE_CONFIG = PAQUETE_APLICACION + "config.";
+
+    private static final Pattern INSERT = Pattern.compile("(?is)^\\s*insert\\s+into\\s+\\S+\\s*\\(([^)]*)\\)\\s*values\\s*\\(");
+    private static final Pattern COMPARACION = Pattern.compile("(?is)([\\w.]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\blike)\\s*$");
+    private static final Pattern BETWEEN = Pattern.compile("(?is)([\\w.]+)\\s+between\\s+(?:\\?\\s+and\\s*)?$");
+    private static final Pattern LISTA_IN = Pattern.compile("(?is)([\\w.]+)\\s+in\\s*\\((?:\\s*\\?\\s*,)*\\s*$");
+    private static final Pattern EXPLAIN = Pattern.compile("(?i)^\\s*explain\\b");
+
+    private static final StackWalker PILA = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long umbralMilisegundos;
+    private final int capacidad;
+    private final List<String> columnasOcultas;
+    private final Deque<Registro> registros;
+    private long ultimoId;
+
+    public RegistroConsultasLentas(Duration umbral, int capacidad, Collection<String> columnasOcultas) {
+        this.umbralMilisegundos = umbral.toMillis();
+        this.capacidad = capacidad;
+        this.columnasOcultas = columnasOcultas.stream().map(columna -> columna.toLowerCase(Locale.ROOT)).toList();
+        this.registros = new ArrayDeque<>(capacidad);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo ejecucion, List<QueryInfo> consultas) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo ejecucion, List<QueryInfo> consultas) {
+        if (ejecucion.getElapsedTime() < umbralMilisegundos) {
+            return;
+        }
+        String origen = origen();
+        for (QueryInfo consulta : consultas) {
+            // Los planes que pide el endpoint pasan por este mismo DataSource
+            if (EXPLAIN.matcher(consulta.getQuery()).find()) {
+                continue;
+            }
+            registrar(ejecucion, consulta, origen);
+        }
+    }
+
+    /**
+     * Las consultas lentas guardadas, de la más reciente a la más antigua.
+     */
+    public List<ConsultaLenta> consultas() {
+        synchronized (registros) {
+            return registros.stream().map(Registro::consulta).toList();
+        }
+    }
+
+    public void vaciar() {
+        synchronized (registros) {
+            registros.clear();
+        }
+    }
+
+    /**
+     * La consulta con ese id y los valores reales de su primera fila de parámetros, para el plan.
+     */
+    Optional<Registro> buscar(long id) {
+        synchronized (registros) {
+            return registros.stream().filter(registro -> registro.consulta().id() == id).findFirst();
+        }
+    }
+
+    private void registrar(ExecutionInfo ejecucion, QueryInfo consulta, String origen) {
+        String sql = consulta.getQuery();
+        List<String> columnas = columnasDeParametros(sql);
+        List<List<Object>> filas = consulta.getParametersList().stream()
+                .limit(MAXIMO_FILAS_DE_LOTE)
+                .map(RegistroConsultasLentas::valores)
+                .toList();
+        boolean mencionaOcultas = esOculta(sql);
+        List<List<String>> publicados = filas.stream().map(valores -> ocultar(valores, columnas, mencionaOcultas)).toList();
+
+        log.warn("Consulta lenta ({} ms) en {}: {}", ejecucion.getElapsedTime(), origen, sql);
+        synchronized (registros) {
+            ConsultaLenta consultaLenta = new ConsultaLenta(++ultimoId, Instant.now(), ejecucion.getElapsedTime(), sql,
+                    publicados, Math.max(1, consulta.getParametersList().size()), origen,
+                    ejecucion.getDataSourceName(), ejecucion.isSuccess());
+            if (registros.size() == capacidad) {
+                registros.removeLast();
+            }
+            registros.addFirst(new Registro(consultaLenta, filas.isEmpty() ? List.of() : filas.get(0)));
+        }
+    }
+
+    /**
+     * Valores de una fila de parámetros por posición; {@code setNull} queda como null.
+     */
+    private static List<Object> valores(List<ParameterSetOperation> operaciones) {
+        TreeMap<Integer, Object> porPosicion = new TreeMap<>();
+        for (ParameterSetOperation operacion : operaciones) {
+            Object[] argumentos = operacion.getArgs();
+            if (argumentos.length < 2 || !(argumentos[0] instanceof Integer posicion)) {
+                continue;
+            }
+            porPosicion.put(posicion, ParameterSetOperation.isSetNullParameterOperation(operacion) ? null : argumentos[1]);
+        }
+        return new ArrayList<>(porPosicion.values());
+    }
+
+    /**
+     * Un parámetro cuya columna no se reconoce se oculta si la sentencia menciona alguna columna oculta:
+     * ante la duda, no se publica.
+     */
+    private List<String> ocultar(List<Object> valores, List<String> columnas, boolean mencionaOcultas) {
+        List<String> publicados = new ArrayList<>(valores.size());
+        for (int i = 0; i < valores.size(); i++) {
+            String columna = i < columnas.size() ? columnas.get(i) : null;
+            boolean oculto = columna == null ? mencionaOcultas : esOculta(columna);
+            publicados.add(oculto ? OCULTO : String.valueOf(valores.get(i)));
+        }
+        return publicados;
+    }
+
+    private boolean esOculta(String texto) {
+        String nombre = texto.toLowerCase(Locale.ROOT);
+        return columnasOcultas.stream().anyMatch(nombre::contains);
+    }
+
+    /**
+     * La columna a la que se enlaza cada {@code ?} de la sentencia, o null si no se reconoce. Cubre lo que
+     * genera Hibernate: la lista de columnas de un INSERT, comparaciones, {@code BETWEEN} e {@code IN}.
+     */
+    static List<String> columnasDeParametros(String sql) {
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.find()) {
+            return List.of(insert.group(1).trim().split("\\s*,\\s*"));
+        }
+        List<String> columnas = new ArrayList<>();
+        boolean enCadena = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char caracter = sql.charAt(i);
+            if (caracter == '\'') {
+                enCadena = !enCadena;
+            } else if (caracter == '?' && !enCadena) {
+                columnas.add(columnaAntesDe(sql.substring(0, i)));
+            }
+        }
+        return columnas;
+    }
+
+    private static String columnaAntesDe(String previo) {
+        for (Pattern patron : List.of(COMPARACION, BETWEEN, LISTA_IN)) {
+            Matcher matcher = patron.matcher(previo);
+            if (matcher.find()) {
+                String columna = matcher.group(1);
+                return columna.substring(columna.lastIndexOf('.') + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * El método de repositorio de Spring Data que ejecutó la sentencia o, si no pasó por uno (una carga
+     * perezosa, un flush), el primer método de la aplicación en la pila.
+     */
+    static String origen() {
+        return PILA.walk(frames -> {
+            String primeroDeLaAplicacion = null;
+            for (Iterator<StackWalker.StackFrame> iterador = frames.iterator(); iterador.hasNext(); ) {
+                StackWalker.StackFrame frame = iterador.next();
+                Class<?> clase = frame.getDeclaringClass();
+                if (Proxy.isProxyClass(clase)) {
+                    for (Class<?> interfaz : clase.getInterfaces()) {
+                        if (Repository.class.isAssignableFrom(interfaz)) {
+                            return interfaz.getSimpleName() + "." + frame.getMethodName();
+                        }
+                    }
+                } else if (primeroDeLaAplicacion == null && esDeLaAplicacion(clase)) {
+                    primeroDeLaAplicacion = clase.getSimpleName() + "." + frame.getMethodName();
+                }
+            }
+            return primeroDeLaAplicacion != null ? primeroDeLaAplicacion : "desconocido";
+        });
+    }
+
+    private static boolean esDeLaAplicacion(Class<?> clase) {
+        String nombre = clase.getName();
+        return nombre.startsWith(PAQUETE_APLICACION) && !nombre.startsWith(PAQUETE_CONFIG) && !nombre.contains("$");
+    }
+
+    /**
+     * Una sentencia lenta tal como se publica. {@code parametros} tiene una lista por fila del lote
+     * (hasta diez) y {@code lote} la cantidad total de filas; una sentencia sin batch es un lote de una.
+     */
+    public record ConsultaLenta(long id, Instant instante, long milisegundos, String sql, List<List<String>> parametros,
+                                int lote, String origen, String dataSource, boolean exito) {
+    }
+
+    record Registro(ConsultaLenta consulta, List<Object> valores) {
+    }
+}
@@ -0,0 +1,54 @@
+package um.prog2.TP5.config;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Servidor Reactor Netty que atiende la API reactiva en su propio puerto, en paralelo a Tomcat.
+ * Arranca y se detiene con el contexto de Spring. Con puerto 0 toma uno libre, que se
+ * consulta con {@link #getPuerto()}.
+ */
+public class ServidorReactivo implements SmartLifecycle {
+
+    private final HttpHandler httpHandler;
+    private final int puerto;
+    private volatile DisposableServer servidor;
+
+    public ServidorReactivo(HttpHandler httpHandler, int puerto) {
+        this.httpHandler = httpHandler;
+        this.puerto = puerto;
+    }
+
+    @Override
+    public void start() {
+        servidor = HttpServer.create()
+                .port(puerto)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer actual = servidor;
+        servidor = null;
+        if (actual != null) {
+            actual.disposeNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return servidor != null;
+    }
+
+    public int getPuerto() {
+        DisposableServer actual = servidor;
+        if (actual == null) {
+            throw new IllegalStateException("El servidor reactivo no está en ejecución");
+        }
+        return actual.port();
+    }
+}
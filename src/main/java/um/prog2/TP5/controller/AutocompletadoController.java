@@ -0,0 +1,42 @@
+package um.prog2.TP5.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import um.prog2.TP5.dto.SugerenciaDTO;
+import um.prog2.TP5.service.AutocompletadoService;
+
+import java.util.List;
+
+/**
+ * Controlador REST para autocompletar nombres de empleados y departamentos mientras se escribe.
+ *
+ * @author TP5
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/autocompletar")
+public class AutocompletadoController {
+    private final AutocompletadoService autocompletadoService;
+
+    public AutocompletadoController(AutocompletadoService autocompletadoService) {
+        this.autocompletadoService = autocompletadoService;
+    }
+
+    /**
+     * Sugiere empleados (nombre y apellido) y departamentos con alguna palabra que empieza con el texto
+     * escrito, sin distinguir mayúsculas ni acentos. Se responde desde memoria, sin consultar la base.
+     *
+     * @param q Texto escrito hasta el momento
+     * @param limit Cantidad máxima de sugerencias (entre 1 y 50)
+     * @return Sugerencias en orden alfabético, cada una con su tipo, ID y texto
+     * @apiNote GET /api/autocompletar?q={texto}&limit={n}
+     * @apiNote Ejemplo: GET /api/autocompletar?q=gar
+     */
+    @GetMapping
+    @Presupuesto(sentencias = 0, filas = 0, memoriaKb = 192)
+    public List<SugerenciaDTO> sugerir(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return autocompletadoService.sugerir(q, limit);
+    }
+}
@@ -1,11 +1,18 @@
 package um.prog2.TP5.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import um.prog2.TP5.dto.DepartamentoDTO;
+import um.prog2.TP5.dto.DistribucionSalariosDTO;
+import um.prog2.TP5.dto.SalariosDepartamentoDTO;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.service.DepartamentoService;
+import um.prog2.TP5.service.EstadisticasSalarioService;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -22,33 +29,46 @@ import java.util.List;
 @Validated
 public class DepartamentoController {
     private final DepartamentoService departamentoService;
+    private final EstadisticasSalarioService estadisticasSalarioService;
 
-    public DepartamentoController(DepartamentoService departamentoService) {
+    public DepartamentoController(DepartamentoService departamentoService,
+                                  EstadisticasSalarioService estadisticasSalarioService) {
         this.departamentoService = departamentoService;
+        this.estadisticasSalarioService = estadisticasSalarioService;
     }
 
     /**
      * Obtiene la lista completa de todos los departamentos.
      *
+     * @param request Petición, para comparar If-None-Match con la versión del listado
      * @return Lista de todos los departamentos registrados en el sistema
      * @apiNote GET /api/departamentos
+     * @apiNote Si ningún departamento cambió desde el ETag recibido responde 304 NOT MODIFIED sin consultar la base
      */
     @GetMapping
-    public List<Departamento> obtenerTodos() {
-        return departamentoService.obtenerTodos();
+    @Presupuesto(sentencias = 1, filas = 7, memoriaKb = 256)
+    public ResponseEntity<List<DepartamentoDTO>> obtenerTodos(WebRequest request) {
+        String etag = Etags.deListado(departamentoService.versionListado());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(departamentoService.listarTodos());
     }
 
     /**
      * Busca un departamento específico por su ID.
      *
      * @param id Identificador único del departamento
-     * @return Departamento encontrado
+     * @return Departamento encontrado, con su versión como ETag
      * @throws um.prog2.TP5.exception.ResourceNotFoundException si el departamento no existe
      * @apiNote GET /api/departamentos/{id}
+     * @apiNote Con If-None-Match igual al ETag actual responde 304 NOT MODIFIED sin cuerpo
      */
     @GetMapping("/{id}")
-    public Departamento obtenerPorId(@PathVariable Long id) {
-        return departamentoService.buscarPorId(id);
+    @Presupuesto(sentencias = 1, filas = 1, memoriaKb = 1984)
+    public ResponseEntity<Departamento> obtenerPorId(@PathVariable Long id) {
+        Departamento departamento = departamentoService.buscarPorId(id);
+        return ResponseEntity.ok().eTag(Etags.de(departamento)).body(departamento);
     }
 
     /**
@@ -60,6 +80,7 @@ public class DepartamentoController {
      * @apiNote Status: 201 CREATED
      */
     @PostMapping
+    @Presupuesto(sentencias = 4, filas = 0, memoriaKb = 384)
     @ResponseStatus(HttpStatus.CREATED)
     public Departamento crear(@Valid @RequestBody Departamento departamento) {
         return departamentoService.guardar(departamento);
@@ -70,13 +91,18 @@ public class DepartamentoController {
      *
      * @param id           Identificador del departamento a actualizar
      * @param departamento Objeto con los nuevos datos del departamento (validado)
-     * @return Departamento actualizado
+     * @param ifMatch      ETag leído antes de editar; si no coincide con la versión actual responde 412
+     * @return Departamento actualizado, con su nuevo ETag
      * @throws um.prog2.TP5.exception.ResourceNotFoundException si el departamento no existe
      * @apiNote PUT /api/departamentos/{id}
+     * @apiNote Status: 412 PRECONDITION FAILED si If-Match no es la versión actual, 409 CONFLICT si otra escritura se adelantó
      */
     @PutMapping("/{id}")
-    public Departamento actualizar(@PathVariable Long id, @Valid @RequestBody Departamento departamento) {
-        return departamentoService.actualizar(id, departamento);
+    @Presupuesto(sentencias = 2, filas = 1, memoriaKb = 576)
+    public ResponseEntity<Departamento> actualizar(@PathVariable Long id, @Valid @RequestBody Departamento departamento,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Departamento actualizado = departamentoService.actualizar(id, departamento, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.de(actualizado)).body(actualizado);
     }
 
     /**
@@ -88,6 +114,7 @@ public class DepartamentoController {
      * @apiNote Status: 204 NO CONTENT
      */
     @DeleteMapping("/{id}")
+    @Presupuesto(sentencias = 5, filas = 2, memoriaKb = 896)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void eliminar(@PathVariable Long id) {
         departamentoService.eliminar(id);
@@ -102,7 +129,41 @@ public class DepartamentoController {
      * @apiNote GET /api/departamentos/nombre/{nombre}
      */
     @GetMapping("/nombre/{nombre}")
+    @Presupuesto(sentencias = 1, filas = 1, memoriaKb = 256)
     public Departamento obtenerPorNombre(@PathVariable String nombre) {
         return departamentoService.buscarPorNombre(nombre);
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el resumen de salarios de un departamento (cantidad, total, promedio, mínimo y máximo).
+     * Se lee de los agregados mantenidos en cada escritura de empleados, sin recorrer la tabla.
+     *
+     * @param id Identificador del departamento
+     * @return Resumen de salarios del departamento
+     * @throws um.prog2.TP5.exception.ResourceNotFoundException si el departamento no existe
+     * @apiNote GET /api/departamentos/{id}/salarios
+     */
+    @GetMapping("/{id}/salarios")
+    @Presupuesto(sentencias = 3, filas = 2, memoriaKb = 256)
+    public SalariosDepartamentoDTO obtenerResumenSalarios(@PathVariable Long id) {
+        return estadisticasSalarioService.obtenerResumen(id);
+    }
+
+    /**
+     * Obtiene la distribución de salarios de un departamento: cantidad, promedio, desviación estándar,
+     * percentiles 50/90/99 e histograma de intervalos de igual ancho entre el mínimo y el máximo.
+     * Se calcula en una sola pasada sobre los salarios; los percentiles tienen un error relativo menor al 1%.
+     *
+     * @param id         Identificador del departamento
+     * @param intervalos Cantidad de intervalos del histograma (por defecto 10, máximo 100)
+     * @return Distribución de salarios del departamento
+     * @throws um.prog2.TP5.exception.ResourceNotFoundException si el departamento no existe
+     * @apiNote GET /api/departamentos/{id}/salarios/estadisticas?intervalos={n}
+     */
+    @GetMapping("/{id}/salarios/estadisticas")
+    @Presupuesto(sentencias = 2, filas = 41, memoriaKb = 320)
+    public DistribucionSalariosDTO obtenerDistribucionSalarios(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "10") int intervalos) {
+        return estadisticasSalarioService.obtenerDistribucion(id, intervalos);
+    }
+}
@@ -0,0 +1,41 @@
+package um.prog2.TP5.controller;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.dto.DepartamentoDTO;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
+import um.prog2.TP5.repository.DepartamentoReactivoRepository;
+
+/**
+ * Consultas de departamentos de la API reactiva ({@code /api/reactivo/departamentos}).
+ * Leen siempre de la base: no comparten la caché de {@link um.prog2.TP5.service.DepartamentoService}.
+ */
+@Component
+public class DepartamentoReactivoHandler {
+
+    private final DepartamentoReactivoRepository departamentoRepository;
+
+    public DepartamentoReactivoHandler(DepartamentoReactivoRepository departamentoRepository) {
+        this.departamentoRepository = departamentoRepository;
+    }
+
+    public Mono<ServerResponse> obtenerTodos(ServerRequest request) {
+        return RespuestasReactivas.listado(request, departamentoRepository.findAll(), DepartamentoDTO.class);
+    }
+
+    public Mono<ServerResponse> obtenerPorId(ServerRequest request) {
+        Long id = RespuestasReactivas.id(request);
+        return departamentoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id)))
+                .flatMap(departamento -> ServerResponse.ok().bodyValue(departamento));
+    }
+
+    public Mono<ServerResponse> obtenerPorNombre(ServerRequest request) {
+        String nombre = request.pathVariable("nombre");
+        return departamentoRepository.findByNombre(nombre)
+                .switchIfEmpty(Mono.error(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con nombre: " + nombre)))
+                .flatMap(departamento -> ServerResponse.ok().bodyValue(departamento));
+    }
+}
@@ -1,12 +1,24 @@
 package um.prog2.TP5.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.LoteEmpleadosRequest;
+import um.prog2.TP5.dto.LoteEmpleadosResponse;
+import um.prog2.TP5.dto.PaginaCursor;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.service.EmpleadoService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -21,34 +33,73 @@ import java.util.List;
 @RequestMapping("/api/empleados")
 @Validated
 public class EmpleadoController {
+    private static final byte[] SEPARADOR_NDJSON = {'\n'};
+
     private final EmpleadoService empleadoService;
+    private final ObjectMapper objectMapper;
 
-    public EmpleadoController(EmpleadoService empleadoService) {
+    public EmpleadoController(EmpleadoService empleadoService, ObjectMapper objectMapper) {
         this.empleadoService = empleadoService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Obtiene la lista completa de todos los empleados.
+     * Obtiene una página de empleados ordenada por ID usando paginación por cursor.
+     * A diferencia de OFFSET, la latencia se mantiene constante sin importar la profundidad de la página.
+     * Sin parámetros devuelve la primera página de 100; el listado completo está en {@code /export}.
      *
-     * @return Lista de todos los empleados registrados en el sistema
-     * @apiNote GET /api/empleados
+     * @param after Cursor opaco devuelto por la página anterior (omitir para la primera página)
+     * @param limit Cantidad máxima de empleados por página (entre 1 y 1000, 100 por defecto)
+     * @return Página con los empleados y el cursor para solicitar la siguiente
+     * @apiNote GET /api/empleados?after={cursor}&limit={n}
      */
     @GetMapping
-    public List<Empleado> obtenerTodos() {
-        return empleadoService.obtenerTodos();
+    @Presupuesto(sentencias = 1, filas = 51, memoriaKb = 1024)
+    public PaginaCursor<EmpleadoDTO> obtenerPagina(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int limit) {
+        return empleadoService.obtenerPagina(after, limit);
+    }
+
+    /**
+     * Exporta todos los empleados como JSON delimitado por saltos de línea (NDJSON).
+     * Las filas se escriben a medida que se leen de la base de datos, por lo que el
+     * consumo de memoria es constante y el primer byte llega sin esperar la consulta completa.
+     *
+     * @return Flujo NDJSON con un empleado por línea
+     * @apiNote GET /api/empleados/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Presupuesto(sentencias = 0, filas = 0, memoriaKb = 128)
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        ObjectWriter writer = objectMapper.writerFor(Empleado.class);
+        StreamingResponseBody cuerpo = salida -> empleadoService.exportarTodos(empleado -> {
+            try {
+                salida.write(writer.writeValueAsBytes(empleado));
+                salida.write(SEPARADOR_NDJSON);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
     }
 
     /**
      * Busca un empleado específico por su ID.
      *
      * @param id Identificador único del empleado
-     * @return Empleado encontrado
+     * @return Empleado encontrado, con su versión como ETag
      * @throws um.prog2.TP5.exception.ResourceNotFoundException si el empleado no existe
      * @apiNote GET /api/empleados/{id}
+     * @apiNote Con If-None-Match igual al ETag actual responde 304 NOT MODIFIED sin cuerpo
      */
     @GetMapping("/{id}")
-    public Empleado obtenerPorId(@PathVariable Long id) {
-        return empleadoService.buscarPorId(id);
+    @Presupuesto(sentencias = 2, filas = 2, memoriaKb = 832)
+    public ResponseEntity<Empleado> obtenerPorId(@PathVariable Long id) {
+        Empleado empleado = empleadoService.buscarPorId(id);
+        return ResponseEntity.ok().eTag(Etags.de(empleado)).body(empleado);
     }
 
     /**
@@ -60,23 +111,50 @@ public class EmpleadoController {
      * @apiNote Status: 201 CREATED
      */
     @PostMapping
+    @Presupuesto(sentencias = 6, filas = 3, memoriaKb = 512)
     @ResponseStatus(HttpStatus.CREATED)
     public Empleado crear(@Valid @RequestBody Empleado empleado) {
         return empleadoService.validarEmpleado(empleado);
     }
 
+    /**
+     * Crea varios empleados en una sola operación usando inserciones en batch.
+     * El lote se valida completo antes de insertar: si algún email ya existe o algún
+     * departamento no existe, no se crea ningún empleado. Es solo para altas: un empleado con
+     * {@code id} o {@code version} rechaza el lote con 400.
+     *
+     * @param request Objeto con la lista de empleados a crear (validada, máximo 10000)
+     * @return Cantidad e IDs de los empleados creados, en el mismo orden del request
+     * @apiNote POST /api/empleados/batch
+     * @apiNote Status: 201 CREATED
+     */
+    @PostMapping("/batch")
+    // Incluye el next value de la secuencia de empleados (una sentencia y una fila), que se pide cuando el lote
+    // agota el bloque de 50 IDs
+    @Presupuesto(sentencias = 14, filas = 11, memoriaKb = 2816)
+    @ResponseStatus(HttpStatus.CREATED)
+    public LoteEmpleadosResponse crearLote(@Valid @RequestBody LoteEmpleadosRequest request) {
+        List<Empleado> creados = empleadoService.guardarLote(request.getEmpleados());
+        return new LoteEmpleadosResponse(creados.stream().map(Empleado::getId).toList());
+    }
+
     /**
      * Actualiza los datos de un empleado existente.
      *
      * @param id       Identificador del empleado a actualizar
      * @param empleado Objeto con los nuevos datos del empleado (validado)
-     * @return Empleado actualizado
+     * @param ifMatch  ETag leído antes de editar; si no coincide con la versión actual responde 412
+     * @return Empleado actualizado, con su nuevo ETag
      * @throws um.prog2.TP5.exception.ResourceNotFoundException si el empleado no existe
      * @apiNote PUT /api/empleados/{id}
+     * @apiNote Status: 412 PRECONDITION FAILED si If-Match no es la versión actual, 409 CONFLICT si otra escritura se adelantó
      */
     @PutMapping("/{id}")
-    public Empleado actualizar(@PathVariable Long id, @Valid @RequestBody Empleado empleado) {
-        return empleadoService.actualizar(id, empleado);
+    @Presupuesto(sentencias = 4, filas = 2, memoriaKb = 512)
+    public ResponseEntity<Empleado> actualizar(@PathVariable Long id, @Valid @RequestBody Empleado empleado,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Empleado actualizado = empleadoService.actualizar(id, empleado, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.de(actualizado)).body(actualizado);
     }
 
     /**
@@ -88,6 +166,7 @@ public class EmpleadoController {
      * @apiNote Status: 204 NO CONTENT
      */
     @DeleteMapping("/{id}")
+    @Presupuesto(sentencias = 11, filas = 4, memoriaKb = 512)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void eliminar(@PathVariable Long id) {
         empleadoService.eliminar(id);
@@ -101,8 +180,9 @@ public class EmpleadoController {
      * @apiNote GET /api/empleados/departamento/{nombre}
      */
     @GetMapping("/departamento/{nombre}")
-    public List<Empleado> obtenerPorDepartamento(@PathVariable String nombre) {
-        return empleadoService.buscarPorDepartamento(nombre);
+    @Presupuesto(sentencias = 1, filas = 40, memoriaKb = 896)
+    public List<EmpleadoDTO> obtenerPorDepartamento(@PathVariable String nombre) {
+        return empleadoService.listarPorDepartamento(nombre);
     }
 
     /**
@@ -114,6 +194,7 @@ public class EmpleadoController {
      * @apiNote GET /api/empleados/email/{email}
      */
     @GetMapping("/email/{email}")
+    @Presupuesto(sentencias = 2, filas = 2, memoriaKb = 320)
     public Empleado obtenerPorEmail(@PathVariable String email) {
         return empleadoService.buscarPorEmail(email);
     }
@@ -127,7 +208,42 @@ public class EmpleadoController {
      * @apiNote Ejemplo: GET /api/empleados/salario?salarioMinimo=50000
      */
     @GetMapping("/salario")
-    public List<Empleado> obtenerPorSalarioMayorA(@RequestParam BigDecimal salarioMinimo, @RequestParam BigDecimal salarioMaximo) {
-        return empleadoService.buscarPorRangoSalario(salarioMinimo, salarioMaximo);
+    @Presupuesto(sentencias = 1, filas = 57, memoriaKb = 1088)
+    public List<EmpleadoDTO> obtenerPorSalarioMayorA(@RequestParam BigDecimal salarioMinimo, @RequestParam BigDecimal salarioMaximo) {
+        return empleadoService.listarPorRangoSalario(salarioMinimo, salarioMaximo);
+    }
+
+    /**
+     * Busca empleados por las palabras de su nombre, apellido o email, sin distinguir mayúsculas ni acentos.
+     * Cada palabra de la consulta puede ser el comienzo de una palabra del empleado ("garc" encuentra a García)
+     * y tienen que estar todas. Primero aparecen los que coinciden con más palabras completas.
+     *
+     * @param q Texto a buscar
+     * @param limit Cantidad máxima de empleados (entre 1 y 1000)
+     * @return Empleados encontrados, del más al menos relevante
+     * @apiNote GET /api/empleados/buscar?q={texto}&limit={n}
+     * @apiNote Ejemplo: GET /api/empleados/buscar?q=maria garcia
+     */
+    @GetMapping("/buscar")
+    @Presupuesto(sentencias = 1, filas = 50, memoriaKb = 1024)
+    public List<EmpleadoDTO> buscar(@RequestParam String q, @RequestParam(defaultValue = "50") int limit) {
+        return empleadoService.buscar(q, limit);
+    }
+
+    /**
+     * Búsqueda aproximada: encuentra empleados cuyo nombre completo o email está a pocas ediciones de la
+     * consulta (una letra de más, de menos, cambiada o dos letras invertidas), sin distinguir mayúsculas
+     * ni acentos. Se permiten una edición hasta 5 letras, dos hasta 11 y tres en consultas más largas.
+     *
+     * @param q Texto a buscar: nombre, apellido, nombre y apellido, o email
+     * @param limit Cantidad máxima de empleados (entre 1 y 1000)
+     * @return Empleados encontrados, del más al menos parecido
+     * @apiNote GET /api/empleados/buscar?q={texto}&aproximada=true&limit={n}
+     * @apiNote Ejemplo: GET /api/empleados/buscar?q=rodrigez&aproximada=true
+     */
+    @GetMapping(value = "/buscar", params = "aproximada=true")
+    @Presupuesto(sentencias = 1, filas = 50, memoriaKb = 1472)
+    public List<EmpleadoDTO> buscarAproximado(@RequestParam String q, @RequestParam(defaultValue = "50") int limit) {
+        return empleadoService.buscarAproximado(q, limit);
     }
 }
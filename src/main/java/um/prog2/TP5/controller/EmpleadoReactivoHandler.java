@@ -0,0 +1,55 @@
+package um.prog2.TP5.controller;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.exception.EmpleadoNoEncontradoException;
+import um.prog2.TP5.repository.EmpleadoReactivoRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * Consultas de empleados de la API reactiva ({@code /api/reactivo/empleados}).
+ * Equivalen a las lecturas de {@link EmpleadoController}, siempre con la forma de {@link EmpleadoDTO}.
+ */
+@Component
+public class EmpleadoReactivoHandler {
+
+    private final EmpleadoReactivoRepository empleadoRepository;
+
+    public EmpleadoReactivoHandler(EmpleadoReactivoRepository empleadoRepository) {
+        this.empleadoRepository = empleadoRepository;
+    }
+
+    public Mono<ServerResponse> obtenerTodos(ServerRequest request) {
+        return RespuestasReactivas.listado(request, empleadoRepository.findAll(), EmpleadoDTO.class);
+    }
+
+    public Mono<ServerResponse> obtenerPorId(ServerRequest request) {
+        Long id = RespuestasReactivas.id(request);
+        return empleadoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id)))
+                .flatMap(empleado -> ServerResponse.ok().bodyValue(empleado));
+    }
+
+    public Mono<ServerResponse> obtenerPorEmail(ServerRequest request) {
+        String email = request.pathVariable("email");
+        return empleadoRepository.findByEmail(email)
+                .switchIfEmpty(Mono.error(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con Email: " + email)))
+                .flatMap(empleado -> ServerResponse.ok().bodyValue(empleado));
+    }
+
+    public Mono<ServerResponse> obtenerPorDepartamento(ServerRequest request) {
+        return RespuestasReactivas.listado(request,
+                empleadoRepository.findByNombreDepartamento(request.pathVariable("nombre")), EmpleadoDTO.class);
+    }
+
+    public Mono<ServerResponse> obtenerPorRangoSalario(ServerRequest request) {
+        BigDecimal salarioMinimo = new BigDecimal(RespuestasReactivas.parametroRequerido(request, "salarioMinimo"));
+        BigDecimal salarioMaximo = new BigDecimal(RespuestasReactivas.parametroRequerido(request, "salarioMaximo"));
+        return RespuestasReactivas.listado(request,
+                empleadoRepository.findBySalarioBetween(salarioMinimo, salarioMaximo), EmpleadoDTO.class);
+    }
+}
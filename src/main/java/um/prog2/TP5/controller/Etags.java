@@ -0,0 +1,100 @@
+package um.prog2.TP5.controller;
+
+import um.prog2.TP5.dto.VersionProyectoDTO;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.exception.VersionDesactualizadaException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * ETags fuertes de los recursos individuales, derivados de la columna de versión.
+ * <p>
+ * El JSON de un empleado incluye su departamento y el de un proyecto a sus empleados, datos que
+ * cambian sin tocar la versión propia. Por eso el ETag es {@code "<versión>-<resumen>"}, donde el
+ * resumen combina id y versión de lo anidado, y un 304 nunca oculta un cambio visible en la respuesta.
+ * El de un proyecto se calcula igual desde el proyecto cargado o desde {@link VersionProyectoDTO}, que
+ * se resuelve con proyecciones y permite responder 304 sin cargar a los empleados. Su resumen es un
+ * SHA-256 de la lista de empleados con sus versiones: cualquier cambio de integrantes o de versiones lo
+ * cambia, cosa que un hash de 32 bits o una suma no garantizan.
+ * Para If-Match solo cuenta la versión: es la que protege los datos que reemplaza un PUT.
+ * Los listados usan en cambio los contadores de escrituras por tabla.
+ */
+final class Etags {
+
+    private Etags() {
+    }
+
+    static String de(Departamento departamento) {
+        return "\"" + version(departamento.getVersion()) + "\"";
+    }
+
+    static String de(Empleado empleado) {
+        return "\"" + version(empleado.getVersion()) + "-" + Integer.toHexString(resumen(empleado.getDepartamento())) + "\"";
+    }
+
+    static String de(Proyecto proyecto) {
+        return de(VersionProyectoDTO.de(proyecto));
+    }
+
+    static String de(VersionProyectoDTO version) {
+        StringBuilder empleados = new StringBuilder();
+        for (VersionProyectoDTO.VersionEmpleado empleado : version.empleados()) {
+            empleados.append(empleado.id()).append(':').append(version(empleado.version()))
+                    .append(':').append(version(empleado.versionDepartamento())).append(';');
+        }
+        return "\"" + version(version.version()) + "-" + huella(empleados.toString()) + "\"";
+    }
+
+    /**
+     * ETag de un listado completo a partir de la versión que mantiene el servicio con {@link
+     * um.prog2.TP5.service.ContadorCambios}, sin leer los datos.
+     */
+    static String deListado(String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versión esperada según el encabezado If-Match, o {@code null} si no hay condición ({@code *} o ausente).
+     *
+     * @throws VersionDesactualizadaException si el valor no es un ETag fuerte emitido por esta API
+     */
+    static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new VersionDesactualizadaException("If-Match debe ser un ETag fuerte: " + ifMatch);
+        }
+        String etag = valor.substring(1, valor.length() - 1);
+        int separador = etag.indexOf('-');
+        try {
+            return Long.valueOf(separador < 0 ? etag : etag.substring(0, separador));
+        } catch (NumberFormatException e) {
+            throw new VersionDesactualizadaException("If-Match no corresponde a ninguna versión del recurso: " + ifMatch);
+        }
+    }
+
+    private static int resumen(Departamento departamento) {
+        return departamento == null ? 0 : Objects.hash(departamento.getId(), version(departamento.getVersion()));
+    }
+
+    private static String huella(String texto) {
+        try {
+            byte[] digesto = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digesto, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static long version(Long version) {
+        return version == null ? 0 : version;
+    }
+}
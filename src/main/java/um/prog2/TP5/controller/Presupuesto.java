@@ -0,0 +1,40 @@
+package um.prog2.TP5.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Presupuesto de un endpoint: cuánto puede pedirle a la base y cuánta memoria puede asignar por petición.
+ * Lo verifica {@code PresupuestoEndpointsTest} con cachés vacías sobre un conjunto de datos fijo
+ * (200 empleados en 5 departamentos, 160 de ellos asignados a proyectos), así que los valores son
+ * relativos a ese conjunto y no a producción.
+ * <p>
+ * Sentencias y filas se fijan en lo medido, porque con datos fijos no varían: una consulta por fila o una
+ * relación que se carga de más tiene que romper el build. La memoria lleva el doble de lo medido, ya que
+ * cambia según lo que el JIT haya compilado, y sigue alcanzando para detectar un listado que se arma
+ * entero en memoria o una copia innecesaria de la respuesta.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Presupuesto {
+
+    /**
+     * Sentencias SQL por petición, incluidas las escrituras pendientes que se envían al hacer flush.
+     */
+    int sentencias();
+
+    /**
+     * Filas leídas de la base por petición.
+     */
+    int filas();
+
+    /**
+     * Kilobytes asignados en el hilo de la petición, desde que entra a MockMvc hasta que se escribe la
+     * respuesta. El cuerpo de {@code /api/empleados/export} se escribe en otro hilo y no entra en la cuenta.
+     */
+    int memoriaKb();
+}
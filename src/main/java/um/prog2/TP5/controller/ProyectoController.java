@@ -1,11 +1,15 @@
 package um.prog2.TP5.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import um.prog2.TP5.dto.AsignacionEmpleadosRequest;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
 import um.prog2.TP5.entity.Proyecto;
 import um.prog2.TP5.service.ProyectoService;
 
@@ -31,25 +35,39 @@ public class ProyectoController {
     /**
      * Obtiene la lista completa de todos los proyectos.
      *
-     * @return Lista de todos los proyectos registrados en el sistema
+     * @param request Petición, para comparar If-None-Match con la versión del listado
+     * @return Lista de todos los proyectos registrados en el sistema (sin los empleados asignados)
      * @apiNote GET /api/proyectos
+     * @apiNote Si ningún proyecto cambió desde el ETag recibido responde 304 NOT MODIFIED sin consultar la base
      */
     @GetMapping
-    public List<Proyecto> obtenerTodos() {
-        return proyectoService.obtenerTodos();
+    @Presupuesto(sentencias = 1, filas = 10, memoriaKb = 320)
+    public ResponseEntity<List<ProyectoDTO>> obtenerTodos(WebRequest request) {
+        String etag = Etags.deListado(proyectoService.versionListado());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(proyectoService.listarTodos());
     }
 
     /**
      * Busca un proyecto específico por su ID.
      *
-     * @param id Identificador único del proyecto
-     * @return Proyecto encontrado
+     * @param id      Identificador único del proyecto
+     * @param request Petición, para comparar If-None-Match con la versión del proyecto
+     * @return Proyecto encontrado, con su versión como ETag
      * @throws um.prog2.TP5.exception.ResourceNotFoundException si el proyecto no existe
      * @apiNote GET /api/proyectos/{id}
+     * @apiNote Con If-None-Match igual al ETag actual responde 304 NOT MODIFIED sin cuerpo ni cargar a los empleados
      */
     @GetMapping("/{id}")
-    public Proyecto obtenerPorId(@PathVariable Long id) {
-        return proyectoService.buscarPorId(id);
+    @Presupuesto(sentencias = 3, filas = 41, memoriaKb = 704)
+    public ResponseEntity<Proyecto> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        String etag = Etags.de(proyectoService.buscarVersion(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(proyectoService.buscarPorId(id));
     }
 
     /**
@@ -61,6 +79,7 @@ public class ProyectoController {
      * @apiNote Status: 201 CREATED
      */
     @PostMapping
+    @Presupuesto(sentencias = 1, filas = 0, memoriaKb = 256)
     @ResponseStatus(HttpStatus.CREATED)
     public Proyecto crear(@Valid @RequestBody Proyecto proyecto) {
         return proyectoService.guardar(proyecto);
@@ -71,13 +90,18 @@ public class ProyectoController {
      *
      * @param id       Identificador del proyecto a actualizar
      * @param proyecto Objeto con los nuevos datos del proyecto (validado)
-     * @return Proyecto actualizado
+     * @param ifMatch  ETag leído antes de editar; si no coincide con la versión actual responde 412
+     * @return Proyecto actualizado, con su nuevo ETag
      * @throws um.prog2.TP5.exception.ResourceNotFoundException si el proyecto no existe
      * @apiNote PUT /api/proyectos/{id}
+     * @apiNote Status: 412 PRECONDITION FAILED si If-Match no es la versión actual, 409 CONFLICT si otra escritura se adelantó
      */
     @PutMapping("/{id}")
-    public Proyecto actualizar(@PathVariable Long id, @Valid @RequestBody Proyecto proyecto) {
-        return proyectoService.actualizar(id, proyecto);
+    @Presupuesto(sentencias = 8, filas = 26, memoriaKb = 768)
+    public ResponseEntity<Proyecto> actualizar(@PathVariable Long id, @Valid @RequestBody Proyecto proyecto,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Proyecto actualizado = proyectoService.actualizar(id, proyecto, Etags.versionEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.de(actualizado)).body(actualizado);
     }
 
     /**
@@ -92,11 +116,11 @@ public class ProyectoController {
      * @apiNote Body ejemplo: {"empleadosIds": [1, 2, 3]}
      */
     @PostMapping("/{id}/asignar-empleados")
+    @Presupuesto(sentencias = 4, filas = 60, memoriaKb = 2816)
     public Proyecto asignarEmpleados(
             @PathVariable Long id,
             @Valid @RequestBody AsignacionEmpleadosRequest request) {
-        Proyecto proyecto = proyectoService.buscarPorId(id);
-        return proyectoService.asignarEmpleados(proyecto, request.getEmpleadosIds());
+        return proyectoService.asignarEmpleados(id, request.getEmpleadosIds());
     }
 
     /**
@@ -108,9 +132,9 @@ public class ProyectoController {
      * @apiNote GET /api/proyectos/{id}/empleados
      */
     @GetMapping("/{id}/empleados")
-    public ResponseEntity<?> obtenerEmpleadosDelProyecto(@PathVariable Long id) {
-        Proyecto proyecto = proyectoService.buscarPorId(id);
-        return ResponseEntity.ok(proyecto.getEmpleados());
+    @Presupuesto(sentencias = 2, filas = 21, memoriaKb = 576)
+    public ResponseEntity<List<EmpleadoDTO>> obtenerEmpleadosDelProyecto(@PathVariable Long id) {
+        return ResponseEntity.ok(proyectoService.obtenerEmpleadosDelProyecto(id));
     }
 
     /**
@@ -125,11 +149,11 @@ public class ProyectoController {
      * @apiNote Body ejemplo: {"empleadosIds": [1, 2, 3]}
      */
     @PutMapping("/{id}/empleados")
+    @Presupuesto(sentencias = 4, filas = 60, memoriaKb = 2816)
     public ResponseEntity<Proyecto> asignarEmpleadosAlternativo(
             @PathVariable Long id,
             @Valid @RequestBody AsignacionEmpleadosRequest request) {
-        Proyecto proyecto = proyectoService.buscarPorId(id);
-        Proyecto proyectoActualizado = proyectoService.asignarEmpleados(proyecto, request.getEmpleadosIds());
+        Proyecto proyectoActualizado = proyectoService.asignarEmpleados(id, request.getEmpleadosIds());
 
         return ResponseEntity.ok(proyectoActualizado);
     }
@@ -144,6 +168,7 @@ public class ProyectoController {
      * @apiNote Status: 204 NO CONTENT
      */
     @DeleteMapping("/{id}")
+    @Presupuesto(sentencias = 3, filas = 2, memoriaKb = 256)
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void eliminar(@PathVariable Long id) {
         proyectoService.eliminar(id);
@@ -152,11 +177,18 @@ public class ProyectoController {
     /**
      * Obtiene la lista de proyectos que están actualmente activos.
      *
+     * @param request Petición, para comparar If-None-Match con la versión del listado
      * @return Lista de proyectos activos
      * @apiNote GET /api/proyectos/activos
+     * @apiNote Si ningún proyecto cambió en el día desde el ETag recibido responde 304 NOT MODIFIED sin consultar la base
      */
     @GetMapping("/activos")
-    public List<Proyecto> obtenerProyectosActivos() {
-        return proyectoService.obtenerProyectosActivos();
+    @Presupuesto(sentencias = 1, filas = 5, memoriaKb = 320)
+    public ResponseEntity<List<ProyectoDTO>> obtenerProyectosActivos(WebRequest request) {
+        String etag = Etags.deListado(proyectoService.versionListado());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(proyectoService.listarProyectosActivos());
     }
 }
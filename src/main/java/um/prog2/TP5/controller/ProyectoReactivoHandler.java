@@ -0,0 +1,58 @@
+package um.prog2.TP5.controller;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
+import um.prog2.TP5.exception.ProyectoNoEncontradoException;
+import um.prog2.TP5.repository.EmpleadoReactivoRepository;
+import um.prog2.TP5.repository.ProyectoReactivoRepository;
+
+import java.time.LocalDate;
+
+/**
+ * Consultas de proyectos de la API reactiva ({@code /api/reactivo/proyectos}).
+ */
+@Component
+public class ProyectoReactivoHandler {
+
+    private final ProyectoReactivoRepository proyectoRepository;
+    private final EmpleadoReactivoRepository empleadoRepository;
+
+    public ProyectoReactivoHandler(ProyectoReactivoRepository proyectoRepository,
+                                   EmpleadoReactivoRepository empleadoRepository) {
+        this.proyectoRepository = proyectoRepository;
+        this.empleadoRepository = empleadoRepository;
+    }
+
+    public Mono<ServerResponse> obtenerTodos(ServerRequest request) {
+        return RespuestasReactivas.listado(request, proyectoRepository.findAll(), ProyectoDTO.class);
+    }
+
+    public Mono<ServerResponse> obtenerProyectosActivos(ServerRequest request) {
+        return RespuestasReactivas.listado(request, proyectoRepository.findActiveProjects(LocalDate.now()), ProyectoDTO.class);
+    }
+
+    public Mono<ServerResponse> obtenerPorId(ServerRequest request) {
+        Long id = RespuestasReactivas.id(request);
+        return buscarProyecto(id)
+                .flatMap(proyecto -> ServerResponse.ok().bodyValue(proyecto));
+    }
+
+    /**
+     * Verifica primero que el proyecto exista, para responder 404 antes de empezar a escribir el listado.
+     */
+    public Mono<ServerResponse> obtenerEmpleadosDelProyecto(ServerRequest request) {
+        Long id = RespuestasReactivas.id(request);
+        return buscarProyecto(id)
+                .flatMap(proyecto -> RespuestasReactivas.listado(request,
+                        empleadoRepository.findByProyectoId(id), EmpleadoDTO.class));
+    }
+
+    private Mono<ProyectoDTO> buscarProyecto(Long id) {
+        return proyectoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id)));
+    }
+}
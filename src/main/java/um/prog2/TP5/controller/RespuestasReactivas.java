@@ -0,0 +1,39 @@
+package um.prog2.TP5.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utilidades compartidas por los handlers de la API reactiva.
+ */
+final class RespuestasReactivas {
+
+    private RespuestasReactivas() {
+    }
+
+    /**
+     * Responde un listado sin armarlo en memoria: como arreglo JSON por defecto, o un objeto por
+     * línea si el cliente acepta {@code application/x-ndjson}. En ambos casos cada elemento se
+     * serializa cuando el cliente lo consume, y la consulta pide filas a la base al mismo ritmo.
+     */
+    static <T> Mono<ServerResponse> listado(ServerRequest request, Flux<T> elementos, Class<T> tipo) {
+        boolean ndjson = request.headers().accept().stream()
+                .anyMatch(aceptado -> aceptado.equalsTypeAndSubtype(MediaType.APPLICATION_NDJSON));
+        return ServerResponse.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(elementos, tipo);
+    }
+
+    static Long id(ServerRequest request) {
+        return Long.valueOf(request.pathVariable("id"));
+    }
+
+    static String parametroRequerido(ServerRequest request, String nombre) {
+        return request.queryParam(nombre)
+                .orElseThrow(() -> new ServerWebInputException("Parámetro requerido faltante: " + nombre));
+    }
+}
@@ -0,0 +1,7 @@
+package um.prog2.TP5.dto;
+
+/**
+ * Vista de solo lectura de un departamento, construida directamente desde la consulta JPQL.
+ */
+public record DepartamentoDTO(Long id, String nombre, String descripcion, Long version) {
+}
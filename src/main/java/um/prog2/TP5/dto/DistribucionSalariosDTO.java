@@ -0,0 +1,26 @@
+package um.prog2.TP5.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Distribución de salarios de un departamento. Los percentiles y los bordes del histograma
+ * son aproximados, con el error relativo indicado en {@code precisionRelativa}; cantidad,
+ * promedio, desviación estándar, mínimo y máximo son exactos.
+ * Todos los valores son {@code null} (y el histograma vacío) si el departamento no tiene empleados.
+ */
+public record DistribucionSalariosDTO(Long departamentoId,
+                                      long cantidad,
+                                      BigDecimal promedio,
+                                      BigDecimal desviacionEstandar,
+                                      BigDecimal minimo,
+                                      BigDecimal maximo,
+                                      BigDecimal p50,
+                                      BigDecimal p90,
+                                      BigDecimal p99,
+                                      double precisionRelativa,
+                                      List<Intervalo> histograma) {
+
+    public record Intervalo(BigDecimal desde, BigDecimal hasta, long cantidad) {
+    }
+}
@@ -0,0 +1,8 @@
+package um.prog2.TP5.dto;
+
+/**
+ * Los campos de texto de un empleado por los que se puede buscar, para armar los índices en memoria
+ * sin hidratar entidades.
+ */
+public record EmpleadoBusquedaDTO(Long id, String nombre, String apellido, String email) {
+}
@@ -0,0 +1,30 @@
+package um.prog2.TP5.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Vista de solo lectura de un empleado con su departamento.
+ * Mantiene la misma forma JSON que la entidad {@link um.prog2.TP5.entity.Empleado}.
+ */
+public record EmpleadoDTO(Long id,
+                          String nombre,
+                          String apellido,
+                          String email,
+                          LocalDate fechaContratacion,
+                          BigDecimal salario,
+                          DepartamentoDTO departamento,
+                          Long version) {
+
+    /**
+     * Constructor plano usado por las expresiones {@code SELECT new} de JPQL, que no admiten objetos anidados.
+     */
+    public EmpleadoDTO(Long id, String nombre, String apellido, String email, LocalDate fechaContratacion,
+                       BigDecimal salario, Long version, Long departamentoId, String departamentoNombre,
+                       String departamentoDescripcion, Long departamentoVersion) {
+        this(id, nombre, apellido, email, fechaContratacion, salario,
+                departamentoId == null ? null
+                        : new DepartamentoDTO(departamentoId, departamentoNombre, departamentoDescripcion, departamentoVersion),
+                version);
+    }
+}
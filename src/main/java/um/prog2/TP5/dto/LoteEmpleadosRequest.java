@@ -0,0 +1,32 @@
+package um.prog2.TP5.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import um.prog2.TP5.entity.Empleado;
+
+import java.util.List;
+
+public class LoteEmpleadosRequest {
+
+    public static final int TAMANIO_MAXIMO = 10000;
+
+    @NotEmpty(message = "La lista de empleados no puede estar vacía")
+    @Size(max = TAMANIO_MAXIMO, message = "El lote no puede superar los " + TAMANIO_MAXIMO + " empleados")
+    private List<@Valid Empleado> empleados;
+
+    public LoteEmpleadosRequest() {
+    }
+
+    public LoteEmpleadosRequest(List<Empleado> empleados) {
+        this.empleados = empleados;
+    }
+
+    public List<Empleado> getEmpleados() {
+        return empleados;
+    }
+
+    public void setEmpleados(List<Empleado> empleados) {
+        this.empleados = empleados;
+    }
+}
@@ -0,0 +1,33 @@
+package um.prog2.TP5.dto;
+
+import java.util.List;
+
+public class LoteEmpleadosResponse {
+
+    private int cantidad;
+    private List<Long> ids;
+
+    public LoteEmpleadosResponse() {
+    }
+
+    public LoteEmpleadosResponse(List<Long> ids) {
+        this.cantidad = ids.size();
+        this.ids = ids;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(int cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,71 @@
+package um.prog2.TP5.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Página de resultados obtenida mediante paginación por cursor (keyset).
+ * El cursor es opaco para el cliente: debe reenviarse tal cual en el parámetro
+ * {@code after} para obtener la página siguiente. Es {@code null} en la última página.
+ */
+public class PaginaCursor<T> {
+
+    private static final String PREFIJO_CURSOR = "id:";
+
+    private List<T> contenido;
+    private String siguienteCursor;
+
+    public PaginaCursor() {
+    }
+
+    public PaginaCursor(List<T> contenido, String siguienteCursor) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public boolean isHayMas() {
+        return siguienteCursor != null;
+    }
+
+    /**
+     * Codifica el último ID entregado como cursor opaco (Base64 URL-safe).
+     */
+    public static String codificarCursor(Long ultimoId) {
+        String valor = PREFIJO_CURSOR + ultimoId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor generado por {@link #codificarCursor(Long)}.
+     *
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static Long decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO_CURSOR)) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            return Long.valueOf(valor.substring(PREFIJO_CURSOR.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
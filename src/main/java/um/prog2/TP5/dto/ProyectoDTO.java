@@ -0,0 +1,22 @@
+package um.prog2.TP5.dto;
+
+import um.prog2.TP5.entity.Proyecto;
+
+import java.time.LocalDate;
+
+/**
+ * Vista de solo lectura de un proyecto para los listados.
+ * No incluye los empleados asignados; se consultan en {@code GET /api/proyectos/{id}/empleados}.
+ */
+public record ProyectoDTO(Long id,
+                          String nombre,
+                          String descripcion,
+                          LocalDate fechaInicio,
+                          LocalDate fechaFin,
+                          Long version,
+                          boolean activo) {
+
+    public ProyectoDTO(Long id, String nombre, String descripcion, LocalDate fechaInicio, LocalDate fechaFin, Long version) {
+        this(id, nombre, descripcion, fechaInicio, fechaFin, version, Proyecto.estaActivo(fechaFin));
+    }
+}
@@ -0,0 +1,15 @@
+package um.prog2.TP5.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Resumen de salarios de un departamento. Mínimo, máximo y promedio son {@code null}
+ * si el departamento no tiene empleados.
+ */
+public record SalariosDepartamentoDTO(Long departamentoId,
+                                      long cantidad,
+                                      BigDecimal total,
+                                      BigDecimal promedio,
+                                      BigDecimal minimo,
+                                      BigDecimal maximo) {
+}
@@ -0,0 +1,12 @@
+package um.prog2.TP5.dto;
+
+/**
+ * Un resultado de autocompletar: el empleado (nombre y apellido) o el departamento cuyo nombre
+ * coincide con lo escrito.
+ */
+public record SugerenciaDTO(Tipo tipo, Long id, String texto) {
+
+    public enum Tipo {
+        EMPLEADO, DEPARTAMENTO
+    }
+}
@@ -0,0 +1,31 @@
+package um.prog2.TP5.dto;
+
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lo que cambia cuando cambia el JSON de {@code GET /api/proyectos/{id}}: la versión del proyecto y, por
+ * cada empleado asignado en orden de ID, su versión y la de su departamento. Se obtiene con consultas de
+ * proyección, sin cargar las entidades, o desde un proyecto ya cargado.
+ */
+public record VersionProyectoDTO(Long version, List<VersionEmpleado> empleados) {
+
+    public record VersionEmpleado(Long id, Long version, Long versionDepartamento) {
+    }
+
+    public static VersionProyectoDTO de(Proyecto proyecto) {
+        List<VersionEmpleado> empleados = proyecto.getEmpleados().stream()
+                .map(VersionProyectoDTO::version)
+                .sorted(Comparator.comparing(VersionEmpleado::id, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+        return new VersionProyectoDTO(proyecto.getVersion(), empleados);
+    }
+
+    private static VersionEmpleado version(Empleado empleado) {
+        return new VersionEmpleado(empleado.getId(), empleado.getVersion(),
+                empleado.getDepartamento() == null ? null : empleado.getDepartamento().getVersion());
+    }
+}
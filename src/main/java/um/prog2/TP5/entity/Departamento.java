@@ -1,6 +1,7 @@
 package um.prog2.TP5.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -8,11 +9,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "departamentos")
 @Table(name = "departamentos")
+// El departamento de un empleado es LAZY y se serializa como proxy de Hibernate: sus campos internos no van al JSON
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,15 +30,20 @@ public class Departamento {
 
     @NotBlank(message = "El nombre del departamento es obligatorio")
     @Size(min = 3, max = 50, message = "El nombre debe tener entre 3 y 50 caracteres")
-    @Column(nullable = false, length = 100, unique = true)
+    @Column(nullable = false, length = 50, unique = true)
     private String nombre;
 
     @Size(max = 200, message = "La descripción no puede exceder 200 caracteres")
-    @Column(length = 500)
+    @Column(length = 200)
     private String descripcion;
 
     @JsonIgnore
     @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "departamento", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Empleado> empleados = new ArrayList<>();
+
+    // Bloqueo optimista: se expone como ETag en GET /api/departamentos/{id} y se compara con If-Match al actualizar
+    @EqualsAndHashCode.Exclude
+    @Version
+    private Long version;
 }
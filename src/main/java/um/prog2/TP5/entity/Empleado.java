@@ -7,29 +7,36 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "empleados")
 @Table(name = "empleados")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Empleado {
+    // Secuencia con asignación por bloques: a diferencia de IDENTITY permite que Hibernate agrupe los INSERT en batches JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empleados_seq")
+    @SequenceGenerator(name = "empleados_seq", sequenceName = "empleados_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "El nombre es obligatorio")
     @Size(min = 2, max = 50, message = "El nombre debe tener entre 2 y 50 caracteres")
-    @Column(nullable = false, length = 100)
+    @Column(nullable = false, length = 50)
     private String nombre;
 
     @NotBlank(message = "El apellido es obligatorio")
     @Size(min = 2, max = 50, message = "El apellido debe tener entre 2 y 50 caracteres")
-    @Column(nullable = false, length = 100)
+    @Column(nullable = false, length = 50)
     private String apellido;
 
     @NotBlank(message = "El email es obligatorio")
@@ -53,8 +60,11 @@ public class Empleado {
     @JoinColumn(name = "departamento_id")
     private Departamento departamento;
 
+    // Las asignaciones a proyectos no cambian la versión del empleado: no forman parte de su JSON
+    // y así no invalidan el If-Match de quien está editando sus datos
     @JsonIgnore
     @EqualsAndHashCode.Exclude
+    @OptimisticLock(excluded = true)
     @ManyToMany
     @JoinTable(
             name = "empleado_proyecto",
@@ -62,4 +72,9 @@ public class Empleado {
             inverseJoinColumns = @JoinColumn(name = "proyecto_id")
     )
     private Set<Proyecto> proyectos = new HashSet<>();
+
+    // Bloqueo optimista: se expone como ETag en GET /api/empleados/{id} y se compara con If-Match al actualizar
+    @EqualsAndHashCode.Exclude
+    @Version
+    private Long version;
 }
@@ -0,0 +1,40 @@
+package um.prog2.TP5.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregados de salario de un departamento, mantenidos por {@code EstadisticasSalarioService}
+ * en la misma transacción que cada alta, modificación o baja de empleados.
+ * Permite obtener el promedio sin recorrer la tabla de empleados.
+ */
+@Entity
+@Table(name = "estadisticas_salario_departamento")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasSalarioDepartamento {
+    @Id
+    @Column(name = "departamento_id")
+    private Long departamentoId;
+
+    @Column(nullable = false)
+    private Long cantidad;
+
+    @Column(name = "suma_salarios", nullable = false, precision = 19, scale = 2)
+    private BigDecimal sumaSalarios;
+
+    @Column(name = "salario_minimo", precision = 10, scale = 2)
+    private BigDecimal salarioMinimo;
+
+    @Column(name = "salario_maximo", precision = 10, scale = 2)
+    private BigDecimal salarioMaximo;
+
+    public static EstadisticasSalarioDepartamento vacias(Long departamentoId) {
+        return new EstadisticasSalarioDepartamento(departamentoId, 0L, BigDecimal.ZERO, null, null);
+    }
+}
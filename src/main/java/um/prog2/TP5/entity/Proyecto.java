@@ -8,12 +8,16 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import um.prog2.TP5.validation.ValidDateRange;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos")
 @Table(name = "proyectos")
 @Data
 @NoArgsConstructor
@@ -42,15 +46,28 @@ public class Proyecto {
     private LocalDate fechaFin;
 
     @EqualsAndHashCode.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "proyectos-empleados")
     @ManyToMany(mappedBy = "proyectos")
     private Set<Empleado> empleados = new HashSet<>();
 
+    // Bloqueo optimista: se expone como ETag en GET /api/proyectos/{id} y se compara con If-Match al actualizar
+    @EqualsAndHashCode.Exclude
+    @Version
+    private Long version;
+
     /**
      * Calcula si el proyecto está activo.
      * Un proyecto está activo si no tiene fecha de fin o si la fecha de fin es futura.
      */
     @JsonProperty("activo")
     public boolean isActivo() {
+        return estaActivo(fechaFin);
+    }
+
+    /**
+     * Regla de actividad compartida con las proyecciones de solo lectura.
+     */
+    public static boolean estaActivo(LocalDate fechaFin) {
         if (fechaFin == null) {
             return true;
         }
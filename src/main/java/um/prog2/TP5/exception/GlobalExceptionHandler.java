@@ -76,6 +76,19 @@ public class GlobalExceptionHandler {
         return new ErrorResponse("DEPARTAMENTO_DUPLICADO", ex.getMessage());
     }
 
+    @ExceptionHandler(VersionDesactualizadaException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse handleVersionDesactualizada(VersionDesactualizadaException ex) {
+        return new ErrorResponse("VERSION_DESACTUALIZADA", ex.getMessage());
+    }
+
+    // Otra escritura confirmó una versión más nueva entre la lectura y el UPDATE, o el cuerpo traía una versión vieja
+    @ExceptionHandler(org.springframework.dao.OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(org.springframework.dao.OptimisticLockingFailureException ex) {
+        return new ErrorResponse("CONFLICTO_DE_VERSION", "El recurso fue modificado por otra petición; vuelva a leerlo");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidationErrors(MethodArgumentNotValidException ex) {
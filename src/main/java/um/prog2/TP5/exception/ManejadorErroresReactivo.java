@@ -0,0 +1,41 @@
+package um.prog2.TP5.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Equivalente de {@link GlobalExceptionHandler} para la API reactiva: traduce las excepciones
+ * de los handlers al mismo {@link ErrorResponse} con los mismos códigos.
+ * <p>
+ * Solo alcanza a los errores previos a la respuesta. Si un listado falla cuando ya se enviaron
+ * los encabezados y parte del cuerpo, la conexión se cierra y el cliente recibe un JSON incompleto.
+ */
+public class ManejadorErroresReactivo implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        // defer: los handlers también pueden fallar al leer la petición, antes de devolver el Mono
+        return Mono.defer(() -> next.handle(request))
+                .onErrorResume(ManejadorErroresReactivo::responder);
+    }
+
+    private static Mono<ServerResponse> responder(Throwable ex) {
+        return switch (ex) {
+            case EmpleadoNoEncontradoException e -> error(HttpStatus.NOT_FOUND, "EMPLEADO_NO_ENCONTRADO", e.getMessage());
+            case DepartamentoNoEncontradoException e -> error(HttpStatus.NOT_FOUND, "DEPARTAMENTO_NO_ENCONTRADO", e.getMessage());
+            case ProyectoNoEncontradoException e -> error(HttpStatus.NOT_FOUND, "PROYECTO_NO_ENCONTRADO", e.getMessage());
+            case ServerWebInputException e -> error(HttpStatus.BAD_REQUEST, "PARAMETRO_FALTANTE", e.getReason());
+            case IllegalArgumentException e -> error(HttpStatus.BAD_REQUEST, "ARGUMENTO_INVALIDO", e.getMessage());
+            default -> error(HttpStatus.INTERNAL_SERVER_ERROR, "ERROR_INTERNO", "Ha ocurrido un error inesperado");
+        };
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String codigo, String mensaje) {
+        return ServerResponse.status(status).bodyValue(new ErrorResponse(codigo, mensaje));
+    }
+}
@@ -0,0 +1,10 @@
+package um.prog2.TP5.exception;
+
+/**
+ * La versión indicada en If-Match no coincide con la versión actual del recurso.
+ */
+public class VersionDesactualizadaException extends RuntimeException {
+    public VersionDesactualizadaException(String message) {
+        super(message);
+    }
+}
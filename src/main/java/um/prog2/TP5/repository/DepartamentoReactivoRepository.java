@@ -0,0 +1,52 @@
+package um.prog2.TP5.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.dto.DepartamentoDTO;
+
+/**
+ * Consultas de solo lectura de departamentos sobre R2DBC.
+ * Misma proyección que {@link DepartamentoRepository#findAllAsDTO()}.
+ */
+@Repository
+public class DepartamentoReactivoRepository {
+
+    private static final String PROYECCION_DTO = "SELECT d.id, d.nombre, d.descripcion, d.version FROM departamentos d ";
+
+    private final DatabaseClient databaseClient;
+
+    public DepartamentoReactivoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<DepartamentoDTO> findAll() {
+        return databaseClient.sql(PROYECCION_DTO + "ORDER BY d.id")
+                .map(DepartamentoReactivoRepository::aDTO)
+                .all();
+    }
+
+    public Mono<DepartamentoDTO> findById(Long id) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE d.id = :id")
+                .bind("id", id)
+                .map(DepartamentoReactivoRepository::aDTO)
+                .one();
+    }
+
+    public Mono<DepartamentoDTO> findByNombre(String nombre) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE d.nombre = :nombre")
+                .bind("nombre", nombre)
+                .map(DepartamentoReactivoRepository::aDTO)
+                .one();
+    }
+
+    private static DepartamentoDTO aDTO(Readable fila) {
+        return new DepartamentoDTO(
+                fila.get("id", Long.class),
+                fila.get("nombre", String.class),
+                fila.get("descripcion", String.class),
+                fila.get("version", Long.class));
+    }
+}
@@ -1,16 +1,36 @@
 package um.prog2.TP5.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import um.prog2.TP5.dto.DepartamentoDTO;
 import um.prog2.TP5.entity.Departamento;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface DepartamentoRepository extends JpaRepository<Departamento, Long> {
     Optional<Departamento> findByNombre(String nombre);
+
+    @Query("SELECT d.id FROM Departamento d WHERE d.id IN :ids")
+    Set<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bloquea la fila del departamento hasta el fin de la transacción. Serializa la creación de datos
+     * que dependen de él y que no tienen una fila propia que bloquear todavía.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Departamento d WHERE d.id = :id")
+    Optional<Departamento> findParaActualizar(@Param("id") Long id);
+
+    @Query("SELECT new um.prog2.TP5.dto.DepartamentoDTO(d.id, d.nombre, d.descripcion, d.version) FROM Departamento d ORDER BY d.id")
+    List<DepartamentoDTO> findAllAsDTO();
 }
 
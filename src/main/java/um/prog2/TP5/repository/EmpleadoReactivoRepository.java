@@ -0,0 +1,97 @@
+package um.prog2.TP5.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.dto.EmpleadoDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Consultas de solo lectura de empleados sobre R2DBC. Son las mismas proyecciones que
+ * {@link EmpleadoRepository} arma en JPQL, escritas en SQL porque R2DBC no pasa por Hibernate.
+ * Las filas se emiten a medida que el cliente las pide, sin materializar el resultado completo.
+ */
+@Repository
+public class EmpleadoReactivoRepository {
+
+    static final String SELECCION_DTO = "SELECT e.id, e.nombre, e.apellido, e.email, e.fecha_contratacion, e.salario, e.version, " +
+            "d.id AS departamento_id, d.nombre AS departamento_nombre, d.descripcion AS departamento_descripcion, " +
+            "d.version AS departamento_version ";
+
+    private static final String PROYECCION_DTO = SELECCION_DTO +
+            "FROM empleados e LEFT JOIN departamentos d ON d.id = e.departamento_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public EmpleadoReactivoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<EmpleadoDTO> findAll() {
+        return databaseClient.sql(PROYECCION_DTO + "ORDER BY e.id")
+                .map(EmpleadoReactivoRepository::aDTO)
+                .all();
+    }
+
+    public Mono<EmpleadoDTO> findById(Long id) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE e.id = :id")
+                .bind("id", id)
+                .map(EmpleadoReactivoRepository::aDTO)
+                .one();
+    }
+
+    public Mono<EmpleadoDTO> findByEmail(String email) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE e.email = :email")
+                .bind("email", email)
+                .map(EmpleadoReactivoRepository::aDTO)
+                .one();
+    }
+
+    public Flux<EmpleadoDTO> findByNombreDepartamento(String nombreDepartamento) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE d.nombre = :nombreDepartamento ORDER BY e.id")
+                .bind("nombreDepartamento", nombreDepartamento)
+                .map(EmpleadoReactivoRepository::aDTO)
+                .all();
+    }
+
+    public Flux<EmpleadoDTO> findBySalarioBetween(BigDecimal salarioMin, BigDecimal salarioMax) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE e.salario BETWEEN :salarioMin AND :salarioMax ORDER BY e.id")
+                .bind("salarioMin", salarioMin)
+                .bind("salarioMax", salarioMax)
+                .map(EmpleadoReactivoRepository::aDTO)
+                .all();
+    }
+
+    /**
+     * Igual que {@link EmpleadoRepository#findByProyectoIdAsDTO(Long)}, parte de empleado_proyecto
+     * para que la base recorra solo las filas del proyecto.
+     */
+    public Flux<EmpleadoDTO> findByProyectoId(Long proyectoId) {
+        return databaseClient.sql(SELECCION_DTO + "FROM empleado_proyecto ep " +
+                        "JOIN empleados e ON e.id = ep.empleado_id " +
+                        "LEFT JOIN departamentos d ON d.id = e.departamento_id " +
+                        "WHERE ep.proyecto_id = :proyectoId ORDER BY e.id")
+                .bind("proyectoId", proyectoId)
+                .map(EmpleadoReactivoRepository::aDTO)
+                .all();
+    }
+
+    private static EmpleadoDTO aDTO(Readable fila) {
+        return new EmpleadoDTO(
+                fila.get("id", Long.class),
+                fila.get("nombre", String.class),
+                fila.get("apellido", String.class),
+                fila.get("email", String.class),
+                fila.get("fecha_contratacion", LocalDate.class),
+                fila.get("salario", BigDecimal.class),
+                fila.get("version", Long.class),
+                fila.get("departamento_id", Long.class),
+                fila.get("departamento_nombre", String.class),
+                fila.get("departamento_descripcion", String.class),
+                fila.get("departamento_version", Long.class));
+    }
+}
@@ -1,27 +1,130 @@
 package um.prog2.TP5.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import um.prog2.TP5.dto.EmpleadoBusquedaDTO;
+import um.prog2.TP5.dto.EmpleadoDTO;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.EstadisticasSalarioDepartamento;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmpleadoRepository extends JpaRepository<Empleado, Long> {
+    String SELECCION_DTO = "SELECT new um.prog2.TP5.dto.EmpleadoDTO(e.id, e.nombre, e.apellido, e.email, " +
+            "e.fechaContratacion, e.salario, e.version, d.id, d.nombre, d.descripcion, d.version) ";
+    String PROYECCION_DTO = SELECCION_DTO + "FROM Empleado e LEFT JOIN e.departamento d ";
+
     Optional<Empleado> findByEmail(String email);
     List<Empleado> findByDepartamento(Departamento departamento);
     List<Empleado> findBySalarioBetween(BigDecimal salarioMin, BigDecimal salarioMax);
     List<Empleado> findByFechaContratacionAfter(LocalDate fecha);
 
+    @Query("SELECT e.email FROM Empleado e WHERE e.email IN :emails")
+    Set<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+
     @Query("SELECT e FROM Empleado e WHERE e.departamento.nombre = :nombreDepartamento")
     List<Empleado> findByNombreDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
 
+    /**
+     * Variante de {@link #findByNombreDepartamento(String)} que trae el departamento en la misma consulta,
+     * evitando un SELECT adicional por empleado al serializar.
+     */
+    @Query("SELECT e FROM Empleado e JOIN FETCH e.departamento d WHERE d.nombre = :nombreDepartamento")
+    List<Empleado> findByNombreDepartamentoConDepartamento(@Param("nombreDepartamento") String nombreDepartamento);
+
+    /**
+     * Carga en una sola consulta, con sus proyectos y su departamento ya inicializados, los empleados
+     * solicitados y los que hoy pertenecen al proyecto, para poder calcular la diferencia de membresías.
+     */
+    @Query("SELECT DISTINCT e FROM Empleado e LEFT JOIN FETCH e.proyectos LEFT JOIN FETCH e.departamento " +
+            "WHERE e.id IN :ids OR e.id IN (SELECT m.id FROM Proyecto p JOIN p.empleados m WHERE p.id = :proyectoId)")
+    List<Empleado> findCandidatosAsignacion(@Param("proyectoId") Long proyectoId, @Param("ids") Collection<Long> ids);
+
     @Query("SELECT AVG(e.salario) FROM Empleado e WHERE e.departamento.id = :departamentoId")
     Optional<BigDecimal> findAverageSalarioByDepartamento(@Param("departamentoId") Long departamentoId);
-}
\ No newline at end of file
+
+    String AGREGADOS_SALARIO = "SELECT new um.prog2.TP5.entity.EstadisticasSalarioDepartamento(" +
+            "e.departamento.id, COUNT(e), SUM(e.salario), MIN(e.salario), MAX(e.salario)) FROM Empleado e ";
+
+    /**
+     * Recalcula desde cero los agregados de salario de un departamento. Vacío si no tiene empleados.
+     */
+    @Query(AGREGADOS_SALARIO + "WHERE e.departamento.id = :departamentoId GROUP BY e.departamento.id")
+    Optional<EstadisticasSalarioDepartamento> calcularEstadisticasSalario(@Param("departamentoId") Long departamentoId);
+
+    @Query(AGREGADOS_SALARIO + "WHERE e.departamento.id = :departamentoId AND e.id <> :empleadoId GROUP BY e.departamento.id")
+    Optional<EstadisticasSalarioDepartamento> calcularEstadisticasSalarioSin(@Param("departamentoId") Long departamentoId,
+                                                                             @Param("empleadoId") Long empleadoId);
+
+    /**
+     * Recorre todos los empleados con un cursor del driver JDBC en lugar de materializar la lista.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Empleado e JOIN FETCH e.departamento ORDER BY e.id")
+    Stream<Empleado> streamTodos();
+
+    /**
+     * Recorre solo los salarios de un departamento con un cursor JDBC, sin hidratar entidades.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.salario FROM Empleado e WHERE e.departamento.id = :departamentoId")
+    Stream<BigDecimal> streamSalariosPorDepartamento(@Param("departamentoId") Long departamentoId);
+
+    /**
+     * Recorre los campos de texto de todos los empleados con un cursor JDBC para armar los índices de
+     * búsqueda en memoria. Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new um.prog2.TP5.dto.EmpleadoBusquedaDTO(e.id, e.nombre, e.apellido, e.email) FROM Empleado e")
+    Stream<EmpleadoBusquedaDTO> streamParaBusqueda();
+
+    // Proyecciones de solo lectura: no hidratan entidades ni generan snapshots en el contexto de persistencia
+
+    @Query(PROYECCION_DTO + "ORDER BY e.id")
+    List<EmpleadoDTO> findAllAsDTO();
+
+    @Query(PROYECCION_DTO + "WHERE e.id IN :ids")
+    List<EmpleadoDTO> findByIdInAsDTO(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Paginación por keyset: busca sobre la clave primaria en lugar de usar OFFSET,
+     * por lo que el costo de cada página no depende de su profundidad.
+     */
+    @Query(PROYECCION_DTO + "WHERE e.id > :id ORDER BY e.id")
+    List<EmpleadoDTO> findPageAsDTO(@Param("id") Long id, Limit limit);
+
+    @Query(PROYECCION_DTO + "WHERE d.nombre = :nombreDepartamento ORDER BY e.id")
+    List<EmpleadoDTO> findByNombreDepartamentoAsDTO(@Param("nombreDepartamento") String nombreDepartamento);
+
+    @Query(PROYECCION_DTO + "WHERE e.salario BETWEEN :salarioMin AND :salarioMax ORDER BY e.id")
+    List<EmpleadoDTO> findBySalarioBetweenAsDTO(@Param("salarioMin") BigDecimal salarioMin,
+                                                @Param("salarioMax") BigDecimal salarioMax);
+
+    /**
+     * Parte del proyecto para que la base recorra solo sus filas de empleado_proyecto (por el índice
+     * de proyecto_id) en lugar de todos los empleados: H2 no reordena las tablas que rodean un LEFT JOIN.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECCION_DTO + "FROM Proyecto p JOIN p.empleados e LEFT JOIN e.departamento d " +
+            "WHERE p.id = :proyectoId ORDER BY e.id")
+    List<EmpleadoDTO> findByProyectoIdAsDTO(@Param("proyectoId") Long proyectoId);
+}
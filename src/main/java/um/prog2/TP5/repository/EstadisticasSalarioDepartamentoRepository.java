@@ -0,0 +1,23 @@
+package um.prog2.TP5.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import um.prog2.TP5.entity.EstadisticasSalarioDepartamento;
+
+import java.util.Optional;
+
+@Repository
+public interface EstadisticasSalarioDepartamentoRepository extends JpaRepository<EstadisticasSalarioDepartamento, Long> {
+
+    /**
+     * Bloquea la fila hasta el fin de la transacción para que dos escrituras concurrentes
+     * sobre el mismo departamento no pisen sus incrementos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM EstadisticasSalarioDepartamento s WHERE s.departamentoId = :departamentoId")
+    Optional<EstadisticasSalarioDepartamento> findParaActualizar(@Param("departamentoId") Long departamentoId);
+}
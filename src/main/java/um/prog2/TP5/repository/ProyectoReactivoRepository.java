@@ -0,0 +1,62 @@
+package um.prog2.TP5.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import um.prog2.TP5.dto.ProyectoDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Consultas de solo lectura de proyectos sobre R2DBC.
+ * Mismas proyecciones que {@link ProyectoRepository}.
+ */
+@Repository
+public class ProyectoReactivoRepository {
+
+    private static final String PROYECCION_DTO = "SELECT p.id, p.nombre, p.descripcion, p.fecha_inicio, p.fecha_fin, p.version " +
+            "FROM proyectos p ";
+
+    private final DatabaseClient databaseClient;
+
+    public ProyectoReactivoRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ProyectoDTO> findAll() {
+        return databaseClient.sql(PROYECCION_DTO + "ORDER BY p.id")
+                .map(ProyectoReactivoRepository::aDTO)
+                .all();
+    }
+
+    public Mono<ProyectoDTO> findById(Long id) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(ProyectoReactivoRepository::aDTO)
+                .one();
+    }
+
+    /**
+     * Igual que {@link ProyectoRepository#findActiveProjectsAsDTO(LocalDate)}: dos ramas disjuntas
+     * unidas con UNION ALL para que cada una use el índice de fecha_fin.
+     */
+    public Flux<ProyectoDTO> findActiveProjects(LocalDate hoy) {
+        return databaseClient.sql(PROYECCION_DTO + "WHERE p.fecha_fin IS NULL " +
+                        "UNION ALL " + PROYECCION_DTO + "WHERE p.fecha_fin > :hoy ORDER BY 1")
+                .bind("hoy", hoy)
+                .map(ProyectoReactivoRepository::aDTO)
+                .all();
+    }
+
+    private static ProyectoDTO aDTO(Readable fila) {
+        return new ProyectoDTO(
+                fila.get("id", Long.class),
+                fila.get("nombre", String.class),
+                fila.get("descripcion", String.class),
+                fila.get("fecha_inicio", LocalDate.class),
+                fila.get("fecha_fin", LocalDate.class),
+                fila.get("version", Long.class));
+    }
+}
@@ -1,13 +1,60 @@
 package um.prog2.TP5.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import um.prog2.TP5.dto.ProyectoDTO;
+import um.prog2.TP5.dto.VersionProyectoDTO;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.entity.Proyecto;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProyectoRepository extends JpaRepository<Proyecto, Long> {
-    @Query("SELECT p FROM Proyecto p WHERE p.fechaFin IS NULL OR p.fechaFin > CURRENT_DATE")
-    List<Proyecto> findActiveProjects();
+    String PROYECCION_DTO = "SELECT new um.prog2.TP5.dto.ProyectoDTO(p.id, p.nombre, p.descripcion, p.fechaInicio, p.fechaFin, p.version) " +
+            "FROM Proyecto p ";
+
+    default List<Proyecto> findActiveProjects() {
+        return findActiveProjects(LocalDate.now());
+    }
+
+    /**
+     * La fecha va como parámetro y no como CURRENT_DATE para que forme parte de la clave
+     * de la caché de consultas: al cambiar el día no se reutiliza un resultado de ayer.
+     * Las dos condiciones van en ramas de un UNION ALL y no unidas con OR, porque así cada
+     * una se resuelve con una búsqueda en el índice de fecha_fin (las ramas son disjuntas).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Proyecto p WHERE p.fechaFin IS NULL " +
+            "UNION ALL SELECT p FROM Proyecto p WHERE p.fechaFin > :hoy")
+    List<Proyecto> findActiveProjects(@Param("hoy") LocalDate hoy);
+
+    @Query(PROYECCION_DTO + "ORDER BY p.id")
+    List<ProyectoDTO> findAllAsDTO();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("(" + PROYECCION_DTO + "WHERE p.fechaFin IS NULL " +
+            "UNION ALL " + PROYECCION_DTO + "WHERE p.fechaFin > :hoy) ORDER BY 1")
+    List<ProyectoDTO> findActiveProjectsAsDTO(@Param("hoy") LocalDate hoy);
+
+    /**
+     * El proyecto con sus empleados y el departamento de cada uno en una sola consulta.
+     */
+    @Query("SELECT p FROM Proyecto p LEFT JOIN FETCH p.empleados e LEFT JOIN FETCH e.departamento WHERE p.id = :id")
+    Optional<Proyecto> findConEmpleadosById(@Param("id") Long id);
+
+    @Query("SELECT p.version FROM Proyecto p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Versión de cada empleado asignado y de su departamento, en orden de ID, sin cargar las entidades.
+     */
+    @Query("SELECT new um.prog2.TP5.dto.VersionProyectoDTO$VersionEmpleado(e.id, e.version, d.version) " +
+            "FROM Proyecto p JOIN p.empleados e LEFT JOIN e.departamento d WHERE p.id = :id ORDER BY e.id")
+    List<VersionProyectoDTO.VersionEmpleado> findVersionesEmpleados(@Param("id") Long id);
 }
@@ -0,0 +1,323 @@
+package um.prog2.TP5.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Árbol radix (trie comprimido) de nombres para autocompletar. Cada nombre se normaliza como en
+ * {@link IndiceInvertido} y se inserta una vez por palabra, desde esa palabra hasta el final, así que
+ * "gar" encuentra a "María García" igual que "mar".
+ * <p>
+ * Para ocupar poco, las etiquetas de las aristas no se copian: cada nodo guarda el nombre normalizado
+ * de alguno de sus descendientes y el rango de su etiqueta dentro de él. Todas las claves del nombre
+ * comparten ese único String.
+ * <p>
+ * Una búsqueda baja por el prefijo y recorre el subárbol en orden alfabético hasta juntar el límite, así
+ * que su costo depende del largo del prefijo y del límite pero no de la cantidad de nombres. Seguro para
+ * varios hilos con un lock de lectura y escritura, como {@link IndiceInvertido}.
+ */
+public class ArbolRadix {
+
+    private static final long[] SIN_IDS = new long[0];
+    private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+    private final Nodo raiz = new Nodo("", 0, 0);
+    private final Map<Long, Nombre> nombres = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Un nombre encontrado: su ID, el texto tal como se indexó y la clave normalizada que coincidió
+     * con el prefijo, que sirve para intercalar resultados de varios árboles en el mismo orden.
+     */
+    public record Coincidencia(Long id, String texto, String clave) {
+    }
+
+    private record Nombre(String texto, String normalizado) {
+    }
+
+    /**
+     * Indexa el nombre del ID, reemplazando el que tuviera.
+     */
+    public void indexar(Long id, String texto) {
+        String normalizado = String.join(" ", IndiceInvertido.terminos(texto));
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            if (normalizado.isEmpty()) {
+                return;
+            }
+            nombres.put(id, new Nombre(texto, normalizado));
+            for (int inicio : iniciosDePalabra(normalizado)) {
+                insertar(normalizado, inicio, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code limite} nombres distintos con alguna palabra que empieza con el prefijo, en orden
+     * alfabético de la clave que coincidió y, a igual clave, por ID.
+     */
+    public List<Coincidencia> buscar(String prefijo, int limite) {
+        String clave = String.join(" ", IndiceInvertido.terminos(prefijo));
+        if (clave.isEmpty() || limite < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            int profundidad = 0;
+            while (profundidad < clave.length()) {
+                Nodo hijo = nodo.hijo(clave.charAt(profundidad));
+                if (hijo == null) {
+                    return List.of();
+                }
+                int comunes = hijo.comunes(clave, profundidad);
+                if (profundidad + comunes < clave.length() && comunes < hijo.largo()) {
+                    return List.of();
+                }
+                nodo = hijo;
+                profundidad += hijo.largo();
+            }
+            List<Coincidencia> coincidencias = new ArrayList<>(limite);
+            recorrer(nodo, profundidad, limite, new HashSet<>(), coincidencias);
+            return coincidencias;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getNombres() {
+        lock.readLock().lock();
+        try {
+            return nombres.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void recorrer(Nodo nodo, int profundidad, int limite, Set<Long> vistos, List<Coincidencia> coincidencias) {
+        for (long id : nodo.ids) {
+            if (vistos.add(id)) {
+                String clave = nodo.texto.substring(nodo.hasta - profundidad, nodo.hasta);
+                coincidencias.add(new Coincidencia(id, nombres.get(id).texto(), clave));
+                if (coincidencias.size() == limite) {
+                    return;
+                }
+            }
+        }
+        for (Nodo hijo : nodo.hijos) {
+            recorrer(hijo, profundidad + hijo.largo(), limite, vistos, coincidencias);
+            if (coincidencias.size() == limite) {
+                return;
+            }
+        }
+    }
+
+    private void insertar(String texto, int inicio, long id) {
+        Nodo nodo = raiz;
+        int posicion = inicio;
+        while (posicion < texto.length()) {
+            Nodo hijo = nodo.hijo(texto.charAt(posicion));
+            if (hijo == null) {
+                hijo = new Nodo(texto, posicion, texto.length());
+                nodo.agregarHijo(hijo);
+                nodo = hijo;
+                break;
+            }
+            int comunes = hijo.comunes(texto, posicion);
+            if (comunes < hijo.largo()) {
+                hijo = nodo.dividir(hijo, comunes);
+            }
+            nodo = hijo;
+            posicion += comunes;
+        }
+        nodo.agregarId(id);
+    }
+
+    private void quitar(Long id) {
+        Nombre anterior = nombres.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (int inicio : iniciosDePalabra(anterior.normalizado())) {
+            quitar(raiz, anterior.normalizado(), inicio, id);
+        }
+    }
+
+    /**
+     * Quita el ID de la clave que empieza en {@code posicion} y poda hacia arriba los nodos que quedan
+     * vacíos o con un solo hijo, para que el árbol siga comprimido.
+     */
+    private static void quitar(Nodo nodo, String texto, int posicion, long id) {
+        if (posicion == texto.length()) {
+            nodo.quitarId(id);
+            return;
+        }
+        Nodo hijo = nodo.hijo(texto.charAt(posicion));
+        quitar(hijo, texto, posicion + hijo.largo(), id);
+        if (hijo.ids.length == 0 && hijo.hijos.length == 0) {
+            nodo.quitarHijo(hijo);
+        } else if (hijo.ids.length == 0 && hijo.hijos.length == 1) {
+            nodo.reemplazarHijo(hijo, hijo.fusionarConHijo());
+        }
+    }
+
+    private static List<Integer> iniciosDePalabra(String normalizado) {
+        List<Integer> inicios = new ArrayList<>();
+        inicios.add(0);
+        for (int i = normalizado.indexOf(' '); i >= 0; i = normalizado.indexOf(' ', i + 1)) {
+            inicios.add(i + 1);
+        }
+        return inicios;
+    }
+
+    /**
+     * La etiqueta del nodo es {@code texto[desde, hasta)}, y en {@code texto} los caracteres anteriores
+     * a {@code desde} son el camino desde la raíz: dividir o fusionar nodos solo mueve los índices.
+     */
+    private static final class Nodo {
+        private final String texto;
+        private int desde;
+        private final int hasta;
+        private Nodo[] hijos = SIN_HIJOS;
+        private long[] ids = SIN_IDS;
+
+        private Nodo(String texto, int desde, int hasta) {
+            this.texto = texto;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        private int largo() {
+            return hasta - desde;
+        }
+
+        private char primero() {
+            return texto.charAt(desde);
+        }
+
+        /**
+         * Cuántos caracteres de la etiqueta coinciden con {@code clave} desde {@code posicion}.
+         */
+        private int comunes(String clave, int posicion) {
+            int maximo = Math.min(largo(), clave.length() - posicion);
+            int i = 0;
+            while (i < maximo && texto.charAt(desde + i) == clave.charAt(posicion + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private Nodo hijo(char primero) {
+            int indice = indiceDeHijo(primero);
+            return indice >= 0 ? hijos[indice] : null;
+        }
+
+        private int indiceDeHijo(char primero) {
+            int bajo = 0;
+            int alto = hijos.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                char actual = hijos[medio].primero();
+                if (actual < primero) {
+                    bajo = medio + 1;
+                } else if (actual > primero) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+
+        private void agregarHijo(Nodo hijo) {
+            int posicion = -(indiceDeHijo(hijo.primero()) + 1);
+            Nodo[] nuevos = new Nodo[hijos.length + 1];
+            System.arraycopy(hijos, 0, nuevos, 0, posicion);
+            nuevos[posicion] = hijo;
+            System.arraycopy(hijos, posicion, nuevos, posicion + 1, hijos.length - posicion);
+            hijos = nuevos;
+        }
+
+        private void quitarHijo(Nodo hijo) {
+            int posicion = indiceDeHijo(hijo.primero());
+            Nodo[] nuevos = new Nodo[hijos.length - 1];
+            System.arraycopy(hijos, 0, nuevos, 0, posicion);
+            System.arraycopy(hijos, posicion + 1, nuevos, posicion, hijos.length - posicion - 1);
+            hijos = nuevos;
+        }
+
+        private void reemplazarHijo(Nodo anterior, Nodo nuevo) {
+            hijos[indiceDeHijo(anterior.primero())] = nuevo;
+        }
+
+        /**
+         * Corta la etiqueta del hijo después de {@code largo} caracteres: el tramo común queda en un nodo
+         * intermedio nuevo y el hijo cuelga de él con el resto.
+         */
+        private Nodo dividir(Nodo hijo, int largo) {
+            int indice = indiceDeHijo(hijo.primero());
+            Nodo intermedio = new Nodo(hijo.texto, hijo.desde, hijo.desde + largo);
+            hijo.desde += largo;
+            intermedio.hijos = new Nodo[]{hijo};
+            hijos[indice] = intermedio;
+            return intermedio;
+        }
+
+        /**
+         * Un nodo sin IDs y con un único hijo se reemplaza por el hijo con la etiqueta de ambos. El texto
+         * del hijo contiene el camino completo, así que alcanza con correr su comienzo.
+         */
+        private Nodo fusionarConHijo() {
+            Nodo hijo = hijos[0];
+            hijo.desde -= largo();
+            return hijo;
+        }
+
+        private void agregarId(long id) {
+            int posicion = Arrays.binarySearch(ids, id);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -(posicion + 1);
+            long[] nuevos = new long[ids.length + 1];
+            System.arraycopy(ids, 0, nuevos, 0, posicion);
+            nuevos[posicion] = id;
+            System.arraycopy(ids, posicion, nuevos, posicion + 1, ids.length - posicion);
+            ids = nuevos;
+        }
+
+        private void quitarId(long id) {
+            int posicion = Arrays.binarySearch(ids, id);
+            if (posicion < 0) {
+                return;
+            }
+            if (ids.length == 1) {
+                ids = SIN_IDS;
+                return;
+            }
+            long[] nuevos = new long[ids.length - 1];
+            System.arraycopy(ids, 0, nuevos, 0, posicion);
+            System.arraycopy(ids, posicion + 1, nuevos, posicion, ids.length - posicion - 1);
+            ids = nuevos;
+        }
+    }
+}
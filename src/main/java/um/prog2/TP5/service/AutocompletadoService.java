@@ -0,0 +1,9 @@
+package um.prog2.TP5.service;
+
+import um.prog2.TP5.dto.SugerenciaDTO;
+
+import java.util.List;
+
+public interface AutocompletadoService {
+    List<SugerenciaDTO> sugerir(String prefijo, int limite);
+}
@@ -0,0 +1,53 @@
+package um.prog2.TP5.service;
+
+import org.springframework.stereotype.Service;
+import um.prog2.TP5.dto.SugerenciaDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sugerencias servidas solo desde los árboles de {@link IndiceEmpleados} e {@link IndiceDepartamentos}, sin
+ * tocar la base: el texto es el que se indexó con el último commit.
+ */
+@Service
+public class AutocompletadoServiceImpl implements AutocompletadoService {
+    public static final int LIMITE_MAXIMO = 50;
+
+    private final IndiceEmpleados indiceEmpleados;
+    private final IndiceDepartamentos indiceDepartamentos;
+
+    public AutocompletadoServiceImpl(IndiceEmpleados indiceEmpleados, IndiceDepartamentos indiceDepartamentos) {
+        this.indiceEmpleados = indiceEmpleados;
+        this.indiceDepartamentos = indiceDepartamentos;
+    }
+
+    /**
+     * Intercala las primeras {@code limite} coincidencias de cada árbol por la clave que coincidió, así que
+     * el resultado queda en orden alfabético sin importar el tipo; a igual clave van primero los empleados.
+     */
+    @Override
+    public List<SugerenciaDTO> sugerir(String prefijo, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+        List<ArbolRadix.Coincidencia> empleados = indiceEmpleados.sugerir(prefijo, limite);
+        List<ArbolRadix.Coincidencia> departamentos = indiceDepartamentos.sugerir(prefijo, limite);
+
+        List<SugerenciaDTO> sugerencias = new ArrayList<>(limite);
+        int e = 0;
+        int d = 0;
+        while (sugerencias.size() < limite && (e < empleados.size() || d < departamentos.size())) {
+            boolean tomarEmpleado = d == departamentos.size()
+                    || e < empleados.size() && empleados.get(e).clave().compareTo(departamentos.get(d).clave()) <= 0;
+            sugerencias.add(tomarEmpleado
+                    ? sugerencia(SugerenciaDTO.Tipo.EMPLEADO, empleados.get(e++))
+                    : sugerencia(SugerenciaDTO.Tipo.DEPARTAMENTO, departamentos.get(d++)));
+        }
+        return sugerencias;
+    }
+
+    private static SugerenciaDTO sugerencia(SugerenciaDTO.Tipo tipo, ArbolRadix.Coincidencia coincidencia) {
+        return new SugerenciaDTO(tipo, coincidencia.id(), coincidencia.texto());
+    }
+}
@@ -0,0 +1,81 @@
+package um.prog2.TP5.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cambios de un índice en memoria ({@link IndiceEmpleados}, {@link IndiceDepartamentos}). Se aplican
+ * después del commit de la transacción que los origina, o en el momento si no hay ninguna, así que una
+ * transacción que hace rollback no deja rastros en el índice.
+ * <p>
+ * Mientras se arma un índice nuevo desde la base, los cambios se siguen aplicando al actual y además se
+ * guardan, para repetirlos sobre el nuevo al instalarlo: los confirmados después de la lectura no
+ * estarían en él. Repetir uno que la lectura ya incluía no cambia nada, porque indexar un ID reemplaza
+ * lo que tuviera y eliminarlo dos veces equivale a una.
+ */
+final class CambiosIndice {
+
+    private final ReentrantLock reconstruccion = new ReentrantLock();
+    private final ReentrantLock aplicacion = new ReentrantLock();
+    // Cambios aplicados desde que empezó la reconstrucción en curso; null si no hay ninguna
+    private List<Runnable> pendientes;
+
+    void alConfirmar(Runnable cambio) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(cambio);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicar(cambio);
+            }
+        });
+    }
+
+    /**
+     * Arma el índice nuevo con {@code armar}, sin bloquear los cambios, y lo instala con {@code instalar}
+     * junto con los cambios aplicados mientras tanto. Las reconstrucciones simultáneas se hacen de a una.
+     */
+    <T> void reconstruir(Supplier<T> armar, Consumer<T> instalar) {
+        reconstruccion.lock();
+        try {
+            conBloqueo(() -> pendientes = new ArrayList<>());
+            try {
+                T nuevo = armar.get();
+                conBloqueo(() -> {
+                    instalar.accept(nuevo);
+                    pendientes.forEach(Runnable::run);
+                });
+            } finally {
+                conBloqueo(() -> pendientes = null);
+            }
+        } finally {
+            reconstruccion.unlock();
+        }
+    }
+
+    private void aplicar(Runnable cambio) {
+        conBloqueo(() -> {
+            cambio.run();
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+        });
+    }
+
+    private void conBloqueo(Runnable accion) {
+        aplicacion.lock();
+        try {
+            accion.run();
+        } finally {
+            aplicacion.unlock();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package um.prog2.TP5.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores en memoria de escrituras por tabla, incrementados por los servicios en cada alta,
+ * modificación o baja. Permiten saber si un listado cambió sin consultar la base: mientras el
+ * contador no se mueva, el listado es el mismo que ya tiene el cliente.
+ * <p>
+ * Como {@link DepartamentoCache#invalidar()}, cada cambio incrementa el contador ahora y otra vez al
+ * terminar la transacción, así un listado leído antes del commit no queda asociado al valor final.
+ * Las versiones incluyen el instante de arranque para no repetirse después de reiniciar la aplicación.
+ * Las escrituras hechas por fuera de los servicios (SQL manual, otra instancia) no se registran.
+ */
+@Component
+public class ContadorCambios {
+
+    public enum Tabla {
+        DEPARTAMENTOS,
+        PROYECTOS
+    }
+
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Tabla, AtomicLong> contadores = new EnumMap<>(Tabla.class);
+
+    public ContadorCambios() {
+        for (Tabla tabla : Tabla.values()) {
+            contadores.put(tabla, new AtomicLong());
+        }
+    }
+
+    public void registrarCambio(Tabla tabla) {
+        AtomicLong contador = contadores.get(tabla);
+        contador.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    contador.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Identifica el estado actual de la tabla: cambia con cada escritura registrada.
+     */
+    public String version(Tabla tabla) {
+        return arranque + "-" + contadores.get(tabla).get();
+    }
+}
@@ -0,0 +1,143 @@
+package um.prog2.TP5.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import um.prog2.TP5.dto.DepartamentoDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché acotada en memoria de departamentos, indexada por ID, por nombre y con la lista completa.
+ * Guarda {@link DepartamentoDTO} inmutables para no compartir entidades entre transacciones.
+ * Cualquier escritura la vacía entera: la tabla es chica y así un cambio de nombre no deja claves viejas.
+ * <p>
+ * Cada vaciado avanza una generación. Quien lee de la base la toma antes de consultar y la pasa al guardar:
+ * si entre tanto hubo un vaciado, lo leído puede ser anterior a esa escritura y no se guarda. Sin esto, una
+ * lectura que empezó antes del commit podría volver a dejar la fila vieja después de la invalidación.
+ * <p>
+ * Como {@link MeterBinder}, Actuator registra las tres regiones en Micrometer: aciertos, fallos, tamaño y
+ * desalojos se publican como {@code cache_*} con la etiqueta {@code cache} (por ejemplo
+ * {@code departamentos.id}).
+ */
+@Component
+public class DepartamentoCache implements MeterBinder {
+
+    private static final String CLAVE_TODOS = "todos";
+
+    private final Cache<Long, DepartamentoDTO> porId;
+    private final Cache<String, DepartamentoDTO> porNombre;
+    private final Cache<String, List<DepartamentoDTO>> todos;
+    private final AtomicLong generacion = new AtomicLong();
+
+    public DepartamentoCache(@Value("${app.cache.departamentos.tamanio-maximo:1000}") long tamanioMaximo,
+                             @Value("${app.cache.departamentos.ttl:10m}") Duration ttl) {
+        this.porId = Caffeine.newBuilder().maximumSize(tamanioMaximo).expireAfterWrite(ttl).recordStats().build();
+        this.porNombre = Caffeine.newBuilder().maximumSize(tamanioMaximo).expireAfterWrite(ttl).recordStats().build();
+        this.todos = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    public Optional<DepartamentoDTO> buscarPorId(Long id) {
+        return Optional.ofNullable(porId.getIfPresent(id));
+    }
+
+    public Optional<DepartamentoDTO> buscarPorNombre(String nombre) {
+        return Optional.ofNullable(porNombre.getIfPresent(nombre));
+    }
+
+    public Optional<List<DepartamentoDTO>> obtenerTodos() {
+        return Optional.ofNullable(todos.getIfPresent(CLAVE_TODOS));
+    }
+
+    /**
+     * Generación vigente, a tomar antes de leer de la base lo que después se pase a {@link #guardar}.
+     */
+    public long generacion() {
+        return generacion.get();
+    }
+
+    /**
+     * Guarda el departamento si no hubo vaciados desde {@code generacionLeida}. Se vuelve a comprobar
+     * después de escribir porque un vaciado puede colarse entre la comprobación y el put.
+     */
+    public void guardar(long generacionLeida, DepartamentoDTO departamento) {
+        if (generacion.get() != generacionLeida) {
+            return;
+        }
+        porId.put(departamento.id(), departamento);
+        porNombre.put(departamento.nombre(), departamento);
+        if (generacion.get() != generacionLeida) {
+            porId.invalidate(departamento.id());
+            porNombre.invalidate(departamento.nombre());
+        }
+    }
+
+    public void guardarTodos(long generacionLeida, List<DepartamentoDTO> departamentos) {
+        if (generacion.get() != generacionLeida) {
+            return;
+        }
+        todos.put(CLAVE_TODOS, List.copyOf(departamentos));
+        departamentos.forEach(departamento -> guardar(generacionLeida, departamento));
+        if (generacion.get() != generacionLeida) {
+            todos.invalidate(CLAVE_TODOS);
+        }
+    }
+
+    /**
+     * Vacía la caché ahora y, si hay una transacción activa, otra vez al terminarla.
+     * La segunda pasada descarta lo que se haya leído dentro de la misma transacción
+     * antes del commit o de un rollback.
+     */
+    public void invalidar() {
+        invalidarTodo();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidarTodo();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        CaffeineCacheMetrics.monitor(registro, porId, "departamentos.id");
+        CaffeineCacheMetrics.monitor(registro, porNombre, "departamentos.nombre");
+        CaffeineCacheMetrics.monitor(registro, todos, "departamentos.todos");
+    }
+
+    public Estadisticas estadisticas() {
+        CacheStats stats = porId.stats().plus(porNombre.stats()).plus(todos.stats());
+        return new Estadisticas(stats.hitCount(), stats.missCount(), porId.estimatedSize() + porNombre.estimatedSize());
+    }
+
+    private void invalidarTodo() {
+        // La generación avanza antes de vaciar: un guardar que llegue después ya la ve cambiada
+        generacion.incrementAndGet();
+        porId.invalidateAll();
+        porNombre.invalidateAll();
+        todos.invalidateAll();
+    }
+
+    /**
+     * Contadores acumulados de las tres regiones desde el arranque.
+     */
+    public record Estadisticas(long aciertos, long fallos, long entradas) {
+
+        public double tasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0.0 : (double) aciertos / total;
+        }
+    }
+}
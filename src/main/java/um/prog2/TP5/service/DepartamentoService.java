@@ -1,5 +1,6 @@
 package um.prog2.TP5.service;
 
+import um.prog2.TP5.dto.DepartamentoDTO;
 import um.prog2.TP5.entity.Departamento;
 
 import java.math.BigDecimal;
@@ -10,6 +11,17 @@ public interface DepartamentoService {
     Departamento buscarPorId(Long id);
     Departamento buscarPorNombre(String nombre);
     List<Departamento> obtenerTodos();
-    Departamento actualizar(Long id, Departamento departamento);
+    List<DepartamentoDTO> listarTodos();
+
+    /**
+     * Versión del listado de departamentos; cambia con cada escritura hecha a través del servicio.
+     */
+    String versionListado();
+    Departamento actualizar(Long id, Departamento departamento, Long versionEsperada);
+
+    default Departamento actualizar(Long id, Departamento departamento) {
+        return actualizar(id, departamento, null);
+    }
     void eliminar(Long id);
+    DepartamentoCache.Estadisticas estadisticasCache();
 }
@@ -1,22 +1,38 @@
 package um.prog2.TP5.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import um.prog2.TP5.dto.DepartamentoDTO;
 import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.exception.DepartamentoDuplicadoException;
 import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
 import um.prog2.TP5.repository.DepartamentoRepository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Transactional
 public class DepartamentoServiceImpl implements DepartamentoService {
     private final DepartamentoRepository departamentoRepository;
+    private final DepartamentoCache departamentoCache;
+    private final EstadisticasSalarioService estadisticasSalarioService;
+    private final ContadorCambios contadorCambios;
+    private final IndiceDepartamentos indiceDepartamentos;
+    private final IndiceEmpleados indiceEmpleados;
 
-    public DepartamentoServiceImpl(DepartamentoRepository departamentoRepository) {
+    public DepartamentoServiceImpl(DepartamentoRepository departamentoRepository, DepartamentoCache departamentoCache,
+                                   EstadisticasSalarioService estadisticasSalarioService, ContadorCambios contadorCambios,
+                                   IndiceDepartamentos indiceDepartamentos, IndiceEmpleados indiceEmpleados) {
         this.departamentoRepository = departamentoRepository;
+        this.departamentoCache = departamentoCache;
+        this.estadisticasSalarioService = estadisticasSalarioService;
+        this.contadorCambios = contadorCambios;
+        this.indiceDepartamentos = indiceDepartamentos;
+        this.indiceEmpleados = indiceEmpleados;
     }
 
     @Override
@@ -24,40 +40,116 @@ public class DepartamentoServiceImpl implements DepartamentoService {
         if (departamentoRepository.findByNombre(departamento.getNombre()).isPresent()) {
             throw new DepartamentoDuplicadoException("Ya existe un departamento con el nombre: " + departamento.getNombre());
         }
-        return departamentoRepository.save(departamento);
+        departamentoCache.invalidar();
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.DEPARTAMENTOS);
+        Departamento guardado = departamentoRepository.save(departamento);
+        estadisticasSalarioService.inicializar(guardado.getId());
+        indiceDepartamentos.indexar(guardado);
+        return guardado;
     }
 
+    /**
+     * Las lecturas por ID, por nombre y de la lista completa pasan por {@link DepartamentoCache}.
+     * En un acierto se devuelve una instancia nueva desacoplada del contexto de persistencia,
+     * con la colección de empleados vacía. Leen de la primaria aunque no escriban: lo leído queda en
+     * la caché hasta la próxima escritura, y una réplica atrasada la llenaría con datos viejos.
+     */
     @Override
     public Departamento buscarPorId(Long id) {
-        return departamentoRepository.findById(id)
+        Optional<DepartamentoDTO> enCache = departamentoCache.buscarPorId(id);
+        if (enCache.isPresent()) {
+            return aEntidad(enCache.get());
+        }
+        long generacion = departamentoCache.generacion();
+        Departamento departamento = departamentoRepository.findById(id)
                 .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id));
+        departamentoCache.guardar(generacion, aDTO(departamento));
+        return departamento;
     }
 
     @Override
     public Departamento buscarPorNombre(String nombre) {
-        return departamentoRepository.findByNombre(nombre)
+        Optional<DepartamentoDTO> enCache = departamentoCache.buscarPorNombre(nombre);
+        if (enCache.isPresent()) {
+            return aEntidad(enCache.get());
+        }
+        long generacion = departamentoCache.generacion();
+        Departamento departamento = departamentoRepository.findByNombre(nombre)
                 .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con nombre: " + nombre));
+        departamentoCache.guardar(generacion, aDTO(departamento));
+        return departamento;
     }
 
     @Override
     public List<Departamento> obtenerTodos() {
-        return departamentoRepository.findAll();
+        return listarTodos().stream().map(DepartamentoServiceImpl::aEntidad).toList();
     }
 
     @Override
-    public Departamento actualizar(Long id, Departamento departamento) {
-        if (!departamentoRepository.existsById(id)) {
-            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id);
+    public List<DepartamentoDTO> listarTodos() {
+        Optional<List<DepartamentoDTO>> enCache = departamentoCache.obtenerTodos();
+        if (enCache.isPresent()) {
+            return enCache.get();
         }
+        long generacion = departamentoCache.generacion();
+        List<DepartamentoDTO> departamentos = departamentoRepository.findAllAsDTO();
+        departamentoCache.guardarTodos(generacion, departamentos);
+        return departamentos;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String versionListado() {
+        return contadorCambios.version(ContadorCambios.Tabla.DEPARTAMENTOS);
+    }
+
+    @Override
+    public DepartamentoCache.Estadisticas estadisticasCache() {
+        return departamentoCache.estadisticas();
+    }
+
+    @Override
+    public Departamento actualizar(Long id, Departamento departamento, Long versionEsperada) {
+        Departamento actual = departamentoRepository.findById(id)
+                .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id));
+        VersionesOptimistas.verificar(versionEsperada, actual.getVersion(), "Departamento", id);
+        departamento.setVersion(VersionesOptimistas.aplicar(versionEsperada, departamento.getVersion(), actual.getVersion()));
+        departamentoCache.invalidar();
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.DEPARTAMENTOS);
         departamento.setId(id);
-        return departamentoRepository.save(departamento);
+        Departamento guardado = departamentoRepository.save(departamento);
+        indiceDepartamentos.indexar(guardado);
+        return guardado;
     }
 
+    /**
+     * Los empleados del departamento se borran en cascada, así que también se quitan del índice de búsqueda.
+     * La cascada ya carga la colección, de modo que leer sus IDs no agrega consultas.
+     */
     @Override
     public void eliminar(Long id) {
-        if (!departamentoRepository.existsById(id)) {
-            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id);
-        }
-        departamentoRepository.deleteById(id);
+        Departamento departamento = departamentoRepository.findById(id)
+                .orElseThrow(() -> new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + id));
+        departamentoCache.invalidar();
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.DEPARTAMENTOS);
+        estadisticasSalarioService.eliminar(id);
+        List<Long> empleados = departamento.getEmpleados().stream().map(Empleado::getId).toList();
+        departamentoRepository.delete(departamento);
+        indiceDepartamentos.eliminar(id);
+        empleados.forEach(indiceEmpleados::eliminar);
+    }
+
+    private static DepartamentoDTO aDTO(Departamento departamento) {
+        return new DepartamentoDTO(departamento.getId(), departamento.getNombre(), departamento.getDescripcion(),
+                departamento.getVersion());
+    }
+
+    private static Departamento aEntidad(DepartamentoDTO dto) {
+        Departamento departamento = new Departamento();
+        departamento.setId(dto.id());
+        departamento.setNombre(dto.nombre());
+        departamento.setDescripcion(dto.descripcion());
+        departamento.setVersion(dto.version());
+        return departamento;
     }
 }
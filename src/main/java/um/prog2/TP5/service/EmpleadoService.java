@@ -1,19 +1,34 @@
 package um.prog2.TP5.service;
 
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.PaginaCursor;
 import um.prog2.TP5.entity.Empleado;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 // Interface del servicio
 public interface EmpleadoService {
     Empleado validarEmpleado(Empleado empleado);
+    List<Empleado> guardarLote(List<Empleado> empleados);
     Empleado buscarPorEmail(String email);
     Empleado buscarPorId(Long id);
     List<Empleado> buscarPorDepartamento(String nombreDepartamento);
     List<Empleado> buscarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax);
     BigDecimal obtenerSalarioPromedioPorDepartamento(Long departamentoId);
     List<Empleado> obtenerTodos();
-    Empleado actualizar(Long id, Empleado empleado);
+    List<EmpleadoDTO> listarTodos();
+    List<EmpleadoDTO> listarPorDepartamento(String nombreDepartamento);
+    List<EmpleadoDTO> listarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax);
+    PaginaCursor<EmpleadoDTO> obtenerPagina(String cursor, int limite);
+    List<EmpleadoDTO> buscar(String consulta, int limite);
+    List<EmpleadoDTO> buscarAproximado(String consulta, int limite);
+    long exportarTodos(Consumer<Empleado> consumidor);
+    Empleado actualizar(Long id, Empleado empleado, Long versionEsperada);
+
+    default Empleado actualizar(Long id, Empleado empleado) {
+        return actualizar(id, empleado, null);
+    }
     void eliminar(Long id);
 }
@@ -1,23 +1,56 @@
 package um.prog2.TP5.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.PaginaCursor;
 import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
 import um.prog2.TP5.exception.EmailDuplicadoException;
 import um.prog2.TP5.exception.EmpleadoNoEncontradoException;
+import um.prog2.TP5.repository.DepartamentoRepository;
 import um.prog2.TP5.repository.EmpleadoRepository;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 // Implementación del servicio
 @Service
 @Transactional
 public class EmpleadoServiceImpl implements EmpleadoService {
+    public static final int LIMITE_PAGINA_MAXIMO = 1000;
+    // Debe coincidir con hibernate.jdbc.batch_size para que cada flush envíe un único batch JDBC
+    private static final int TAMANIO_BATCH = 50;
+    private static final int TAMANIO_CLAUSULA_IN = 1000;
+
     private final EmpleadoRepository empleadoRepository;
+    private final DepartamentoRepository departamentoRepository;
+    private final EstadisticasSalarioService estadisticasSalarioService;
+    private final EntityManager entityManager;
+    private final IndiceEmpleados indiceEmpleados;
 
-    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository) {
+    public EmpleadoServiceImpl(EmpleadoRepository empleadoRepository, DepartamentoRepository departamentoRepository,
+                               EstadisticasSalarioService estadisticasSalarioService, EntityManager entityManager,
+                               IndiceEmpleados indiceEmpleados) {
         this.empleadoRepository = empleadoRepository;
+        this.departamentoRepository = departamentoRepository;
+        this.estadisticasSalarioService = estadisticasSalarioService;
+        this.entityManager = entityManager;
+        this.indiceEmpleados = indiceEmpleados;
     }
 
     @Override
@@ -25,56 +58,313 @@ public class EmpleadoServiceImpl implements EmpleadoService {
         if (empleadoRepository.findByEmail(empleado.getEmail()).isPresent()) {
             throw new EmailDuplicadoException("El email ya está registrado: " + empleado.getEmail());
         }
-        return empleadoRepository.save(empleado);
+        registrarAlta(empleado);
+        referenciarDepartamento(empleado);
+        Empleado guardado = empleadoRepository.save(empleado);
+        indiceEmpleados.indexar(guardado);
+        return conDepartamento(guardado);
+    }
+
+    /**
+     * Guarda un lote de empleados validando emails y departamentos con consultas por conjunto
+     * en lugar de una consulta por empleado. Los INSERT se envían en batches JDBC y el contexto
+     * de persistencia se vacía después de cada batch para mantener acotada la memoria.
+     */
+    @Override
+    public List<Empleado> guardarLote(List<Empleado> empleados) {
+        validarSinIdentidad(empleados);
+        validarEmailsUnicos(empleados);
+        validarDepartamentosExistentes(empleados);
+
+        // Un único incremento por departamento, en orden de ID para bloquear las filas siempre igual
+        Map<Long, List<BigDecimal>> salariosPorDepartamento = empleados.stream()
+                .collect(Collectors.groupingBy(e -> e.getDepartamento().getId(), TreeMap::new,
+                        Collectors.mapping(Empleado::getSalario, Collectors.toList())));
+        salariosPorDepartamento.forEach(estadisticasSalarioService::registrarAltas);
+
+        for (int desde = 0; desde < empleados.size(); desde += TAMANIO_BATCH) {
+            List<Empleado> batch = empleados.subList(desde, Math.min(desde + TAMANIO_BATCH, empleados.size()));
+            batch.forEach(this::referenciarDepartamento);
+            empleadoRepository.saveAll(batch);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        indiceEmpleados.indexarTodos(empleados);
+        return empleados;
+    }
+
+    /**
+     * El lote es solo de altas. Con un ID, saveAll haría merge sobre la fila existente (o fallaría con
+     * "detached entity passed to persist" si trae versión), se perdería el batch y las estadísticas ya
+     * habrían contado al empleado como alta.
+     */
+    private static void validarSinIdentidad(List<Empleado> empleados) {
+        List<String> conIdentidad = empleados.stream()
+                .filter(e -> e.getId() != null || e.getVersion() != null)
+                .map(Empleado::getEmail)
+                .toList();
+        if (!conIdentidad.isEmpty()) {
+            throw new IllegalArgumentException("Los empleados del lote no pueden traer id ni version: "
+                    + String.join(", ", conIdentidad));
+        }
+    }
+
+    private void validarEmailsUnicos(List<Empleado> empleados) {
+        Set<String> emails = new HashSet<>();
+        Set<String> repetidos = new LinkedHashSet<>();
+        for (Empleado empleado : empleados) {
+            if (!emails.add(empleado.getEmail())) {
+                repetidos.add(empleado.getEmail());
+            }
+        }
+        if (!repetidos.isEmpty()) {
+            throw new EmailDuplicadoException("El lote contiene emails repetidos: " + String.join(", ", repetidos));
+        }
+
+        Set<String> existentes = new LinkedHashSet<>();
+        List<String> listaEmails = List.copyOf(emails);
+        for (int desde = 0; desde < listaEmails.size(); desde += TAMANIO_CLAUSULA_IN) {
+            existentes.addAll(empleadoRepository.findEmailsExistentes(
+                    listaEmails.subList(desde, Math.min(desde + TAMANIO_CLAUSULA_IN, listaEmails.size()))));
+        }
+        if (!existentes.isEmpty()) {
+            throw new EmailDuplicadoException("Los siguientes emails ya están registrados: " + String.join(", ", existentes));
+        }
+    }
+
+    /**
+     * El JSON de alta o actualización trae el departamento solo con su ID y sin versión, y Hibernate
+     * tomaría esa instancia por una entidad nueva. Se reemplaza por una referencia administrada,
+     * sin consultar la base si el departamento no está cargado.
+     */
+    private void referenciarDepartamento(Empleado empleado) {
+        Departamento departamento = empleado.getDepartamento();
+        if (departamento != null && departamento.getId() != null && !entityManager.contains(departamento)) {
+            empleado.setDepartamento(entityManager.getReference(Departamento.class, departamento.getId()));
+        }
+    }
+
+    private void validarDepartamentosExistentes(List<Empleado> empleados) {
+        Set<Long> idsDepartamentos = new HashSet<>();
+        for (Empleado empleado : empleados) {
+            Departamento departamento = empleado.getDepartamento();
+            if (departamento == null || departamento.getId() == null) {
+                throw new IllegalArgumentException("Cada empleado del lote debe referenciar un departamento por ID: " + empleado.getEmail());
+            }
+            idsDepartamentos.add(departamento.getId());
+        }
+
+        Set<Long> existentes = departamentoRepository.findIdsExistentes(idsDepartamentos);
+        if (existentes.size() < idsDepartamentos.size()) {
+            String faltantes = idsDepartamentos.stream()
+                    .filter(id -> !existentes.contains(id))
+                    .sorted()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", "));
+            throw new DepartamentoNoEncontradoException("Departamentos no encontrados con ID: " + faltantes);
+        }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Empleado buscarPorEmail(String email) {
         return empleadoRepository.findByEmail(email)
+                .map(EmpleadoServiceImpl::conDepartamento)
                 .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con Email: " + email));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Empleado buscarPorId(Long id) {
         return empleadoRepository.findById(id)
+                .map(EmpleadoServiceImpl::conDepartamento)
                 .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Empleado> buscarPorDepartamento(String nombreDepartamento) {
-        return empleadoRepository.findByNombreDepartamento(nombreDepartamento);
+        return empleadoRepository.findByNombreDepartamentoConDepartamento(nombreDepartamento);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Empleado> buscarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax) {
         return empleadoRepository.findBySalarioBetween(salarioMin, salarioMax);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal obtenerSalarioPromedioPorDepartamento(Long departamentoId) {
-        return empleadoRepository.findAverageSalarioByDepartamento(departamentoId)
-                .orElse(BigDecimal.ZERO);
+        return estadisticasSalarioService.obtenerPromedio(departamentoId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Empleado> obtenerTodos() {
         return empleadoRepository.findAll();
     }
 
     @Override
-    public Empleado actualizar(Long id, Empleado empleado) {
-        if (!empleadoRepository.existsById(id)) {
-            throw new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id);
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> listarTodos() {
+        return empleadoRepository.findAllAsDTO();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> listarPorDepartamento(String nombreDepartamento) {
+        return empleadoRepository.findByNombreDepartamentoAsDTO(nombreDepartamento);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> listarPorRangoSalario(BigDecimal salarioMin, BigDecimal salarioMax) {
+        return empleadoRepository.findBySalarioBetweenAsDTO(salarioMin, salarioMax);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursor<EmpleadoDTO> obtenerPagina(String cursor, int limite) {
+        if (limite < 1 || limite > LIMITE_PAGINA_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_PAGINA_MAXIMO);
+        }
+        Long despuesDeId = cursor == null || cursor.isBlank() ? 0L : PaginaCursor.decodificarCursor(cursor);
+
+        // Se pide un registro extra para saber si existe una página siguiente sin hacer un COUNT
+        List<EmpleadoDTO> empleados = empleadoRepository.findPageAsDTO(despuesDeId, Limit.of(limite + 1));
+        if (empleados.size() <= limite) {
+            return new PaginaCursor<>(empleados, null);
+        }
+        List<EmpleadoDTO> pagina = empleados.subList(0, limite);
+        return new PaginaCursor<>(pagina, PaginaCursor.codificarCursor(pagina.get(limite - 1).id()));
+    }
+
+    /**
+     * El índice en memoria resuelve qué empleados coinciden y en qué orden; los datos se leen de la base
+     * con una sola consulta por ID, así que la respuesta nunca muestra valores viejos.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> buscar(String consulta, int limite) {
+        validarBusqueda(consulta, limite);
+        return listarEnOrden(indiceEmpleados.buscar(consulta, limite));
+    }
+
+    /**
+     * Igual que {@link #buscar(String, int)} pero tolera errores de tipeo y acentos en el nombre, el
+     * apellido o el email; el índice de trigramas reemplaza a un LIKE sobre toda la tabla.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> buscarAproximado(String consulta, int limite) {
+        validarBusqueda(consulta, limite);
+        return listarEnOrden(indiceEmpleados.buscarAproximado(consulta, limite));
+    }
+
+    private static void validarBusqueda(String consulta, int limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("La búsqueda no puede estar vacía");
+        }
+        if (limite < 1 || limite > LIMITE_PAGINA_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_PAGINA_MAXIMO);
+        }
+    }
+
+    private List<EmpleadoDTO> listarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EmpleadoDTO> porId = empleadoRepository.findByIdInAsDTO(ids).stream()
+                .collect(Collectors.toMap(EmpleadoDTO::id, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Entrega cada empleado al consumidor a medida que se lee del cursor JDBC y luego lo
+     * desasocia del contexto de persistencia, de modo que la memoria usada no crece con
+     * la cantidad de filas exportadas.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarTodos(Consumer<Empleado> consumidor) {
+        long exportados = 0;
+        try (Stream<Empleado> empleados = empleadoRepository.streamTodos()) {
+            for (Empleado empleado : (Iterable<Empleado>) empleados::iterator) {
+                consumidor.accept(empleado);
+                entityManager.detach(empleado);
+                exportados++;
+            }
+        }
+        return exportados;
+    }
+
+    @Override
+    public Empleado actualizar(Long id, Empleado empleado, Long versionEsperada) {
+        Empleado actual = empleadoRepository.findById(id)
+                .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id));
+        VersionesOptimistas.verificar(versionEsperada, actual.getVersion(), "Empleado", id);
+        empleado.setVersion(VersionesOptimistas.aplicar(versionEsperada, empleado.getVersion(), actual.getVersion()));
+        // Los agregados se ajustan antes del merge, mientras la fila conserva los valores anteriores
+        Long departamentoAnterior = idDepartamento(actual);
+        Long departamentoNuevo = idDepartamento(empleado);
+        boolean cambioSalario = !Objects.equals(departamentoAnterior, departamentoNuevo)
+                || !sonIguales(actual.getSalario(), empleado.getSalario());
+        if (cambioSalario) {
+            // Las filas de agregados se bloquean en orden de ID de departamento, como en guardarLote:
+            // dos traslados en sentidos opuestos las tomarían en orden inverso y se bloquearían entre sí
+            if (departamentoAnterior != null && departamentoNuevo != null && departamentoNuevo < departamentoAnterior) {
+                registrarAlta(empleado);
+                registrarBaja(actual);
+            } else {
+                registrarBaja(actual);
+                registrarAlta(empleado);
+            }
         }
+        referenciarDepartamento(empleado);
         empleado.setId(id);
-        return empleadoRepository.save(empleado);
+        Empleado guardado = empleadoRepository.save(empleado);
+        indiceEmpleados.indexar(guardado);
+        return conDepartamento(guardado);
     }
 
     @Override
     public void eliminar(Long id) {
-        if (!empleadoRepository.existsById(id)) {
-            throw new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id);
-        }
+        Empleado actual = empleadoRepository.findById(id)
+                .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + id));
+        registrarBaja(actual);
         empleadoRepository.deleteById(id);
+        indiceEmpleados.eliminar(id);
+    }
+
+    private void registrarAlta(Empleado empleado) {
+        Long departamentoId = idDepartamento(empleado);
+        if (departamentoId != null && empleado.getSalario() != null) {
+            estadisticasSalarioService.registrarAltas(departamentoId, List.of(empleado.getSalario()));
+        }
+    }
+
+    private void registrarBaja(Empleado empleado) {
+        Long departamentoId = idDepartamento(empleado);
+        if (departamentoId != null) {
+            estadisticasSalarioService.registrarBaja(departamentoId, empleado.getId(), empleado.getSalario());
+        }
+    }
+
+    /**
+     * Con open-in-view desactivado el JSON se escribe sin sesión, y el departamento que incluye tiene
+     * que llegar inicializado. Suele resolverse desde la caché de segundo nivel, sin consultar la base.
+     */
+    private static Empleado conDepartamento(Empleado empleado) {
+        Hibernate.initialize(empleado.getDepartamento());
+        return empleado;
+    }
+
+    private static Long idDepartamento(Empleado empleado) {
+        return empleado.getDepartamento() == null ? null : empleado.getDepartamento().getId();
+    }
+
+    private static boolean sonIguales(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 }
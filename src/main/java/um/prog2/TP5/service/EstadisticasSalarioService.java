@@ -0,0 +1,17 @@
+package um.prog2.TP5.service;
+
+import um.prog2.TP5.dto.DistribucionSalariosDTO;
+import um.prog2.TP5.dto.SalariosDepartamentoDTO;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+public interface EstadisticasSalarioService {
+    void inicializar(Long departamentoId);
+    void registrarAltas(Long departamentoId, Collection<BigDecimal> salarios);
+    void registrarBaja(Long departamentoId, Long empleadoId, BigDecimal salario);
+    void eliminar(Long departamentoId);
+    BigDecimal obtenerPromedio(Long departamentoId);
+    SalariosDepartamentoDTO obtenerResumen(Long departamentoId);
+    DistribucionSalariosDTO obtenerDistribucion(Long departamentoId, int intervalos);
+}
@@ -0,0 +1,201 @@
+package um.prog2.TP5.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import um.prog2.TP5.dto.DistribucionSalariosDTO;
+import um.prog2.TP5.dto.SalariosDepartamentoDTO;
+import um.prog2.TP5.entity.EstadisticasSalarioDepartamento;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
+import um.prog2.TP5.repository.DepartamentoRepository;
+import um.prog2.TP5.repository.EmpleadoRepository;
+import um.prog2.TP5.repository.EstadisticasSalarioDepartamentoRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene {@link EstadisticasSalarioDepartamento} de forma incremental.
+ * Los métodos de escritura deben llamarse antes de escribir el empleado, dentro de la misma
+ * transacción: así, si la fila del departamento todavía no existe (departamentos anteriores a
+ * esta tabla o creados sin pasar por el servicio), se inicializa con un recálculo que aún no
+ * incluye el cambio y luego se le aplica.
+ */
+@Service
+@Transactional
+public class EstadisticasSalarioServiceImpl implements EstadisticasSalarioService {
+    public static final int INTERVALOS_MAXIMOS = 100;
+    static final double PRECISION_CUANTILES = 0.01;
+
+    private final EstadisticasSalarioDepartamentoRepository estadisticasRepository;
+    private final EmpleadoRepository empleadoRepository;
+    private final DepartamentoRepository departamentoRepository;
+
+    public EstadisticasSalarioServiceImpl(EstadisticasSalarioDepartamentoRepository estadisticasRepository,
+                                          EmpleadoRepository empleadoRepository,
+                                          DepartamentoRepository departamentoRepository) {
+        this.estadisticasRepository = estadisticasRepository;
+        this.empleadoRepository = empleadoRepository;
+        this.departamentoRepository = departamentoRepository;
+    }
+
+    @Override
+    public void inicializar(Long departamentoId) {
+        estadisticasRepository.save(EstadisticasSalarioDepartamento.vacias(departamentoId));
+    }
+
+    @Override
+    public void registrarAltas(Long departamentoId, Collection<BigDecimal> salarios) {
+        if (salarios.isEmpty()) {
+            return;
+        }
+        EstadisticasSalarioDepartamento estadisticas = obtenerParaActualizar(departamentoId);
+        for (BigDecimal salario : salarios) {
+            estadisticas.setCantidad(estadisticas.getCantidad() + 1);
+            estadisticas.setSumaSalarios(estadisticas.getSumaSalarios().add(salario));
+            if (estadisticas.getSalarioMinimo() == null || salario.compareTo(estadisticas.getSalarioMinimo()) < 0) {
+                estadisticas.setSalarioMinimo(salario);
+            }
+            if (estadisticas.getSalarioMaximo() == null || salario.compareTo(estadisticas.getSalarioMaximo()) > 0) {
+                estadisticas.setSalarioMaximo(salario);
+            }
+        }
+    }
+
+    /**
+     * La suma y la cantidad se descuentan directamente. Mínimo y máximo no se pueden deshacer
+     * de forma incremental, así que si el salario que sale era uno de los extremos se recalculan
+     * los agregados del departamento excluyendo a ese empleado.
+     */
+    @Override
+    public void registrarBaja(Long departamentoId, Long empleadoId, BigDecimal salario) {
+        EstadisticasSalarioDepartamento estadisticas = obtenerParaActualizar(departamentoId);
+        boolean eraExtremo = estadisticas.getCantidad() <= 1
+                || salario.compareTo(estadisticas.getSalarioMinimo()) == 0
+                || salario.compareTo(estadisticas.getSalarioMaximo()) == 0;
+        if (eraExtremo) {
+            EstadisticasSalarioDepartamento recalculadas = empleadoRepository
+                    .calcularEstadisticasSalarioSin(departamentoId, empleadoId)
+                    .orElseGet(() -> EstadisticasSalarioDepartamento.vacias(departamentoId));
+            copiarAgregados(recalculadas, estadisticas);
+            return;
+        }
+        estadisticas.setCantidad(estadisticas.getCantidad() - 1);
+        estadisticas.setSumaSalarios(estadisticas.getSumaSalarios().subtract(salario));
+    }
+
+    @Override
+    public void eliminar(Long departamentoId) {
+        estadisticasRepository.findById(departamentoId).ifPresent(estadisticasRepository::delete);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obtenerPromedio(Long departamentoId) {
+        EstadisticasSalarioDepartamento estadisticas = obtenerEstadisticas(departamentoId);
+        if (estadisticas.getCantidad() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return promedio(estadisticas);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalariosDepartamentoDTO obtenerResumen(Long departamentoId) {
+        if (!departamentoRepository.existsById(departamentoId)) {
+            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + departamentoId);
+        }
+        EstadisticasSalarioDepartamento estadisticas = obtenerEstadisticas(departamentoId);
+        return new SalariosDepartamentoDTO(
+                departamentoId,
+                estadisticas.getCantidad(),
+                estadisticas.getSumaSalarios(),
+                estadisticas.getCantidad() == 0 ? null : promedio(estadisticas),
+                estadisticas.getSalarioMinimo(),
+                estadisticas.getSalarioMaximo());
+    }
+
+    /**
+     * Recorre los salarios del departamento una sola vez con un cursor y los acumula en un
+     * {@link SketchCuantiles}, sin cargar entidades ni ordenar: memoria y tiempo por fila constantes.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DistribucionSalariosDTO obtenerDistribucion(Long departamentoId, int intervalos) {
+        if (intervalos < 1 || intervalos > INTERVALOS_MAXIMOS) {
+            throw new IllegalArgumentException("La cantidad de intervalos debe estar entre 1 y " + INTERVALOS_MAXIMOS);
+        }
+        if (!departamentoRepository.existsById(departamentoId)) {
+            throw new DepartamentoNoEncontradoException("Departamento no encontrado con ID: " + departamentoId);
+        }
+
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION_CUANTILES);
+        try (Stream<BigDecimal> salarios = empleadoRepository.streamSalariosPorDepartamento(departamentoId)) {
+            salarios.forEach(salario -> sketch.agregar(salario.doubleValue()));
+        }
+
+        if (sketch.getCantidad() == 0) {
+            return new DistribucionSalariosDTO(departamentoId, 0, null, null, null, null,
+                    null, null, null, PRECISION_CUANTILES, List.of());
+        }
+        List<DistribucionSalariosDTO.Intervalo> histograma = sketch.histograma(intervalos).stream()
+                .map(i -> new DistribucionSalariosDTO.Intervalo(monto(i.desde()), monto(i.hasta()), i.cantidad()))
+                .toList();
+        return new DistribucionSalariosDTO(
+                departamentoId,
+                sketch.getCantidad(),
+                monto(sketch.getMedia()),
+                monto(sketch.getDesviacionEstandar()),
+                monto(sketch.getMinimo()),
+                monto(sketch.getMaximo()),
+                monto(sketch.cuantil(0.50)),
+                monto(sketch.cuantil(0.90)),
+                monto(sketch.cuantil(0.99)),
+                PRECISION_CUANTILES,
+                histograma);
+    }
+
+    private EstadisticasSalarioDepartamento obtenerEstadisticas(Long departamentoId) {
+        // Sin fila todavía: se calcula al vuelo; la primera escritura la deja persistida
+        return estadisticasRepository.findById(departamentoId)
+                .or(() -> empleadoRepository.calcularEstadisticasSalario(departamentoId))
+                .orElseGet(() -> EstadisticasSalarioDepartamento.vacias(departamentoId));
+    }
+
+    private EstadisticasSalarioDepartamento obtenerParaActualizar(Long departamentoId) {
+        return estadisticasRepository.findParaActualizar(departamentoId)
+                .orElseGet(() -> crearParaActualizar(departamentoId));
+    }
+
+    /**
+     * Dos transacciones pueden encontrar a la vez que falta la fila, y si las dos la insertan una falla por
+     * clave duplicada. Se serializan bloqueando la fila del departamento, que sí existe, y se vuelve a
+     * buscar: la que espera ve la fila que insertó la primera al confirmar, porque una lectura con
+     * bloqueo lee la última versión confirmada también con REPEATABLE READ.
+     */
+    private EstadisticasSalarioDepartamento crearParaActualizar(Long departamentoId) {
+        departamentoRepository.findParaActualizar(departamentoId);
+        return estadisticasRepository.findParaActualizar(departamentoId)
+                .orElseGet(() -> estadisticasRepository.save(
+                        empleadoRepository.calcularEstadisticasSalario(departamentoId)
+                                .orElseGet(() -> EstadisticasSalarioDepartamento.vacias(departamentoId))));
+    }
+
+    private static BigDecimal promedio(EstadisticasSalarioDepartamento estadisticas) {
+        return estadisticas.getSumaSalarios()
+                .divide(BigDecimal.valueOf(estadisticas.getCantidad()), 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal monto(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static void copiarAgregados(EstadisticasSalarioDepartamento origen, EstadisticasSalarioDepartamento destino) {
+        destino.setCantidad(origen.getCantidad());
+        destino.setSumaSalarios(origen.getSumaSalarios());
+        destino.setSalarioMinimo(origen.getSalarioMinimo());
+        destino.setSalarioMaximo(origen.getSalarioMaximo());
+    }
+}
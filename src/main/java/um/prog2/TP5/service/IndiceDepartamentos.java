@@ -0,0 +1,58 @@
+package um.prog2.TP5.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import um.prog2.TP5.dto.DepartamentoDTO;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.repository.DepartamentoRepository;
+
+import java.util.List;
+
+/**
+ * Árbol de nombres de departamentos para autocompletar. Igual que {@link IndiceEmpleados}, se arma desde
+ * la base al arrancar y {@link DepartamentoServiceImpl} le pasa cada alta, modificación y baja, que se
+ * aplican después del commit.
+ */
+@Component
+public class IndiceDepartamentos {
+
+    private final DepartamentoRepository departamentoRepository;
+    private final CambiosIndice cambios = new CambiosIndice();
+    private volatile ArbolRadix nombres = new ArbolRadix();
+
+    public IndiceDepartamentos(DepartamentoRepository departamentoRepository) {
+        this.departamentoRepository = departamentoRepository;
+    }
+
+    /**
+     * Lee de la primaria y repite los cambios confirmados durante la lectura, igual que
+     * {@link IndiceEmpleados#reconstruir()}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruir() {
+        cambios.reconstruir(() -> {
+            ArbolRadix nuevo = new ArbolRadix();
+            for (DepartamentoDTO departamento : departamentoRepository.findAllAsDTO()) {
+                nuevo.indexar(departamento.id(), departamento.nombre());
+            }
+            return nuevo;
+        }, nuevo -> nombres = nuevo);
+    }
+
+    public List<ArbolRadix.Coincidencia> sugerir(String prefijo, int limite) {
+        return nombres.buscar(prefijo, limite);
+    }
+
+    public void indexar(Departamento departamento) {
+        Long id = departamento.getId();
+        String nombre = departamento.getNombre();
+        cambios.alConfirmar(() -> nombres.indexar(id, nombre));
+    }
+
+    public void eliminar(Long id) {
+        cambios.alConfirmar(() -> nombres.eliminar(id));
+    }
+}
@@ -0,0 +1,122 @@
+package um.prog2.TP5.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import um.prog2.TP5.dto.EmpleadoBusquedaDTO;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.repository.EmpleadoRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Índices en memoria de los empleados: el invertido de nombre, apellido y email para la búsqueda de
+ * texto, el de trigramas para la búsqueda aproximada y el árbol de nombres completos para autocompletar.
+ * Se arman desde la base al arrancar y
+ * {@link EmpleadoServiceImpl} los mantiene al día con cada alta, modificación y baja. Los cambios se
+ * aplican después del commit, así que una transacción que hace rollback no deja rastros en los índices.
+ */
+@Component
+public class IndiceEmpleados {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceEmpleados.class);
+
+    private final EmpleadoRepository empleadoRepository;
+    private final CambiosIndice cambios = new CambiosIndice();
+    private volatile IndiceInvertido indice = new IndiceInvertido();
+    private volatile IndiceTrigramas trigramas = new IndiceTrigramas();
+    private volatile ArbolRadix nombres = new ArbolRadix();
+
+    public IndiceEmpleados(EmpleadoRepository empleadoRepository) {
+        this.empleadoRepository = empleadoRepository;
+    }
+
+    /**
+     * Arma índices nuevos con todos los empleados y reemplaza a los actuales, que siguen atendiendo
+     * búsquedas mientras tanto. Los cambios confirmados durante la lectura se repiten sobre los nuevos
+     * (ver {@link CambiosIndice}). Lee de la primaria aunque sea solo lectura: una réplica atrasada
+     * dejaría afuera las últimas altas, y el índice no vuelve a consultarlas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruir() {
+        cambios.reconstruir(this::armar, armados -> {
+            indice = armados.indice();
+            trigramas = armados.trigramas();
+            nombres = armados.nombres();
+        });
+        log.info("Índice de búsqueda de empleados armado: {} empleados, {} términos", indice.getDocumentos(), indice.getTerminos());
+    }
+
+    private Indices armar() {
+        Indices nuevos = new Indices(new IndiceInvertido(), new IndiceTrigramas(), new ArbolRadix());
+        try (Stream<EmpleadoBusquedaDTO> empleados = empleadoRepository.streamParaBusqueda()) {
+            empleados.forEach(empleado -> {
+                nuevos.indice().indexar(empleado.id(), empleado.nombre(), empleado.apellido(), empleado.email());
+                nuevos.trigramas().indexar(empleado.id(), nombreCompleto(empleado), empleado.email());
+                nuevos.nombres().indexar(empleado.id(), nombreCompleto(empleado));
+            });
+        }
+        return nuevos;
+    }
+
+    /**
+     * IDs de los empleados que coinciden con la consulta, en orden de relevancia.
+     * Ver {@link IndiceInvertido#buscar(String, int)}.
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        return indice.buscar(consulta, limite);
+    }
+
+    /**
+     * IDs de los empleados cuyo nombre completo o email está a pocas ediciones de la consulta, del más
+     * parecido al menos. Ver {@link IndiceTrigramas#buscar(String, int)}.
+     */
+    public List<Long> buscarAproximado(String consulta, int limite) {
+        return trigramas.buscar(consulta, limite).stream().map(IndiceTrigramas.Coincidencia::id).toList();
+    }
+
+    /**
+     * Empleados cuyo nombre completo tiene alguna palabra que empieza con el prefijo.
+     * Ver {@link ArbolRadix#buscar(String, int)}.
+     */
+    public List<ArbolRadix.Coincidencia> sugerir(String prefijo, int limite) {
+        return nombres.buscar(prefijo, limite);
+    }
+
+    public void indexar(Empleado empleado) {
+        indexarTodos(List.of(empleado));
+    }
+
+    public void indexarTodos(Collection<Empleado> empleados) {
+        // Se copian ahora los textos: al commit las entidades pueden estar desasociadas o modificadas
+        List<EmpleadoBusquedaDTO> textos = empleados.stream()
+                .map(e -> new EmpleadoBusquedaDTO(e.getId(), e.getNombre(), e.getApellido(), e.getEmail()))
+                .toList();
+        cambios.alConfirmar(() -> textos.forEach(e -> {
+            indice.indexar(e.id(), e.nombre(), e.apellido(), e.email());
+            trigramas.indexar(e.id(), nombreCompleto(e), e.email());
+            nombres.indexar(e.id(), nombreCompleto(e));
+        }));
+    }
+
+    public void eliminar(Long id) {
+        cambios.alConfirmar(() -> {
+            indice.eliminar(id);
+            trigramas.eliminar(id);
+            nombres.eliminar(id);
+        });
+    }
+
+    private static String nombreCompleto(EmpleadoBusquedaDTO empleado) {
+        return empleado.nombre() + " " + empleado.apellido();
+    }
+
+    private record Indices(IndiceInvertido indice, IndiceTrigramas trigramas, ArbolRadix nombres) {
+    }
+}
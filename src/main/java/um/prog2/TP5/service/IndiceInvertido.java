@@ -0,0 +1,159 @@
+package um.prog2.TP5.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria: de cada término (palabra en minúsculas y sin acentos) a los IDs de los
+ * documentos que lo contienen. Los términos se guardan ordenados, así que una palabra de la consulta
+ * encuentra todos los términos que empiezan con ella recorriendo un solo rango.
+ * <p>
+ * Seguro para varios hilos: las búsquedas comparten un lock de lectura y las modificaciones toman el
+ * de escritura.
+ */
+public class IndiceInvertido {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final NavigableMap<String, Set<Long>> documentosPorTermino = new TreeMap<>();
+    private final Map<Long, Set<String>> terminosPorDocumento = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa el documento con los términos de todos los textos, reemplazando los que tuviera.
+     */
+    public void indexar(Long id, String... textos) {
+        Set<String> terminos = new HashSet<>();
+        for (String texto : textos) {
+            terminos.addAll(terminos(texto));
+        }
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            terminosPorDocumento.put(id, terminos);
+            for (String termino : terminos) {
+                documentosPorTermino.computeIfAbsent(termino, t -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs de los documentos que contienen, para cada palabra de la consulta, algún término que empieza
+     * con ella. Primero los que coinciden con más palabras completas y, a igual coincidencia, por ID.
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        // Las palabras más largas suelen ser las más selectivas: se intersecta empezando por ellas
+        List<String> palabras = new ArrayList<>(new LinkedHashSet<>(terminos(consulta)));
+        palabras.sort(Comparator.comparingInt(String::length).reversed());
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> candidatos = null;
+            for (String palabra : palabras) {
+                Set<Long> coincidencias = new HashSet<>();
+                documentosPorTermino.subMap(palabra, true, palabra + Character.MAX_VALUE, true)
+                        .values().forEach(coincidencias::addAll);
+                if (candidatos == null) {
+                    candidatos = coincidencias;
+                } else {
+                    candidatos.retainAll(coincidencias);
+                }
+                if (candidatos.isEmpty()) {
+                    return List.of();
+                }
+            }
+            Map<Long, Integer> completas = new HashMap<>();
+            for (Long id : candidatos) {
+                Set<String> terminos = terminosPorDocumento.get(id);
+                completas.put(id, (int) palabras.stream().filter(terminos::contains).count());
+            }
+            return candidatos.stream()
+                    .sorted(Comparator.<Long>comparingInt(completas::get).reversed().thenComparing(Comparator.naturalOrder()))
+                    .limit(limite)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentos() {
+        lock.readLock().lock();
+        try {
+            return terminosPorDocumento.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTerminos() {
+        lock.readLock().lock();
+        try {
+            return documentosPorTermino.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void quitar(Long id) {
+        Set<String> anteriores = terminosPorDocumento.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termino : anteriores) {
+            Set<Long> documentos = documentosPorTermino.get(termino);
+            documentos.remove(id);
+            if (documentos.isEmpty()) {
+                documentosPorTermino.remove(termino);
+            }
+        }
+    }
+
+    /**
+     * El texto en minúsculas, sin tildes ni diéresis y con la ñ como n, para comparar como lo escribe
+     * quien busca desde un teclado sin acentos.
+     */
+    static String normalizar(String texto) {
+        String sinMarcas = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Las palabras normalizadas del texto; cualquier carácter que no sea letra ni dígito las separa,
+     * así que un email aporta el usuario separado en sus partes y el dominio.
+     */
+    static List<String> terminos(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        return SEPARADORES.splitAsStream(normalizar(texto))
+                .filter(termino -> !termino.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,244 @@
+package um.prog2.TP5.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas para búsquedas con errores de tipeo. Cada documento tiene uno o más campos (el
+ * nombre completo, el email) que se normalizan como en {@link IndiceInvertido} y se parten en palabras.
+ * Cada palabra aporta sus trigramas con dos espacios delante y uno detrás, como {@code pg_trgm}, así que
+ * "ana" da {@code "  a", " an", "ana", "na "}.
+ * <p>
+ * Una búsqueda tiene dos pasos. Primero junta como candidatos los documentos que comparten suficientes
+ * trigramas con la consulta: una inserción, un borrado o una sustitución cambian a lo sumo tres trigramas
+ * y una transposición cuatro, así que uno a distancia {@code d} comparte al menos {@code trigramas - 4d}
+ * ("lpoez" comparte solo dos de seis con "lopez"). Después calcula la distancia de edición real contra
+ * las palabras de cada campo y descarta los que superan la tolerancia. Seguro para varios hilos con un
+ * lock de lectura y escritura, como {@link IndiceInvertido}.
+ * <p>
+ * Los candidatos salen solo de los trigramas menos frecuentes de la consulta: quien comparte al menos
+ * {@code m} de los {@code t} trigramas que aparecen en el índice tiene alguno entre cualesquiera
+ * {@code t - m + 1} de ellos, así que alcanza con recorrer las listas de los {@code t - m + 1} más cortos
+ * y contar el resto con búsquedas en los conjuntos. Los trigramas que comparte casi todo el índice, como los de "empresa" y "com" en
+ * los emails, no se recorren. Tampoco se recorre un trigrama que está en más de {@link
+ * #DOCUMENTOS_POR_SONDA} documentos y en más de la vigésima parte del índice, salvo que sea el menos
+ * frecuente de la consulta: con consultas cortas, donde la cota anterior no descarta nada, se pierde
+ * lo que solo comparte trigramas muy comunes (" ga", "ia ") a cambio de no comparar con miles de nombres.
+ */
+public class IndiceTrigramas {
+
+    static final int DOCUMENTOS_POR_SONDA = 1000;
+
+    private final Map<String, Set<Long>> documentosPorTrigrama = new HashMap<>();
+    private final Map<Long, List<List<String>>> camposPorDocumento = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Un documento encontrado con la menor distancia de edición entre la consulta y alguno de sus campos.
+     */
+    public record Coincidencia(Long id, int distancia) {
+    }
+
+    /**
+     * Indexa el documento con sus campos, reemplazando los que tuviera. Los campos vacíos se ignoran.
+     */
+    public void indexar(Long id, String... campos) {
+        List<List<String>> palabras = new ArrayList<>();
+        for (String campo : campos) {
+            List<String> terminos = IndiceInvertido.terminos(campo);
+            if (!terminos.isEmpty()) {
+                palabras.add(terminos);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            camposPorDocumento.put(id, palabras);
+            for (String trigrama : trigramas(palabras)) {
+                documentosPorTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos con algún campo a distancia de edición {@link #tolerancia(String)} o menor de la
+     * consulta, de la menor a la mayor distancia y, a igual distancia, por ID. La consulta se compara
+     * con cada tramo de palabras seguidas del campo que tenga su misma cantidad de palabras, así que
+     * "rodrigez" encuentra a "Pedro Rodríguez" y "mgarcia@empresa.com" a "maria.garcia@empresa.com".
+     */
+    public List<Coincidencia> buscar(String consulta, int limite) {
+        List<String> palabras = IndiceInvertido.terminos(consulta);
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+        String texto = String.join(" ", palabras);
+        int tolerancia = tolerancia(texto);
+        Set<String> trigramasConsulta = trigramas(List.of(palabras));
+        int minimoComunes = Math.max(1, trigramasConsulta.size() - 4 * tolerancia);
+
+        lock.readLock().lock();
+        try {
+            // Los trigramas que no tiene ningún documento no pueden ser comunes
+            List<Set<Long>> listas = trigramasConsulta.stream()
+                    .map(documentosPorTrigrama::get)
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .toList();
+            if (listas.size() < minimoComunes) {
+                return List.of();
+            }
+            int sondas = listas.size() - minimoComunes + 1;
+            int maximoPorSonda = Math.max(DOCUMENTOS_POR_SONDA, camposPorDocumento.size() / 20);
+            Set<Long> candidatos = new HashSet<>(listas.get(0));
+            for (int i = 1; i < sondas && listas.get(i).size() <= maximoPorSonda; i++) {
+                candidatos.addAll(listas.get(i));
+            }
+
+            List<Coincidencia> coincidencias = new ArrayList<>();
+            for (Long id : candidatos) {
+                if (!comparteAlMenos(id, listas, minimoComunes)) {
+                    continue;
+                }
+                int distancia = distanciaMinima(texto, palabras.size(), camposPorDocumento.get(id), tolerancia);
+                if (distancia <= tolerancia) {
+                    coincidencias.add(new Coincidencia(id, distancia));
+                }
+            }
+            coincidencias.sort(Comparator.comparingInt(Coincidencia::distancia).thenComparing(Coincidencia::id));
+            return coincidencias.size() > limite ? List.copyOf(coincidencias.subList(0, limite)) : coincidencias;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentos() {
+        lock.readLock().lock();
+        try {
+            return camposPorDocumento.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void quitar(Long id) {
+        List<List<String>> anteriores = camposPorDocumento.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String trigrama : trigramas(anteriores)) {
+            Set<Long> documentos = documentosPorTrigrama.get(trigrama);
+            documentos.remove(id);
+            if (documentos.isEmpty()) {
+                documentosPorTrigrama.remove(trigrama);
+            }
+        }
+    }
+
+    /**
+     * Si el documento está en al menos {@code minimo} de las listas. Deja de buscar en cuanto le faltan
+     * más de las que puede no tener.
+     */
+    private static boolean comparteAlMenos(Long id, List<Set<Long>> listas, int minimo) {
+        int ausenciasPermitidas = listas.size() - minimo;
+        for (Set<Long> lista : listas) {
+            if (!lista.contains(id) && --ausenciasPermitidas < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ediciones permitidas según el largo de la consulta normalizada: una hasta 5 caracteres, dos hasta
+     * 11 y tres desde ahí. Con más, una consulta corta coincidiría con casi cualquier nombre.
+     */
+    static int tolerancia(String consulta) {
+        int largo = consulta.length();
+        return largo <= 5 ? 1 : largo <= 11 ? 2 : 3;
+    }
+
+    private static int distanciaMinima(String consulta, int palabrasConsulta, List<List<String>> campos, int maximo) {
+        int mejor = maximo + 1;
+        for (List<String> campo : campos) {
+            int ancho = Math.min(palabrasConsulta, campo.size());
+            for (int desde = 0; desde + ancho <= campo.size(); desde++) {
+                String tramo = String.join(" ", campo.subList(desde, desde + ancho));
+                mejor = Math.min(mejor, distancia(consulta, tramo, mejor - 1));
+                if (mejor == 0) {
+                    return 0;
+                }
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Distancia de Damerau-Levenshtein restringida (inserción, borrado, sustitución y transposición de
+     * dos letras vecinas, el error de tipeo más común). Deja de calcular en cuanto toda una fila supera
+     * {@code maximo} y devuelve {@code maximo + 1}.
+     */
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] libre = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = libre;
+        }
+        return Math.min(anterior[b.length()], maximo + 1);
+    }
+
+    private static Set<String> trigramas(List<List<String>> campos) {
+        Set<String> trigramas = new HashSet<>();
+        for (List<String> palabras : campos) {
+            for (String palabra : palabras) {
+                String rellena = "  " + palabra + " ";
+                for (int i = 0; i + 3 <= rellena.length(); i++) {
+                    trigramas.add(rellena.substring(i, i + 3));
+                }
+            }
+        }
+        return trigramas;
+    }
+}
@@ -1,5 +1,8 @@
 package um.prog2.TP5.service;
 
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
+import um.prog2.TP5.dto.VersionProyectoDTO;
 import um.prog2.TP5.entity.Proyecto;
 
 import java.util.List;
@@ -7,9 +10,27 @@ import java.util.List;
 public interface ProyectoService {
     Proyecto guardar(Proyecto proyecto);
     Proyecto buscarPorId(Long id);
+
+    /**
+     * Versión del proyecto y de sus empleados asignados, calculada sin cargarlos; sirve de ETag del detalle.
+     */
+    VersionProyectoDTO buscarVersion(Long id);
     List<Proyecto> obtenerTodos();
     List<Proyecto> obtenerProyectosActivos();
-    Proyecto actualizar(Long id, Proyecto proyecto);
-    Proyecto asignarEmpleados(Proyecto proyecto, List<Long> empleadosIds);
+    List<ProyectoDTO> listarTodos();
+    List<ProyectoDTO> listarProyectosActivos();
+
+    /**
+     * Versión de los listados de proyectos; cambia con cada escritura hecha a través del servicio
+     * y con el día, porque de la fecha depende qué proyectos están activos.
+     */
+    String versionListado();
+    Proyecto actualizar(Long id, Proyecto proyecto, Long versionEsperada);
+
+    default Proyecto actualizar(Long id, Proyecto proyecto) {
+        return actualizar(id, proyecto, null);
+    }
+    Proyecto asignarEmpleados(Long id, List<Long> empleadosIds);
+    List<EmpleadoDTO> obtenerEmpleadosDelProyecto(Long id);
     void eliminar(Long id);
 }
@@ -1,7 +1,14 @@
 package um.prog2.TP5.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
+import um.prog2.TP5.dto.VersionProyectoDTO;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.entity.Proyecto;
 import um.prog2.TP5.exception.EmpleadoNoEncontradoException;
@@ -9,66 +16,141 @@ import um.prog2.TP5.exception.ProyectoNoEncontradoException;
 import um.prog2.TP5.repository.EmpleadoRepository;
 import um.prog2.TP5.repository.ProyectoRepository;
 
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProyectoServiceImpl implements ProyectoService {
     private final ProyectoRepository proyectoRepository;
     private final EmpleadoRepository empleadoRepository;
+    private final ContadorCambios contadorCambios;
+    private final EntityManager entityManager;
 
-    public ProyectoServiceImpl(ProyectoRepository proyectoRepository, EmpleadoRepository empleadoRepository) {
+    public ProyectoServiceImpl(ProyectoRepository proyectoRepository, EmpleadoRepository empleadoRepository,
+                               ContadorCambios contadorCambios, EntityManager entityManager) {
         this.proyectoRepository = proyectoRepository;
         this.empleadoRepository = empleadoRepository;
+        this.contadorCambios = contadorCambios;
+        this.entityManager = entityManager;
     }
 
     @Override
     public Proyecto guardar(Proyecto proyecto) {
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.PROYECTOS);
         return proyectoRepository.save(proyecto);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Proyecto buscarPorId(Long id) {
-        return proyectoRepository.findById(id)
+        return proyectoRepository.findConEmpleadosById(id)
+                .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionProyectoDTO buscarVersion(Long id) {
+        Long version = proyectoRepository.findVersionById(id)
                 .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
+        return new VersionProyectoDTO(version, proyectoRepository.findVersionesEmpleados(id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proyecto> obtenerTodos() {
         return proyectoRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Proyecto> obtenerProyectosActivos() {
         return proyectoRepository.findActiveProjects();
     }
 
+    /**
+     * Los listados se responden con el ETag de {@link #versionListado()}, que ya cuenta la última escritura:
+     * leen de la primaria porque una réplica atrasada devolvería la lista vieja con el ETag nuevo, y los
+     * clientes recibirían 304 sobre ella hasta la próxima escritura.
+     */
     @Override
-    public Proyecto actualizar(Long id, Proyecto proyecto) {
-        if (!proyectoRepository.existsById(id)) {
-            throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id);
-        }
+    public List<ProyectoDTO> listarTodos() {
+        return proyectoRepository.findAllAsDTO();
+    }
+
+    @Override
+    public List<ProyectoDTO> listarProyectosActivos() {
+        return proyectoRepository.findActiveProjectsAsDTO(LocalDate.now());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String versionListado() {
+        return contadorCambios.version(ContadorCambios.Tabla.PROYECTOS) + "-" + LocalDate.now();
+    }
+
+    @Override
+    public Proyecto actualizar(Long id, Proyecto proyecto, Long versionEsperada) {
+        Proyecto actual = buscarGestionado(id);
+        VersionesOptimistas.verificar(versionEsperada, actual.getVersion(), "Proyecto", id);
+        proyecto.setVersion(VersionesOptimistas.aplicar(versionEsperada, proyecto.getVersion(), actual.getVersion()));
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.PROYECTOS);
         proyecto.setId(id);
-        return proyectoRepository.save(proyecto);
+        return conEmpleados(proyectoRepository.save(proyecto));
     }
 
+    /**
+     * Reemplaza los empleados del proyecto por los indicados.
+     * El proyecto se carga con sus empleados y todos los involucrados en una segunda consulta; solo se
+     * escriben las filas de empleado_proyecto que cambian (altas y bajas), agrupadas en batches JDBC.
+     * La versión del proyecto se incrementa para que el ETag refleje el cambio de empleados.
+     */
     @Override
-    public Proyecto asignarEmpleados(Proyecto proyecto, List<Long> empleadosIds) {
-        // Limpiar empleados actuales del proyecto
-        proyecto.getEmpleados().clear();
-
-        // Buscar y asignar los nuevos empleados
-        for (Long empleadoId : empleadosIds) {
-            Empleado empleado = empleadoRepository.findById(empleadoId)
-                    .orElseThrow(() -> new EmpleadoNoEncontradoException("Empleado no encontrado con ID: " + empleadoId));
-
-            // Agregar el proyecto a los proyectos del empleado
-            empleado.getProyectos().add(proyecto);
-            // Agregar el empleado a los empleados del proyecto
-            proyecto.getEmpleados().add(empleado);
+    public Proyecto asignarEmpleados(Long id, List<Long> empleadosIds) {
+        Proyecto proyecto = proyectoRepository.findConEmpleadosById(id)
+                .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
+        // Proyecto es el lado inverso de la relación: sin forzarla, su versión no cambia al reasignar
+        entityManager.lock(proyecto, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        Set<Long> solicitados = new LinkedHashSet<>(empleadosIds);
+        List<Empleado> candidatos = empleadoRepository.findCandidatosAsignacion(proyecto.getId(), solicitados);
+
+        Set<Long> encontrados = candidatos.stream()
+                .map(Empleado::getId)
+                .filter(solicitados::contains)
+                .collect(Collectors.toSet());
+        if (encontrados.size() < solicitados.size()) {
+            String faltantes = solicitados.stream()
+                    .filter(solicitado -> !encontrados.contains(solicitado))
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", "));
+            throw new EmpleadoNoEncontradoException("Empleados no encontrados con ID: " + faltantes);
         }
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.PROYECTOS);
 
-        return proyectoRepository.save(proyecto);
+        for (Empleado empleado : candidatos) {
+            // Empleado es el lado propietario de la relación: sus cambios generan los INSERT/DELETE
+            if (solicitados.contains(empleado.getId())) {
+                empleado.getProyectos().add(proyecto);
+                proyecto.getEmpleados().add(empleado);
+            } else {
+                empleado.getProyectos().remove(proyecto);
+                proyecto.getEmpleados().remove(empleado);
+            }
+        }
+
+        return conEmpleados(proyectoRepository.save(proyecto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmpleadoDTO> obtenerEmpleadosDelProyecto(Long id) {
+        if (!proyectoRepository.existsById(id)) {
+            throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id);
+        }
+        return empleadoRepository.findByProyectoIdAsDTO(id);
     }
 
     @Override
@@ -76,6 +158,21 @@ public class ProyectoServiceImpl implements ProyectoService {
         if (!proyectoRepository.existsById(id)) {
             throw new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id);
         }
+        contadorCambios.registrarCambio(ContadorCambios.Tabla.PROYECTOS);
         proyectoRepository.deleteById(id);
     }
+
+    private Proyecto buscarGestionado(Long id) {
+        return proyectoRepository.findById(id)
+                .orElseThrow(() -> new ProyectoNoEncontradoException("Proyecto no encontrado con ID: " + id));
+    }
+
+    /**
+     * Con open-in-view desactivado el JSON se escribe sin sesión: los empleados del proyecto y el
+     * departamento de cada uno, que forman parte de la respuesta, se inicializan antes de devolverlo.
+     */
+    private static Proyecto conEmpleados(Proyecto proyecto) {
+        proyecto.getEmpleados().forEach(empleado -> Hibernate.initialize(empleado.getDepartamento()));
+        return proyecto;
+    }
 }
@@ -0,0 +1,198 @@
+package um.prog2.TP5.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resumen de una distribución de valores positivos construido en una sola pasada y con memoria acotada.
+ * <p>
+ * Los cuantiles salen de un histograma de buckets logarítmicos (la idea de DDSketch): el valor
+ * {@code x} cae en el bucket {@code ceil(log(x) / log(gamma))} con {@code gamma = (1 + a) / (1 - a)},
+ * así que cualquier cuantil devuelto está a menos de una fracción {@code a} del valor real.
+ * Media y varianza se acumulan con el algoritmo de Welford. Dos sketches con la misma precisión
+ * se pueden combinar con {@link #combinar(SketchCuantiles)} sin perder exactitud, por ejemplo
+ * para sumar resultados calculados por partes.
+ */
+public class SketchCuantiles {
+
+    private final double precisionRelativa;
+    private final double logGamma;
+
+    // Conteos por bucket; el índice real de contadores[i] es desplazamiento + i
+    private long[] contadores = new long[0];
+    private int desplazamiento;
+    private long cantidadCeros;
+
+    private long cantidad;
+    private double media;
+    private double sumaCuadradosDesvios;
+    private double minimo = Double.NaN;
+    private double maximo = Double.NaN;
+
+    public SketchCuantiles(double precisionRelativa) {
+        if (!(precisionRelativa > 0 && precisionRelativa < 1)) {
+            throw new IllegalArgumentException("La precisión relativa debe estar entre 0 y 1: " + precisionRelativa);
+        }
+        this.precisionRelativa = precisionRelativa;
+        this.logGamma = Math.log((1 + precisionRelativa) / (1 - precisionRelativa));
+    }
+
+    public void agregar(double valor) {
+        if (valor < 0 || Double.isNaN(valor) || Double.isInfinite(valor)) {
+            throw new IllegalArgumentException("Solo se admiten valores finitos no negativos: " + valor);
+        }
+        if (valor == 0) {
+            cantidadCeros++;
+        } else {
+            int indice = (int) Math.ceil(Math.log(valor) / logGamma);
+            asegurarIndice(indice);
+            contadores[indice - desplazamiento]++;
+        }
+
+        cantidad++;
+        double delta = valor - media;
+        media += delta / cantidad;
+        sumaCuadradosDesvios += delta * (valor - media);
+        minimo = cantidad == 1 ? valor : Math.min(minimo, valor);
+        maximo = cantidad == 1 ? valor : Math.max(maximo, valor);
+    }
+
+    /**
+     * Incorpora los valores de otro sketch. Ambos deben tener la misma precisión relativa.
+     */
+    public void combinar(SketchCuantiles otro) {
+        if (otro.precisionRelativa != precisionRelativa) {
+            throw new IllegalArgumentException("No se pueden combinar sketches con distinta precisión relativa");
+        }
+        if (otro.cantidad == 0) {
+            return;
+        }
+        if (otro.contadores.length > 0) {
+            asegurarIndice(otro.desplazamiento);
+            asegurarIndice(otro.desplazamiento + otro.contadores.length - 1);
+            for (int i = 0; i < otro.contadores.length; i++) {
+                contadores[otro.desplazamiento + i - desplazamiento] += otro.contadores[i];
+            }
+        }
+        cantidadCeros += otro.cantidadCeros;
+
+        // Combinación de Welford para dos particiones (Chan et al.)
+        long total = cantidad + otro.cantidad;
+        double delta = otro.media - media;
+        sumaCuadradosDesvios += otro.sumaCuadradosDesvios + delta * delta * cantidad * otro.cantidad / total;
+        media += delta * otro.cantidad / total;
+        minimo = cantidad == 0 ? otro.minimo : Math.min(minimo, otro.minimo);
+        maximo = cantidad == 0 ? otro.maximo : Math.max(maximo, otro.maximo);
+        cantidad = total;
+    }
+
+    /**
+     * Valor aproximado del cuantil {@code q} (entre 0 y 1), con error relativo acotado por la precisión.
+     *
+     * @throws IllegalStateException si el sketch está vacío
+     */
+    public double cuantil(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1: " + q);
+        }
+        if (cantidad == 0) {
+            throw new IllegalStateException("El sketch no tiene valores");
+        }
+        long rango = (long) Math.floor(q * (cantidad - 1));
+        long acumulado = cantidadCeros;
+        if (rango < acumulado) {
+            return 0;
+        }
+        for (int i = 0; i < contadores.length; i++) {
+            acumulado += contadores[i];
+            if (rango < acumulado) {
+                return Math.max(minimo, Math.min(maximo, valorRepresentativo(desplazamiento + i)));
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Reparte los valores en intervalos de igual ancho entre el mínimo y el máximo.
+     * Cada bucket del sketch se asigna completo al intervalo que contiene su valor representativo,
+     * por lo que los bordes tienen el mismo error relativo que los cuantiles.
+     */
+    public List<Intervalo> histograma(int intervalos) {
+        if (intervalos < 1) {
+            throw new IllegalArgumentException("La cantidad de intervalos debe ser positiva: " + intervalos);
+        }
+        if (cantidad == 0) {
+            return List.of();
+        }
+        double ancho = (maximo - minimo) / intervalos;
+        long[] conteos = new long[intervalos];
+        conteos[0] += cantidadCeros;
+        for (int i = 0; i < contadores.length; i++) {
+            if (contadores[i] > 0) {
+                double valor = Math.max(minimo, Math.min(maximo, valorRepresentativo(desplazamiento + i)));
+                int destino = ancho == 0 ? 0 : (int) Math.min(intervalos - 1, (valor - minimo) / ancho);
+                conteos[destino] += contadores[i];
+            }
+        }
+
+        List<Intervalo> resultado = new ArrayList<>(intervalos);
+        for (int i = 0; i < intervalos; i++) {
+            double hasta = i == intervalos - 1 ? maximo : minimo + ancho * (i + 1);
+            resultado.add(new Intervalo(minimo + ancho * i, hasta, conteos[i]));
+        }
+        return resultado;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    /**
+     * Desviación estándar poblacional: describe a todos los valores agregados, no a una muestra.
+     */
+    public double getDesviacionEstandar() {
+        return cantidad == 0 ? 0 : Math.sqrt(sumaCuadradosDesvios / cantidad);
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+
+    private double valorRepresentativo(int indice) {
+        // Punto del bucket (gamma^(i-1), gamma^i] cuyo error relativo a ambos bordes es el mismo
+        return 2 * Math.exp(indice * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    private void asegurarIndice(int indice) {
+        if (contadores.length == 0) {
+            contadores = new long[16];
+            desplazamiento = indice - 8;
+            return;
+        }
+        if (indice < desplazamiento) {
+            int nuevoDesplazamiento = indice - Math.max(8, contadores.length / 2);
+            long[] ampliado = new long[contadores.length + (desplazamiento - nuevoDesplazamiento)];
+            System.arraycopy(contadores, 0, ampliado, desplazamiento - nuevoDesplazamiento, contadores.length);
+            contadores = ampliado;
+            desplazamiento = nuevoDesplazamiento;
+        } else if (indice >= desplazamiento + contadores.length) {
+            int largo = Math.max(indice - desplazamiento + 1 + 8, contadores.length * 2);
+            contadores = Arrays.copyOf(contadores, largo);
+        }
+    }
+
+    /**
+     * Intervalo {@code [desde, hasta)} del histograma; el último incluye a {@code hasta}.
+     */
+    public record Intervalo(double desde, double hasta, long cantidad) {
+    }
+}
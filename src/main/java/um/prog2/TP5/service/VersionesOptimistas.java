@@ -0,0 +1,36 @@
+package um.prog2.TP5.service;
+
+import um.prog2.TP5.exception.VersionDesactualizadaException;
+
+import java.util.Objects;
+
+/**
+ * Reglas de bloqueo optimista compartidas por los métodos {@code actualizar} de los servicios.
+ */
+final class VersionesOptimistas {
+
+    private VersionesOptimistas() {
+    }
+
+    /**
+     * Rechaza la actualización si el cliente condicionó la escritura (If-Match) a otra versión.
+     */
+    static void verificar(Long versionEsperada, Long versionActual, String recurso, Long id) {
+        if (versionEsperada != null && !Objects.equals(versionEsperada, versionActual)) {
+            throw new VersionDesactualizadaException(recurso + " con ID " + id + " está en la versión " + versionActual
+                    + ", no en la " + versionEsperada);
+        }
+    }
+
+    /**
+     * Versión con la que se hace el merge. Una versión esperada ya verificada manda; si no hay,
+     * se respeta la del cuerpo (una versión vieja hace fallar el merge con un conflicto) y, si el
+     * cuerpo tampoco la trae, se usa la actual y la escritura pisa a la anterior como antes.
+     */
+    static Long aplicar(Long versionEsperada, Long versionDelCuerpo, Long versionActual) {
+        if (versionEsperada != null || versionDelCuerpo == null) {
+            return versionActual;
+        }
+        return versionDelCuerpo;
+    }
+}
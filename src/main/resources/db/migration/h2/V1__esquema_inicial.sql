@@ -0,0 +1,76 @@
+-- Esquema inicial: refleja el mapeo JPA, que Hibernate valida al arrancar (ddl-auto: validate)
+
+-- Empleado usa una secuencia con asignación por bloques; el incremento debe coincidir con allocationSize
+CREATE SEQUENCE empleados_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE departamentos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre      VARCHAR(50)  NOT NULL,
+    descripcion VARCHAR(200),
+    CONSTRAINT pk_departamentos PRIMARY KEY (id),
+    CONSTRAINT uk_departamentos_nombre UNIQUE (nombre)
+);
+
+CREATE TABLE proyectos (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre       VARCHAR(100) NOT NULL,
+    descripcion  VARCHAR(1000),
+    fecha_inicio DATE,
+    fecha_fin    DATE,
+    CONSTRAINT pk_proyectos PRIMARY KEY (id)
+);
+
+CREATE TABLE empleados (
+    id                 BIGINT         NOT NULL,
+    nombre             VARCHAR(50)    NOT NULL,
+    apellido           VARCHAR(50)    NOT NULL,
+    email              VARCHAR(255)   NOT NULL,
+    fecha_contratacion DATE           NOT NULL,
+    salario            NUMERIC(10, 2) NOT NULL,
+    departamento_id    BIGINT         NOT NULL,
+    CONSTRAINT pk_empleados PRIMARY KEY (id),
+    CONSTRAINT uk_empleados_email UNIQUE (email)
+);
+
+CREATE TABLE empleado_proyecto (
+    empleado_id BIGINT NOT NULL,
+    proyecto_id BIGINT NOT NULL,
+    CONSTRAINT pk_empleado_proyecto PRIMARY KEY (empleado_id, proyecto_id)
+);
+
+CREATE TABLE estadisticas_salario_departamento (
+    departamento_id BIGINT         NOT NULL,
+    cantidad        BIGINT         NOT NULL,
+    suma_salarios   NUMERIC(19, 2) NOT NULL,
+    salario_minimo  NUMERIC(10, 2),
+    salario_maximo  NUMERIC(10, 2),
+    CONSTRAINT pk_estadisticas_salario_departamento PRIMARY KEY (departamento_id)
+);
+
+-- Índices para los filtros de los repositorios. Las búsquedas por email y por nombre de
+-- departamento usan los índices de sus restricciones UNIQUE. Se crean antes que las claves
+-- foráneas para que, donde el motor lo permite, estas los reutilicen en lugar de crear uno propio.
+
+-- findBySalarioBetween / findBySalarioBetweenAsDTO
+CREATE INDEX idx_empleados_salario ON empleados (salario);
+
+-- findByFechaContratacionAfter
+CREATE INDEX idx_empleados_fecha_contratacion ON empleados (fecha_contratacion);
+
+-- Empleados por departamento (findByDepartamento, findByNombreDepartamento) y los agregados
+-- de salario: con el salario en el índice, MIN/MAX/SUM y el streaming de salarios no leen la tabla
+CREATE INDEX idx_empleados_departamento_salario ON empleados (departamento_id, salario);
+
+-- findActiveProjects: cada rama (fecha_fin IS NULL, fecha_fin > :hoy) es una búsqueda en el índice
+CREATE INDEX idx_proyectos_fecha_fin ON proyectos (fecha_fin);
+
+-- Miembros de un proyecto: la clave primaria empieza por empleado_id y no sirve para filtrar por proyecto
+CREATE INDEX idx_empleado_proyecto_proyecto ON empleado_proyecto (proyecto_id, empleado_id);
+
+-- Claves foráneas
+ALTER TABLE empleados
+    ADD CONSTRAINT fk_empleados_departamento FOREIGN KEY (departamento_id) REFERENCES departamentos (id);
+ALTER TABLE empleado_proyecto
+    ADD CONSTRAINT fk_empleado_proyecto_empleado FOREIGN KEY (empleado_id) REFERENCES empleados (id);
+ALTER TABLE empleado_proyecto
+    ADD CONSTRAINT fk_empleado_proyecto_proyecto FOREIGN KEY (proyecto_id) REFERENCES proyectos (id);
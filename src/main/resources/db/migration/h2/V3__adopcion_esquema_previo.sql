@@ -0,0 +1,29 @@
+-- Completa una base creada con ddl-auto antes de usar Flyway. spring.flyway.baseline-on-migrate la adopta
+-- como versión 1 sin ejecutar V1, así que acá se agrega lo que V1 crea y Hibernate no creaba. Todo es
+-- idempotente: en una base creada por V1 solo puede adelantar la secuencia.
+
+-- Con IDENTITY los IDs los asignaba la base. Hibernate (optimizador pooled) toma cada valor leído como el
+-- último ID de un bloque de allocationSize (50), así que el siguiente valor tiene que ser al menos MAX(id) + 50
+-- para que el primer bloque empiece después del último empleado. Nunca se retrocede una secuencia en uso.
+CREATE SEQUENCE IF NOT EXISTS empleados_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE empleados_seq INCREMENT BY 50;
+ALTER SEQUENCE empleados_seq RESTART WITH (
+    SELECT GREATEST((SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EMPLEADOS_SEQ'),
+                    COALESCE(MAX(id), 0) + 50)
+    FROM empleados);
+
+CREATE TABLE IF NOT EXISTS estadisticas_salario_departamento (
+    departamento_id BIGINT         NOT NULL,
+    cantidad        BIGINT         NOT NULL,
+    suma_salarios   NUMERIC(19, 2) NOT NULL,
+    salario_minimo  NUMERIC(10, 2),
+    salario_maximo  NUMERIC(10, 2),
+    CONSTRAINT pk_estadisticas_salario_departamento PRIMARY KEY (departamento_id)
+);
+
+-- Los mismos índices de V1; las claves foráneas y restricciones UNIQUE ya las creaba Hibernate
+CREATE INDEX IF NOT EXISTS idx_empleados_salario ON empleados (salario);
+CREATE INDEX IF NOT EXISTS idx_empleados_fecha_contratacion ON empleados (fecha_contratacion);
+CREATE INDEX IF NOT EXISTS idx_empleados_departamento_salario ON empleados (departamento_id, salario);
+CREATE INDEX IF NOT EXISTS idx_proyectos_fecha_fin ON proyectos (fecha_fin);
+CREATE INDEX IF NOT EXISTS idx_empleado_proyecto_proyecto ON empleado_proyecto (proyecto_id, empleado_id);
@@ -0,0 +1,63 @@
+-- Completa una base creada con ddl-auto antes de usar Flyway. spring.flyway.baseline-on-migrate la adopta
+-- como versión 1 sin ejecutar V1, así que acá se agrega lo que V1 crea y Hibernate no creaba. Todo es
+-- idempotente: en una base creada por V1 solo puede adelantar la secuencia.
+
+-- Con AUTO_INCREMENT los IDs los asignaba la base. Hibernate emula la secuencia con esta tabla y toma cada
+-- next_val leído como el último ID de un bloque de allocationSize (50), así que tiene que valer al menos
+-- MAX(id) + 50 para que el primer bloque empiece después del último empleado. Nunca se retrocede.
+CREATE TABLE IF NOT EXISTS empleados_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO empleados_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM empleados_seq);
+
+UPDATE empleados_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM empleados));
+
+CREATE TABLE IF NOT EXISTS estadisticas_salario_departamento (
+    departamento_id BIGINT         NOT NULL,
+    cantidad        BIGINT         NOT NULL,
+    suma_salarios   DECIMAL(19, 2) NOT NULL,
+    salario_minimo  DECIMAL(10, 2),
+    salario_maximo  DECIMAL(10, 2),
+    CONSTRAINT pk_estadisticas_salario_departamento PRIMARY KEY (departamento_id)
+) ENGINE = InnoDB;
+
+-- Los mismos índices de V1; las claves foráneas y restricciones UNIQUE ya las creaba Hibernate.
+-- MySQL no tiene CREATE INDEX IF NOT EXISTS: cada uno se arma como sentencia preparada solo si falta
+
+SET @sentencia = IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                           WHERE table_schema = DATABASE() AND table_name = 'empleados' AND index_name = 'idx_empleados_salario'),
+                    'DO 0', 'CREATE INDEX idx_empleados_salario ON empleados (salario)');
+PREPARE crear_indice FROM @sentencia;
+EXECUTE crear_indice;
+DEALLOCATE PREPARE crear_indice;
+
+SET @sentencia = IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                           WHERE table_schema = DATABASE() AND table_name = 'empleados' AND index_name = 'idx_empleados_fecha_contratacion'),
+                    'DO 0', 'CREATE INDEX idx_empleados_fecha_contratacion ON empleados (fecha_contratacion)');
+PREPARE crear_indice FROM @sentencia;
+EXECUTE crear_indice;
+DEALLOCATE PREPARE crear_indice;
+
+SET @sentencia = IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                           WHERE table_schema = DATABASE() AND table_name = 'empleados' AND index_name = 'idx_empleados_departamento_salario'),
+                    'DO 0', 'CREATE INDEX idx_empleados_departamento_salario ON empleados (departamento_id, salario)');
+PREPARE crear_indice FROM @sentencia;
+EXECUTE crear_indice;
+DEALLOCATE PREPARE crear_indice;
+
+SET @sentencia = IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                           WHERE table_schema = DATABASE() AND table_name = 'proyectos' AND index_name = 'idx_proyectos_fecha_fin'),
+                    'DO 0', 'CREATE INDEX idx_proyectos_fecha_fin ON proyectos (fecha_fin)');
+PREPARE crear_indice FROM @sentencia;
+EXECUTE crear_indice;
+DEALLOCATE PREPARE crear_indice;
+
+SET @sentencia = IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                           WHERE table_schema = DATABASE() AND table_name = 'empleado_proyecto' AND index_name = 'idx_empleado_proyecto_proyecto'),
+                    'DO 0', 'CREATE INDEX idx_empleado_proyecto_proyecto ON empleado_proyecto (proyecto_id, empleado_id)');
+PREPARE crear_indice FROM @sentencia;
+EXECUTE crear_indice;
+DEALLOCATE PREPARE crear_indice;
@@ -0,0 +1,4 @@
+-- Columnas @Version para el bloqueo optimista; las filas existentes arrancan en la versión 0
+ALTER TABLE departamentos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE proyectos ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE empleados ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,259 @@
+package um.prog2.TP5.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import um.prog2.TP5.Tp5Application;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.service.DepartamentoService;
+import um.prog2.TP5.service.EmpleadoService;
+import um.prog2.TP5.service.ProyectoService;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara el servidor con hilos de plataforma (Tomcat, 200 hilos) y con el perfil {@code virtual}
+ * bajo muchos clientes concurrentes contra endpoints de EmpleadoController y ProyectoController.
+ * <p>
+ * Levanta la aplicación dos veces en un puerto libre, con el mismo pool de conexiones en ambos
+ * modos, carga datos a través de los servicios y mide durante un intervalo fijo, después de un
+ * calentamiento. Cada cliente es un hilo virtual que encadena peticiones sin pausa.
+ * <p>
+ * El nombre no termina en {@code Test}, así que {@code mvn test} no lo ejecuta. Para correrlo:
+ * <pre>
+ * mvn test -Dtest=HilosVirtualesBenchmark -Dbenchmark.clientes=2000 -Dbenchmark.duracion=20
+ * </pre>
+ * Con H2 en memoria una consulta no espera a la red, así que por defecto cada sentencia SQL
+ * demora {@code benchmark.latencia-sql-ms} (5 ms) mientras retiene su conexión, como lo haría
+ * una base remota. Contra una base real conviene {@code -Dbenchmark.perfiles=mysql
+ * -Dbenchmark.latencia-sql-ms=0}.
+ */
+@Tag("benchmark")
+class HilosVirtualesBenchmark {
+
+    private static final int CLIENTES = Integer.getInteger("benchmark.clientes", 2000);
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(Long.getLong("benchmark.calentamiento", 5));
+    private static final Duration DURACION = Duration.ofSeconds(Long.getLong("benchmark.duracion", 20));
+    private static final String PERFILES = System.getProperty("benchmark.perfiles", "dev");
+    private static final int POOL = Integer.getInteger("benchmark.pool", 400);
+    private static final long LATENCIA_SQL_MS = Long.getLong("benchmark.latencia-sql-ms", 5);
+
+    private static final int EMPLEADOS = 2000;
+    private static final int PROYECTOS = 20;
+
+    @Test
+    void compararHilosDePlataformaYVirtuales() throws Exception {
+        Resultado plataforma = medir(false);
+        Resultado virtuales = medir(true);
+
+        System.out.printf("%nClientes: %d, medición: %ds, pool: %d, latencia SQL: %d ms, perfiles: %s%n",
+                CLIENTES, DURACION.toSeconds(), POOL, LATENCIA_SQL_MS, PERFILES);
+        System.out.println(Resultado.ENCABEZADO);
+        System.out.println(plataforma);
+        System.out.println(virtuales);
+
+        assertThat(plataforma.errores()).isZero();
+        assertThat(virtuales.errores()).isZero();
+    }
+
+    private Resultado medir(boolean hilosVirtuales) throws Exception {
+        String perfiles = hilosVirtuales ? PERFILES + ",virtual" : PERFILES;
+        // Como argumentos de línea de comandos para que tengan prioridad sobre application.yml
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Tp5Application.class).run(
+                "--spring.profiles.active=" + perfiles,
+                "--spring.threads.virtual.enabled=" + hilosVirtuales,
+                "--server.port=0",
+                "--app.reactivo.puerto=0",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL,
+                "--spring.datasource.hikari.connection-timeout=30000",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LatenciaSql.class.getName(),
+                "--logging.level.root=WARN")) {
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            List<URI> destinos = cargarDatos(contexto).stream()
+                    .map(ruta -> URI.create("http://localhost:" + puerto + ruta))
+                    .toList();
+            return ejecutarCarga(hilosVirtuales ? "virtuales" : "plataforma", destinos);
+        }
+    }
+
+    /**
+     * Carga departamentos, empleados y proyectos con asignaciones, y devuelve las rutas a consultar:
+     * páginas por cursor y búsquedas por email (siempre van a la base), empleados por ID (caché de
+     * segundo nivel), proyectos activos y miembros de un proyecto (caché de consultas).
+     */
+    private List<String> cargarDatos(ConfigurableApplicationContext contexto) {
+        DepartamentoService departamentoService = contexto.getBean(DepartamentoService.class);
+        EmpleadoService empleadoService = contexto.getBean(EmpleadoService.class);
+        ProyectoService proyectoService = contexto.getBean(ProyectoService.class);
+
+        List<Departamento> departamentos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            departamentos.add(departamentoService.guardar(TestDataFactory.crearDepartamento("Departamento " + i)));
+        }
+        List<Empleado> empleados = new ArrayList<>();
+        for (int i = 0; i < EMPLEADOS; i++) {
+            empleados.add(TestDataFactory.crearEmpleado("Nombre", "Apellido", "empleado" + i + "@empresa.com",
+                    new BigDecimal(30_000 + i * 10), departamentos.get(i % departamentos.size())));
+        }
+        List<Empleado> guardados = empleadoService.guardarLote(empleados);
+        List<Long> proyectos = new ArrayList<>();
+        for (int i = 0; i < PROYECTOS; i++) {
+            Long proyectoId = proyectoService.guardar(TestDataFactory.crearProyectoActivo("Proyecto " + i)).getId();
+            List<Long> miembros = guardados.subList(i * 50, i * 50 + 50).stream().map(Empleado::getId).toList();
+            proyectoService.asignarEmpleados(proyectoId, miembros);
+            proyectos.add(proyectoId);
+        }
+
+        List<String> rutas = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Empleado empleado = guardados.get(i * (EMPLEADOS / 100));
+            rutas.add("/api/empleados?limit=50");
+            rutas.add("/api/empleados/" + empleado.getId());
+            rutas.add("/api/empleados/email/" + empleado.getEmail());
+            rutas.add("/api/proyectos/activos");
+            rutas.add("/api/proyectos/" + proyectos.get(i % PROYECTOS) + "/empleados");
+        }
+        return rutas;
+    }
+
+    private Resultado ejecutarCarga(String modo, List<URI> destinos) throws Exception {
+        long inicioMedicion = System.nanoTime() + CALENTAMIENTO.toNanos();
+        long fin = inicioMedicion + DURACION.toNanos();
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(clientes)
+                     .build()) {
+            List<Future<Medicion>> futuros = new ArrayList<>(CLIENTES);
+            for (int i = 0; i < CLIENTES; i++) {
+                int cliente = i;
+                futuros.add(clientes.submit(() -> cliente(http, destinos, cliente, inicioMedicion, fin)));
+            }
+
+            Medicion total = new Medicion();
+            for (Future<Medicion> futuro : futuros) {
+                total.sumar(futuro.get());
+            }
+            return total.resultado(modo, DURACION);
+        }
+    }
+
+    private static Medicion cliente(HttpClient http, List<URI> destinos, int cliente, long inicioMedicion, long fin) {
+        Medicion medicion = new Medicion();
+        int siguiente = cliente;
+        while (true) {
+            HttpRequest peticion = HttpRequest.newBuilder(destinos.get(siguiente++ % destinos.size()))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            long inicio = System.nanoTime();
+            if (inicio >= fin) {
+                return medicion;
+            }
+            boolean ok;
+            try {
+                ok = http.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long terminada = System.nanoTime();
+            // Cuenta lo que termina dentro de la medición, aunque haya empezado en el calentamiento
+            if (terminada >= inicioMedicion && terminada <= fin) {
+                medicion.registrar(terminada - inicio, ok);
+            }
+        }
+    }
+
+    /**
+     * Latencias de un cliente; al final se combinan las de todos para calcular los percentiles.
+     */
+    private static final class Medicion {
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private long errores;
+
+        void registrar(long nanos, boolean ok) {
+            if (!ok) {
+                errores++;
+                return;
+            }
+            if (cantidad == latencias.length) {
+                latencias = Arrays.copyOf(latencias, cantidad * 2);
+            }
+            latencias[cantidad++] = nanos;
+        }
+
+        void sumar(Medicion otra) {
+            if (cantidad + otra.cantidad > latencias.length) {
+                latencias = Arrays.copyOf(latencias, Math.max(cantidad + otra.cantidad, latencias.length * 2));
+            }
+            System.arraycopy(otra.latencias, 0, latencias, cantidad, otra.cantidad);
+            cantidad += otra.cantidad;
+            errores += otra.errores;
+        }
+
+        Resultado resultado(String modo, Duration duracion) {
+            long[] ordenadas = Arrays.copyOf(latencias, cantidad);
+            Arrays.sort(ordenadas);
+            return new Resultado(modo, cantidad, errores, cantidad / (double) duracion.toSeconds(),
+                    percentil(ordenadas, 0.50), percentil(ordenadas, 0.99),
+                    cantidad == 0 ? 0 : ordenadas[cantidad - 1] / 1e6);
+        }
+
+        private static double percentil(long[] ordenadas, double q) {
+            return ordenadas.length == 0 ? 0 : ordenadas[(int) Math.ceil(q * ordenadas.length) - 1] / 1e6;
+        }
+    }
+
+    private record Resultado(String modo, long peticiones, long errores, double porSegundo,
+                             double p50Ms, double p99Ms, double maximoMs) {
+
+        static final String ENCABEZADO = String.format("%-10s %12s %8s %10s %10s %10s %10s",
+                "modo", "peticiones", "errores", "req/s", "p50 ms", "p99 ms", "máx ms");
+
+        @Override
+        public String toString() {
+            return String.format("%-10s %12d %8d %10.0f %10.1f %10.1f %10.1f",
+                    modo, peticiones, errores, porSegundo, p50Ms, p99Ms, maximoMs);
+        }
+    }
+
+    /**
+     * Demora cada sentencia SQL para simular la ida y vuelta a una base remota. Hibernate la
+     * instancia por nombre de clase, con la conexión de la transacción ya tomada.
+     */
+    public static class LatenciaSql implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (LATENCIA_SQL_MS > 0) {
+                try {
+                    Thread.sleep(LATENCIA_SQL_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package um.prog2.TP5.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import um.prog2.TP5.Tp5Application;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.service.DepartamentoService;
+import um.prog2.TP5.service.EmpleadoService;
+import um.prog2.TP5.service.ProyectoService;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de la API REST a tasa fija, para detectar regresiones en la latencia de cola
+ * antes de desplegar.
+ * <p>
+ * Levanta la aplicación en un puerto libre, carga datos a través de los servicios y envía
+ * peticiones según una mezcla configurable de lecturas, altas y asignaciones. La carga es de
+ * lazo abierto: cada petición tiene un instante programado según la tasa objetivo y se envía en
+ * ese instante aunque las anteriores no hayan respondido, y su latencia se mide desde el instante
+ * programado y no desde el envío real. Así una demora del servidor (o del propio generador) se
+ * refleja en todas las peticiones que debieron salir durante ella, sin la omisión coordinada de
+ * un cliente que espera cada respuesta antes de enviar la siguiente.
+ * <p>
+ * Las latencias de cada endpoint se registran en un histograma HdrHistogram y el reporte, con
+ * percentiles, throughput y errores por endpoint más la distribución completa de cada uno, se
+ * escribe en {@code carga.reporte} (por defecto {@code target/carga}). El nombre no termina en
+ * {@code Test}, así que {@code mvn test} no lo ejecuta. Para correrlo:
+ * <pre>
+ * mvn test -Dtest=PruebaCargaBenchmark -Dcarga.tasa=500 -Dcarga.duracion=60 -Dcarga.p99-maximo-ms=50
+ * </pre>
+ * {@code carga.mezcla} reparte la tasa entre operaciones con pesos relativos, por ejemplo
+ * {@code -Dcarga.mezcla=obtener-empleado=80,crear-empleado=20}; las claves son las de
+ * {@link Operacion}.
+ */
+@Tag("benchmark")
+class PruebaCargaBenchmark {
+
+    private static final double TASA = Double.parseDouble(System.getProperty("carga.tasa", "100"));
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(Long.getLong("carga.calentamiento", 5));
+    private static final Duration DURACION = Duration.ofSeconds(Long.getLong("carga.duracion", 30));
+    private static final String PERFILES = System.getProperty("carga.perfiles", "dev");
+    private static final String MEZCLA = System.getProperty("carga.mezcla",
+            "listar-empleados=20,obtener-empleado=25,buscar-email=10,proyectos-activos=10,"
+                    + "empleados-proyecto=15,crear-empleado=10,crear-proyecto=2,asignar-empleados=8");
+    private static final Path REPORTE = Path.of(System.getProperty("carga.reporte", "target/carga"));
+    private static final double P99_MAXIMO_MS = Double.parseDouble(System.getProperty("carga.p99-maximo-ms", "0"));
+    private static final double ERRORES_MAXIMOS = Double.parseDouble(System.getProperty("carga.errores-maximos", "0.01"));
+
+    private static final int EMPLEADOS = 2000;
+    private static final int PROYECTOS = 20;
+    private static final int MIEMBROS_POR_ASIGNACION = 10;
+
+    @Test
+    void medirLatenciasATasaFija() throws Exception {
+        Map<Operacion, Integer> mezcla = Operacion.parsear(MEZCLA);
+
+        // Como argumentos de línea de comandos para que tengan prioridad sobre application.yml
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Tp5Application.class).run(
+                "--spring.profiles.active=" + PERFILES,
+                "--server.port=0",
+                "--app.reactivo.puerto=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            Datos datos = cargarDatos(contexto, URI.create("http://localhost:" + puerto));
+
+            Map<Operacion, Registro> registros = ejecutarCarga(datos, mezcla);
+            Path reporte = escribirReporte(registros);
+
+            System.out.printf("%nReporte de carga en %s%n", reporte.toAbsolutePath());
+            Registro total = Registro.combinar(registros.values());
+            assertThat(total.histograma.getTotalCount()).as("peticiones medidas").isPositive();
+            assertThat(total.errores.sum() / (double) total.histograma.getTotalCount())
+                    .as("proporción de errores").isLessThanOrEqualTo(ERRORES_MAXIMOS);
+            if (P99_MAXIMO_MS > 0) {
+                registros.forEach((operacion, registro) -> assertThat(registro.percentilMs(99))
+                        .as("p99 de %s en ms", operacion.endpoint)
+                        .isLessThanOrEqualTo(P99_MAXIMO_MS));
+            }
+        }
+    }
+
+    /**
+     * Carga departamentos, empleados y proyectos con asignaciones, igual que {@link HilosVirtualesBenchmark},
+     * y devuelve los IDs y emails que usan las peticiones.
+     */
+    private Datos cargarDatos(ConfigurableApplicationContext contexto, URI base) {
+        DepartamentoService departamentoService = contexto.getBean(DepartamentoService.class);
+        EmpleadoService empleadoService = contexto.getBean(EmpleadoService.class);
+        ProyectoService proyectoService = contexto.getBean(ProyectoService.class);
+
+        List<Departamento> departamentos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            departamentos.add(departamentoService.guardar(TestDataFactory.crearDepartamento("Departamento carga " + i)));
+        }
+        List<Empleado> empleados = new ArrayList<>();
+        for (int i = 0; i < EMPLEADOS; i++) {
+            empleados.add(TestDataFactory.crearEmpleado("Nombre", "Apellido", "carga" + i + "@empresa.com",
+                    new BigDecimal(30_000 + i * 10), departamentos.get(i % departamentos.size())));
+        }
+        List<Empleado> guardados = empleadoService.guardarLote(empleados);
+        List<Long> proyectos = new ArrayList<>();
+        for (int i = 0; i < PROYECTOS; i++) {
+            Long proyectoId = proyectoService.guardar(TestDataFactory.crearProyectoActivo("Proyecto carga " + i)).getId();
+            List<Long> miembros = guardados.subList(i * 50, i * 50 + 50).stream().map(Empleado::getId).toList();
+            proyectoService.asignarEmpleados(proyectoId, miembros);
+            proyectos.add(proyectoId);
+        }
+
+        return new Datos(base,
+                guardados.stream().map(Empleado::getId).toList(),
+                guardados.stream().map(Empleado::getEmail).toList(),
+                departamentos.stream().map(Departamento::getId).toList(),
+                proyectos);
+    }
+
+    /**
+     * Envía una petición por cada instante programado desde el comienzo del calentamiento hasta el fin
+     * de la medición, y espera a que respondan todas. Solo se registran las programadas dentro de la
+     * medición.
+     */
+    private Map<Operacion, Registro> ejecutarCarga(Datos datos, Map<Operacion, Integer> mezcla) throws Exception {
+        Map<Operacion, Registro> registros = new EnumMap<>(Operacion.class);
+        mezcla.keySet().forEach(operacion -> registros.put(operacion, new Registro()));
+        Operacion[] sorteo = mezcla.entrySet().stream()
+                .flatMap(entrada -> Collections.nCopies(entrada.getValue(), entrada.getKey()).stream())
+                .toArray(Operacion[]::new);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        Map<Operacion, AtomicLong> secuencias = new EnumMap<>(Operacion.class);
+        mezcla.keySet().forEach(operacion -> secuencias.put(operacion, new AtomicLong()));
+
+        long inicio = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long inicioMedicion = inicio + CALENTAMIENTO.toNanos();
+        long fin = inicioMedicion + DURACION.toNanos();
+
+        try (ExecutorService respuestas = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(respuestas)
+                     .build()) {
+            List<CompletableFuture<?>> enVuelo = new ArrayList<>();
+            for (long i = 0; ; i++) {
+                long programada = inicio + (long) (i * 1e9 / TASA);
+                if (programada >= fin) {
+                    break;
+                }
+                Operacion operacion = sorteo[aleatorio.nextInt(sorteo.length)];
+                HttpRequest peticion = datos.peticion(operacion, secuencias.get(operacion).getAndIncrement(), aleatorio);
+                esperarHasta(programada);
+
+                Registro registro = programada >= inicioMedicion ? registros.get(operacion) : null;
+                enVuelo.add(http.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((respuesta, error) -> {
+                            long latencia = System.nanoTime() - programada;
+                            if (registro != null) {
+                                registro.registrar(latencia, error != null ? error.getClass().getSimpleName()
+                                        : respuesta.statusCode() < 300 ? null : String.valueOf(respuesta.statusCode()));
+                            }
+                        }));
+            }
+            CompletableFuture.allOf(enVuelo.toArray(CompletableFuture[]::new))
+                    .exceptionally(error -> null)
+                    .get(2, TimeUnit.MINUTES);
+        }
+        return registros;
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    private Path escribirReporte(Map<Operacion, Registro> registros) throws IOException {
+        Files.createDirectories(REPORTE);
+        Path archivo = REPORTE.resolve("reporte-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".txt");
+        Registro total = Registro.combinar(registros.values());
+
+        try (PrintStream salida = new PrintStream(Files.newOutputStream(archivo), true, StandardCharsets.UTF_8)) {
+            String resumen = resumen(registros, total);
+            salida.print(resumen);
+            System.out.print(resumen);
+
+            // Distribución completa en el formato de HdrHistogram, para graficarla o compararla entre versiones
+            for (Map.Entry<Operacion, Registro> entrada : registros.entrySet()) {
+                salida.printf("%n## %s%n", entrada.getKey().endpoint);
+                entrada.getValue().histograma.outputPercentileDistribution(salida, 1000.0);
+            }
+            salida.printf("%n## total%n");
+            total.histograma.outputPercentileDistribution(salida, 1000.0);
+        }
+        return archivo;
+    }
+
+    private static String resumen(Map<Operacion, Registro> registros, Registro total) {
+        StringBuilder texto = new StringBuilder()
+                .append(String.format("Prueba de carga %s%n", LocalDateTime.now().withNano(0)))
+                .append(String.format("Tasa objetivo: %.0f req/s, medición: %ds, calentamiento: %ds, perfiles: %s%n",
+                        TASA, DURACION.toSeconds(), CALENTAMIENTO.toSeconds(), PERFILES))
+                .append(String.format("Mezcla: %s%n", MEZCLA))
+                .append(String.format("Latencias en ms desde el instante programado de cada petición%n%n"))
+                .append(String.format("%-45s %10s %8s %8s %8s %8s %8s %8s %8s  %s%n",
+                        "endpoint", "peticiones", "errores", "req/s", "p50", "p90", "p99", "p99.9", "máx", "motivos"));
+        registros.forEach((operacion, registro) -> texto.append(registro.fila(operacion.endpoint)));
+        return texto.append(total.fila("total")).toString();
+    }
+
+    /**
+     * Operaciones que componen la mezcla, con la clave que se usa en {@code carga.mezcla}.
+     */
+    enum Operacion {
+        LISTAR_EMPLEADOS("listar-empleados", "GET /api/empleados?limit=50"),
+        OBTENER_EMPLEADO("obtener-empleado", "GET /api/empleados/{id}"),
+        BUSCAR_EMAIL("buscar-email", "GET /api/empleados/email/{email}"),
+        PROYECTOS_ACTIVOS("proyectos-activos", "GET /api/proyectos/activos"),
+        EMPLEADOS_PROYECTO("empleados-proyecto", "GET /api/proyectos/{id}/empleados"),
+        CREAR_EMPLEADO("crear-empleado", "POST /api/empleados"),
+        CREAR_PROYECTO("crear-proyecto", "POST /api/proyectos"),
+        ASIGNAR_EMPLEADOS("asignar-empleados", "POST /api/proyectos/{id}/asignar-empleados");
+
+        private final String clave;
+        private final String endpoint;
+
+        Operacion(String clave, String endpoint) {
+            this.clave = clave;
+            this.endpoint = endpoint;
+        }
+
+        static Map<Operacion, Integer> parsear(String mezcla) {
+            Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+            for (String parte : mezcla.split(",")) {
+                String[] claveYPeso = parte.trim().split("=");
+                Operacion operacion = Arrays.stream(values())
+                        .filter(candidata -> candidata.clave.equals(claveYPeso[0].trim()))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Operación desconocida en carga.mezcla: " + claveYPeso[0]));
+                int peso = claveYPeso.length > 1 ? Integer.parseInt(claveYPeso[1].trim()) : 1;
+                if (peso > 0) {
+                    pesos.put(operacion, peso);
+                }
+            }
+            if (pesos.isEmpty()) {
+                throw new IllegalArgumentException("carga.mezcla no tiene ninguna operación con peso positivo");
+            }
+            return pesos;
+        }
+    }
+
+    /**
+     * Datos cargados y construcción de la petición de cada operación. Las altas usan emails y nombres
+     * únicos; cada asignación reemplaza los miembros de un proyecto rotando entre todos, para que dos
+     * asignaciones al mismo proyecto casi nunca estén en curso a la vez.
+     */
+    private record Datos(URI base, List<Long> empleados, List<String> emails, List<Long> departamentos,
+                         List<Long> proyectos) {
+
+        HttpRequest peticion(Operacion operacion, long secuencia, SplittableRandom aleatorio) {
+            int empleado = aleatorio.nextInt(empleados.size());
+            Long proyecto = proyectos.get((int) (secuencia % proyectos.size()));
+            return switch (operacion) {
+                case LISTAR_EMPLEADOS -> get("/api/empleados?limit=50");
+                case OBTENER_EMPLEADO -> get("/api/empleados/" + empleados.get(empleado));
+                case BUSCAR_EMAIL -> get("/api/empleados/email/" + emails.get(empleado));
+                case PROYECTOS_ACTIVOS -> get("/api/proyectos/activos");
+                case EMPLEADOS_PROYECTO -> get("/api/proyectos/" + proyectos.get(aleatorio.nextInt(proyectos.size())) + "/empleados");
+                case CREAR_EMPLEADO -> post("/api/empleados", """
+                        {"nombre": "Carga", "apellido": "Alta", "email": "alta%d@empresa.com", "fechaContratacion": "%s",
+                         "salario": %d, "departamento": {"id": %d}}"""
+                        .formatted(secuencia, LocalDate.now(), 30_000 + secuencia % 70_000,
+                                departamentos.get((int) (secuencia % departamentos.size()))));
+                case CREAR_PROYECTO -> post("/api/proyectos", """
+                        {"nombre": "Proyecto alta %d", "fechaInicio": "%s", "fechaFin": "%s"}"""
+                        .formatted(secuencia, LocalDate.now().minusMonths(1), LocalDate.now().plusMonths(6)));
+                case ASIGNAR_EMPLEADOS -> {
+                    int desde = aleatorio.nextInt(empleados.size() - MIEMBROS_POR_ASIGNACION);
+                    String miembros = empleados.subList(desde, desde + MIEMBROS_POR_ASIGNACION).stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(", "));
+                    yield post("/api/proyectos/" + proyecto + "/asignar-empleados", "{\"empleadosIds\": [" + miembros + "]}");
+                }
+            };
+        }
+
+        private HttpRequest get(String ruta) {
+            return HttpRequest.newBuilder(base.resolve(ruta)).timeout(Duration.ofSeconds(30)).GET().build();
+        }
+
+        private HttpRequest post(String ruta, String cuerpo) {
+            return HttpRequest.newBuilder(base.resolve(ruta))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                    .build();
+        }
+    }
+
+    /**
+     * Latencias de un endpoint en microsegundos, incluidas las de respuestas con error, y los errores
+     * agrupados por código de estado o excepción. Se registra desde los hilos que reciben las respuestas.
+     */
+    private static final class Registro {
+        private final Histogram histograma;
+        private final LongAdder errores = new LongAdder();
+        private final Map<String, LongAdder> motivos = new ConcurrentHashMap<>();
+
+        Registro() {
+            this(new ConcurrentHistogram(3));
+        }
+
+        private Registro(Histogram histograma) {
+            this.histograma = histograma;
+        }
+
+        void registrar(long nanos, String error) {
+            histograma.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (error != null) {
+                errores.increment();
+                motivos.computeIfAbsent(error, motivo -> new LongAdder()).increment();
+            }
+        }
+
+        double percentilMs(double percentil) {
+            return histograma.getValueAtPercentile(percentil) / 1000.0;
+        }
+
+        String fila(String endpoint) {
+            String detalle = motivos.entrySet().stream()
+                    .map(entrada -> entrada.getKey() + ": " + entrada.getValue().sum())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return String.format("%-45s %10d %8d %8.1f %8.2f %8.2f %8.2f %8.2f %8.2f  %s%n",
+                    endpoint, histograma.getTotalCount(), errores.sum(),
+                    histograma.getTotalCount() / (double) DURACION.toSeconds(),
+                    percentilMs(50), percentilMs(90), percentilMs(99), percentilMs(99.9),
+                    histograma.getMaxValue() / 1000.0, detalle);
+        }
+
+        static Registro combinar(Iterable<Registro> registros) {
+            Registro total = new Registro(new Histogram(3));
+            for (Registro registro : registros) {
+                total.histograma.add(registro.histograma);
+                total.errores.add(registro.errores.sum());
+                registro.motivos.forEach((motivo, cantidad) ->
+                        total.motivos.computeIfAbsent(motivo, clave -> new LongAdder()).add(cantidad.sum()));
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package um.prog2.TP5.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del detector de N+1 con datos confirmados, para que los ámbitos de transacción se cierren
+ * dentro de cada test. Doce departamentos con un empleado cada uno superan el umbral de 10 de los tests
+ * cuando se recorre la relación perezosa {@code departamento}.
+ */
+@AutoConfigureMockMvc
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DetectorNMasUnoTest extends BaseIntegrationTest {
+
+    private static final int DEPARTAMENTOS = 12;
+
+    @Autowired
+    private DetectorNMasUno detector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+    private Long empleadoId;
+
+    @BeforeEach
+    void configurarDatos() {
+        transaccion = new TransactionTemplate(transactionManager);
+        empleadoId = transaccion.execute(status -> {
+            Long id = null;
+            for (int i = 0; i < DEPARTAMENTOS; i++) {
+                Departamento departamento = departamentoRepository.save(TestDataFactory.crearDepartamento("Departamento " + i));
+                id = empleadoRepository.save(TestDataFactory.crearEmpleado("Nombre", "Apellido",
+                        "empleado" + i + "@empresa.com", new BigDecimal("50000"), departamento)).getId();
+            }
+            return id;
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void limpiarDatosConfirmados() {
+        limpiarBaseDeDatos();
+    }
+
+    @Test
+    void ambitoManual_recorridoDeRelacionPerezosa_deberiaContarLaFormaRepetida() {
+        // When
+        DetectorNMasUno.Ambito ambito = detector.abrir("recorrido");
+        try (ambito) {
+            transaccion.executeWithoutResult(status ->
+                    empleadoRepository.findAll().forEach(empleado -> empleado.getDepartamento().getNombre()));
+        }
+
+        // Then - Un SELECT de empleados y uno por cada departamento, todos con la misma forma
+        assertThat(ambito.getSentencias()).isEqualTo(1 + DEPARTAMENTOS);
+        assertThat(ambito.getFilas()).isEqualTo(2 * DEPARTAMENTOS);
+        assertThat(ambito.getMaximoRepeticiones()).isEqualTo(DEPARTAMENTOS);
+        assertThat(ambito.getRepeticionesPorForma().keySet().iterator().next())
+                .endsWith("from departamentos d1_0 where d1_0.id=?");
+    }
+
+    @Test
+    void ambitoManual_consultaConJoinFetch_noDeberiaRepetirFormas() {
+        // When
+        DetectorNMasUno.Ambito ambito = detector.abrir("join fetch");
+        try (ambito) {
+            transaccion.executeWithoutResult(status -> {
+                List<Empleado> empleados = empleadoRepository.findByNombreDepartamentoConDepartamento("Departamento 3");
+                empleados.forEach(empleado -> empleado.getDepartamento().getNombre());
+            });
+        }
+
+        // Then
+        assertThat(ambito.getSentencias()).isOne();
+        assertThat(ambito.getMaximoRepeticiones()).isOne();
+    }
+
+    @Test
+    void transaccion_conFormaRepetidaSobreElUmbral_deberiaIncrementarLaMetrica() {
+        // Given
+        transaccion.setName("recorrido-departamentos");
+
+        // When
+        transaccion.executeWithoutResult(status ->
+                empleadoRepository.findAll().forEach(empleado -> empleado.getDepartamento().getNombre()));
+
+        // Then
+        assertThat(meterRegistry.get("sql.n-mas-uno")
+                .tags("ambito", "transaccion", "origen", "recorrido-departamentos")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("sql.sentencias")
+                .tags("ambito", "transaccion", "origen", "recorrido-departamentos")
+                .summary().max()).isEqualTo(1 + DEPARTAMENTOS);
+    }
+
+    @Test
+    void peticion_deberiaRegistrarSentenciasPorPatronDelEndpoint() throws Exception {
+        // When
+        mockMvc.perform(get("/api/empleados/{id}", empleadoId)).andExpect(status().isOk());
+
+        // Then
+        assertThat(meterRegistry.get("sql.sentencias")
+                .tags("ambito", "peticion", "origen", "GET /api/empleados/{id}")
+                .summary().count()).isPositive();
+        assertThat(meterRegistry.find("sql.n-mas-uno").tags("origen", "GET /api/empleados/{id}").counter()).isNull();
+    }
+
+    @Test
+    void forma_deberiaIgnorarLiteralesYLargoDeListasIn() {
+        assertThat(DetectorNMasUno.forma("select * from empleados where id in (?, ?, ?) and salario > 5000"))
+                .isEqualTo(DetectorNMasUno.forma("select *  from empleados\n where id in (?) and salario > 70000.50"))
+                .isEqualTo("select * from empleados where id in (?) and salario > ?");
+        assertThat(DetectorNMasUno.forma("select e1_0.id from empleados e1_0 where e1_0.email = 'a@b.com'"))
+                .isEqualTo("select e1_0.id from empleados e1_0 where e1_0.email = ?");
+        assertThat(DetectorNMasUno.forma("insert into departamentos (nombre, version) values (?, ?)"))
+                .isEqualTo("insert into departamentos (nombre, version) values (?, ?)");
+    }
+}
@@ -0,0 +1,128 @@
+package um.prog2.TP5.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del registro de consultas lentas con umbral cero, para que toda sentencia cuente como lenta.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.sql.consultas-lentas.umbral=0ms",
+        "app.sql.consultas-lentas.capacidad=20",
+        "logging.level.um.prog2.TP5.config.RegistroConsultasLentas=ERROR"
+})
+class RegistroConsultasLentasTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RegistroConsultasLentas registro;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void configurarDatos() {
+        crearEmpleadosBase();
+        empleadoRepository.flush();
+        registro.vaciar();
+    }
+
+    @Test
+    void consultaDeRepositorio_deberiaRegistrarOrigenYOcultarEmail() {
+        // When
+        empleadoRepository.findByEmail("maria.garcia@empresa.com");
+
+        // Then
+        RegistroConsultasLentas.ConsultaLenta consulta = registro.consultas().get(0);
+        assertThat(consulta.origen()).isEqualTo("EmpleadoRepository.findByEmail");
+        assertThat(consulta.sql()).contains("email=?");
+        assertThat(consulta.parametros()).containsExactly(List.of(RegistroConsultasLentas.OCULTO));
+        assertThat(consulta.lote()).isOne();
+        assertThat(consulta.exito()).isTrue();
+    }
+
+    @Test
+    void insert_deberiaOcultarSoloEmailYSalario() {
+        // When
+        Empleado empleado = TestDataFactory.crearEmpleado("Lucía", "Ramos", "lucia.ramos@empresa.com",
+                new BigDecimal("81000.00"), departamentoRepository.getReferenceById(DEPARTAMENTO_DESARROLLO_ID));
+        empleadoRepository.saveAndFlush(empleado);
+
+        // Then
+        RegistroConsultasLentas.ConsultaLenta insert = registro.consultas().stream()
+                .filter(consulta -> consulta.sql().startsWith("insert into empleados"))
+                .findFirst().orElseThrow();
+        assertThat(insert.parametros().get(0))
+                .contains("Lucía", "Ramos")
+                .doesNotContain("lucia.ramos@empresa.com", "81000.00")
+                .filteredOn(RegistroConsultasLentas.OCULTO::equals).hasSize(2);
+    }
+
+    @Test
+    void capacidad_deberiaConservarSoloLasMasRecientes() {
+        // When
+        for (int i = 0; i < 25; i++) {
+            empleadoRepository.findById(EMPLEADO_SENIOR_ID + 1000 + i);
+        }
+
+        // Then
+        List<RegistroConsultasLentas.ConsultaLenta> consultas = registro.consultas();
+        assertThat(consultas).hasSize(20);
+        assertThat(consultas.get(0).id()).isGreaterThan(consultas.get(19).id());
+        assertThat(consultas.get(0).parametros()).containsExactly(List.of(String.valueOf(EMPLEADO_SENIOR_ID + 1024)));
+    }
+
+    @Test
+    void endpoint_deberiaListarDevolverPlanYVaciar() throws Exception {
+        // Given
+        empleadoRepository.findByEmail("maria.garcia@empresa.com");
+        long id = registro.consultas().get(0).id();
+
+        // When / Then
+        mockMvc.perform(get("/actuator/consultaslentas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].origen").value("EmpleadoRepository.findByEmail"));
+        mockMvc.perform(get("/actuator/consultaslentas/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consulta.parametros[0][0]").value(RegistroConsultasLentas.OCULTO))
+                .andExpect(jsonPath("$.plan", not(empty())))
+                .andExpect(jsonPath("$.plan[0]").value(startsWith("SELECT")));
+        mockMvc.perform(delete("/actuator/consultaslentas")).andExpect(status().isNoContent());
+        mockMvc.perform(get("/actuator/consultaslentas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/actuator/consultaslentas/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void columnasDeParametros_deberiaReconocerComparacionesBetweenInEInsert() {
+        assertThat(RegistroConsultasLentas.columnasDeParametros(
+                "select e1_0.id from empleados e1_0 where e1_0.salario between ? and ? and e1_0.id in (?, ?) and e1_0.email like ?"))
+                .containsExactly("salario", "salario", "id", "id", "email");
+        assertThat(RegistroConsultasLentas.columnasDeParametros(
+                "insert into empleados (apellido,email,salario,id) values (?,?,?,?)"))
+                .containsExactly("apellido", "email", "salario", "id");
+        assertThat(RegistroConsultasLentas.columnasDeParametros("select * from t where nombre = 'a?b' and lower(x)=lower(?)"))
+                .containsExactly((String) null);
+    }
+}
@@ -7,16 +7,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import um.prog2.TP5.dto.DistribucionSalariosDTO;
+import um.prog2.TP5.dto.SalariosDepartamentoDTO;
 import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
 import um.prog2.TP5.exception.GlobalExceptionHandler;
 import um.prog2.TP5.exception.ResourceNotFoundException;
+import um.prog2.TP5.exception.VersionDesactualizadaException;
 import um.prog2.TP5.service.DepartamentoService;
+import um.prog2.TP5.service.EstadisticasSalarioService;
 import um.prog2.TP5.testutil.TestDataFactory;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
@@ -35,6 +42,9 @@ class DepartamentoControllerTest {
     @Mock
     private DepartamentoService departamentoService;
 
+    @Mock
+    private EstadisticasSalarioService estadisticasSalarioService;
+
     @InjectMocks
     private DepartamentoController departamentoController;
 
@@ -58,7 +68,8 @@ class DepartamentoControllerTest {
                 TestDataFactory.crearDepartamentoDesarrollo(),
                 TestDataFactory.crearDepartamentoVentas()
         );
-        when(departamentoService.obtenerTodos()).thenReturn(departamentos);
+        when(departamentoService.listarTodos())
+                .thenReturn(departamentos.stream().map(TestDataFactory::crearDepartamentoDTO).toList());
 
         // When & Then
         mockMvc.perform(get("/api/departamentos"))
@@ -69,7 +80,21 @@ class DepartamentoControllerTest {
                 .andExpect(jsonPath("$[0].nombre").value("Desarrollo"))
                 .andExpect(jsonPath("$[1].nombre").value("Ventas"));
 
-        verify(departamentoService).obtenerTodos();
+        verify(departamentoService).listarTodos();
+    }
+
+    @Test
+    void obtenerTodos_conIfNoneMatchVigente_deberiaRetornar304SinListar() throws Exception {
+        // Given
+        when(departamentoService.versionListado()).thenReturn("abc-7");
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos").header(HttpHeaders.IF_NONE_MATCH, "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-7\""))
+                .andExpect(content().string(""));
+
+        verify(departamentoService, never()).listarTodos();
     }
 
     @Test
@@ -105,6 +130,35 @@ class DepartamentoControllerTest {
         verify(departamentoService).buscarPorId(id);
     }
 
+    @Test
+    void obtenerPorId_deberiaIncluirVersionComoEtag() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+        departamento.setVersion(3L);
+        when(departamentoService.buscarPorId(1L)).thenReturn(departamento);
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void obtenerPorId_conIfNoneMatchVigente_deberiaRetornar304SinCuerpo() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+        departamento.setVersion(3L);
+        when(departamentoService.buscarPorId(1L)).thenReturn(departamento);
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+    }
+
     @Test
     void crear_departamentoValido_deberiaRetornar201() throws Exception {
         // Given
@@ -168,7 +222,7 @@ class DepartamentoControllerTest {
         departamentoActualizado.setId(id);
         departamentoActualizado.setNombre("Desarrollo Actualizado");
 
-        when(departamentoService.actualizar(eq(id), any(Departamento.class)))
+        when(departamentoService.actualizar(eq(id), any(Departamento.class), isNull()))
                 .thenReturn(departamentoActualizado);
 
         // When & Then
@@ -180,7 +234,52 @@ class DepartamentoControllerTest {
                 .andExpect(jsonPath("$.id").value(id))
                 .andExpect(jsonPath("$.nombre").value("Desarrollo Actualizado"));
 
-        verify(departamentoService).actualizar(eq(id), any(Departamento.class));
+        verify(departamentoService).actualizar(eq(id), any(Departamento.class), isNull());
+    }
+
+    @Test
+    void actualizar_conIfMatch_deberiaPasarVersionEsperadaYRetornarNuevoEtag() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+        departamento.setVersion(5L);
+        when(departamentoService.actualizar(eq(1L), any(Departamento.class), eq(4L))).thenReturn(departamento);
+
+        // When & Then
+        mockMvc.perform(put("/api/departamentos/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(departamento)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    void actualizar_conIfMatchDesactualizado_deberiaRetornar412() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        when(departamentoService.actualizar(eq(1L), any(Departamento.class), eq(2L)))
+                .thenThrow(new VersionDesactualizadaException("Departamento con ID 1 está en la versión 3, no en la 2"));
+
+        // When & Then
+        mockMvc.perform(put("/api/departamentos/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(departamento)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.codigo").value("VERSION_DESACTUALIZADA"));
+    }
+
+    @Test
+    void actualizar_conIfMatchDebil_deberiaRetornar412SinLlamarAlServicio() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/departamentos/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(TestDataFactory.crearDepartamentoDesarrollo())))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(departamentoService, never()).actualizar(any(), any(), any());
     }
 
     @Test
@@ -228,6 +327,61 @@ class DepartamentoControllerTest {
         verify(departamentoService).buscarPorNombre(nombre);
     }
 
+    @Test
+    void obtenerResumenSalarios_departamentoExistente_deberiaRetornarAgregados() throws Exception {
+        // Given
+        SalariosDepartamentoDTO resumen = new SalariosDepartamentoDTO(1L, 2, new BigDecimal("100000.00"),
+                new BigDecimal("50000.00"), new BigDecimal("40000.00"), new BigDecimal("60000.00"));
+        when(estadisticasSalarioService.obtenerResumen(1L)).thenReturn(resumen);
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos/{id}/salarios", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cantidad").value(2))
+                .andExpect(jsonPath("$.promedio").value(50000.00))
+                .andExpect(jsonPath("$.maximo").value(60000.00));
+    }
+
+    @Test
+    void obtenerResumenSalarios_departamentoInexistente_deberiaRetornar404() throws Exception {
+        // Given
+        when(estadisticasSalarioService.obtenerResumen(999L))
+                .thenThrow(new DepartamentoNoEncontradoException("Departamento no encontrado con ID: 999"));
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos/{id}/salarios", 999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void obtenerDistribucionSalarios_conIntervalos_deberiaDelegarEnServicio() throws Exception {
+        // Given
+        DistribucionSalariosDTO distribucion = new DistribucionSalariosDTO(1L, 1, new BigDecimal("50000.00"),
+                BigDecimal.ZERO, new BigDecimal("50000.00"), new BigDecimal("50000.00"), new BigDecimal("50000.00"),
+                new BigDecimal("50000.00"), new BigDecimal("50000.00"), 0.01,
+                List.of(new DistribucionSalariosDTO.Intervalo(new BigDecimal("50000.00"), new BigDecimal("50000.00"), 1)));
+        when(estadisticasSalarioService.obtenerDistribucion(1L, 4)).thenReturn(distribucion);
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos/{id}/salarios/estadisticas", 1L).param("intervalos", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.p90").value(50000.00))
+                .andExpect(jsonPath("$.histograma[0].cantidad").value(1));
+    }
+
+    @Test
+    void obtenerDistribucionSalarios_sinIntervalos_deberiaUsarDiezPorDefecto() throws Exception {
+        // Given
+        when(estadisticasSalarioService.obtenerDistribucion(1L, 10))
+                .thenThrow(new IllegalArgumentException("sin datos"));
+
+        // When & Then
+        mockMvc.perform(get("/api/departamentos/{id}/salarios/estadisticas", 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(estadisticasSalarioService).obtenerDistribucion(1L, 10);
+    }
+
     @Test
     void crear_conContentTypeXml_deberiaRetornar415() throws Exception {
         // When & Then
@@ -7,10 +7,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import um.prog2.TP5.dto.LoteEmpleadosRequest;
+import um.prog2.TP5.dto.PaginaCursor;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.exception.GlobalExceptionHandler;
@@ -22,8 +26,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -55,7 +64,7 @@ class EmpleadoControllerTest {
     }
 
     @Test
-    void obtenerTodos_deberiaRetornarListaDeEmpleados() throws Exception {
+    void obtenerPagina_sinParametros_deberiaRetornarPrimeraPaginaConLimitePorDefecto() throws Exception {
         // Given
         Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
         departamento.setId(1L);
@@ -68,18 +77,97 @@ class EmpleadoControllerTest {
 
         List<Empleado> empleados = Arrays.asList(empleado1, empleado2);
 
-        when(empleadoService.obtenerTodos()).thenReturn(empleados);
+        when(empleadoService.obtenerPagina(null, 100))
+                .thenReturn(new PaginaCursor<>(empleados.stream().map(TestDataFactory::crearEmpleadoDTO).toList(), null));
 
         // When & Then
         mockMvc.perform(get("/api/empleados"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].nombre").value("Juan"))
-                .andExpect(jsonPath("$[1].nombre").value("María"));
+                .andExpect(jsonPath("$.contenido.length()").value(2))
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Juan"))
+                .andExpect(jsonPath("$.contenido[1].nombre").value("María"))
+                .andExpect(jsonPath("$.hayMas").value(false));
+
+        verify(empleadoService).obtenerPagina(null, 100);
+        verify(empleadoService, never()).listarTodos();
+    }
+
+    @Test
+    void obtenerPagina_conLimite_deberiaRetornarPaginaConCursor() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+
+        Empleado empleado = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com",  BigDecimal.valueOf(100.00), departamento);
+        empleado.setId(5L);
+
+        String cursor = PaginaCursor.codificarCursor(5L);
+        when(empleadoService.obtenerPagina("abc", 1))
+                .thenReturn(new PaginaCursor<>(List.of(TestDataFactory.crearEmpleadoDTO(empleado)), cursor));
+
+        // When & Then
+        mockMvc.perform(get("/api/empleados").param("after", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(1))
+                .andExpect(jsonPath("$.contenido[0].id").value(5))
+                .andExpect(jsonPath("$.siguienteCursor").value(cursor))
+                .andExpect(jsonPath("$.hayMas").value(true));
+
+        verify(empleadoService).obtenerPagina("abc", 1);
+        verify(empleadoService, never()).listarTodos();
+    }
+
+    @Test
+    void obtenerPagina_conCursorInvalido_deberiaRetornar400() throws Exception {
+        // Given
+        when(empleadoService.obtenerPagina("xyz", 100))
+                .thenThrow(new IllegalArgumentException("Cursor inválido: xyz"));
 
-        verify(empleadoService).obtenerTodos();
+        // When & Then
+        mockMvc.perform(get("/api/empleados").param("after", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.codigo").value("ARGUMENTO_INVALIDO"));
+    }
+
+    @Test
+    void exportar_deberiaEscribirUnEmpleadoPorLinea() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+
+        Empleado empleado1 = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com",  BigDecimal.valueOf(100.00), departamento);
+        empleado1.setId(1L);
+        Empleado empleado2 = TestDataFactory.crearEmpleado("María", "López", "maria@empresa.com",  BigDecimal.valueOf(100.00), departamento);
+        empleado2.setId(2L);
+
+        when(empleadoService.exportarTodos(any())).thenAnswer(invocation -> {
+            Consumer<Empleado> consumidor = invocation.getArgument(0);
+            consumidor.accept(empleado1);
+            consumidor.accept(empleado2);
+            return 2L;
+        });
+
+        MockMvc mockMvcExportacion = MockMvcBuilders
+                .standaloneSetup(new EmpleadoController(empleadoService, objectMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        // When
+        MvcResult resultado = mockMvcExportacion.perform(get("/api/empleados/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String cuerpo = mockMvcExportacion.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lineas = cuerpo.split("\n");
+        assertThat(lineas).hasSize(2);
+        assertThat(objectMapper.readTree(lineas[0]).get("email").asText()).isEqualTo("juan@empresa.com");
+        assertThat(objectMapper.readTree(lineas[1]).get("email").asText()).isEqualTo("maria@empresa.com");
     }
 
     @Test
@@ -105,6 +193,30 @@ class EmpleadoControllerTest {
         verify(empleadoService).buscarPorId(id);
     }
 
+    @Test
+    void obtenerPorId_cambioEnElDepartamento_deberiaCambiarElEtag() throws Exception {
+        // Given - El JSON del empleado incluye al departamento, que se versiona por separado
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+        departamento.setVersion(0L);
+        Empleado empleado = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com", BigDecimal.valueOf(100.00), departamento);
+        empleado.setId(1L);
+        empleado.setVersion(2L);
+        when(empleadoService.buscarPorId(1L)).thenReturn(empleado);
+        String etag = mockMvc.perform(get("/api/empleados/{id}", 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        departamento.setVersion(1L);
+
+        // Then
+        assertThat(etag).startsWith("\"2-");
+        mockMvc.perform(get("/api/empleados/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("juan@empresa.com"));
+    }
+
     @Test
     void obtenerPorId_empleadoNoExistente_deberiaRetornar404() throws Exception {
         // Given
@@ -146,6 +258,55 @@ class EmpleadoControllerTest {
         verify(empleadoService).validarEmpleado(any(Empleado.class));
     }
 
+    @Test
+    void crearLote_empleadosValidos_deberiaRetornar201ConIds() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+
+        Empleado empleado1 = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com",  BigDecimal.valueOf(100.00), departamento);
+        Empleado empleado2 = TestDataFactory.crearEmpleado("María", "López", "maria@empresa.com",  BigDecimal.valueOf(100.00), departamento);
+
+        when(empleadoService.guardarLote(anyList())).thenAnswer(invocation -> {
+            List<Empleado> lote = invocation.getArgument(0);
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).setId(10L + i);
+            }
+            return lote;
+        });
+
+        // When & Then
+        mockMvc.perform(post("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoteEmpleadosRequest(List.of(empleado1, empleado2)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.cantidad").value(2))
+                .andExpect(jsonPath("$.ids[0]").value(10))
+                .andExpect(jsonPath("$.ids[1]").value(11));
+
+        verify(empleadoService).guardarLote(anyList());
+    }
+
+    @Test
+    void crearLote_conEmpleadoInvalido_deberiaRetornar400() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+
+        Empleado valido = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com",  BigDecimal.valueOf(100.00), departamento);
+        Empleado invalido = TestDataFactory.crearEmpleado("María", "López", "email-invalido",  BigDecimal.valueOf(100.00), departamento);
+
+        // When & Then
+        mockMvc.perform(post("/api/empleados/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoteEmpleadosRequest(List.of(valido, invalido)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.codigo").value("ERROR_VALIDACION"))
+                .andExpect(jsonPath("$.mensaje").value(containsString("empleados[1].email")));
+
+        verify(empleadoService, never()).guardarLote(anyList());
+    }
+
     @Test
     void crear_empleadoConEmailInvalido_deberiaRetornar400() throws Exception {
         // Given
@@ -180,7 +341,7 @@ class EmpleadoControllerTest {
         Empleado empleadoActualizado = TestDataFactory.crearEmpleado("Juan", "Pérez Actualizado", "juan@empresa.com",  BigDecimal.valueOf(100.00), departamento);
         empleadoActualizado.setId(id);
 
-        when(empleadoService.actualizar(eq(id), any(Empleado.class))).thenReturn(empleadoActualizado);
+        when(empleadoService.actualizar(eq(id), any(Empleado.class), isNull())).thenReturn(empleadoActualizado);
 
         // When & Then
         mockMvc.perform(put("/api/empleados/{id}", id)
@@ -191,7 +352,25 @@ class EmpleadoControllerTest {
                 .andExpect(jsonPath("$.id").value(id))
                 .andExpect(jsonPath("$.apellido").value("Pérez Actualizado"));
 
-        verify(empleadoService).actualizar(eq(id), any(Empleado.class));
+        verify(empleadoService).actualizar(eq(id), any(Empleado.class), isNull());
+    }
+
+    @Test
+    void actualizar_conIfMatchCompuesto_deberiaUsarSoloLaVersionDelEmpleado() throws Exception {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+        Empleado empleado = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com", BigDecimal.valueOf(100.00), departamento);
+        empleado.setVersion(8L);
+        when(empleadoService.actualizar(eq(1L), any(Empleado.class), eq(7L))).thenReturn(empleado);
+
+        // When & Then
+        mockMvc.perform(put("/api/empleados/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"7-1f\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(empleado)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"8-")));
     }
 
     @Test
@@ -237,7 +416,8 @@ class EmpleadoControllerTest {
 
         List<Empleado> empleados = Arrays.asList(empleado1, empleado2);
 
-        when(empleadoService.buscarPorDepartamento(nombreDepartamento)).thenReturn(empleados);
+        when(empleadoService.listarPorDepartamento(nombreDepartamento))
+                .thenReturn(empleados.stream().map(TestDataFactory::crearEmpleadoDTO).toList());
 
         // When & Then
         mockMvc.perform(get("/api/empleados/departamento/{nombre}", nombreDepartamento))
@@ -248,7 +428,7 @@ class EmpleadoControllerTest {
                 .andExpect(jsonPath("$[0].nombre").value("Juan"))
                 .andExpect(jsonPath("$[1].nombre").value("María"));
 
-        verify(empleadoService).buscarPorDepartamento(nombreDepartamento);
+        verify(empleadoService).listarPorDepartamento(nombreDepartamento);
     }
 
     @Test
@@ -270,7 +450,8 @@ class EmpleadoControllerTest {
 
         List<Empleado> empleados = Arrays.asList(empleado1, empleado2);
 
-        when(empleadoService.buscarPorRangoSalario(min, max)).thenReturn(empleados);
+        when(empleadoService.listarPorRangoSalario(min, max))
+                .thenReturn(empleados.stream().map(TestDataFactory::crearEmpleadoDTO).toList());
 
         // When & Then
         mockMvc.perform(get("/api/empleados/salario")
@@ -283,7 +464,7 @@ class EmpleadoControllerTest {
                 .andExpect(jsonPath("$[0].salario").value(35000))
                 .andExpect(jsonPath("$[1].salario").value(45000));
 
-        verify(empleadoService).buscarPorRangoSalario(min, max);
+        verify(empleadoService).listarPorRangoSalario(min, max);
     }
 
     @Test
@@ -7,20 +7,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import um.prog2.TP5.dto.AsignacionEmpleadosRequest;
+import um.prog2.TP5.dto.VersionProyectoDTO;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.entity.Proyecto;
 import um.prog2.TP5.exception.GlobalExceptionHandler;
 import um.prog2.TP5.exception.ResourceNotFoundException;
 import um.prog2.TP5.service.ProyectoService;
 import um.prog2.TP5.testutil.TestDataFactory;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -59,7 +66,8 @@ class ProyectoControllerTest {
                 TestDataFactory.crearProyectoActivo("Proyecto 1"),
                 TestDataFactory.crearProyectoSinFechaFin("Proyecto 2")
         );
-        when(proyectoService.obtenerTodos()).thenReturn(proyectos);
+        when(proyectoService.listarTodos())
+                .thenReturn(proyectos.stream().map(TestDataFactory::crearProyectoDTO).toList());
 
         // When & Then
         mockMvc.perform(get("/api/proyectos"))
@@ -70,7 +78,34 @@ class ProyectoControllerTest {
                 .andExpect(jsonPath("$[0].nombre").value("Proyecto 1"))
                 .andExpect(jsonPath("$[1].nombre").value("Proyecto 2"));
 
-        verify(proyectoService).obtenerTodos();
+        verify(proyectoService).listarTodos();
+    }
+
+    @Test
+    void obtenerProyectosActivos_conIfNoneMatchVigente_deberiaRetornar304SinListar() throws Exception {
+        // Given
+        when(proyectoService.versionListado()).thenReturn("abc-3-2025-06-01");
+
+        // When & Then
+        mockMvc.perform(get("/api/proyectos/activos").header(HttpHeaders.IF_NONE_MATCH, "\"abc-3-2025-06-01\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(proyectoService, never()).listarProyectosActivos();
+    }
+
+    @Test
+    void obtenerTodos_conIfNoneMatchDesactualizado_deberiaRetornarListaConNuevoEtag() throws Exception {
+        // Given
+        when(proyectoService.versionListado()).thenReturn("abc-4-2025-06-01");
+        when(proyectoService.listarTodos())
+                .thenReturn(List.of(TestDataFactory.crearProyectoDTO(TestDataFactory.crearProyectoActivo("Proyecto 1"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/proyectos").header(HttpHeaders.IF_NONE_MATCH, "\"abc-3-2025-06-01\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-4-2025-06-01\""))
+                .andExpect(jsonPath("$.length()").value(1));
     }
 
     @Test
@@ -79,23 +114,43 @@ class ProyectoControllerTest {
         Long id = 1L;
         Proyecto proyecto = TestDataFactory.crearProyectoSinFechaFin("Proyecto 1");
         proyecto.setId(id);
+        when(proyectoService.buscarVersion(id)).thenReturn(new VersionProyectoDTO(2L, List.of()));
         when(proyectoService.buscarPorId(id)).thenReturn(proyecto);
 
         // When & Then
         mockMvc.perform(get("/api/proyectos/{id}", id))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"2-")))
                 .andExpect(jsonPath("$.id").value(id))
                 .andExpect(jsonPath("$.nombre").value("Proyecto 1"));
 
         verify(proyectoService).buscarPorId(id);
     }
 
+    @Test
+    void obtenerPorId_conIfNoneMatchVigente_deberiaRetornar304SinCargarElProyecto() throws Exception {
+        // Given
+        Long id = 1L;
+        VersionProyectoDTO version = new VersionProyectoDTO(2L, List.of(
+                new VersionProyectoDTO.VersionEmpleado(3L, 1L, 2L), new VersionProyectoDTO.VersionEmpleado(4L, 0L, 2L)));
+        when(proyectoService.buscarVersion(id)).thenReturn(version);
+        String etag = mockMvc.perform(get("/api/proyectos/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/proyectos/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(proyectoService, times(1)).buscarPorId(id);
+    }
+
     @Test
     void obtenerPorId_proyectoNoExistente_deberiaRetornar404() throws Exception {
         // Given
         Long id = 999L;
-        when(proyectoService.buscarPorId(id))
+        when(proyectoService.buscarVersion(id))
                 .thenThrow(new ResourceNotFoundException("Proyecto no encontrado con ID: " + id));
 
         // When & Then
@@ -103,7 +158,7 @@ class ProyectoControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.codigo").value("RECURSO_NO_ENCONTRADO"));
 
-        verify(proyectoService).buscarPorId(id);
+        verify(proyectoService, never()).buscarPorId(any());
     }
 
     @Test
@@ -169,7 +224,7 @@ class ProyectoControllerTest {
         proyectoActualizado.setId(id);
         proyectoActualizado.setNombre("Sistema de Gestión Actualizado");
 
-        when(proyectoService.actualizar(eq(id), any(Proyecto.class)))
+        when(proyectoService.actualizar(eq(id), any(Proyecto.class), isNull()))
                 .thenReturn(proyectoActualizado);
 
         // When & Then
@@ -181,7 +236,23 @@ class ProyectoControllerTest {
                 .andExpect(jsonPath("$.id").value(id))
                 .andExpect(jsonPath("$.nombre").value("Sistema de Gestión Actualizado"));
 
-        verify(proyectoService).actualizar(eq(id), any(Proyecto.class));
+        verify(proyectoService).actualizar(eq(id), any(Proyecto.class), isNull());
+    }
+
+    @Test
+    void actualizar_escrituraConcurrente_deberiaRetornar409() throws Exception {
+        // Given
+        Proyecto proyecto = TestDataFactory.crearProyectoSinFechaFin("Proyecto 1");
+        when(proyectoService.actualizar(eq(1L), any(Proyecto.class), eq(0L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Proyecto.class, 1L));
+
+        // When & Then
+        mockMvc.perform(put("/api/proyectos/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"0-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(proyecto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.codigo").value("CONFLICTO_DE_VERSION"));
     }
 
     @Test
@@ -219,14 +290,10 @@ class ProyectoControllerTest {
         List<Long> empleadosIds = Arrays.asList(1L, 2L, 3L);
         AsignacionEmpleadosRequest request = new AsignacionEmpleadosRequest(empleadosIds);
 
-        Proyecto proyectoExistente = TestDataFactory.crearProyectoSinFechaFin("Proyecto 1");
-        proyectoExistente.setId(proyectoId);
-
         Proyecto proyectoActualizado = TestDataFactory.crearProyectoSinFechaFin("Proyecto 1");
         proyectoActualizado.setId(proyectoId);
 
-        when(proyectoService.buscarPorId(proyectoId)).thenReturn(proyectoExistente);
-        when(proyectoService.asignarEmpleados(proyectoExistente, empleadosIds))
+        when(proyectoService.asignarEmpleados(proyectoId, empleadosIds))
                 .thenReturn(proyectoActualizado);
 
         // When & Then
@@ -237,8 +304,31 @@ class ProyectoControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(proyectoId));
 
-        verify(proyectoService).buscarPorId(proyectoId);
-        verify(proyectoService).asignarEmpleados(proyectoExistente, empleadosIds);
+        verify(proyectoService).asignarEmpleados(proyectoId, empleadosIds);
+        verify(proyectoService, never()).buscarPorId(any());
+    }
+
+    @Test
+    void obtenerEmpleadosDelProyecto_deberiaRetornarEmpleadosConDepartamento() throws Exception {
+        // Given
+        Long proyectoId = 1L;
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        departamento.setId(1L);
+        Empleado empleado = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@empresa.com", new BigDecimal("50000"), departamento);
+        empleado.setId(1L);
+
+        when(proyectoService.obtenerEmpleadosDelProyecto(proyectoId))
+                .thenReturn(List.of(TestDataFactory.crearEmpleadoDTO(empleado)));
+
+        // When & Then
+        mockMvc.perform(get("/api/proyectos/{id}/empleados", proyectoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].email").value("juan@empresa.com"))
+                .andExpect(jsonPath("$[0].departamento.nombre").value("Desarrollo"));
+
+        verify(proyectoService).obtenerEmpleadosDelProyecto(proyectoId);
+        verify(proyectoService, never()).buscarPorId(any());
     }
 
     @Test
@@ -248,7 +338,7 @@ class ProyectoControllerTest {
         List<Long> empleadosIds = Arrays.asList(1L, 2L);
         AsignacionEmpleadosRequest request = new AsignacionEmpleadosRequest(empleadosIds);
 
-        when(proyectoService.buscarPorId(proyectoId))
+        when(proyectoService.asignarEmpleados(proyectoId, empleadosIds))
                 .thenThrow(new ResourceNotFoundException("Proyecto no encontrado con ID: " + proyectoId));
 
         // When & Then
@@ -258,8 +348,7 @@ class ProyectoControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.codigo").value("RECURSO_NO_ENCONTRADO"));
 
-        verify(proyectoService).buscarPorId(proyectoId);
-        verify(proyectoService, never()).asignarEmpleados(any(), any());
+        verify(proyectoService).asignarEmpleados(proyectoId, empleadosIds);
     }
 
     @Test
@@ -0,0 +1,219 @@
+package um.prog2.TP5.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.test.StepVerifier;
+import um.prog2.TP5.config.ServidorReactivo;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.repository.EmpleadoReactivoRepository;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+/**
+ * Tests de integración de la API reactiva contra el servidor Netty real y H2 por R2DBC.
+ * R2DBC usa sus propias conexiones, así que no ve la transacción con rollback de
+ * {@link BaseIntegrationTest}: los datos se confirman y se borran al terminar.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("API reactiva - Tests de Integración")
+class ApiReactivaIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ServidorReactivo servidorReactivo;
+
+    @Autowired
+    private EmpleadoReactivoRepository empleadoReactivoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private WebTestClient cliente;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> crearEmpleadosConProyectos());
+        cliente = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + servidorReactivo.getPuerto() + "/api/reactivo")
+                .build();
+    }
+
+    @AfterEach
+    void limpiarDatosConfirmados() {
+        limpiarBaseDeDatos();
+    }
+
+    @Test
+    @DisplayName("GET /empleados - Debería devolver un arreglo JSON con los empleados y su departamento")
+    void obtenerTodos_deberiaDevolverArregloJson() {
+        cliente.get().uri("/empleados")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(9)
+                .jsonPath("$[0].id").isEqualTo(EMPLEADO_DESARROLLADOR_ID)
+                .jsonPath("$[0].departamento.nombre").isEqualTo("Desarrollo")
+                .jsonPath("$[0].fechaContratacion").isEqualTo(LocalDate.now().minusMonths(6).toString());
+    }
+
+    @Test
+    @DisplayName("GET /empleados con Accept NDJSON - Debería emitir un empleado por línea")
+    void obtenerTodos_conAcceptNdjson_deberiaEmitirUnEmpleadoPorLinea() {
+        List<EmpleadoDTO> empleados = cliente.get().uri("/empleados")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(EmpleadoDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(empleados).hasSize(9)
+                .extracting(EmpleadoDTO::id)
+                .isSorted()
+                .contains(EMPLEADO_SENIOR_ID, EMPLEADO_RRHH_JUNIOR_ID);
+    }
+
+    @Test
+    @DisplayName("findAll - Debería emitir filas solo a medida que se piden")
+    void findAll_deberiaRespetarLaDemandaDelSuscriptor() {
+        StepVerifier.create(empleadoReactivoRepository.findAll(), 2)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("GET /empleados/{id} - Debería devolver 404 con el código de error de la API servlet")
+    void obtenerPorId_inexistente_deberiaDevolver404() {
+        cliente.get().uri("/empleados/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.codigo").isEqualTo("EMPLEADO_NO_ENCONTRADO")
+                .jsonPath("$.mensaje").isEqualTo("Empleado no encontrado con ID: 999999");
+    }
+
+    @Test
+    @DisplayName("GET /empleados/email/{email} - Debería devolver el empleado")
+    void obtenerPorEmail_deberiaDevolverEmpleado() {
+        cliente.get().uri("/empleados/email/{email}", "maria.garcia@empresa.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(EMPLEADO_SENIOR_ID)
+                .jsonPath("$.salario").isEqualTo(95000.0)
+                .jsonPath("$.departamento.id").isEqualTo(DEPARTAMENTO_DESARROLLO_ID);
+    }
+
+    @Test
+    @DisplayName("GET /empleados/salario - Debería filtrar por rango y exigir ambos parámetros")
+    void obtenerPorRangoSalario_deberiaFiltrarYValidarParametros() {
+        cliente.get().uri("/empleados/salario?salarioMinimo=70000&salarioMaximo=100000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[*].id").value(contains(
+                        EMPLEADO_DESARROLLADOR_ID.intValue(), EMPLEADO_SENIOR_ID.intValue(), EMPLEADO_MARKETING_SENIOR_ID.intValue(),
+                        EMPLEADO_RRHH_SENIOR_ID.intValue()));
+
+        cliente.get().uri("/empleados/salario?salarioMinimo=70000")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.codigo").isEqualTo("PARAMETRO_FALTANTE");
+
+        cliente.get().uri("/empleados/salario?salarioMinimo=abc&salarioMaximo=1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.codigo").isEqualTo("ARGUMENTO_INVALIDO");
+    }
+
+    @Test
+    @DisplayName("GET /empleados/departamento/{nombre} - Debería devolver los empleados del departamento")
+    void obtenerPorDepartamento_deberiaDevolverSusEmpleados() {
+        cliente.get().uri("/empleados/departamento/{nombre}", "Desarrollo")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[*].id").value(contains(
+                        EMPLEADO_DESARROLLADOR_ID.intValue(), EMPLEADO_SENIOR_ID.intValue(), EMPLEADO_JUNIOR_ID.intValue()));
+    }
+
+    @Test
+    @DisplayName("GET /departamentos - Debería listar y buscar departamentos")
+    void departamentos_deberiaListarYBuscar() {
+        cliente.get().uri("/departamentos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].nombre").isEqualTo("Desarrollo")
+                .jsonPath("$[0].version").isEqualTo(0);
+
+        cliente.get().uri("/departamentos/nombre/{nombre}", "Marketing")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(DEPARTAMENTO_MARKETING_ID);
+
+        cliente.get().uri("/departamentos/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.codigo").isEqualTo("DEPARTAMENTO_NO_ENCONTRADO");
+    }
+
+    @Test
+    @DisplayName("GET /proyectos/activos - Debería excluir los proyectos finalizados")
+    void obtenerProyectosActivos_deberiaExcluirFinalizados() {
+        cliente.get().uri("/proyectos/activos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[*].id").value(contains(PROYECTO_ACTIVO_ID.intValue(), PROYECTO_SIN_FIN_ID.intValue()))
+                .jsonPath("$[*].activo").value(contains(true, true));
+
+        cliente.get().uri("/proyectos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("GET /proyectos/{id}/empleados - Debería devolver los miembros o 404 si el proyecto no existe")
+    void obtenerEmpleadosDelProyecto_deberiaDevolverMiembros() {
+        cliente.get().uri("/proyectos/{id}/empleados", PROYECTO_FINALIZADO_ID)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[*].id").value(contains(EMPLEADO_SENIOR_ID.intValue(), EMPLEADO_MARKETING_SENIOR_ID.intValue()));
+
+        cliente.get().uri("/proyectos/{id}/empleados", 999_999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.codigo").isEqualTo("PROYECTO_NO_ENCONTRADO");
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.repository.DepartamentoRepository;
+import um.prog2.TP5.service.DepartamentoCache;
 import um.prog2.TP5.testutil.TestDataFactory;
 
 import static org.hamcrest.Matchers.*;
@@ -40,9 +41,13 @@ class DepartamentoControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DepartamentoCache departamentoCache;
+
     @BeforeEach
     void setUp() {
         departamentoRepository.deleteAll();
+        departamentoCache.invalidar();
     }
 
     @Test
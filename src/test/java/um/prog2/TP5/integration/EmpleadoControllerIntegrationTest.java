@@ -15,6 +15,7 @@ import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.repository.DepartamentoRepository;
 import um.prog2.TP5.repository.EmpleadoRepository;
+import um.prog2.TP5.service.IndiceEmpleados;
 import um.prog2.TP5.testutil.TestDataFactory;
 
 import java.math.BigDecimal;
@@ -48,6 +49,9 @@ class EmpleadoControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private IndiceEmpleados indiceEmpleados;
+
     private Departamento departamento;
 
     @BeforeEach
@@ -61,8 +65,8 @@ class EmpleadoControllerIntegrationTest {
     }
 
     @Test
-    @DisplayName("GET /api/empleados - Debería obtener todos los empleados")
-    void obtenerTodos_conEmpleadosExistentes_deberiaRetornarListaCompleta() throws Exception {
+    @DisplayName("GET /api/empleados - Sin parámetros debería devolver la primera página")
+    void obtenerPagina_sinParametros_deberiaRetornarPrimeraPagina() throws Exception {
         // Given
         Empleado empleado1 = TestDataFactory.crearEmpleado("Juan", "Pérez", "juan@test.com", new BigDecimal("45000.00"), departamento);
         Empleado empleado2 = TestDataFactory.crearEmpleado("María", "García", "maria@test.com", new BigDecimal("42000.00"), departamento);
@@ -74,8 +78,9 @@ class EmpleadoControllerIntegrationTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[*].email", containsInAnyOrder("juan@test.com", "maria@test.com")));
+                .andExpect(jsonPath("$.contenido", hasSize(2)))
+                .andExpect(jsonPath("$.contenido[*].email", containsInAnyOrder("juan@test.com", "maria@test.com")))
+                .andExpect(jsonPath("$.hayMas", is(false)));
     }
 
     @Test
@@ -215,6 +220,54 @@ class EmpleadoControllerIntegrationTest {
                 .andExpect(jsonPath("$[*].departamento.nombre", everyItem(is(departamento.getNombre()))));
     }
 
+    @Test
+    @DisplayName("GET /api/empleados/buscar - Debería buscar por prefijo sin distinguir acentos")
+    void buscar_prefijoSinAcentos_deberiaRetornarCoincidencias() throws Exception {
+        // Given - El índice se actualiza al confirmar; en esta transacción con rollback se arma a mano
+        empleadoRepository.save(TestDataFactory.crearEmpleado("Martín", "Ibáñez", "martin@test.com", new BigDecimal("44000.00"), departamento));
+        empleadoRepository.save(TestDataFactory.crearEmpleado("Marta", "Ruiz", "marta@test.com", new BigDecimal("46000.00"), departamento));
+        indiceEmpleados.reconstruir();
+
+        // When & Then
+        mockMvc.perform(get("/api/empleados/buscar").param("q", "mart")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].email", containsInAnyOrder("martin@test.com", "marta@test.com")));
+        mockMvc.perform(get("/api/empleados/buscar").param("q", "martin ibanez")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].apellido", is("Ibáñez")));
+    }
+
+    @Test
+    @DisplayName("GET /api/empleados/buscar?aproximada=true - Debería tolerar errores de tipeo")
+    void buscarAproximado_conErrorDeTipeo_deberiaRetornarCoincidencias() throws Exception {
+        // Given
+        empleadoRepository.save(TestDataFactory.crearEmpleado("Martín", "Ibáñez", "martin@test.com", new BigDecimal("44000.00"), departamento));
+        indiceEmpleados.reconstruir();
+
+        // When & Then - Sin el parámetro la búsqueda es por prefijo y no lo encuentra
+        mockMvc.perform(get("/api/empleados/buscar").param("q", "ibanes")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/empleados/buscar").param("q", "ibanes").param("aproximada", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("martin@test.com")));
+    }
+
+    @Test
+    @DisplayName("GET /api/empleados/buscar - Debería retornar 400 sin texto de búsqueda")
+    void buscar_consultaVacia_deberiaRetornar400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/empleados/buscar").param("q", " ")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Test con salario negativo - Debería retornar 400")
     void crear_empleadoConSalarioNegativo_deberiaRetornar400() throws Exception {
@@ -0,0 +1,102 @@
+package um.prog2.TP5.integration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.service.DepartamentoService;
+import um.prog2.TP5.service.EmpleadoService;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica la configuración del perfil {@code virtual} sobre el servidor real, con peticiones
+ * HTTP que no comparten la transacción del test como sí ocurre con MockMvc.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "virtual"})
+@DisplayName("Perfil virtual - Tests de Integración")
+class HilosVirtualesIntegrationTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext contexto;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    private Empleado empleado;
+
+    @AfterEach
+    void limpiar() {
+        if (empleado != null) {
+            empleadoService.eliminar(empleado.getId());
+            departamentoService.eliminar(empleado.getDepartamento().getId());
+        }
+    }
+
+    @Test
+    void tomcat_deberiaAtenderCadaPeticionEnUnHiloVirtual() {
+        TomcatWebServer servidor = (TomcatWebServer) contexto.getWebServer();
+
+        assertThat(servidor.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void obtenerEmpleadoPorHttp_deberiaSerializarSuDepartamentoLazy() {
+        // Given - Fuera de una transacción de test el departamento llega como proxy de Hibernate
+        Departamento departamento = departamentoService.guardar(TestDataFactory.crearDepartamento("Hilos Virtuales"));
+        empleado = empleadoService.validarEmpleado(TestDataFactory.crearEmpleado("Ana", "Paz", "ana.paz@empresa.com",
+                new BigDecimal("50000"), departamento));
+
+        // When
+        ResponseEntity<String> respuesta = restTemplate.getForEntity("/api/empleados/{id}", String.class, empleado.getId());
+
+        // Then
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getBody()).contains("\"nombre\":\"Hilos Virtuales\"").doesNotContain("hibernateLazyInitializer");
+    }
+
+    @Test
+    void tareasAsincronas_deberianCorrerEnHilosVirtuales() throws Exception {
+        assertThat(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get()).isTrue();
+    }
+
+    @Test
+    void poolDeConexiones_deberiaTenerElTamanioDelPerfil() throws Exception {
+        // El detector de N+1 envuelve el DataSource con datasource-proxy
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(50);
+        assertThat(pool.getConnectionTimeout()).isEqualTo(5_000);
+    }
+}
@@ -0,0 +1,130 @@
+package um.prog2.TP5.integration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import um.prog2.TP5.config.ServidorReactivo;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de integración de las métricas publicadas en /actuator/prometheus.
+ * {@link AutoConfigureObservability} activa el registro de Prometheus, que Spring Boot reemplaza por uno
+ * en memoria en los tests.
+ */
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DisplayName("Métricas - Tests de Integración")
+class MetricasIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ServidorReactivo servidorReactivo;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        crearEmpleadosBase();
+    }
+
+    @Test
+    @DisplayName("GET /api/empleados/{id} - Debería publicar el timer del endpoint con histograma")
+    void endpoint_deberiaPublicarTimerConHistograma() throws Exception {
+        mockMvc.perform(get("/api/empleados/{id}", EMPLEADO_SENIOR_ID)).andExpect(status().isOk());
+
+        assertThat(prometheus())
+                .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/empleados/\\{id}\"")
+                .containsPattern("hikaricp_connections_acquire_seconds_bucket\\{[^}]*pool=\"");
+    }
+
+    @Test
+    @DisplayName("API reactiva - Debería publicar sus peticiones por patrón de ruta")
+    void apiReactiva_deberiaPublicarTimerPorPatronDeRuta() throws Exception {
+        WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + servidorReactivo.getPuerto())
+                .build()
+                .get().uri("/api/reactivo/empleados/{id}", 999_999)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertThat(prometheus())
+                .containsPattern("http_server_requests_seconds_count\\{[^}]*status=\"404\",uri=\"/api/reactivo/empleados/\\{id}\"");
+    }
+
+    @Test
+    @DisplayName("Repositorios - Debería registrar tiempos y filas devueltas por método")
+    void repositorio_deberiaRegistrarTiemposYFilas() throws Exception {
+        // When
+        empleadoRepository.findByNombreDepartamento("Desarrollo");
+        empleadoRepository.findById(999_999L);
+        try (Stream<BigDecimal> salarios = empleadoRepository.streamSalariosPorDepartamento(DEPARTAMENTO_DESARROLLO_ID)) {
+            salarios.forEach(salario -> { });
+        }
+
+        // Then
+        assertThat(filas("findByNombreDepartamento").totalAmount()).isEqualTo(3);
+        assertThat(filas("findById").totalAmount()).isZero();
+        assertThat(filas("findById").count()).isOne();
+        assertThat(filas("streamSalariosPorDepartamento").totalAmount()).isEqualTo(3);
+        assertThat(prometheus())
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findByNombreDepartamento\"")
+                .containsPattern("repositorio_filas_bucket\\{[^}]*method=\"findByNombreDepartamento\",repository=\"EmpleadoRepository\"");
+    }
+
+    @Test
+    @DisplayName("Hibernate - Debería publicar consultas, cargas, caché L2 y flushes")
+    void hibernate_deberiaPublicarEstadisticas() throws Exception {
+        // When
+        empleadoRepository.findByNombreDepartamento("Desarrollo");
+        empleadoRepository.flush();
+
+        // Then
+        assertThat(prometheus())
+                .contains("hibernate_query_executions_total", "hibernate_entities_loads_total",
+                        "hibernate_second_level_cache_requests_total", "hibernate_flushes_total");
+    }
+
+    @Test
+    @DisplayName("Caché de departamentos - Debería publicar aciertos y fallos por región")
+    void cacheDepartamentos_deberiaPublicarAciertosYFallos() throws Exception {
+        // When - La primera lectura llena la región por ID y la segunda acierta
+        mockMvc.perform(get("/api/departamentos/{id}", DEPARTAMENTO_DESARROLLO_ID)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/departamentos/{id}", DEPARTAMENTO_DESARROLLO_ID)).andExpect(status().isOk());
+
+        // Then
+        assertThat(meterRegistry.get("cache.gets").tags("cache", "departamentos.id", "result", "hit")
+                .functionCounter().count()).isPositive();
+        assertThat(prometheus())
+                .containsPattern("cache_gets_total\\{[^}]*cache=\"departamentos.id\",[^}]*result=\"miss\"")
+                .containsPattern("cache_size\\{[^}]*cache=\"departamentos.nombre\"");
+    }
+
+    private DistributionSummary filas(String metodo) {
+        return meterRegistry.get("repositorio.filas")
+                .tags("repository", "EmpleadoRepository", "method", metodo)
+                .summary();
+    }
+
+    private String prometheus() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
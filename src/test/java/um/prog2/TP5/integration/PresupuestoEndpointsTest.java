@@ -0,0 +1,292 @@
+package um.prog2.TP5.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import um.prog2.TP5.config.DetectorNMasUno;
+import um.prog2.TP5.controller.Presupuesto;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.service.IndiceDepartamentos;
+import um.prog2.TP5.service.IndiceEmpleados;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Verifica el {@link Presupuesto} de cada endpoint del API servlet: sentencias SQL, filas leídas y memoria
+ * asignada en el hilo de la petición. La API reactiva no entra: no usa JDBC y atiende en hilos de Netty.
+ * <p>
+ * Cada endpoint se ejecuta dos veces sobre el mismo conjunto de datos: la primera calienta las clases y el
+ * código de Spring y la segunda es la que se mide, con el contexto de persistencia y las cachés vacías para
+ * que cuente el peor caso. Las escrituras pendientes se envían con un flush dentro de la medición, porque
+ * en el test la transacción del servicio se une a la del test y no hace commit. {@code intento} distingue
+ * las dos ejecuciones para los endpoints que crean o eliminan.
+ */
+@AutoConfigureMockMvc
+@DisplayName("Presupuesto de sentencias, filas y memoria por endpoint")
+class PresupuestoEndpointsTest extends BaseIntegrationTest {
+
+    private static final int DEPARTAMENTOS = 5;
+    private static final int EMPLEADOS_POR_DEPARTAMENTO = 40;
+    private static final int PROYECTOS = 8;
+    private static final int EMPLEADOS_POR_PROYECTO = 20;
+    private static final int LOTE = 20;
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Petición de cada endpoint, por {@code Controlador.metodo}.
+     */
+    private static final Map<String, Caso> CASOS = casos();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DetectorNMasUno detector;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private IndiceEmpleados indiceEmpleados;
+
+    @Autowired
+    private IndiceDepartamentos indiceDepartamentos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Datos datos;
+
+    @FunctionalInterface
+    private interface Caso {
+        MockHttpServletRequestBuilder peticion(Datos datos, int intento);
+    }
+
+    /**
+     * IDs del conjunto de datos. Los departamentos y proyectos vacíos son los que se eliminan: con
+     * empleados asignados las claves foráneas lo impiden.
+     */
+    private record Datos(List<Long> departamentos, List<Long> departamentosVacios, List<Long> empleados,
+                         List<Long> proyectos, List<Long> proyectosVacios) {
+    }
+
+    @BeforeEach
+    void configurarDatos() {
+        List<Departamento> departamentos = departamentoRepository.saveAll(IntStream.range(0, DEPARTAMENTOS + 2)
+                .mapToObj(i -> TestDataFactory.crearDepartamento("Departamento " + i))
+                .toList());
+        List<Proyecto> proyectos = proyectoRepository.saveAll(IntStream.range(0, PROYECTOS + 2)
+                .mapToObj(i -> i % 2 == 0
+                        ? TestDataFactory.crearProyectoActivo("Proyecto " + i)
+                        : TestDataFactory.crearProyectoFinalizado("Proyecto " + i))
+                .toList());
+
+        List<Empleado> empleados = new ArrayList<>();
+        for (int i = 0; i < DEPARTAMENTOS * EMPLEADOS_POR_DEPARTAMENTO; i++) {
+            Empleado empleado = TestDataFactory.crearEmpleado("Nombre" + i, "Apellido" + i, "empleado" + i + "@empresa.com",
+                    BigDecimal.valueOf(30_000 + i * 350L), departamentos.get(i % DEPARTAMENTOS));
+            if (i < PROYECTOS * EMPLEADOS_POR_PROYECTO) {
+                empleado.getProyectos().add(proyectos.get(i / EMPLEADOS_POR_PROYECTO));
+            }
+            empleados.add(empleado);
+        }
+        empleadoRepository.saveAll(empleados);
+        // Los datos se guardan en la transacción del test, que nunca confirma: los índices se arman a mano
+        indiceEmpleados.reconstruir();
+        indiceDepartamentos.reconstruir();
+
+        datos = new Datos(ids(departamentos.subList(0, DEPARTAMENTOS), Departamento::getId),
+                ids(departamentos.subList(DEPARTAMENTOS, DEPARTAMENTOS + 2), Departamento::getId),
+                ids(empleados, Empleado::getId),
+                ids(proyectos.subList(0, PROYECTOS), Proyecto::getId),
+                ids(proyectos.subList(PROYECTOS, PROYECTOS + 2), Proyecto::getId));
+    }
+
+    static Stream<String> endpoints() {
+        return CASOS.keySet().stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("endpoints")
+    void endpoint_deberiaRespetarSuPresupuesto(String endpoint) throws Exception {
+        // Given
+        Presupuesto presupuesto = handlers().get(endpoint).getMethodAnnotation(Presupuesto.class);
+        Caso caso = CASOS.get(endpoint);
+        ejecutar(caso.peticion(datos, 0));
+        vaciarCaches();
+
+        // When
+        long asignadosAntes = HILOS.getCurrentThreadAllocatedBytes();
+        DetectorNMasUno.Ambito ambito = detector.abrir(endpoint);
+        MvcResult resultado;
+        try (ambito) {
+            resultado = ejecutar(caso.peticion(datos, 1));
+        }
+        long kilobytes = (HILOS.getCurrentThreadAllocatedBytes() - asignadosAntes) / 1024;
+
+        // Then
+        assertThat(resultado.getResponse().getStatus()).as(endpoint + " status").isBetween(200, 299);
+        assertThat(ambito.getSentencias())
+                .as("%s sentencias: %s", endpoint, ambito.getRepeticionesPorForma())
+                .isLessThanOrEqualTo(presupuesto.sentencias());
+        assertThat(ambito.getFilas()).as(endpoint + " filas").isLessThanOrEqualTo(presupuesto.filas());
+        assertThat(kilobytes).as(endpoint + " KB asignados").isLessThanOrEqualTo(presupuesto.memoriaKb());
+    }
+
+    @Test
+    void todosLosEndpoints_deberianDeclararPresupuestoYTenerCaso() {
+        Map<String, HandlerMethod> handlers = handlers();
+
+        assertThat(handlers.values())
+                .filteredOn(handler -> !handler.hasMethodAnnotation(Presupuesto.class))
+                .as("Endpoints sin @Presupuesto")
+                .isEmpty();
+        assertThat(CASOS.keySet()).containsExactlyInAnyOrderElementsOf(handlers.keySet());
+    }
+
+    /**
+     * Ejecuta la petición y envía al flush lo que haya quedado pendiente. Si la respuesta es asíncrona
+     * espera a que termine, para que no siga leyendo cuando el test hace rollback.
+     */
+    private MvcResult ejecutar(MockHttpServletRequestBuilder peticion) throws Exception {
+        MvcResult resultado = mockMvc.perform(peticion).andReturn();
+        entityManager.flush();
+        if (resultado.getRequest().isAsyncStarted()) {
+            resultado.getAsyncResult();
+        }
+        return resultado;
+    }
+
+    private void vaciarCaches() {
+        entityManager.clear();
+        entityManagerFactory.getCache().evictAll();
+        departamentoCache.invalidar();
+    }
+
+    private Map<String, HandlerMethod> handlers() {
+        return handlerMapping.getHandlerMethods().values().stream()
+                .filter(handler -> handler.getBeanType().getPackageName().equals(Presupuesto.class.getPackageName()))
+                .collect(Collectors.toMap(
+                        handler -> handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName(),
+                        handler -> handler));
+    }
+
+    private static <T> List<Long> ids(List<T> entidades, Function<T, Long> id) {
+        return entidades.stream().map(id).toList();
+    }
+
+    private static Map<String, Caso> casos() {
+        Map<String, Caso> casos = new LinkedHashMap<>();
+
+        casos.put("AutocompletadoController.sugerir", (d, i) -> get("/api/autocompletar").param("q", "nombre1"));
+        casos.put("DepartamentoController.obtenerTodos", (d, i) -> get("/api/departamentos"));
+        casos.put("DepartamentoController.obtenerPorId", (d, i) -> get("/api/departamentos/{id}", d.departamentos().get(0)));
+        casos.put("DepartamentoController.obtenerPorNombre", (d, i) -> get("/api/departamentos/nombre/{nombre}", "Departamento 1"));
+        casos.put("DepartamentoController.crear", (d, i) -> json(post("/api/departamentos"), """
+                {"nombre": "Departamento nuevo %d", "descripcion": "Alta"}""".formatted(i)));
+        casos.put("DepartamentoController.actualizar", (d, i) -> json(put("/api/departamentos/{id}", d.departamentos().get(0)), """
+                {"nombre": "Departamento renombrado %d", "descripcion": "Modificado"}""".formatted(i)));
+        casos.put("DepartamentoController.eliminar", (d, i) -> delete("/api/departamentos/{id}", d.departamentosVacios().get(i)));
+        casos.put("DepartamentoController.obtenerResumenSalarios",
+                (d, i) -> get("/api/departamentos/{id}/salarios", d.departamentos().get(1)));
+        casos.put("DepartamentoController.obtenerDistribucionSalarios",
+                (d, i) -> get("/api/departamentos/{id}/salarios/estadisticas", d.departamentos().get(1)));
+
+        casos.put("EmpleadoController.obtenerPagina", (d, i) -> get("/api/empleados").param("limit", "50"));
+        casos.put("EmpleadoController.exportar", (d, i) -> get("/api/empleados/export"));
+        casos.put("EmpleadoController.obtenerPorId", (d, i) -> get("/api/empleados/{id}", d.empleados().get(10)));
+        casos.put("EmpleadoController.obtenerPorEmail", (d, i) -> get("/api/empleados/email/{email}", "empleado10@empresa.com"));
+        casos.put("EmpleadoController.obtenerPorDepartamento",
+                (d, i) -> get("/api/empleados/departamento/{nombre}", "Departamento 1"));
+        casos.put("EmpleadoController.obtenerPorSalarioMayorA", (d, i) -> get("/api/empleados/salario")
+                .param("salarioMinimo", "40000").param("salarioMaximo", "60000"));
+        casos.put("EmpleadoController.buscar", (d, i) -> get("/api/empleados/buscar").param("q", "nombre1"));
+        casos.put("EmpleadoController.buscarAproximado", (d, i) -> get("/api/empleados/buscar")
+                .param("q", "Nombre12 Apelido12").param("aproximada", "true"));
+        casos.put("EmpleadoController.crear", (d, i) -> json(post("/api/empleados"), empleado("alta" + i, d.departamentos().get(0))));
+        casos.put("EmpleadoController.crearLote", (d, i) -> json(post("/api/empleados/batch"),
+                IntStream.range(0, LOTE)
+                        .mapToObj(n -> empleado("lote" + i + "-" + n, d.departamentos().get(n % DEPARTAMENTOS)))
+                        .collect(Collectors.joining(",", "{\"empleados\": [", "]}"))));
+        casos.put("EmpleadoController.actualizar", (d, i) -> json(put("/api/empleados/{id}", d.empleados().get(10)),
+                empleado("modificado" + i, d.departamentos().get(2))));
+        casos.put("EmpleadoController.eliminar", (d, i) -> delete("/api/empleados/{id}", d.empleados().get(i)));
+
+        casos.put("ProyectoController.obtenerTodos", (d, i) -> get("/api/proyectos"));
+        casos.put("ProyectoController.obtenerProyectosActivos", (d, i) -> get("/api/proyectos/activos"));
+        casos.put("ProyectoController.obtenerPorId", (d, i) -> get("/api/proyectos/{id}", d.proyectos().get(0)));
+        casos.put("ProyectoController.obtenerEmpleadosDelProyecto",
+                (d, i) -> get("/api/proyectos/{id}/empleados", d.proyectos().get(0)));
+        casos.put("ProyectoController.crear", (d, i) -> json(post("/api/proyectos"), proyecto("Proyecto nuevo " + i)));
+        casos.put("ProyectoController.actualizar", (d, i) -> json(put("/api/proyectos/{id}", d.proyectos().get(0)),
+                proyecto("Proyecto renombrado " + i)));
+        casos.put("ProyectoController.asignarEmpleados", (d, i) -> json(
+                post("/api/proyectos/{id}/asignar-empleados", d.proyectos().get(1)), asignacion(d, i)));
+        casos.put("ProyectoController.asignarEmpleadosAlternativo", (d, i) -> json(
+                put("/api/proyectos/{id}/empleados", d.proyectos().get(1)), asignacion(d, i)));
+        casos.put("ProyectoController.eliminar", (d, i) -> delete("/api/proyectos/{id}", d.proyectosVacios().get(i)));
+        return casos;
+    }
+
+    private static MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder peticion, String cuerpo) {
+        return peticion.contentType(MediaType.APPLICATION_JSON).content(cuerpo);
+    }
+
+    private static String empleado(String sufijo, Long departamentoId) {
+        return """
+                {"nombre": "Nombre", "apellido": "Apellido", "email": "%s@empresa.com", "fechaContratacion": "%s",
+                 "salario": 55000, "departamento": {"id": %d}}""".formatted(sufijo, LocalDate.now().minusMonths(1), departamentoId);
+    }
+
+    private static String proyecto(String nombre) {
+        return """
+                {"nombre": "%s", "descripcion": "Descripción", "fechaInicio": "%s", "fechaFin": "%s"}"""
+                .formatted(nombre, LocalDate.now().minusDays(5), LocalDate.now().plusMonths(3));
+    }
+
+    /**
+     * Veinte empleados que no están en ningún proyecto, distintos en cada intento.
+     */
+    private static String asignacion(Datos datos, int intento) {
+        int desde = PROYECTOS * EMPLEADOS_POR_PROYECTO + intento * EMPLEADOS_POR_PROYECTO;
+        return datos.empleados().subList(desde, desde + EMPLEADOS_POR_PROYECTO).stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{\"empleadosIds\": [", "]}"));
+    }
+}
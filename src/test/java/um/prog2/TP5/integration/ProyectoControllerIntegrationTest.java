@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,6 +27,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -111,6 +113,75 @@ class ProyectoControllerIntegrationTest {
                 .andExpect(jsonPath("$.activo", is(true)));
     }
 
+    @Test
+    @DisplayName("GET /api/proyectos/{id} - Debería responder 304 hasta que cambien sus empleados asignados")
+    void obtenerPorId_conIfNoneMatch_deberiaResponder304HastaQueCambieUnEmpleadoAsignado() throws Exception {
+        // Given
+        Proyecto guardado = proyectoRepository.save(
+                TestDataFactory.crearProyecto("Portal", LocalDate.now(), LocalDate.now().plusMonths(3)));
+        empleado1.getProyectos().add(guardado);
+        empleadoRepository.saveAndFlush(empleado1);
+        String etag = mockMvc.perform(get("/api/proyectos/{id}", guardado.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then - Sin cambios
+        mockMvc.perform(get("/api/proyectos/{id}", guardado.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Editar un empleado asignado no cambia la versión del proyecto, pero sí su JSON
+        empleado1.setSalario(new BigDecimal("47000.00"));
+        empleadoRepository.saveAndFlush(empleado1);
+        String etagConSalario = mockMvc.perform(get("/api/proyectos/{id}", guardado.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Sumar un empleado
+        empleado2.getProyectos().add(guardado);
+        empleadoRepository.saveAndFlush(empleado2);
+        mockMvc.perform(get("/api/proyectos/{id}", guardado.getId()).header(HttpHeaders.IF_NONE_MATCH, etagConSalario))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etagConSalario)));
+    }
+
+    @Test
+    @DisplayName("GET /api/proyectos/{id} - Debería responder 200 al cambiar empleados por otros con igual suma de IDs")
+    void obtenerPorId_conIfNoneMatch_deberiaDetectarIntercambioDeEmpleados() throws Exception {
+        // Given - Cuatro empleados con IDs consecutivos: {1, 4} y {2, 3} suman lo mismo
+        Empleado empleado3 = empleadoRepository.save(TestDataFactory.crearEmpleado(
+                "Pedro", "López", "pedro@test.com", new BigDecimal("40000.00"), departamento));
+        Empleado empleado4 = empleadoRepository.save(TestDataFactory.crearEmpleado(
+                "Lucía", "Díaz", "lucia@test.com", new BigDecimal("41000.00"), departamento));
+        assertEquals(empleado1.getId() + empleado4.getId(), empleado2.getId() + empleado3.getId());
+        Proyecto guardado = proyectoRepository.save(
+                TestDataFactory.crearProyecto("Intranet", LocalDate.now(), LocalDate.now().plusMonths(3)));
+
+        asignar(guardado.getId(), List.of(empleado1.getId(), empleado4.getId()));
+        String etag = mockMvc.perform(get("/api/proyectos/{id}", guardado.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        asignar(guardado.getId(), List.of(empleado2.getId(), empleado3.getId()));
+
+        // Then
+        mockMvc.perform(get("/api/proyectos/{id}", guardado.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.empleados[*].id", containsInAnyOrder(
+                        empleado2.getId().intValue(), empleado3.getId().intValue())));
+    }
+
+    private void asignar(Long proyectoId, List<Long> empleadosIds) throws Exception {
+        AsignacionEmpleadosRequest request = new AsignacionEmpleadosRequest();
+        request.setEmpleadosIds(empleadosIds);
+        mockMvc.perform(post("/api/proyectos/{id}/asignar-empleados", proyectoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @DisplayName("POST /api/proyectos - Debería crear nuevo proyecto válido")
     void crear_proyectoValido_deberiaCrearYRetornar201() throws Exception {
@@ -236,9 +307,11 @@ class ProyectoControllerIntegrationTest {
     void obtenerEmpleadosDelProyecto_proyectoConEmpleados_deberiaRetornarLista() throws Exception {
         // Given
         Proyecto proyecto = TestDataFactory.crearProyecto("Proyecto Team", LocalDate.now(), LocalDate.now().plusMonths(5));
-        proyecto.getEmpleados().add(empleado1);
-        proyecto.getEmpleados().add(empleado2);
         Proyecto guardado = proyectoRepository.save(proyecto);
+        // Empleado es el lado propietario de la relación ManyToMany
+        empleado1.getProyectos().add(guardado);
+        empleado2.getProyectos().add(guardado);
+        empleadoRepository.saveAll(List.of(empleado1, empleado2));
 
         // When & Then
         mockMvc.perform(get("/api/proyectos/{id}/empleados", guardado.getId())
@@ -3,8 +3,12 @@ package um.prog2.TP5.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import um.prog2.TP5.config.CacheSegundoNivelConfig;
+import um.prog2.TP5.dto.EmpleadoDTO;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.testutil.TestDataFactory;
@@ -12,6 +16,7 @@ import um.prog2.TP5.testutil.TestDataFactory;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -19,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Tests para EmpleadoRepository usando @DataJpaTest para mayor velocidad
  */
 @DataJpaTest
+@Import(CacheSegundoNivelConfig.class)
 @ActiveProfiles("test")
 class EmpleadoRepositoryTest {
 
@@ -150,4 +156,42 @@ class EmpleadoRepositoryTest {
                     assertThat(e.getDepartamento().getNombre()).isEqualTo("Desarrollo");
                 });
     }
+
+    @Test
+    void findPageAsDTO_deberiaRetornarSiguientesEmpleadosOrdenados() {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        entityManager.persist(departamento);
+
+        Empleado junior = entityManager.persist(TestDataFactory.crearEmpleadoJunior(departamento));
+        Empleado desarrollador = entityManager.persist(TestDataFactory.crearEmpleadoDesarrollador(departamento));
+        Empleado senior = entityManager.persist(TestDataFactory.crearEmpleadoSenior(departamento));
+        entityManager.flush();
+
+        // When - Pedir los 2 empleados posteriores al primero
+        List<EmpleadoDTO> pagina = empleadoRepository.findPageAsDTO(junior.getId(), Limit.of(2));
+
+        // Then
+        assertThat(pagina)
+                .extracting(EmpleadoDTO::id)
+                .containsExactly(desarrollador.getId(), senior.getId());
+        assertThat(pagina.get(0).departamento().nombre()).isEqualTo("Desarrollo");
+    }
+
+    @Test
+    void findEmailsExistentes_deberiaRetornarSoloLosEmailsRegistrados() {
+        // Given
+        Departamento departamento = TestDataFactory.crearDepartamentoDesarrollo();
+        entityManager.persist(departamento);
+        entityManager.persist(TestDataFactory.crearEmpleadoDesarrollador(departamento));
+        entityManager.persist(TestDataFactory.crearEmpleadoSenior(departamento));
+        entityManager.flush();
+
+        // When
+        Set<String> existentes = empleadoRepository.findEmailsExistentes(
+                List.of("juan.perez@empresa.com", "maria.garcia@empresa.com", "nuevo@empresa.com"));
+
+        // Then
+        assertThat(existentes).containsExactlyInAnyOrder("juan.perez@empresa.com", "maria.garcia@empresa.com");
+    }
 }
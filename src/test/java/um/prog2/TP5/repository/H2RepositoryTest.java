@@ -6,7 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import um.prog2.TP5.config.CacheSegundoNivelConfig;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.testutil.TestDataFactory;
@@ -23,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * lo que permite pruebas más rápidas sin necesidad de Docker.
  */
 @DataJpaTest
+@Import(CacheSegundoNivelConfig.class)
 @ActiveProfiles("test")
 @DisplayName("Repositorios con H2 - Tests unitarios")
 class H2RepositoryTest {
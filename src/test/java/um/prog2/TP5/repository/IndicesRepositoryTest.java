@@ -0,0 +1,231 @@
+package um.prog2.TP5.repository;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.ActiveProfiles;
+import um.prog2.TP5.config.CacheSegundoNivelConfig;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con el EXPLAIN de H2 que cada consulta de los repositorios que filtra por una columna
+ * se resuelve con uno de los índices creados por las migraciones y no recorriendo la tabla.
+ * Se explica el SQL que Hibernate realmente generó, capturado con un {@link StatementInspector}.
+ */
+@DataJpaTest
+@Import({CacheSegundoNivelConfig.class, IndicesRepositoryTest.CapturaSql.class})
+@ActiveProfiles("test")
+class IndicesRepositoryTest {
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Departamento departamento;
+    private Proyecto proyecto;
+
+    @BeforeEach
+    void setUp() {
+        // Varios departamentos y proyectos para que el optimizador no prefiera recorrer tablas diminutas
+        List<Departamento> departamentos = new ArrayList<>();
+        List<Proyecto> proyectos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            departamentos.add(entityManager.persist(TestDataFactory.crearDepartamento("Departamento " + i)));
+            proyectos.add(entityManager.persist(TestDataFactory.crearProyectoActivo("Proyecto " + i)));
+        }
+        for (int i = 0; i < 200; i++) {
+            Empleado empleado = TestDataFactory.crearEmpleado("Nombre", "Apellido", "empleado" + i + "@empresa.com",
+                    new BigDecimal(30_000 + i * 100), departamentos.get(i % 10));
+            empleado.getProyectos().add(proyectos.get(i % 10));
+            entityManager.persist(empleado);
+        }
+        departamento = departamentos.get(0);
+        proyecto = proyectos.get(0);
+        entityManager.flush();
+        entityManager.clear();
+        CapturaSql.SENTENCIAS.clear();
+    }
+
+    @Test
+    void findBySalarioBetween_deberiaUsarIndiceDeSalario() {
+        String plan = planDe(() -> empleadoRepository.findBySalarioBetween(new BigDecimal("1000"), new BigDecimal("2000")),
+                new BigDecimal("1000"), new BigDecimal("2000"));
+
+        assertThat(plan).contains("IDX_EMPLEADOS_SALARIO").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findBySalarioBetweenAsDTO_deberiaUsarIndiceDeSalario() {
+        String plan = planDe(() -> empleadoRepository.findBySalarioBetweenAsDTO(new BigDecimal("1000"), new BigDecimal("2000")),
+                new BigDecimal("1000"), new BigDecimal("2000"));
+
+        assertThat(plan).contains("IDX_EMPLEADOS_SALARIO").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByFechaContratacionAfter_deberiaUsarIndiceDeFecha() {
+        LocalDate fecha = LocalDate.now().minusDays(1);
+        String plan = planDe(() -> empleadoRepository.findByFechaContratacionAfter(fecha), fecha);
+
+        assertThat(plan).contains("IDX_EMPLEADOS_FECHA_CONTRATACION").doesNotContain("tableScan");
+    }
+
+    // H2 crea un índice propio para cada clave foránea salvo que exista uno con exactamente esas columnas,
+    // por lo que acá se verifica la búsqueda por departamento_id y no el nombre del índice que la resuelve
+
+    @Test
+    void findByDepartamento_deberiaBuscarPorDepartamentoEnUnIndice() {
+        String plan = planDe(() -> empleadoRepository.findByDepartamento(departamento), departamento.getId());
+
+        assertThat(plan).contains("DEPARTAMENTO_ID = ?1 */").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByNombreDepartamento_deberiaUsarNombreUnicoYDepartamento() {
+        String plan = planDe(() -> empleadoRepository.findByNombreDepartamento("Departamento 0"), "Departamento 0");
+
+        assertThat(plan)
+                .contains("UK_DEPARTAMENTOS_NOMBRE", "DEPARTAMENTO_ID = D1_0.ID */")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByEmail_deberiaUsarIndiceUnico() {
+        String plan = planDe(() -> empleadoRepository.findByEmail("empleado0@empresa.com"), "empleado0@empresa.com");
+
+        assertThat(plan).contains("UK_EMPLEADOS_EMAIL").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByNombre_deberiaUsarIndiceUnico() {
+        String plan = planDe(() -> departamentoRepository.findByNombre("Departamento 0"), "Departamento 0");
+
+        assertThat(plan).contains("UK_DEPARTAMENTOS_NOMBRE").doesNotContain("tableScan");
+    }
+
+    @Test
+    void calcularEstadisticasSalario_deberiaResolverseSoloConElIndiceCompuesto() {
+        String plan = planDe(() -> empleadoRepository.calcularEstadisticasSalario(departamento.getId()), departamento.getId());
+
+        assertThat(plan).contains("IDX_EMPLEADOS_DEPARTAMENTO_SALARIO").doesNotContain("tableScan");
+    }
+
+    @Test
+    void streamSalariosPorDepartamento_deberiaUsarIndiceCompuesto() {
+        String plan = planDe(() -> {
+            try (Stream<BigDecimal> salarios = empleadoRepository.streamSalariosPorDepartamento(departamento.getId())) {
+                salarios.forEach(salario -> { });
+            }
+        }, departamento.getId());
+
+        assertThat(plan).contains("IDX_EMPLEADOS_DEPARTAMENTO_SALARIO").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findByProyectoIdAsDTO_deberiaUsarIndiceDeProyecto() {
+        String plan = planDe(() -> empleadoRepository.findByProyectoIdAsDTO(proyecto.getId()), proyecto.getId());
+
+        assertThat(plan).contains("IDX_EMPLEADO_PROYECTO_PROYECTO").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findPageAsDTO_deberiaBuscarPorClavePrimaria() {
+        String plan = planDe(() -> empleadoRepository.findPageAsDTO(0L, Limit.of(20)), 0L, 20);
+
+        assertThat(plan).contains("PRIMARY_KEY").doesNotContain("EMPLEADOS.tableScan");
+    }
+
+    @Test
+    void findActiveProjects_deberiaUsarIndiceDeFechaFin() {
+        LocalDate hoy = LocalDate.now();
+        String plan = planDe(() -> proyectoRepository.findActiveProjects(hoy), hoy);
+
+        assertThat(plan).contains("IDX_PROYECTOS_FECHA_FIN").doesNotContain("tableScan");
+    }
+
+    @Test
+    void findActiveProjectsAsDTO_deberiaUsarIndiceDeFechaFin() {
+        LocalDate hoy = LocalDate.now();
+        String plan = planDe(() -> proyectoRepository.findActiveProjectsAsDTO(hoy), hoy);
+
+        assertThat(plan).contains("IDX_PROYECTOS_FECHA_FIN").doesNotContain("tableScan");
+    }
+
+    /**
+     * Ejecuta la consulta del repositorio y devuelve el EXPLAIN de la última sentencia SELECT,
+     * enlazando los mismos parámetros en el mismo orden.
+     */
+    private String planDe(Runnable consulta, Object... parametros) {
+        consulta.run();
+        String sql = CapturaSql.SENTENCIAS.stream()
+                .filter(sentencia -> sentencia.stripLeading().toLowerCase().startsWith("select"))
+                .reduce((primera, segunda) -> segunda)
+                .orElseThrow(() -> new AssertionError("La consulta no ejecutó ningún SELECT"));
+
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                explain.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo obtener el plan de: " + sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+        }
+    }
+
+    @TestConfiguration
+    static class CapturaSql {
+
+        static final List<String> SENTENCIAS = new ArrayList<>();
+
+        @Bean
+        HibernatePropertiesCustomizer capturarSentencias() {
+            return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                SENTENCIAS.add(sql);
+                return sql;
+            });
+        }
+    }
+}
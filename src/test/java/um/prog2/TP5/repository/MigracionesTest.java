@@ -0,0 +1,123 @@
+package um.prog2.TP5.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de las migraciones de H2 sin levantar Spring: una base nueva y una creada con {@code ddl-auto}
+ * antes de usar Flyway, que se adopta con la configuración de {@code baseline-*} de application.yml.
+ */
+class MigracionesTest {
+
+    // Lo que creaba Hibernate con ddl-auto antes de Flyway: IDs por IDENTITY y largos de los @Column de entonces
+    private static final String[] ESQUEMA_PREVIO = {
+            "CREATE TABLE departamentos (id BIGINT GENERATED BY DEFAULT AS IDENTITY, nombre VARCHAR(100) NOT NULL UNIQUE,"
+                    + " descripcion VARCHAR(500), PRIMARY KEY (id))",
+            "CREATE TABLE proyectos (id BIGINT GENERATED BY DEFAULT AS IDENTITY, nombre VARCHAR(100) NOT NULL,"
+                    + " descripcion VARCHAR(1000), fecha_inicio DATE, fecha_fin DATE, PRIMARY KEY (id))",
+            "CREATE TABLE empleados (id BIGINT GENERATED BY DEFAULT AS IDENTITY, nombre VARCHAR(100) NOT NULL,"
+                    + " apellido VARCHAR(100) NOT NULL, email VARCHAR(255) NOT NULL UNIQUE, fecha_contratacion DATE NOT NULL,"
+                    + " salario NUMERIC(10, 2) NOT NULL, departamento_id BIGINT, PRIMARY KEY (id),"
+                    + " FOREIGN KEY (departamento_id) REFERENCES departamentos (id))",
+            "CREATE TABLE empleado_proyecto (empleado_id BIGINT NOT NULL, proyecto_id BIGINT NOT NULL,"
+                    + " PRIMARY KEY (empleado_id, proyecto_id), FOREIGN KEY (empleado_id) REFERENCES empleados (id),"
+                    + " FOREIGN KEY (proyecto_id) REFERENCES proyectos (id))"
+    };
+    private static final int ASIGNACION_POR_BLOQUE = 50;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:migraciones-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void baseNueva_deberiaMigrarseCompletaConLaSecuenciaDesdeUno() {
+        // When
+        flyway().migrate();
+
+        // Then - El primer bloque que reserva Hibernate va de 1 a 50
+        assertThat(flyway().info().current().getVersion().getVersion()).isEqualTo("3");
+        assertThat(siguienteValorSecuencia()).isEqualTo(ASIGNACION_POR_BLOQUE);
+    }
+
+    @Test
+    void basePrevia_deberiaAdoptarseYAdelantarLaSecuenciaDespuesDelUltimoEmpleado() {
+        // Given
+        for (String sentencia : ESQUEMA_PREVIO) {
+            jdbc.execute(sentencia);
+        }
+        jdbc.update("INSERT INTO departamentos (nombre) VALUES ('Desarrollo')");
+        for (long id : new long[]{7, 64, 120}) {
+            jdbc.update("INSERT INTO empleados (id, nombre, apellido, email, fecha_contratacion, salario, departamento_id)"
+                    + " VALUES (?, 'Nombre', 'Apellido', ?, CURRENT_DATE, 50000, 1)", id, "empleado" + id + "@empresa.com");
+        }
+
+        // When
+        flyway().migrate();
+
+        // Then - Adoptada en la versión 1 y con V2 y V3 aplicadas
+        assertThat(jdbc.queryForList("SELECT \"version\" || ' ' || \"type\" FROM \"flyway_schema_history\""
+                + " WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class))
+                .containsExactly("1 BASELINE", "2 SQL", "3 SQL");
+        assertThat(flyway().info().current().getVersion().getVersion()).isEqualTo("3");
+
+        // El valor leído es el fin del bloque: el primer ID que entrega Hibernate es el siguiente al último empleado
+        long finDelPrimerBloque = siguienteValorSecuencia();
+        assertThat(finDelPrimerBloque - ASIGNACION_POR_BLOQUE + 1).isEqualTo(121);
+
+        assertThat(jdbc.queryForObject("SELECT version FROM empleados WHERE id = 120", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM estadisticas_salario_departamento", Long.class)).isZero();
+        assertThat(jdbc.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'EMPLEADOS'", String.class))
+                .contains("IDX_EMPLEADOS_SALARIO", "IDX_EMPLEADOS_FECHA_CONTRATACION", "IDX_EMPLEADOS_DEPARTAMENTO_SALARIO");
+    }
+
+    @Test
+    void basePreviaConSecuenciaDeDdlAuto_deberiaAdelantarlaDespuesDelUltimoEmpleado() {
+        // Given - ddl-auto ya había creado la secuencia en 1 aunque había empleados con IDs de IDENTITY
+        for (String sentencia : ESQUEMA_PREVIO) {
+            jdbc.execute(sentencia);
+        }
+        jdbc.execute("CREATE SEQUENCE empleados_seq START WITH 1 INCREMENT BY 50");
+        jdbc.update("INSERT INTO departamentos (nombre) VALUES ('Desarrollo')");
+        jdbc.update("INSERT INTO empleados (id, nombre, apellido, email, fecha_contratacion, salario, departamento_id)"
+                + " VALUES (30, 'Nombre', 'Apellido', 'empleado30@empresa.com', CURRENT_DATE, 50000, 1)");
+
+        // When
+        flyway().migrate();
+
+        // Then
+        assertThat(siguienteValorSecuencia()).isEqualTo(30 + ASIGNACION_POR_BLOQUE);
+    }
+
+    private Flyway flyway() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        Properties propiedades = yaml.getObject();
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(Boolean.parseBoolean(propiedades.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(propiedades.getProperty("spring.flyway.baseline-version"))
+                .load();
+    }
+
+    private long siguienteValorSecuencia() {
+        return jdbc.queryForObject("SELECT NEXT VALUE FOR empleados_seq", Long.class);
+    }
+}
@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
+import um.prog2.TP5.config.CacheSegundoNivelConfig;
 import um.prog2.TP5.entity.Proyecto;
 import um.prog2.TP5.testutil.TestDataFactory;
 
@@ -16,6 +18,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Tests para ProyectoRepository usando @DataJpaTest para mayor velocidad
  */
 @DataJpaTest
+@Import(CacheSegundoNivelConfig.class)
 @ActiveProfiles("test")
 class ProyectoRepositoryTest {
 
@@ -0,0 +1,125 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios del árbol radix, incluido uno aleatorio contra una búsqueda por fuerza bruta para cubrir
+ * las divisiones y fusiones de nodos.
+ */
+class ArbolRadixTest {
+
+    private ArbolRadix arbol;
+
+    @BeforeEach
+    void setUp() {
+        arbol = new ArbolRadix();
+        arbol.indexar(1L, "María José García");
+        arbol.indexar(2L, "Mario Gómez");
+        arbol.indexar(3L, "Ana Muñoz");
+        arbol.indexar(4L, "Marta Garcés");
+    }
+
+    @Test
+    void buscar_deberiaEncontrarCualquierPalabraSinAcentos() {
+        assertThat(arbol.buscar("mar", 10)).extracting(ArbolRadix.Coincidencia::id).containsExactly(1L, 2L, 4L);
+        assertThat(arbol.buscar("GAR", 10)).extracting(ArbolRadix.Coincidencia::id).containsExactly(4L, 1L);
+        assertThat(arbol.buscar("muñ", 10)).extracting(ArbolRadix.Coincidencia::texto).containsExactly("Ana Muñoz");
+        assertThat(arbol.buscar("jose garc", 10)).extracting(ArbolRadix.Coincidencia::clave).containsExactly("jose garcia");
+    }
+
+    @Test
+    void buscar_deberiaRespetarElLimiteSinRepetirNombres() {
+        // Given - Manuel Martínez coincide con "ma" por sus dos palabras
+        arbol.indexar(5L, "Manuel Martínez");
+
+        // When / Then
+        assertThat(arbol.buscar("ma", 10)).extracting(ArbolRadix.Coincidencia::id).containsExactly(5L, 1L, 2L, 4L);
+        assertThat(arbol.buscar("ma", 2)).extracting(ArbolRadix.Coincidencia::id).containsExactly(5L, 1L);
+    }
+
+    @Test
+    void buscar_sinCoincidencias_deberiaDevolverVacio() {
+        assertThat(arbol.buscar("marx", 10)).isEmpty();
+        assertThat(arbol.buscar("maria josefa", 10)).isEmpty();
+        assertThat(arbol.buscar(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void indexarYEliminar_deberianActualizarLasSugerencias() {
+        // When
+        arbol.indexar(2L, "Mario Pérez");
+        arbol.eliminar(3L);
+
+        // Then
+        assertThat(arbol.buscar("gomez", 10)).isEmpty();
+        assertThat(arbol.buscar("perez", 10)).extracting(ArbolRadix.Coincidencia::texto).containsExactly("Mario Pérez");
+        assertThat(arbol.buscar("ana", 10)).isEmpty();
+        assertThat(arbol.getNombres()).isEqualTo(3);
+    }
+
+    @Test
+    void operacionesAleatorias_deberianCoincidirConFuerzaBruta() {
+        // Given - Pocas sílabas para que haya muchos prefijos compartidos y nombres repetidos
+        ArbolRadix arbol = new ArbolRadix();
+        Random random = new Random(7);
+        String[] silabas = {"ma", "ri", "a", "na", "gar", "cí", "ñe", "ro", "mar", "tí"};
+        Map<Long, String> referencia = new HashMap<>();
+
+        for (int paso = 0; paso < 5_000; paso++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                arbol.eliminar(id);
+                referencia.remove(id);
+            } else {
+                String nombre = palabra(random, silabas) + " " + palabra(random, silabas);
+                arbol.indexar(id, nombre);
+                referencia.put(id, nombre);
+            }
+            if (paso % 50 == 0) {
+                // When / Then
+                String palabra = palabra(random, silabas);
+                String prefijo = palabra.substring(0, Math.min(palabra.length(), 1 + random.nextInt(4)));
+                assertThat(arbol.buscar(prefijo, 15)).as(prefijo)
+                        .extracting(ArbolRadix.Coincidencia::id)
+                        .containsExactlyElementsOf(fuerzaBruta(referencia, prefijo, 15));
+            }
+        }
+    }
+
+    private static String palabra(Random random, String[] silabas) {
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0, cantidad = 1 + random.nextInt(3); i < cantidad; i++) {
+            palabra.append(silabas[random.nextInt(silabas.length)]);
+        }
+        return palabra.toString();
+    }
+
+    private static List<Long> fuerzaBruta(Map<Long, String> nombres, String prefijo, int limite) {
+        String buscado = IndiceInvertido.normalizar(prefijo);
+        List<Map.Entry<String, Long>> claves = new ArrayList<>();
+        nombres.forEach((id, nombre) -> {
+            List<String> palabras = IndiceInvertido.terminos(nombre);
+            for (int i = 0; i < palabras.size(); i++) {
+                String clave = String.join(" ", palabras.subList(i, palabras.size()));
+                if (clave.startsWith(buscado)) {
+                    claves.add(Map.entry(clave, id));
+                }
+            }
+        });
+        claves.sort(Map.Entry.<String, Long>comparingByKey().thenComparing(Map.Entry.comparingByValue()));
+        Set<Long> ids = new LinkedHashSet<>();
+        claves.stream().map(Map.Entry::getValue).forEach(ids::add);
+        return ids.stream().limit(limite).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.prog2.TP5.dto.SugerenciaDTO;
+import um.prog2.TP5.dto.SugerenciaDTO.Tipo;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests del autocompletado de empleados y departamentos. Como {@link BusquedaEmpleadosTest}, los datos se
+ * confirman porque los árboles solo se actualizan al hacer commit.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AutocompletadoTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AutocompletadoService autocompletadoService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private IndiceEmpleados indiceEmpleados;
+
+    @Autowired
+    private IndiceDepartamentos indiceDepartamentos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> crearEmpleadosBase());
+        indiceEmpleados.reconstruir();
+        indiceDepartamentos.reconstruir();
+    }
+
+    @AfterEach
+    void limpiarDatosConfirmados() {
+        limpiarBaseDeDatos();
+        indiceEmpleados.reconstruir();
+        indiceDepartamentos.reconstruir();
+    }
+
+    @Test
+    void sugerir_deberiaIntercalarEmpleadosYDepartamentosAlfabeticamente() {
+        // Given - Mercado coincide con "m" igual que María, Marketing y Martínez
+        departamentoService.guardar(TestDataFactory.crearDepartamento("Mercado"));
+
+        // When / Then
+        assertThat(autocompletadoService.sugerir("m", 10))
+                .extracting(SugerenciaDTO::tipo, SugerenciaDTO::texto)
+                .containsExactly(
+                        tuple(Tipo.EMPLEADO, "María García"),
+                        tuple(Tipo.DEPARTAMENTO, "Marketing"),
+                        tuple(Tipo.EMPLEADO, "Ana Martínez"),
+                        tuple(Tipo.DEPARTAMENTO, "Mercado"));
+    }
+
+    @Test
+    void cambiosDeDepartamento_deberianReflejarseAlConfirmar() {
+        // Given
+        Departamento logistica = departamentoService.guardar(TestDataFactory.crearDepartamento("Logística"));
+        assertThat(autocompletadoService.sugerir("logis", 5)).extracting(SugerenciaDTO::id).containsExactly(logistica.getId());
+
+        // When - Cambio de nombre
+        Departamento renombrado = TestDataFactory.crearDepartamento("Distribución");
+        departamentoService.actualizar(logistica.getId(), renombrado, null);
+
+        // Then
+        assertThat(autocompletadoService.sugerir("logis", 5)).isEmpty();
+        assertThat(autocompletadoService.sugerir("distri", 5)).extracting(SugerenciaDTO::texto).containsExactly("Distribución");
+
+        // When - Baja
+        departamentoService.eliminar(logistica.getId());
+
+        // Then
+        assertThat(autocompletadoService.sugerir("distri", 5)).isEmpty();
+    }
+
+    @Test
+    void bajaDeDepartamento_deberiaDejarDeSugerirASusEmpleados() {
+        // Given
+        assertThat(autocompletadoService.sugerir("laura", 5)).extracting(SugerenciaDTO::id)
+                .containsExactly(EMPLEADO_MARKETING_SENIOR_ID);
+
+        // When - Los empleados de Marketing se borran en cascada con el departamento
+        departamentoService.eliminar(DEPARTAMENTO_MARKETING_ID);
+
+        // Then
+        assertThat(autocompletadoService.sugerir("laura", 5)).isEmpty();
+        assertThat(autocompletadoService.sugerir("mar", 10)).extracting(SugerenciaDTO::texto)
+                .containsExactly("María García");
+    }
+
+    @Test
+    void altaDeEmpleado_deberiaSugerirsePorNombreYApellido() {
+        // When
+        Long id = empleadoService.validarEmpleado(TestDataFactory.crearEmpleado("Begoña", "Zúñiga", "begona.zuniga@empresa.com",
+                new BigDecimal("50000.00"), departamentoRepository.getReferenceById(DEPARTAMENTO_RRHH_ID))).getId();
+
+        // Then
+        assertThat(autocompletadoService.sugerir("bego", 5)).extracting(SugerenciaDTO::id).containsExactly(id);
+        assertThat(autocompletadoService.sugerir("ZUNI", 5)).extracting(SugerenciaDTO::texto).containsExactly("Begoña Zúñiga");
+    }
+
+    @Test
+    void sugerir_conLimiteInvalido_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> autocompletadoService.sugerir("m", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> autocompletadoService.sugerir("m", AutocompletadoServiceImpl.LIMITE_MAXIMO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
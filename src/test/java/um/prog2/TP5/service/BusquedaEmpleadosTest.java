@@ -0,0 +1,162 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de la búsqueda de texto de empleados. El índice solo se actualiza al hacer commit, así que
+ * estos tests no corren dentro de la transacción con rollback de {@link BaseIntegrationTest}: los datos
+ * se confirman y se borran explícitamente al terminar.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BusquedaEmpleadosTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private IndiceEmpleados indiceEmpleados;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> crearEmpleadosBase());
+        indiceEmpleados.reconstruir();
+    }
+
+    @AfterEach
+    void limpiarDatosConfirmados() {
+        limpiarBaseDeDatos();
+        indiceEmpleados.reconstruir();
+    }
+
+    @Test
+    void buscar_sinAcentos_deberiaEncontrarNombresAcentuados() {
+        // When
+        List<EmpleadoDTO> resultado = empleadoService.buscar("maria GARCIA", 10);
+
+        // Then
+        assertThat(resultado).extracting(EmpleadoDTO::email).containsExactly("maria.garcia@empresa.com");
+        assertThat(resultado.get(0).departamento()).isNotNull();
+    }
+
+    @Test
+    void buscarAproximado_conErroresDeTipeo_deberiaEncontrarAlMasParecidoPrimero() {
+        // When / Then - Una letra de menos, sin acento, y un email con la inicial en vez del nombre
+        assertThat(empleadoService.buscarAproximado("rodrigez", 10)).extracting(EmpleadoDTO::email)
+                .startsWith("pedro.rodriguez@empresa.com");
+        assertThat(empleadoService.buscarAproximado("Carmen Gimenez", 10)).extracting(EmpleadoDTO::nombre)
+                .containsExactly("Carmen");
+        assertThat(empleadoService.buscarAproximado("mgarcia@empresa.com", 10)).extracting(EmpleadoDTO::email)
+                .containsExactly("maria.garcia@empresa.com");
+    }
+
+    @Test
+    void altaModificacionYBaja_deberianReflejarseEnElIndice() {
+        // Given
+        Empleado nuevo = TestDataFactory.crearEmpleado("Iñaki", "Núñez", "inaki.nunez@empresa.com",
+                new BigDecimal("52000.00"), departamentoRepository.getReferenceById(DEPARTAMENTO_DESARROLLO_ID));
+
+        // When - Alta
+        Long id = empleadoService.validarEmpleado(nuevo).getId();
+
+        // Then
+        assertThat(empleadoService.buscar("inaki nunez", 10)).extracting(EmpleadoDTO::id).containsExactly(id);
+
+        // When - Modificación del apellido y el email
+        Empleado modificado = empleadoService.buscarPorId(id);
+        modificado.setApellido("Ibáñez");
+        modificado.setEmail("inaki.ibanez@empresa.com");
+        empleadoService.actualizar(id, modificado, null);
+
+        // Then
+        assertThat(empleadoService.buscar("nunez", 10)).isEmpty();
+        assertThat(empleadoService.buscar("ibanez", 10)).extracting(EmpleadoDTO::id).containsExactly(id);
+        assertThat(empleadoService.buscarAproximado("ibañes", 10)).extracting(EmpleadoDTO::id).containsExactly(id);
+
+        // When - Baja
+        empleadoService.eliminar(id);
+
+        // Then
+        assertThat(empleadoService.buscar("ibanez", 10)).isEmpty();
+        assertThat(empleadoService.buscarAproximado("ibañes", 10)).isEmpty();
+    }
+
+    @Test
+    void eliminarDepartamento_deberiaQuitarDelIndiceASusEmpleados() {
+        // Given
+        assertThat(indiceEmpleados.buscar("martinez", 10)).containsExactly(EMPLEADO_MARKETING_ID);
+
+        // When - Los empleados de Marketing se borran en cascada con el departamento
+        departamentoService.eliminar(DEPARTAMENTO_MARKETING_ID);
+
+        // Then
+        assertThat(indiceEmpleados.buscar("martinez", 10)).isEmpty();
+        assertThat(indiceEmpleados.buscarAproximado("fernandes", 10)).doesNotContain(EMPLEADO_MARKETING_SENIOR_ID);
+        assertThat(empleadoService.buscar("ana", 10)).isEmpty();
+    }
+
+    @Test
+    void altaConRollback_noDeberiaLlegarAlIndice() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            empleadoService.validarEmpleado(TestDataFactory.crearEmpleado("Ximena", "Olmos", "ximena.olmos@empresa.com",
+                    new BigDecimal("48000.00"), departamentoRepository.getReferenceById(DEPARTAMENTO_DESARROLLO_ID)));
+            assertThat(indiceEmpleados.buscar("ximena", 10)).isEmpty();
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertThat(indiceEmpleados.buscar("ximena", 10)).isEmpty();
+    }
+
+    @Test
+    void guardarLote_deberiaIndexarTodoAlConfirmar() {
+        // Given
+        List<Empleado> lote = List.of(
+                TestDataFactory.crearEmpleado("Úrsula", "Peña", "ursula.pena@empresa.com", new BigDecimal("41000.00"),
+                        departamentoRepository.getReferenceById(DEPARTAMENTO_MARKETING_ID)),
+                TestDataFactory.crearEmpleado("Óscar", "Peña", "oscar.pena@empresa.com", new BigDecimal("43000.00"),
+                        departamentoRepository.getReferenceById(DEPARTAMENTO_MARKETING_ID)));
+
+        // When
+        empleadoService.guardarLote(lote);
+
+        // Then
+        assertThat(empleadoService.buscar("pena", 10)).extracting(EmpleadoDTO::email)
+                .containsExactlyInAnyOrder("ursula.pena@empresa.com", "oscar.pena@empresa.com");
+    }
+
+    @Test
+    void buscar_conConsultaVaciaOLimiteInvalido_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> empleadoService.buscar("  ", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> empleadoService.buscar("maria", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> empleadoService.buscar("maria", EmpleadoServiceImpl.LIMITE_PAGINA_MAXIMO + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> empleadoService.buscarAproximado("  ", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
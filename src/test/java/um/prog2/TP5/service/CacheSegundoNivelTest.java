@@ -0,0 +1,149 @@
+package um.prog2.TP5.service;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la caché de segundo nivel y de consultas de Hibernate.
+ * Las entradas solo se publican al hacer commit, así que estos tests no corren dentro de
+ * la transacción con rollback de {@link BaseIntegrationTest}: los datos se confirman y se
+ * borran explícitamente al terminar. Para comprobar un acierto se modifica la base por JDBC,
+ * a espaldas de Hibernate, y se verifica que la lectura siguiente no lo ve.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheSegundoNivelTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ProyectoService proyectoService;
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> crearEmpleadosConProyectos());
+    }
+
+    @AfterEach
+    void limpiarDatosConfirmados() {
+        limpiarBaseDeDatos();
+    }
+
+    @Test
+    void findById_primeraLectura_deberiaDejarEntidadesEnCache() {
+        // Given - Los INSERT con IDENTITY no pueblan la caché; la primera lectura sí
+        entityManagerFactory.getCache().evictAll();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            departamentoRepository.findById(DEPARTAMENTO_DESARROLLO_ID).orElseThrow();
+            proyectoRepository.findById(PROYECTO_ACTIVO_ID).orElseThrow();
+            empleadoRepository.findById(EMPLEADO_SENIOR_ID).orElseThrow();
+        });
+
+        // Then
+        assertThat(entityManagerFactory.getCache().contains(Departamento.class, DEPARTAMENTO_DESARROLLO_ID)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Proyecto.class, PROYECTO_ACTIVO_ID)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Empleado.class, EMPLEADO_SENIOR_ID)).isTrue();
+    }
+
+    @Test
+    void obtenerEmpleadosDelProyecto_segundaLectura_deberiaServirseDeCacheDeConsultas() {
+        // Given - Primera lectura llena la caché de consultas
+        List<EmpleadoDTO> primera = proyectoService.obtenerEmpleadosDelProyecto(PROYECTO_ACTIVO_ID);
+        jdbcTemplate.update("DELETE FROM empleado_proyecto WHERE proyecto_id = ?", PROYECTO_ACTIVO_ID);
+
+        // When
+        List<EmpleadoDTO> segunda = proyectoService.obtenerEmpleadosDelProyecto(PROYECTO_ACTIVO_ID);
+
+        // Then
+        assertThat(segunda).hasSize(5).isEqualTo(primera);
+    }
+
+    @Test
+    void obtenerEmpleadosDelProyecto_trasAsignarEmpleados_deberiaInvalidarConsulta() {
+        // Given
+        assertThat(proyectoService.obtenerEmpleadosDelProyecto(PROYECTO_ACTIVO_ID)).hasSize(5);
+
+        // When
+        proyectoService.asignarEmpleados(PROYECTO_ACTIVO_ID, List.of(EMPLEADO_JUNIOR_ID));
+
+        // Then
+        assertThat(proyectoService.obtenerEmpleadosDelProyecto(PROYECTO_ACTIVO_ID))
+                .extracting(EmpleadoDTO::id)
+                .containsExactly(EMPLEADO_JUNIOR_ID);
+    }
+
+    @Test
+    void asignarEmpleados_deberiaIncrementarVersionDelProyecto() {
+        // Given - Proyecto es el lado inverso: la asignación no modifica ninguna columna de proyectos
+        Long inicial = proyectoService.buscarVersion(PROYECTO_ACTIVO_ID).version();
+
+        // When
+        proyectoService.asignarEmpleados(PROYECTO_ACTIVO_ID, List.of(EMPLEADO_JUNIOR_ID));
+
+        // Then
+        assertThat(proyectoService.buscarVersion(PROYECTO_ACTIVO_ID).version()).isEqualTo(inicial + 1);
+    }
+
+    @Test
+    void listarProyectosActivos_segundaLectura_deberiaServirseDeCacheYGuardarInvalidarla() {
+        // Given
+        List<ProyectoDTO> primera = proyectoService.listarProyectosActivos();
+        jdbcTemplate.update("UPDATE proyectos SET nombre = 'Cambiado por JDBC' WHERE id = ?", PROYECTO_ACTIVO_ID);
+        assertThat(proyectoService.listarProyectosActivos()).isEqualTo(primera);
+
+        // When
+        proyectoService.guardar(TestDataFactory.crearProyectoActivo("Proyecto Nuevo"));
+
+        // Then - La escritura por Hibernate invalida la consulta y se relee la tabla
+        assertThat(proyectoService.listarProyectosActivos())
+                .extracting(ProyectoDTO::nombre)
+                .contains("Cambiado por JDBC", "Proyecto Nuevo")
+                .hasSize(primera.size() + 1);
+    }
+
+    @Test
+    void empleadosDelProyecto_trasEliminarEmpleado_deberiaDesalojarColeccionCacheada() {
+        // Given - Cargar la colección la deja en la región proyectos-empleados
+        assertThat(contarEmpleadosDeProyecto(PROYECTO_ACTIVO_ID)).isEqualTo(5);
+
+        // When - El borrado se hace del lado propietario (Empleado)
+        empleadoService.eliminar(EMPLEADO_JUNIOR_ID);
+
+        // Then
+        assertThat(contarEmpleadosDeProyecto(PROYECTO_ACTIVO_ID)).isEqualTo(4);
+    }
+
+    private int contarEmpleadosDeProyecto(Long proyectoId) {
+        return transactionTemplate.execute(status -> {
+            Proyecto proyecto = proyectoRepository.findById(proyectoId).orElseThrow();
+            Hibernate.initialize(proyecto.getEmpleados());
+            return proyecto.getEmpleados().size();
+        });
+    }
+}
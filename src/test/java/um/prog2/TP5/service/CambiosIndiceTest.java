@@ -0,0 +1,76 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitarios de los cambios de índice durante una reconstrucción. Sin transacción activa cada
+ * cambio se aplica en el momento, como uno confirmado justo entonces por otra petición.
+ */
+class CambiosIndiceTest {
+
+    private final CambiosIndice cambios = new CambiosIndice();
+    private final AtomicReference<ArbolRadix> actual = new AtomicReference<>(new ArbolRadix());
+
+    @Test
+    void reconstruir_conCambiosConfirmadosDespuesDeLeerLaBase_deberiaRepetirlosSobreElIndiceNuevo() {
+        // Given
+        actual.get().indexar(1L, "Ana Paz");
+        actual.get().indexar(2L, "Luis Díaz");
+
+        // When - La lectura de la base ve a Ana y a Luis; el alta y la baja se confirman después
+        cambios.reconstruir(() -> {
+            ArbolRadix nuevo = new ArbolRadix();
+            nuevo.indexar(1L, "Ana Paz");
+            nuevo.indexar(2L, "Luis Díaz");
+            cambios.alConfirmar(() -> actual.get().indexar(3L, "Eva Ruiz"));
+            cambios.alConfirmar(() -> actual.get().eliminar(2L));
+            return nuevo;
+        }, actual::set);
+
+        // Then
+        assertThat(ids("a")).containsExactly(1L);
+        assertThat(ids("eva")).containsExactly(3L);
+        assertThat(ids("luis")).isEmpty();
+    }
+
+    @Test
+    void reconstruir_conCambiosAnterioresALaLectura_deberiaRepetirlosSinDuplicar() {
+        // When - El alta se confirma antes de leer la base, así que la lectura ya la incluye
+        cambios.reconstruir(() -> {
+            cambios.alConfirmar(() -> actual.get().indexar(1L, "Ana Paz"));
+            ArbolRadix nuevo = new ArbolRadix();
+            nuevo.indexar(1L, "Ana Paz");
+            return nuevo;
+        }, actual::set);
+
+        // Then
+        assertThat(ids("ana")).containsExactly(1L);
+    }
+
+    @Test
+    void reconstruir_conErrorAlArmar_deberiaConservarElIndiceYDejarDeGuardarCambios() {
+        // Given
+        ArbolRadix anterior = actual.get();
+
+        // When
+        assertThatThrownBy(() -> cambios.reconstruir(() -> {
+            throw new IllegalStateException("Sin conexión");
+        }, actual::set)).isInstanceOf(IllegalStateException.class);
+        cambios.alConfirmar(() -> actual.get().indexar(1L, "Ana Paz"));
+        cambios.reconstruir(ArbolRadix::new, actual::set);
+
+        // Then - El alta posterior al error no se repite sobre la reconstrucción siguiente
+        assertThat(anterior.buscar("ana", 10)).hasSize(1);
+        assertThat(ids("ana")).isEmpty();
+    }
+
+    private List<Long> ids(String prefijo) {
+        return actual.get().buscar(prefijo, 10).stream().map(ArbolRadix.Coincidencia::id).toList();
+    }
+}
@@ -0,0 +1,63 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import um.prog2.TP5.service.ContadorCambios.Tabla;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios de ContadorCambios.
+ */
+class ContadorCambiosTest {
+
+    private final ContadorCambios contadorCambios = new ContadorCambios();
+
+    @Test
+    void registrarCambio_deberiaCambiarSoloLaVersionDeSuTabla() {
+        // Given
+        String departamentos = contadorCambios.version(Tabla.DEPARTAMENTOS);
+        String proyectos = contadorCambios.version(Tabla.PROYECTOS);
+
+        // When
+        contadorCambios.registrarCambio(Tabla.PROYECTOS);
+
+        // Then
+        assertThat(contadorCambios.version(Tabla.DEPARTAMENTOS)).isEqualTo(departamentos);
+        assertThat(contadorCambios.version(Tabla.PROYECTOS)).isNotEqualTo(proyectos);
+    }
+
+    @Test
+    void registrarCambio_dentroDeUnaTransaccion_deberiaCambiarOtraVezAlTerminar() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            contadorCambios.registrarCambio(Tabla.DEPARTAMENTOS);
+            // Un listado leído acá, antes del commit, quedaría con esta versión
+            String leidaAntesDelCommit = contadorCambios.version(Tabla.DEPARTAMENTOS);
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // Then
+            assertThat(contadorCambios.version(Tabla.DEPARTAMENTOS)).isNotEqualTo(leidaAntesDelCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void version_deOtraInstancia_noDeberiaRepetirseTrasReiniciar() throws InterruptedException {
+        // Given
+        String antesDelReinicio = contadorCambios.version(Tabla.DEPARTAMENTOS);
+        Thread.sleep(2);
+
+        // When
+        String despuesDelReinicio = new ContadorCambios().version(Tabla.DEPARTAMENTOS);
+
+        // Then
+        assertThat(despuesDelReinicio).isNotEqualTo(antesDelReinicio);
+    }
+}
@@ -3,9 +3,12 @@ package um.prog2.TP5.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import um.prog2.TP5.dto.DepartamentoDTO;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.exception.DepartamentoDuplicadoException;
 import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
+import um.prog2.TP5.exception.VersionDesactualizadaException;
 import um.prog2.TP5.test.base.BaseIntegrationTest;
 import um.prog2.TP5.testutil.TestDataFactory;
 
@@ -122,6 +125,18 @@ class DepartamentoServiceTest extends BaseIntegrationTest {
                 .containsExactlyInAnyOrder("Desarrollo", "Marketing", "Recursos Humanos");
     }
 
+    @Test
+    void listarTodos_deberiaProyectarDepartamentosOrdenadosPorId() {
+        // When
+        List<DepartamentoDTO> todos = departamentoService.listarTodos();
+
+        // Then
+        assertThat(todos)
+                .extracting(DepartamentoDTO::id)
+                .containsExactly(DEPARTAMENTO_DESARROLLO_ID, DEPARTAMENTO_MARKETING_ID, DEPARTAMENTO_RRHH_ID);
+        assertThat(todos.get(0).nombre()).isEqualTo("Desarrollo");
+    }
+
     @Test
     void actualizar_departamentoExistente_deberiaActualizarCorrectamente() {
         // Given - Usar departamento base existente
@@ -151,6 +166,45 @@ class DepartamentoServiceTest extends BaseIntegrationTest {
                 .hasMessageContaining("Departamento no encontrado con ID: 999");
     }
 
+    @Test
+    void actualizar_conVersionEsperadaVigente_deberiaIncrementarVersion() {
+        // Given
+        Departamento actualizado = TestDataFactory.crearDepartamento("Desarrollo Actualizado");
+
+        // When
+        Departamento resultado = departamentoService.actualizar(DEPARTAMENTO_DESARROLLO_ID, actualizado, 0L);
+        departamentoRepository.flush();
+
+        // Then
+        assertThat(resultado.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void actualizar_conVersionEsperadaDesactualizada_deberiaLanzarExcepcionSinModificar() {
+        // Given
+        Departamento actualizado = TestDataFactory.crearDepartamento("Desarrollo Actualizado");
+
+        // When & Then
+        assertThatThrownBy(() -> departamentoService.actualizar(DEPARTAMENTO_DESARROLLO_ID, actualizado, 4L))
+                .isInstanceOf(VersionDesactualizadaException.class)
+                .hasMessageContaining("está en la versión 0, no en la 4");
+        assertThat(departamentoRepository.findById(DEPARTAMENTO_DESARROLLO_ID).orElseThrow().getNombre())
+                .isEqualTo("Desarrollo");
+    }
+
+    @Test
+    void actualizar_conVersionViejaEnElCuerpo_deberiaLanzarConflicto() {
+        // Given - Otra petición ya llevó el departamento a la versión 1
+        departamentoService.actualizar(DEPARTAMENTO_DESARROLLO_ID, TestDataFactory.crearDepartamento("Desarrollo Web"));
+        departamentoRepository.flush();
+        Departamento conVersionVieja = TestDataFactory.crearDepartamento("Desarrollo Mobile");
+        conVersionVieja.setVersion(0L);
+
+        // When & Then
+        assertThatThrownBy(() -> departamentoService.actualizar(DEPARTAMENTO_DESARROLLO_ID, conVersionVieja))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
     @Test
     void eliminar_departamentoExistente_deberiaEliminarCorrectamente() {
         // Given - Usar departamento base existente
@@ -171,4 +225,98 @@ class DepartamentoServiceTest extends BaseIntegrationTest {
                 .isInstanceOf(DepartamentoNoEncontradoException.class)
                 .hasMessageContaining("Departamento no encontrado con ID: 999");
     }
+
+    @Test
+    void buscarPorId_segundaLectura_deberiaServirseDesdeCache() {
+        // Given - Primera lectura carga la caché
+        departamentoService.buscarPorId(DEPARTAMENTO_DESARROLLO_ID);
+        DepartamentoCache.Estadisticas antes = departamentoService.estadisticasCache();
+        jdbcTemplate.update("UPDATE departamentos SET descripcion = 'cambiada por fuera' WHERE id = ?",
+                DEPARTAMENTO_DESARROLLO_ID);
+
+        // When
+        Departamento encontrado = departamentoService.buscarPorId(DEPARTAMENTO_DESARROLLO_ID);
+
+        // Then - No vuelve a la base: conserva la descripción cacheada
+        assertThat(encontrado.getDescripcion()).isEqualTo("Descripción del departamento Desarrollo");
+        assertThat(departamentoService.estadisticasCache().aciertos()).isEqualTo(antes.aciertos() + 1);
+    }
+
+    @Test
+    void buscarPorNombre_primeraLectura_deberiaContarFallo() {
+        // Given
+        DepartamentoCache.Estadisticas antes = departamentoService.estadisticasCache();
+
+        // When
+        departamentoService.buscarPorNombre("Marketing");
+        departamentoService.buscarPorNombre("Marketing");
+
+        // Then
+        DepartamentoCache.Estadisticas despues = departamentoService.estadisticasCache();
+        assertThat(despues.fallos()).isEqualTo(antes.fallos() + 1);
+        assertThat(despues.aciertos()).isEqualTo(antes.aciertos() + 1);
+    }
+
+    @Test
+    void actualizar_conDepartamentoEnCache_deberiaInvalidarPorIdYPorNombre() {
+        // Given
+        departamentoService.buscarPorId(DEPARTAMENTO_DESARROLLO_ID);
+        departamentoService.buscarPorNombre("Desarrollo");
+
+        // When
+        departamentoService.actualizar(DEPARTAMENTO_DESARROLLO_ID, TestDataFactory.crearDepartamento("Ingeniería"));
+
+        // Then
+        assertThat(departamentoService.buscarPorId(DEPARTAMENTO_DESARROLLO_ID).getNombre()).isEqualTo("Ingeniería");
+        assertThatThrownBy(() -> departamentoService.buscarPorNombre("Desarrollo"))
+                .isInstanceOf(DepartamentoNoEncontradoException.class);
+    }
+
+    @Test
+    void guardar_conListaEnCache_deberiaInvalidarLista() {
+        // Given
+        assertThat(departamentoService.listarTodos()).hasSize(3);
+
+        // When
+        departamentoService.guardar(TestDataFactory.crearDepartamento("Finanzas"));
+
+        // Then
+        assertThat(departamentoService.listarTodos())
+                .extracting(DepartamentoDTO::nombre)
+                .contains("Finanzas")
+                .hasSize(4);
+    }
+
+    @Test
+    void eliminar_conDepartamentoEnCache_deberiaInvalidar() {
+        // Given
+        departamentoService.buscarPorNombre("Recursos Humanos");
+
+        // When
+        departamentoService.eliminar(DEPARTAMENTO_RRHH_ID);
+
+        // Then
+        assertThatThrownBy(() -> departamentoService.buscarPorNombre("Recursos Humanos"))
+                .isInstanceOf(DepartamentoNoEncontradoException.class);
+        assertThat(departamentoService.obtenerTodos()).hasSize(2);
+    }
+
+    @Test
+    void guardarEnCache_lecturaAnteriorAUnaInvalidacion_noDeberiaGuardarse() {
+        // Given - Una lectura toma la generación y lee la fila antes de que una escritura invalide la caché
+        long generacion = departamentoCache.generacion();
+        DepartamentoDTO leido = departamentoService.listarTodos().stream()
+                .filter(d -> d.id().equals(DEPARTAMENTO_DESARROLLO_ID))
+                .findFirst().orElseThrow();
+        departamentoCache.invalidar();
+
+        // When - La lectura termina después de la invalidación
+        departamentoCache.guardar(generacion, leido);
+        departamentoCache.guardarTodos(generacion, List.of(leido));
+
+        // Then
+        assertThat(departamentoCache.buscarPorId(DEPARTAMENTO_DESARROLLO_ID)).isEmpty();
+        assertThat(departamentoCache.buscarPorNombre("Desarrollo")).isEmpty();
+        assertThat(departamentoCache.obtenerTodos()).isEmpty();
+    }
 }
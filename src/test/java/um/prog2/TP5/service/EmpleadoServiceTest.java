@@ -1,16 +1,22 @@
 package um.prog2.TP5.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.PaginaCursor;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
 import um.prog2.TP5.exception.EmailDuplicadoException;
 import um.prog2.TP5.exception.EmpleadoNoEncontradoException;
 import um.prog2.TP5.test.base.BaseIntegrationTest;
 import um.prog2.TP5.testutil.TestDataFactory;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +31,12 @@ class EmpleadoServiceTest extends BaseIntegrationTest {
     @Autowired
     private EmpleadoService empleadoService;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EstadisticasSalarioService estadisticasSalarioService;
+
     @BeforeEach
     void configurarDatosBase() {
         // Crear empleados base conectados con departamentos y proyectos
@@ -68,6 +80,96 @@ class EmpleadoServiceTest extends BaseIntegrationTest {
                 .hasMessageContaining("El email ya está registrado: juan.perez@empresa.com");
     }
 
+    @Test
+    void guardarLote_empleadosValidos_deberiaGuardarTodosConId() {
+        // Given - Más empleados que el tamaño de batch para cubrir varios flush
+        Departamento departamento = new Departamento();
+        departamento.setId(DEPARTAMENTO_DESARROLLO_ID);
+        List<Empleado> lote = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            lote.add(TestDataFactory.crearEmpleado("Lote", "Empleado", "lote" + i + "@empresa.com",
+                                                   new BigDecimal("50000"), departamento));
+        }
+
+        // When
+        List<Empleado> guardados = empleadoService.guardarLote(lote);
+
+        // Then
+        assertThat(guardados)
+                .hasSize(120)
+                .allSatisfy(e -> assertThat(e.getId()).isNotNull());
+        assertThat(empleadoRepository.count()).isEqualTo(129); // 9 base + 120 del lote
+    }
+
+    @Test
+    void guardarLote_conEmailYaRegistrado_deberiaLanzarExcepcionSinGuardarNada() {
+        // Given
+        Departamento departamento = new Departamento();
+        departamento.setId(DEPARTAMENTO_DESARROLLO_ID);
+        List<Empleado> lote = List.of(
+                TestDataFactory.crearEmpleado("Nuevo", "Empleado", "nuevo@empresa.com", new BigDecimal("50000"), departamento),
+                TestDataFactory.crearEmpleado("Otro", "Empleado", "juan.perez@empresa.com", new BigDecimal("50000"), departamento));
+
+        // When & Then
+        assertThatThrownBy(() -> empleadoService.guardarLote(lote))
+                .isInstanceOf(EmailDuplicadoException.class)
+                .hasMessageContaining("juan.perez@empresa.com");
+        assertThat(empleadoRepository.count()).isEqualTo(9);
+    }
+
+    @Test
+    void guardarLote_conIdOVersion_deberiaLanzarExcepcionSinGuardarNada() {
+        // Given - Uno apunta a un empleado existente y otro trae solo la versión
+        Departamento departamento = new Departamento();
+        departamento.setId(DEPARTAMENTO_DESARROLLO_ID);
+        Empleado conId = TestDataFactory.crearEmpleado("Con", "Id", "con.id@empresa.com", new BigDecimal("50000"), departamento);
+        conId.setId(EMPLEADO_DESARROLLADOR_ID);
+        Empleado conVersion = TestDataFactory.crearEmpleado("Con", "Version", "con.version@empresa.com", new BigDecimal("50000"), departamento);
+        conVersion.setVersion(0L);
+        List<Empleado> lote = List.of(
+                TestDataFactory.crearEmpleado("Nuevo", "Empleado", "nuevo@empresa.com", new BigDecimal("50000"), departamento),
+                conId, conVersion);
+        long cantidadAntes = estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID).cantidad();
+
+        // When & Then
+        assertThatThrownBy(() -> empleadoService.guardarLote(lote))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("con.id@empresa.com, con.version@empresa.com");
+        assertThat(empleadoRepository.count()).isEqualTo(9);
+        assertThat(empleadoRepository.findById(EMPLEADO_DESARROLLADOR_ID)).get()
+                .extracting(Empleado::getEmail).isNotEqualTo("con.id@empresa.com");
+        assertThat(estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID).cantidad()).isEqualTo(cantidadAntes);
+    }
+
+    @Test
+    void guardarLote_conEmailRepetidoEnElLote_deberiaLanzarExcepcion() {
+        // Given
+        Departamento departamento = new Departamento();
+        departamento.setId(DEPARTAMENTO_DESARROLLO_ID);
+        List<Empleado> lote = List.of(
+                TestDataFactory.crearEmpleado("Uno", "Empleado", "repetido@empresa.com", new BigDecimal("50000"), departamento),
+                TestDataFactory.crearEmpleado("Dos", "Empleado", "repetido@empresa.com", new BigDecimal("50000"), departamento));
+
+        // When & Then
+        assertThatThrownBy(() -> empleadoService.guardarLote(lote))
+                .isInstanceOf(EmailDuplicadoException.class)
+                .hasMessageContaining("El lote contiene emails repetidos: repetido@empresa.com");
+    }
+
+    @Test
+    void guardarLote_conDepartamentoInexistente_deberiaLanzarExcepcion() {
+        // Given
+        Departamento inexistente = new Departamento();
+        inexistente.setId(999L);
+        List<Empleado> lote = List.of(
+                TestDataFactory.crearEmpleado("Nuevo", "Empleado", "nuevo@empresa.com", new BigDecimal("50000"), inexistente));
+
+        // When & Then
+        assertThatThrownBy(() -> empleadoService.guardarLote(lote))
+                .isInstanceOf(DepartamentoNoEncontradoException.class)
+                .hasMessageContaining("Departamentos no encontrados con ID: 999");
+    }
+
     @Test
     void buscarPorId_empleadoExistente_deberiaRetornarEmpleado() {
         // Given - Usar datos base en lugar de crear nuevos
@@ -109,6 +211,21 @@ class EmpleadoServiceTest extends BaseIntegrationTest {
                 .containsExactlyInAnyOrder("Juan", "María", "Carlos");
     }
 
+    @Test
+    void buscarPorDepartamento_deberiaTraerElDepartamentoEnLaMismaConsulta() {
+        // Given - Contexto de persistencia vacío para que nada esté precargado
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Empleado> empleadosDesarrollo = empleadoService.buscarPorDepartamento("Desarrollo");
+
+        // Then
+        assertThat(empleadosDesarrollo)
+                .hasSize(3)
+                .allSatisfy(e -> assertThat(Hibernate.isInitialized(e.getDepartamento())).isTrue());
+    }
+
     @Test
     void buscarPorDepartamento_departamentoSinEmpleados_deberiaRetornarListaVacia() {
         // When
@@ -176,6 +293,104 @@ class EmpleadoServiceTest extends BaseIntegrationTest {
                 .containsExactlyInAnyOrder("Juan", "María", "Carlos", "Ana", "Laura", "Diego", "Pedro", "Carmen", "Roberto");
     }
 
+    @Test
+    void obtenerPagina_recorriendoConCursor_deberiaRetornarTodosSinRepetir() {
+        // Given - Los datos base contienen 9 empleados
+
+        // When - Recorrer con páginas de 4
+        PaginaCursor<EmpleadoDTO> primera = empleadoService.obtenerPagina(null, 4);
+        PaginaCursor<EmpleadoDTO> segunda = empleadoService.obtenerPagina(primera.getSiguienteCursor(), 4);
+        PaginaCursor<EmpleadoDTO> tercera = empleadoService.obtenerPagina(segunda.getSiguienteCursor(), 4);
+
+        // Then
+        assertThat(primera.getContenido()).hasSize(4);
+        assertThat(segunda.getContenido()).hasSize(4);
+        assertThat(tercera.getContenido()).hasSize(1);
+        assertThat(tercera.getSiguienteCursor()).isNull();
+        assertThat(tercera.isHayMas()).isFalse();
+        assertThat(segunda.getContenido().get(0).id())
+                .isGreaterThan(primera.getContenido().get(3).id());
+    }
+
+    @Test
+    void obtenerPagina_conCursorInvalido_deberiaLanzarExcepcion() {
+        // When & Then
+        assertThatThrownBy(() -> empleadoService.obtenerPagina("no-es-un-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor inválido");
+    }
+
+    @Test
+    void obtenerPagina_conLimiteFueraDeRango_deberiaLanzarExcepcion() {
+        // When & Then
+        assertThatThrownBy(() -> empleadoService.obtenerPagina(null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("El límite debe estar entre 1 y");
+    }
+
+    @Test
+    void exportarTodos_deberiaEntregarCadaEmpleadoOrdenadoYDesasociado() {
+        // Given - Los datos base contienen 9 empleados
+        List<Empleado> recibidos = new ArrayList<>();
+
+        // When
+        long exportados = empleadoService.exportarTodos(recibidos::add);
+
+        // Then
+        assertThat(exportados).isEqualTo(9);
+        assertThat(recibidos)
+                .hasSize(9)
+                .extracting(Empleado::getId)
+                .isSorted();
+        assertThat(recibidos).allSatisfy(e -> {
+            assertThat(e.getDepartamento().getNombre()).isNotBlank();
+            assertThat(entityManager.contains(e)).isFalse();
+        });
+    }
+
+    @Test
+    void listarTodos_deberiaProyectarEmpleadosConSuDepartamento() {
+        // When
+        List<EmpleadoDTO> todos = empleadoService.listarTodos();
+
+        // Then
+        assertThat(todos)
+                .hasSize(9)
+                .extracting(EmpleadoDTO::id)
+                .isSorted();
+        assertThat(todos)
+                .filteredOn(e -> e.id().equals(EMPLEADO_DESARROLLADOR_ID))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.email()).isEqualTo("juan.perez@empresa.com");
+                    assertThat(e.departamento().id()).isEqualTo(DEPARTAMENTO_DESARROLLO_ID);
+                    assertThat(e.departamento().nombre()).isEqualTo("Desarrollo");
+                });
+    }
+
+    @Test
+    void listarPorDepartamento_deberiaRetornarSoloEmpleadosDelDepartamento() {
+        // When
+        List<EmpleadoDTO> empleados = empleadoService.listarPorDepartamento("Marketing");
+
+        // Then
+        assertThat(empleados)
+                .extracting(EmpleadoDTO::nombre)
+                .containsExactlyInAnyOrder("Ana", "Laura", "Diego");
+    }
+
+    @Test
+    void listarPorRangoSalario_deberiaRetornarEmpleadosEnRango() {
+        // When
+        List<EmpleadoDTO> empleados = empleadoService.listarPorRangoSalario(
+                new BigDecimal("60000"), new BigDecimal("80000"));
+
+        // Then
+        assertThat(empleados)
+                .extracting(EmpleadoDTO::nombre)
+                .containsExactlyInAnyOrder("Juan", "Ana", "Pedro", "Laura", "Carmen");
+    }
+
     @Test
     void actualizar_empleadoExistente_deberiaActualizarCorrectamente() {
         // Given - Usar empleado base existente
@@ -199,6 +414,26 @@ class EmpleadoServiceTest extends BaseIntegrationTest {
                 });
     }
 
+    @Test
+    void actualizar_departamentoReferenciadoSoloPorId_deberiaActualizarSinCambiarSuVersion() {
+        // Given - Como llega en el JSON de un PUT: {"departamento": {"id": ...}}
+        Empleado actual = empleadoRepository.findById(EMPLEADO_DESARROLLADOR_ID).orElseThrow();
+        Departamento soloId = new Departamento();
+        soloId.setId(DEPARTAMENTO_MARKETING_ID);
+        Empleado actualizado = TestDataFactory.crearEmpleado(actual.getNombre(), actual.getApellido(), actual.getEmail(),
+                                                            actual.getSalario(), soloId);
+        actualizado.setFechaContratacion(actual.getFechaContratacion());
+
+        // When
+        Empleado resultado = empleadoService.actualizar(EMPLEADO_DESARROLLADOR_ID, actualizado, 0L);
+        empleadoRepository.flush();
+
+        // Then
+        assertThat(resultado.getDepartamento().getId()).isEqualTo(DEPARTAMENTO_MARKETING_ID);
+        assertThat(resultado.getVersion()).isEqualTo(1L);
+        assertThat(departamentoRepository.findById(DEPARTAMENTO_MARKETING_ID).orElseThrow().getVersion()).isZero();
+    }
+
     @Test
     void actualizar_empleadoInexistente_deberieLanzarExcepcion() {
         // Given
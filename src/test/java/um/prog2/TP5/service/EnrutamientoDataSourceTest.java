@@ -0,0 +1,219 @@
+package um.prog2.TP5.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.prog2.TP5.config.DataSourceEnrutado;
+import um.prog2.TP5.config.DataSourceEnrutado.Destino;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del enrutamiento entre primaria y réplica con dos bases H2 independientes.
+ * Como no hay replicación entre ellas, un dato cargado por JDBC solo en la réplica permite
+ * saber de qué base leyó cada transacción. Igual que en {@link CacheSegundoNivelTest}, los tests
+ * no corren dentro de la transacción de {@link BaseIntegrationTest}: una transacción externa de
+ * escritura mandaría todo a la primaria. Las peticiones HTTP cubren además lo que pasa entre transacciones
+ * de una misma petición, que con open-in-view compartirían la conexión de la primera.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnrutamientoDataSourceTest extends BaseIntegrationTest {
+
+    private static final String SOLO_EN_REPLICA = "Solo en réplica";
+    private static final long PROYECTO_ID = 1000L;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private DataSourceEnrutado dataSourceEnrutado;
+
+    @Autowired
+    @Qualifier("dataSourceReplica")
+    private DataSource dataSourceReplica;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void configurarReplica() {
+        // En producción la réplica recibe el esquema por replicación; acá se migra aparte
+        Flyway.configure().dataSource(dataSourceReplica).locations("classpath:db/migration/h2").load().migrate();
+        replica = new JdbcTemplate(dataSourceReplica);
+        replica.update("INSERT INTO departamentos (nombre, descripcion) VALUES (?, ?)", SOLO_EN_REPLICA, "Cargado en la réplica");
+    }
+
+    @AfterEach
+    void limpiarReplica() {
+        replica.update("DELETE FROM proyectos");
+        replica.update("DELETE FROM departamentos");
+        limpiarBaseDeDatos();
+    }
+
+    @Test
+    void findByNombre_transaccionDeSoloLectura_deberiaLeerDeLaReplica() {
+        // Given
+        Map<Destino, Long> antes = dataSourceEnrutado.conexionesServidas();
+
+        // When
+        Departamento encontrado = leerDeSoloLectura(SOLO_EN_REPLICA);
+        Map<Destino, Long> despues = dataSourceEnrutado.conexionesServidas();
+
+        // Then
+        assertThat(encontrado.getDescripcion()).isEqualTo("Cargado en la réplica");
+        assertThat(despues.get(Destino.REPLICA)).isEqualTo(antes.get(Destino.REPLICA) + 1);
+        assertThat(despues.get(Destino.PRIMARIA)).isEqualTo(antes.get(Destino.PRIMARIA));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM departamentos WHERE nombre = ?",
+                Long.class, SOLO_EN_REPLICA)).isZero();
+    }
+
+    @Test
+    void buscarPorNombre_llenaLaCache_deberiaLeerDeLaPrimaria() {
+        // Given
+        Map<Destino, Long> antes = dataSourceEnrutado.conexionesServidas();
+
+        // When & Then - Lo que se lee queda en DepartamentoCache: no puede venir de una réplica atrasada
+        assertThatThrownBy(() -> departamentoService.buscarPorNombre(SOLO_EN_REPLICA))
+                .isInstanceOf(DepartamentoNoEncontradoException.class);
+        assertThat(dataSourceEnrutado.conexionesServidas().get(Destino.REPLICA)).isEqualTo(antes.get(Destino.REPLICA));
+    }
+
+    @Test
+    void listadosConEtag_deberianLeerDeLaPrimaria() throws Exception {
+        // Given - Un proyecto que solo está en la réplica
+        replica.update("INSERT INTO proyectos (id, nombre, fecha_inicio) VALUES (?, 'Solo en réplica', CURRENT_DATE)", PROYECTO_ID);
+        Map<Destino, Long> antes = dataSourceEnrutado.conexionesServidas();
+
+        // When & Then - El ETag sale del contador de escrituras, que la réplica puede no haber alcanzado
+        mockMvc.perform(get("/api/departamentos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].nombre", not(hasItem(SOLO_EN_REPLICA))));
+        mockMvc.perform(get("/api/proyectos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/proyectos/activos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        assertThat(dataSourceEnrutado.conexionesServidas().get(Destino.REPLICA)).isEqualTo(antes.get(Destino.REPLICA));
+    }
+
+    @Test
+    void guardar_transaccionDeEscritura_deberiaEscribirEnLaPrimaria() {
+        // Given
+        Map<Destino, Long> antes = dataSourceEnrutado.conexionesServidas();
+
+        // When
+        departamentoService.guardar(TestDataFactory.crearDepartamento("Finanzas"));
+        Map<Destino, Long> despues = dataSourceEnrutado.conexionesServidas();
+
+        // Then
+        assertThat(despues.get(Destino.PRIMARIA)).isGreaterThan(antes.get(Destino.PRIMARIA));
+        assertThat(despues.get(Destino.REPLICA)).isEqualTo(antes.get(Destino.REPLICA));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM departamentos WHERE nombre = 'Finanzas'", Long.class)).isOne();
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM departamentos WHERE nombre = 'Finanzas'", Long.class)).isZero();
+    }
+
+    @Test
+    void buscarPorNombre_dentroDeUnaTransaccionDeEscritura_deberiaLeerDeLaPrimaria() {
+        // When - La lectura se une a la transacción de escritura y ve lo recién guardado
+        Departamento encontrado = new TransactionTemplate(transactionManager).execute(status -> {
+            departamentoService.guardar(TestDataFactory.crearDepartamento("Finanzas"));
+            return departamentoService.buscarPorNombre("Finanzas");
+        });
+
+        // Then
+        assertThat(encontrado.getId()).isNotNull();
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> departamentoService.buscarPorNombre(SOLO_EN_REPLICA)))
+                .isInstanceOf(DepartamentoNoEncontradoException.class);
+    }
+
+    @Test
+    void asignarEmpleadosPorHttp_deberiaLeerYEscribirEnLaPrimaria() throws Exception {
+        // Given - El proyecto está en las dos bases, como si ya se hubiera replicado; los empleados solo en la primaria
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> crearEmpleadosBase());
+        String insertarProyecto = "INSERT INTO proyectos (id, nombre, fecha_inicio) VALUES (?, 'Migración', CURRENT_DATE)";
+        jdbcTemplate.update(insertarProyecto, PROYECTO_ID);
+        replica.update(insertarProyecto, PROYECTO_ID);
+        Map<Destino, Long> antes = dataSourceEnrutado.conexionesServidas();
+
+        // When - El proyecto se carga dentro de la transacción de escritura
+        mockMvc.perform(post("/api/proyectos/{id}/asignar-empleados", PROYECTO_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"empleadosIds\": [%d, %d]}".formatted(EMPLEADO_DESARROLLADOR_ID, EMPLEADO_SENIOR_ID)))
+                .andExpect(status().isOk());
+        Map<Destino, Long> despues = dataSourceEnrutado.conexionesServidas();
+
+        // Then
+        assertThat(despues.get(Destino.REPLICA)).isEqualTo(antes.get(Destino.REPLICA));
+        assertThat(despues.get(Destino.PRIMARIA)).isGreaterThan(antes.get(Destino.PRIMARIA));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM empleado_proyecto WHERE proyecto_id = ?",
+                Long.class, PROYECTO_ID)).isEqualTo(2);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM empleado_proyecto", Long.class)).isZero();
+    }
+
+    @Test
+    void conexionesServidas_deberianPublicarseEnMicrometerPorDestino() {
+        // Given
+        double antes = conexionesPublicadas("replica");
+
+        // When
+        leerDeSoloLectura(SOLO_EN_REPLICA);
+
+        // Then
+        assertThat(conexionesPublicadas("replica")).isEqualTo(antes + 1);
+        assertThat(conexionesPublicadas("primaria"))
+                .isEqualTo(dataSourceEnrutado.conexionesServidas().get(Destino.PRIMARIA).doubleValue());
+    }
+
+    private Departamento leerDeSoloLectura(String nombre) {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        return soloLectura.execute(status -> departamentoRepository.findByNombre(nombre).orElseThrow());
+    }
+
+    private double conexionesPublicadas(String destino) {
+        return meterRegistry.get("datasource.enrutamiento.conexiones").tag("destino", destino).functionCounter().count();
+    }
+}
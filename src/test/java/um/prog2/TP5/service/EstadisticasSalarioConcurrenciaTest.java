@@ -0,0 +1,137 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.repository.EstadisticasSalarioDepartamentoRepository;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escrituras concurrentes sobre las filas de agregados: altas en un departamento que todavía no tiene fila
+ * y traslados en sentidos opuestos entre dos departamentos. Cada hilo usa su propia transacción confirmada,
+ * así que estos tests no corren dentro de la transacción con rollback de {@link BaseIntegrationTest}.
+ */
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EstadisticasSalarioConcurrenciaTest extends BaseIntegrationTest {
+
+    private static final int REPETICIONES = 20;
+
+    @Autowired
+    private EstadisticasSalarioService estadisticasSalarioService;
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private EstadisticasSalarioDepartamentoRepository estadisticasRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService hilos;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        // Desarrollo: Junior (45000), Desarrollador (75000), Senior (95000)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> crearEmpleadosBase());
+        hilos = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void limpiarDatosConfirmados() throws InterruptedException {
+        hilos.shutdownNow();
+        hilos.awaitTermination(10, TimeUnit.SECONDS);
+        limpiarBaseDeDatos();
+    }
+
+    @Test
+    void registrarAltas_concurrentesSinFila_deberianCrearlaUnaVezYSumarAmbas() throws Exception {
+        for (int i = 0; i < REPETICIONES; i++) {
+            // Given
+            estadisticasRepository.deleteAll();
+            CyclicBarrier largada = new CyclicBarrier(2);
+
+            // When
+            List<Future<?>> altas = List.of(
+                    hilos.submit(() -> registrarAlta(largada, "10000")),
+                    hilos.submit(() -> registrarAlta(largada, "20000")));
+            for (Future<?> alta : altas) {
+                alta.get(30, TimeUnit.SECONDS);
+            }
+
+            // Then
+            assertThat(estadisticasRepository.findById(DEPARTAMENTO_DESARROLLO_ID)).get()
+                    .satisfies(e -> {
+                        assertThat(e.getCantidad()).isEqualTo(5);
+                        assertThat(e.getSumaSalarios()).isEqualByComparingTo("245000");
+                        assertThat(e.getSalarioMinimo()).isEqualByComparingTo("10000");
+                    });
+        }
+    }
+
+    @Test
+    void actualizar_trasladosEnSentidosOpuestos_noDeberianBloquearseEntreSi() throws Exception {
+        // Given - Desarrollo y Marketing tienen tres empleados cada uno y ya tienen su fila de agregados
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> List.of(
+                DEPARTAMENTO_DESARROLLO_ID, DEPARTAMENTO_MARKETING_ID).forEach(departamentoId -> estadisticasRepository.save(
+                empleadoRepository.calcularEstadisticasSalario(departamentoId).orElseThrow())));
+        Long desdeDesarrollo = EMPLEADO_JUNIOR_ID;
+        Long desdeMarketing = EMPLEADO_MARKETING_ID;
+
+        for (int i = 0; i < REPETICIONES; i++) {
+            CyclicBarrier largada = new CyclicBarrier(2);
+
+            // When - Uno pasa de Desarrollo a Marketing y el otro al revés, al mismo tiempo
+            List<Future<?>> traslados = List.of(
+                    hilos.submit(() -> trasladar(largada, desdeDesarrollo)),
+                    hilos.submit(() -> trasladar(largada, desdeMarketing)));
+            for (Future<?> traslado : traslados) {
+                traslado.get(30, TimeUnit.SECONDS);
+            }
+
+            // Then
+            for (Long departamentoId : List.of(DEPARTAMENTO_DESARROLLO_ID, DEPARTAMENTO_MARKETING_ID)) {
+                assertThat(estadisticasRepository.findById(departamentoId)).get()
+                        .satisfies(e -> {
+                            assertThat(e.getCantidad()).isEqualTo(3);
+                            assertThat(e.getSumaSalarios()).isEqualByComparingTo(jdbcTemplate.queryForObject(
+                                    "SELECT SUM(salario) FROM empleados WHERE departamento_id = ?",
+                                    BigDecimal.class, departamentoId));
+                        });
+            }
+        }
+    }
+
+    private Void trasladar(CyclicBarrier largada, Long empleadoId) throws Exception {
+        Empleado empleado = empleadoService.buscarPorId(empleadoId);
+        Long destino = empleado.getDepartamento().getId().equals(DEPARTAMENTO_DESARROLLO_ID)
+                ? DEPARTAMENTO_MARKETING_ID
+                : DEPARTAMENTO_DESARROLLO_ID;
+        empleado.setDepartamento(departamentoRepository.findById(destino).orElseThrow());
+        largada.await(10, TimeUnit.SECONDS);
+        empleadoService.actualizar(empleadoId, empleado, null);
+        return null;
+    }
+
+    private Void registrarAlta(CyclicBarrier largada, String salario) throws Exception {
+        largada.await(10, TimeUnit.SECONDS);
+        estadisticasSalarioService.registrarAltas(DEPARTAMENTO_DESARROLLO_ID, List.of(new BigDecimal(salario)));
+        return null;
+    }
+}
@@ -0,0 +1,205 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import um.prog2.TP5.dto.DistribucionSalariosDTO;
+import um.prog2.TP5.dto.SalariosDepartamentoDTO;
+import um.prog2.TP5.entity.Departamento;
+import um.prog2.TP5.entity.Empleado;
+import um.prog2.TP5.entity.EstadisticasSalarioDepartamento;
+import um.prog2.TP5.exception.DepartamentoNoEncontradoException;
+import um.prog2.TP5.repository.EstadisticasSalarioDepartamentoRepository;
+import um.prog2.TP5.test.base.BaseIntegrationTest;
+import um.prog2.TP5.testutil.TestDataFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests de integración para EstadisticasSalarioService.
+ * Las escrituras pasan por EmpleadoService y se verifica que la fila de agregados
+ * coincida con un recálculo completo sobre la tabla de empleados.
+ */
+class EstadisticasSalarioServiceTest extends BaseIntegrationTest {
+
+    @Autowired
+    private EstadisticasSalarioService estadisticasSalarioService;
+
+    @Autowired
+    private EmpleadoService empleadoService;
+
+    @Autowired
+    private DepartamentoService departamentoService;
+
+    @Autowired
+    private EstadisticasSalarioDepartamentoRepository estadisticasRepository;
+
+    @BeforeEach
+    void configurarDatosBase() {
+        // Desarrollo: Junior (45000), Desarrollador (75000), Senior (95000)
+        crearEmpleadosBase();
+    }
+
+    @Test
+    void obtenerResumen_sinFilaDeAgregados_deberiaCalcularAlVuelo() {
+        // When
+        SalariosDepartamentoDTO resumen = estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID);
+
+        // Then
+        assertThat(resumen.cantidad()).isEqualTo(3);
+        assertThat(resumen.total()).isEqualByComparingTo("215000");
+        assertThat(resumen.promedio()).isEqualByComparingTo("71666.67");
+        assertThat(resumen.minimo()).isEqualByComparingTo("45000");
+        assertThat(resumen.maximo()).isEqualByComparingTo("95000");
+        assertThat(estadisticasRepository.findById(DEPARTAMENTO_DESARROLLO_ID)).isEmpty();
+    }
+
+    @Test
+    void obtenerResumen_departamentoInexistente_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> estadisticasSalarioService.obtenerResumen(999L))
+                .isInstanceOf(DepartamentoNoEncontradoException.class)
+                .hasMessageContaining("Departamento no encontrado con ID: 999");
+    }
+
+    @Test
+    void validarEmpleado_deberiaPersistirAgregadosIncluyendoAlNuevo() {
+        // When
+        empleadoService.validarEmpleado(nuevoEmpleado("alta@empresa.com", "30000", DEPARTAMENTO_DESARROLLO_ID));
+
+        // Then
+        EstadisticasSalarioDepartamento estadisticas = estadisticasRepository.findById(DEPARTAMENTO_DESARROLLO_ID).orElseThrow();
+        assertThat(estadisticas.getCantidad()).isEqualTo(4);
+        assertThat(estadisticas.getSalarioMinimo()).isEqualByComparingTo("30000");
+        assertThatCoincideConRecalculo(DEPARTAMENTO_DESARROLLO_ID);
+    }
+
+    @Test
+    void guardarLote_deberiaAcumularPorDepartamento() {
+        // When
+        empleadoService.guardarLote(List.of(
+                nuevoEmpleado("lote1@empresa.com", "100000", DEPARTAMENTO_DESARROLLO_ID),
+                nuevoEmpleado("lote2@empresa.com", "20000", DEPARTAMENTO_MARKETING_ID),
+                nuevoEmpleado("lote3@empresa.com", "50000", DEPARTAMENTO_DESARROLLO_ID)));
+
+        // Then
+        assertThat(estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID).maximo()).isEqualByComparingTo("100000");
+        assertThatCoincideConRecalculo(DEPARTAMENTO_DESARROLLO_ID);
+        assertThatCoincideConRecalculo(DEPARTAMENTO_MARKETING_ID);
+    }
+
+    @Test
+    void eliminar_empleadoConSalarioMaximo_deberiaRecalcularMaximo() {
+        // Given - La primera escritura deja la fila persistida
+        empleadoService.validarEmpleado(nuevoEmpleado("extra@empresa.com", "60000", DEPARTAMENTO_DESARROLLO_ID));
+
+        // When
+        empleadoService.eliminar(EMPLEADO_SENIOR_ID);
+
+        // Then
+        assertThat(estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID).maximo()).isEqualByComparingTo("75000");
+        assertThatCoincideConRecalculo(DEPARTAMENTO_DESARROLLO_ID);
+    }
+
+    @Test
+    void eliminar_empleadoIntermedio_deberiaDescontarSinCambiarExtremos() {
+        // When
+        empleadoService.eliminar(EMPLEADO_DESARROLLADOR_ID);
+
+        // Then
+        SalariosDepartamentoDTO resumen = estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID);
+        assertThat(resumen.cantidad()).isEqualTo(2);
+        assertThat(resumen.promedio()).isEqualByComparingTo("70000");
+        assertThatCoincideConRecalculo(DEPARTAMENTO_DESARROLLO_ID);
+    }
+
+    @Test
+    void actualizar_cambioDeDepartamento_deberiaMoverElSalario() {
+        // Given
+        Empleado cambios = empleadoService.buscarPorId(EMPLEADO_JUNIOR_ID);
+        Empleado actualizado = TestDataFactory.crearEmpleado(cambios.getNombre(), cambios.getApellido(), cambios.getEmail(),
+                new BigDecimal("47000"), departamentoRepository.findById(DEPARTAMENTO_MARKETING_ID).orElseThrow());
+        actualizado.setFechaContratacion(cambios.getFechaContratacion());
+
+        // When
+        empleadoService.actualizar(EMPLEADO_JUNIOR_ID, actualizado);
+
+        // Then
+        assertThat(estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_DESARROLLO_ID).cantidad()).isEqualTo(2);
+        assertThat(estadisticasSalarioService.obtenerResumen(DEPARTAMENTO_MARKETING_ID).cantidad()).isEqualTo(4);
+        assertThatCoincideConRecalculo(DEPARTAMENTO_DESARROLLO_ID);
+        assertThatCoincideConRecalculo(DEPARTAMENTO_MARKETING_ID);
+    }
+
+    @Test
+    void guardarDepartamento_deberiaCrearAgregadosVacios() {
+        // When
+        Departamento guardado = departamentoService.guardar(TestDataFactory.crearDepartamento("Finanzas"));
+
+        // Then
+        SalariosDepartamentoDTO resumen = estadisticasSalarioService.obtenerResumen(guardado.getId());
+        assertThat(resumen.cantidad()).isZero();
+        assertThat(resumen.promedio()).isNull();
+        assertThat(estadisticasRepository.findById(guardado.getId())).isPresent();
+    }
+
+    @Test
+    void obtenerDistribucion_conEmpleados_deberiaCalcularEstadisticasYPercentiles() {
+        // When
+        DistribucionSalariosDTO distribucion = estadisticasSalarioService.obtenerDistribucion(DEPARTAMENTO_DESARROLLO_ID, 5);
+
+        // Then
+        assertThat(distribucion.cantidad()).isEqualTo(3);
+        assertThat(distribucion.promedio()).isEqualByComparingTo("71666.67");
+        assertThat(distribucion.desviacionEstandar()).isEqualByComparingTo("20548.05");
+        assertThat(distribucion.minimo()).isEqualByComparingTo("45000");
+        assertThat(distribucion.maximo()).isEqualByComparingTo("95000");
+        assertThat(distribucion.p50()).isCloseTo(new BigDecimal("75000"), within(new BigDecimal("750")));
+        assertThat(distribucion.p99()).isCloseTo(new BigDecimal("75000"), within(new BigDecimal("750")));
+        assertThat(distribucion.histograma())
+                .hasSize(5)
+                .extracting(DistribucionSalariosDTO.Intervalo::cantidad)
+                .containsExactly(1L, 0L, 0L, 1L, 1L);
+    }
+
+    @Test
+    void obtenerDistribucion_departamentoSinEmpleados_deberiaRetornarVacia() {
+        // Given
+        Long vacioId = departamentoRepository.save(TestDataFactory.crearDepartamento("Vacío")).getId();
+
+        // When
+        DistribucionSalariosDTO distribucion = estadisticasSalarioService.obtenerDistribucion(vacioId, 10);
+
+        // Then
+        assertThat(distribucion.cantidad()).isZero();
+        assertThat(distribucion.p50()).isNull();
+        assertThat(distribucion.histograma()).isEmpty();
+    }
+
+    @Test
+    void obtenerDistribucion_conIntervalosFueraDeRango_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> estadisticasSalarioService.obtenerDistribucion(DEPARTAMENTO_DESARROLLO_ID, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("entre 1 y 100");
+        assertThatThrownBy(() -> estadisticasSalarioService.obtenerDistribucion(999L, 10))
+                .isInstanceOf(DepartamentoNoEncontradoException.class);
+    }
+
+    private Empleado nuevoEmpleado(String email, String salario, Long departamentoId) {
+        Departamento departamento = departamentoRepository.findById(departamentoId).orElseThrow();
+        return TestDataFactory.crearEmpleado("Nuevo", "Empleado", email, new BigDecimal(salario), departamento);
+    }
+
+    private void assertThatCoincideConRecalculo(Long departamentoId) {
+        EstadisticasSalarioDepartamento persistidas = estadisticasRepository.findById(departamentoId).orElseThrow();
+        EstadisticasSalarioDepartamento recalculadas = empleadoRepository.calcularEstadisticasSalario(departamentoId).orElseThrow();
+        assertThat(persistidas.getCantidad()).isEqualTo(recalculadas.getCantidad());
+        assertThat(persistidas.getSumaSalarios()).isEqualByComparingTo(recalculadas.getSumaSalarios());
+        assertThat(persistidas.getSalarioMinimo()).isEqualByComparingTo(recalculadas.getSalarioMinimo());
+        assertThat(persistidas.getSalarioMaximo()).isEqualByComparingTo(recalculadas.getSalarioMaximo());
+    }
+}
@@ -0,0 +1,86 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios del índice invertido con nombres, apellidos y emails como los de la tabla de empleados.
+ */
+class IndiceInvertidoTest {
+
+    private IndiceInvertido indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceInvertido();
+        indice.indexar(1L, "María José", "García Núñez", "maria.garcia@empresa.com");
+        indice.indexar(2L, "Mario", "Gómez", "mario.gomez@empresa.com");
+        indice.indexar(3L, "Ana", "Muñoz", "ana.munoz@empresa.com");
+        indice.indexar(4L, "Garcilaso", "Vega", "garcilaso.vega@empresa.com");
+    }
+
+    @Test
+    void buscar_deberiaIgnorarMayusculasYAcentos() {
+        assertThat(indice.buscar("GARCÍA", 10)).containsExactly(1L);
+        assertThat(indice.buscar("nunez", 10)).containsExactly(1L);
+        assertThat(indice.buscar("Muñoz", 10)).containsExactly(3L);
+        assertThat(indice.buscar("MUNOZ", 10)).containsExactly(3L);
+    }
+
+    @Test
+    void buscar_conPrefijo_deberiaOrdenarPrimeroLasPalabrasCompletas() {
+        // "mari" es prefijo de maría y de mario; "garcia" es palabra completa solo para el empleado 1
+        assertThat(indice.buscar("mari", 10)).containsExactly(1L, 2L);
+        assertThat(indice.buscar("garci", 10)).containsExactly(1L, 4L);
+        assertThat(indice.buscar("garcilaso", 10)).containsExactly(4L);
+        assertThat(indice.buscar("garcia", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void buscar_conVariasPalabras_deberiaExigirlasTodas() {
+        assertThat(indice.buscar("mar gom", 10)).containsExactly(2L);
+        assertThat(indice.buscar("ana garcia", 10)).isEmpty();
+        assertThat(indice.buscar("empresa.com", 10)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(indice.buscar("empresa", 2)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void buscar_sinPalabras_deberiaDevolverVacio() {
+        assertThat(indice.buscar("  .,; ", 10)).isEmpty();
+        assertThat(indice.buscar("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    void indexar_deberiaReemplazarLosTerminosAnteriores() {
+        // When
+        indice.indexar(2L, "Mario", "Pérez", "mario.perez@empresa.com");
+
+        // Then
+        assertThat(indice.buscar("gomez", 10)).isEmpty();
+        assertThat(indice.buscar("perez", 10)).containsExactly(2L);
+        assertThat(indice.getDocumentos()).isEqualTo(4);
+    }
+
+    @Test
+    void eliminar_deberiaQuitarElDocumentoYSusTerminosHuerfanos() {
+        // Given
+        int terminosAntes = indice.getTerminos();
+
+        // When
+        indice.eliminar(3L);
+
+        // Then
+        assertThat(indice.buscar("ana", 10)).isEmpty();
+        assertThat(indice.getDocumentos()).isEqualTo(3);
+        // ana y munoz eran solo del empleado 3; empresa y com siguen en uso
+        assertThat(indice.getTerminos()).isEqualTo(terminosAntes - 2);
+    }
+
+    @Test
+    void terminos_deberiaSepararEmailYNormalizar() {
+        assertThat(IndiceInvertido.terminos("José.Ñandú-Peña@Empresa.com"))
+                .containsExactly("jose", "nandu", "pena", "empresa", "com");
+    }
+}
@@ -0,0 +1,96 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitarios del índice de trigramas y de la distancia de edición acotada.
+ */
+class IndiceTrigramasTest {
+
+    private IndiceTrigramas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTrigramas();
+        indice.indexar(1L, "Pedro Rodríguez", "pedro.rodriguez@empresa.com");
+        indice.indexar(2L, "María García", "maria.garcia@empresa.com");
+        indice.indexar(3L, "Iñaki Ibáñez", "inaki.ibanez@empresa.com");
+        indice.indexar(4L, "Rodrigo Díaz", "rodrigo.diaz@empresa.com");
+    }
+
+    @Test
+    void buscar_deberiaTolerarErroresDeTipeoYAcentos() {
+        assertThat(indice.buscar("rodrigez", 10)).first().isEqualTo(new IndiceTrigramas.Coincidencia(1L, 1));
+        assertThat(indice.buscar("Ibañes", 10)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(3L);
+        assertThat(indice.buscar("maria garica", 10)).containsExactly(new IndiceTrigramas.Coincidencia(2L, 1));
+        assertThat(indice.buscar("RODRIGUEZ", 10)).containsExactly(new IndiceTrigramas.Coincidencia(1L, 0));
+    }
+
+    @Test
+    void buscar_conTransposicionEnPalabraCorta_deberiaEncontrarla() {
+        // Given - Una transposición cambia cuatro de los seis trigramas de "lopez"
+        indice.indexar(5L, "Carlos López", "carlos.lopez@empresa.com");
+
+        // When & Then
+        assertThat(indice.buscar("lpoez", 10)).containsExactly(new IndiceTrigramas.Coincidencia(5L, 1));
+        assertThat(indice.buscar("mraia", 10)).containsExactly(new IndiceTrigramas.Coincidencia(2L, 1));
+    }
+
+    @Test
+    void buscar_deberiaEncontrarEmailsParecidos() {
+        assertThat(indice.buscar("mgarcia@empresa.com", 10)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(2L);
+        assertThat(indice.buscar("pedro.rodrigues@empresa.com", 10)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(1L);
+    }
+
+    @Test
+    void buscar_conTrigramasQueTieneTodoElIndice_deberiaEncontrarPorLosSelectivos() {
+        // Given - Más documentos que DOCUMENTOS_POR_SONDA con el mismo dominio y la misma primera palabra
+        for (long id = 100; id < 100 + 2 * IndiceTrigramas.DOCUMENTOS_POR_SONDA; id++) {
+            indice.indexar(id, "Empleado Número" + id, "empleado" + id + "@empresa.com");
+        }
+
+        // When & Then
+        assertThat(indice.buscar("mraia.garcia@empresa.com", 10)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(2L);
+        assertThat(indice.buscar("empleado1234@empresa.con", 10)).first().isEqualTo(new IndiceTrigramas.Coincidencia(1234L, 1));
+        assertThat(indice.buscar("rodrigez", 10)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void buscar_deberiaOrdenarPorDistanciaYRespetarElLimite() {
+        // Given - "rodrigez" está a 1 de Rodríguez y a 2 de Rodrigo
+        assertThat(indice.buscar("rodrigez", 10)).containsExactly(
+                new IndiceTrigramas.Coincidencia(1L, 1), new IndiceTrigramas.Coincidencia(4L, 2));
+        assertThat(indice.buscar("rodrigez", 1)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(1L);
+    }
+
+    @Test
+    void buscar_fueraDeTolerancia_deberiaDevolverVacio() {
+        assertThat(indice.buscar("rdrgz", 10)).isEmpty();
+        assertThat(indice.buscar("gomez", 10)).isEmpty();
+        assertThat(indice.buscar(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void indexarYEliminar_deberianActualizarElIndice() {
+        // When
+        indice.indexar(2L, "María Gómez", "maria.gomez@empresa.com");
+        indice.eliminar(3L);
+
+        // Then
+        assertThat(indice.buscar("maria garcia", 10)).isEmpty();
+        assertThat(indice.buscar("gomes", 10)).extracting(IndiceTrigramas.Coincidencia::id).containsExactly(2L);
+        assertThat(indice.buscar("ibanez", 10)).isEmpty();
+        assertThat(indice.getDocumentos()).isEqualTo(3);
+    }
+
+    @Test
+    void distancia_deberiaContarTransposicionesComoUnaEdicion() {
+        assertThat(IndiceTrigramas.distancia("garcia", "gracia", 3)).isEqualTo(1);
+        assertThat(IndiceTrigramas.distancia("perez", "peres", 3)).isEqualTo(1);
+        assertThat(IndiceTrigramas.distancia("lopez", "lopez", 3)).isZero();
+        assertThat(IndiceTrigramas.distancia("martinez", "mrtnz", 2)).isEqualTo(3);
+    }
+}
@@ -3,7 +3,11 @@ package um.prog2.TP5.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
+import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.entity.Proyecto;
+import um.prog2.TP5.exception.EmpleadoNoEncontradoException;
 import um.prog2.TP5.exception.ProyectoNoEncontradoException;
 import um.prog2.TP5.test.base.BaseIntegrationTest;
 import um.prog2.TP5.testutil.TestDataFactory;
@@ -150,4 +154,108 @@ class ProyectoServiceTest extends BaseIntegrationTest {
                 .isInstanceOf(ProyectoNoEncontradoException.class)
                 .hasMessageContaining("Proyecto no encontrado con ID: 999");
     }
+
+    @Test
+    void asignarEmpleados_conEmpleadosExistentes_deberiaReemplazarSoloLasDiferencias() {
+        // Given - El proyecto activo tiene: Desarrollador, Senior, Junior, Marketing Senior y RRHH Senior
+        crearEmpleadosConProyectos();
+
+        // When - Se mantiene a Senior y Junior, se agrega Marketing y se quitan los demás
+        Proyecto resultado = proyectoService.asignarEmpleados(PROYECTO_ACTIVO_ID,
+                List.of(EMPLEADO_SENIOR_ID, EMPLEADO_JUNIOR_ID, EMPLEADO_MARKETING_ID, EMPLEADO_JUNIOR_ID));
+        proyectoRepository.flush();
+
+        // Then
+        assertThat(resultado.getEmpleados())
+                .extracting(Empleado::getId)
+                .containsExactlyInAnyOrder(EMPLEADO_SENIOR_ID, EMPLEADO_JUNIOR_ID, EMPLEADO_MARKETING_ID);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT empleado_id FROM empleado_proyecto WHERE proyecto_id = ?", Long.class, PROYECTO_ACTIVO_ID))
+                .containsExactlyInAnyOrder(EMPLEADO_SENIOR_ID, EMPLEADO_JUNIOR_ID, EMPLEADO_MARKETING_ID);
+        // Las membresías en otros proyectos no se modifican
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM empleado_proyecto WHERE proyecto_id <> ?", Long.class, PROYECTO_ACTIVO_ID))
+                .isEqualTo(5L);
+    }
+
+    @Test
+    void versionListado_deberiaCambiarConCadaEscrituraYNoConLecturas() {
+        // Given
+        crearEmpleadosConProyectos();
+        String inicial = proyectoService.versionListado();
+        proyectoService.listarTodos();
+        proyectoService.listarProyectosActivos();
+        assertThat(proyectoService.versionListado()).isEqualTo(inicial);
+
+        // When
+        proyectoService.asignarEmpleados(PROYECTO_ACTIVO_ID, List.of(EMPLEADO_SENIOR_ID));
+        String trasAsignar = proyectoService.versionListado();
+        proyectoService.eliminar(PROYECTO_FINALIZADO_ID);
+
+        // Then
+        assertThat(trasAsignar).isNotEqualTo(inicial);
+        assertThat(proyectoService.versionListado()).isNotEqualTo(trasAsignar);
+    }
+
+    @Test
+    void asignarEmpleados_conEmpleadosInexistentes_deberiaListarTodosLosFaltantes() {
+        // Given
+        crearEmpleadosBase();
+
+        // When & Then
+        assertThatThrownBy(() -> proyectoService.asignarEmpleados(PROYECTO_ACTIVO_ID,
+                List.of(EMPLEADO_SENIOR_ID, 998L, 999L)))
+                .isInstanceOf(EmpleadoNoEncontradoException.class)
+                .hasMessage("Empleados no encontrados con ID: 998, 999");
+    }
+
+    @Test
+    void obtenerEmpleadosDelProyecto_deberiaRetornarMiembrosConSuDepartamento() {
+        // Given - El proyecto sin fin tiene: Desarrollador, Senior y Marketing
+        crearEmpleadosConProyectos();
+
+        // When
+        List<EmpleadoDTO> empleados = proyectoService.obtenerEmpleadosDelProyecto(PROYECTO_SIN_FIN_ID);
+
+        // Then
+        assertThat(empleados)
+                .extracting(EmpleadoDTO::id)
+                .containsExactlyInAnyOrder(EMPLEADO_DESARROLLADOR_ID, EMPLEADO_SENIOR_ID, EMPLEADO_MARKETING_ID);
+        assertThat(empleados).allSatisfy(e -> assertThat(e.departamento().nombre()).isNotBlank());
+    }
+
+    @Test
+    void listarProyectosActivos_deberiaProyectarSoloLosActivos() {
+        // When
+        List<ProyectoDTO> activos = proyectoService.listarProyectosActivos();
+
+        // Then
+        assertThat(activos)
+                .extracting(ProyectoDTO::id)
+                .containsExactly(PROYECTO_ACTIVO_ID, PROYECTO_SIN_FIN_ID);
+        assertThat(activos).allSatisfy(p -> assertThat(p.activo()).isTrue());
+    }
+
+    @Test
+    void listarTodos_deberiaProyectarTodosLosProyectos() {
+        // When
+        List<ProyectoDTO> todos = proyectoService.listarTodos();
+
+        // Then
+        assertThat(todos)
+                .extracting(ProyectoDTO::nombre)
+                .containsExactly("Proyecto Base Activo", "Proyecto Base Finalizado", "Proyecto Base Sin Fin");
+        assertThat(todos)
+                .filteredOn(p -> p.id().equals(PROYECTO_FINALIZADO_ID))
+                .singleElement()
+                .satisfies(p -> assertThat(p.activo()).isFalse());
+    }
+
+    @Test
+    void obtenerEmpleadosDelProyecto_proyectoInexistente_deberieLanzarExcepcion() {
+        // When & Then
+        assertThatThrownBy(() -> proyectoService.obtenerEmpleadosDelProyecto(999L))
+                .isInstanceOf(ProyectoNoEncontradoException.class)
+                .hasMessageContaining("Proyecto no encontrado con ID: 999");
+    }
 }
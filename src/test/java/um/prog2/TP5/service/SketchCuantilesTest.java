@@ -0,0 +1,129 @@
+package um.prog2.TP5.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests unitarios de SketchCuantiles contra los valores exactos calculados ordenando los datos.
+ */
+class SketchCuantilesTest {
+
+    private static final double PRECISION = 0.01;
+
+    @Test
+    void cuantil_conDistribucionSesgada_deberiaRespetarErrorRelativo() {
+        // Given - Salarios log-normales, como suele verse en una empresa real
+        Random random = new Random(42);
+        double[] valores = new double[100_000];
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION);
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = Math.exp(11 + 0.5 * random.nextGaussian());
+            sketch.agregar(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        // When & Then
+        for (double q : new double[]{0.0, 0.5, 0.9, 0.99, 1.0}) {
+            double exacto = valores[(int) Math.floor(q * (valores.length - 1))];
+            assertThat(sketch.cuantil(q)).isCloseTo(exacto, within(exacto * PRECISION));
+        }
+        assertThat(sketch.getCantidad()).isEqualTo(valores.length);
+        assertThat(sketch.getMinimo()).isEqualTo(valores[0]);
+        assertThat(sketch.getMaximo()).isEqualTo(valores[valores.length - 1]);
+    }
+
+    @Test
+    void mediaYDesviacion_deberianSerExactas() {
+        // Given
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION);
+        for (double valor : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            sketch.agregar(valor);
+        }
+
+        // Then
+        assertThat(sketch.getMedia()).isEqualTo(5.0);
+        assertThat(sketch.getDesviacionEstandar()).isCloseTo(2.0, within(1e-12));
+    }
+
+    @Test
+    void combinar_deberiaEquivalerAAgregarTodoEnUnSoloSketch() {
+        // Given
+        Random random = new Random(7);
+        SketchCuantiles completo = new SketchCuantiles(PRECISION);
+        SketchCuantiles parteA = new SketchCuantiles(PRECISION);
+        SketchCuantiles parteB = new SketchCuantiles(PRECISION);
+        for (int i = 0; i < 10_000; i++) {
+            double valor = 1_000 + random.nextDouble() * (i % 2 == 0 ? 50_000 : 500_000);
+            completo.agregar(valor);
+            (i % 2 == 0 ? parteA : parteB).agregar(valor);
+        }
+
+        // When
+        parteA.combinar(parteB);
+
+        // Then
+        assertThat(parteA.getCantidad()).isEqualTo(completo.getCantidad());
+        assertThat(parteA.getMedia()).isCloseTo(completo.getMedia(), within(1e-6));
+        assertThat(parteA.getDesviacionEstandar()).isCloseTo(completo.getDesviacionEstandar(), within(1e-6));
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            assertThat(parteA.cuantil(q)).isEqualTo(completo.cuantil(q));
+        }
+    }
+
+    @Test
+    void combinar_conPrecisionDistinta_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> new SketchCuantiles(0.01).combinar(new SketchCuantiles(0.05)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void histograma_deberiaCubrirDeMinimoAMaximoConTodosLosValores() {
+        // Given
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION);
+        for (int i = 1; i <= 1_000; i++) {
+            sketch.agregar(i * 100.0);
+        }
+
+        // When
+        List<SketchCuantiles.Intervalo> histograma = sketch.histograma(10);
+
+        // Then
+        assertThat(histograma).hasSize(10);
+        assertThat(histograma.get(0).desde()).isEqualTo(100.0);
+        assertThat(histograma.get(9).hasta()).isEqualTo(100_000.0);
+        assertThat(histograma.stream().mapToLong(SketchCuantiles.Intervalo::cantidad).sum()).isEqualTo(1_000);
+        assertThat(histograma).allSatisfy(i -> assertThat(i.cantidad()).isBetween(90L, 110L));
+    }
+
+    @Test
+    void histograma_conUnSoloValor_deberiaUsarUnIntervalo() {
+        // Given
+        SketchCuantiles sketch = new SketchCuantiles(PRECISION);
+        sketch.agregar(50_000);
+        sketch.agregar(50_000);
+
+        // Then
+        assertThat(sketch.histograma(5).get(0).cantidad()).isEqualTo(2);
+        assertThat(sketch.cuantil(0.5)).isEqualTo(50_000);
+    }
+
+    @Test
+    void cuantil_sketchVacio_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> new SketchCuantiles(PRECISION).cuantil(0.5))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(new SketchCuantiles(PRECISION).histograma(10)).isEmpty();
+    }
+
+    @Test
+    void agregar_valorNegativo_deberiaLanzarExcepcion() {
+        assertThatThrownBy(() -> new SketchCuantiles(PRECISION).agregar(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
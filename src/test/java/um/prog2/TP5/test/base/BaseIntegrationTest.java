@@ -1,5 +1,6 @@
 package um.prog2.TP5.test.base;
 
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -12,6 +13,7 @@ import um.prog2.TP5.entity.Proyecto;
 import um.prog2.TP5.repository.DepartamentoRepository;
 import um.prog2.TP5.repository.EmpleadoRepository;
 import um.prog2.TP5.repository.ProyectoRepository;
+import um.prog2.TP5.service.DepartamentoCache;
 import um.prog2.TP5.testutil.TestDataFactory;
 
 /**
@@ -35,6 +37,12 @@ public abstract class BaseIntegrationTest {
     @Autowired
     protected EmpleadoRepository empleadoRepository;
 
+    @Autowired
+    protected DepartamentoCache departamentoCache;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
     // IDs predecibles para los datos base - Proyectos
     protected Long PROYECTO_ACTIVO_ID;
     protected Long PROYECTO_FINALIZADO_ID;
@@ -57,12 +65,17 @@ public abstract class BaseIntegrationTest {
     protected Long EMPLEADO_RRHH_JUNIOR_ID;
 
     @BeforeEach
-    void limpiarBaseDeDatos() {
+    protected void limpiarBaseDeDatos() {
         // Limpieza selectiva - orden importante por foreign keys
         jdbcTemplate.execute("DELETE FROM empleado_proyecto"); // Tabla de relación ManyToMany
         jdbcTemplate.execute("DELETE FROM empleados");
         jdbcTemplate.execute("DELETE FROM proyectos");
         jdbcTemplate.execute("DELETE FROM departamentos");
+        jdbcTemplate.execute("DELETE FROM estadisticas_salario_departamento");
+
+        // La limpieza por JDBC no pasa por el servicio ni por Hibernate, así que las cachés no se enteran solas
+        departamentoCache.invalidar();
+        entityManagerFactory.getCache().evictAll();
 
         // No es necesario reiniciar secuencias en H2 con @Transactional
         // H2 usa AUTO_INCREMENT y los tests hacen rollback automático
@@ -1,5 +1,8 @@
 package um.prog2.TP5.testutil;
 
+import um.prog2.TP5.dto.DepartamentoDTO;
+import um.prog2.TP5.dto.EmpleadoDTO;
+import um.prog2.TP5.dto.ProyectoDTO;
 import um.prog2.TP5.entity.Departamento;
 import um.prog2.TP5.entity.Empleado;
 import um.prog2.TP5.entity.Proyecto;
@@ -144,4 +147,22 @@ public class TestDataFactory {
         empleado.setFechaContratacion(LocalDate.now().minusMonths(3)); // RRHH Junior
         return empleado;
     }
+
+    // Métodos para DTOs de lectura (espejo de las entidades)
+    public static DepartamentoDTO crearDepartamentoDTO(Departamento departamento) {
+        return new DepartamentoDTO(departamento.getId(), departamento.getNombre(), departamento.getDescripcion(),
+                departamento.getVersion());
+    }
+
+    public static EmpleadoDTO crearEmpleadoDTO(Empleado empleado) {
+        return new EmpleadoDTO(empleado.getId(), empleado.getNombre(), empleado.getApellido(), empleado.getEmail(),
+                empleado.getFechaContratacion(), empleado.getSalario(),
+                empleado.getDepartamento() == null ? null : crearDepartamentoDTO(empleado.getDepartamento()),
+                empleado.getVersion());
+    }
+
+    public static ProyectoDTO crearProyectoDTO(Proyecto proyecto) {
+        return new ProyectoDTO(proyecto.getId(), proyecto.getNombre(), proyecto.getDescripcion(),
+                proyecto.getFechaInicio(), proyecto.getFechaFin(), proyecto.getVersion());
+    }
 }